@@ -19,12 +19,14 @@ package com.twosigma.webtau.browser.expectation;
 import com.twosigma.webtau.expectation.timer.ExpectationTimer;
 import com.twosigma.webtau.time.Time;
 
+import java.util.concurrent.TimeUnit;
+
 public class SystemTimeExpectationTimer implements ExpectationTimer {
-    private long startTime;
+    private long startNanos;
 
     @Override
     public void start() {
-        startTime = Time.currentTimeMillis();
+        startNanos = Time.nanoTime();
     }
 
     @Override
@@ -38,6 +40,6 @@ public class SystemTimeExpectationTimer implements ExpectationTimer {
 
     @Override
     public boolean hasTimedOut(long millis) {
-        return (Time.currentTimeMillis() - startTime) > millis;
+        return TimeUnit.NANOSECONDS.toMillis(Time.nanoTime() - startNanos) > millis;
     }
 }
@@ -24,6 +24,7 @@ import com.twosigma.webtau.expectation.ExpectationHandler;
 import com.twosigma.webtau.expectation.ExpectationHandlers;
 import com.twosigma.webtau.reporter.StepReportOptions;
 import com.twosigma.webtau.reporter.TestStep;
+import com.twosigma.webtau.time.Time;
 import com.twosigma.webtau.utils.CollectionUtils;
 
 import java.util.Map;
@@ -99,9 +100,10 @@ public class Cli {
                                 ProcessEnv env,
                                 Consumer<CliValidationResult> validationCode) {
         try {
-            long startTime = System.currentTimeMillis();
+            long startTime = Time.currentTimeMillis();
+            long startNanos = Time.nanoTime();
             ProcessRunResult runResult = ProcessUtils.run(command, env.getEnv());
-            long endTime = System.currentTimeMillis();
+            long elapsedTimeMicros = Time.microsSince(startNanos);
 
             if (runResult.getErrorReadingException() != null) {
                 throw runResult.getErrorReadingException();
@@ -115,7 +117,7 @@ public class Cli {
             validationResult.setOut(cliOutput(runResult));
             validationResult.setErr(cliError(runResult));
             validationResult.setStartTime(startTime);
-            validationResult.setElapsedTime(endTime - startTime);
+            validationResult.setElapsedTimeMicros(elapsedTimeMicros);
 
             ExpectationHandler recordAndThrowHandler = (valueMatcher, actualPath, actualValue, message) -> {
                 validationResult.addMismatch(message);
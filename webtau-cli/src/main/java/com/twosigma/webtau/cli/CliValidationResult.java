@@ -29,7 +29,7 @@ public class CliValidationResult implements TestStepPayload {
     private CliOutput out;
     private CliOutput err;
     private long startTime;
-    private long elapsedTime;
+    private long elapsedTimeMicros;
 
     private String errorMessage;
 
@@ -75,11 +75,19 @@ public class CliValidationResult implements TestStepPayload {
     }
 
     public long getElapsedTime() {
-        return elapsedTime;
+        return elapsedTimeMicros / 1000;
     }
 
     public void setElapsedTime(long elapsedTime) {
-        this.elapsedTime = elapsedTime;
+        this.elapsedTimeMicros = elapsedTime * 1000;
+    }
+
+    public long getElapsedTimeMicros() {
+        return elapsedTimeMicros;
+    }
+
+    public void setElapsedTimeMicros(long elapsedTimeMicros) {
+        this.elapsedTimeMicros = elapsedTimeMicros;
     }
 
     public String getErrorMessage() {
@@ -108,7 +116,8 @@ public class CliValidationResult implements TestStepPayload {
         result.put("outMatches", out != null ? out.extractMatchedLines() : Collections.emptyList());
         result.put("errMatches", err != null ? err.extractMatchedLines() : Collections.emptyList());
         result.put("startTime", startTime);
-        result.put("elapsedTime", elapsedTime);
+        result.put("elapsedTime", getElapsedTime());
+        result.put("elapsedTimeMicros", elapsedTimeMicros);
         result.put("mismatches", mismatches);
         result.put("errorMessage", errorMessage);
 
@@ -140,6 +140,10 @@ public class ConfigValue {
         return (List<T>) getAsObject();
     }
 
+    public <K, V> Map<K, V> getAsMap() {
+        return (Map<K, V>) getAsObject();
+    }
+
     @Override
     public String toString() {
         return key + ": " + values.stream().map(Value::toString).collect(Collectors.joining(", "));
@@ -19,6 +19,7 @@ package com.twosigma.webtau.cfg;
 import com.twosigma.webtau.console.ConsoleOutputs;
 import com.twosigma.webtau.console.ansi.Color;
 import com.twosigma.webtau.console.ansi.FontStyle;
+import com.twosigma.webtau.utils.JsonUtils;
 import com.twosigma.webtau.utils.ServiceLoaderUtils;
 import com.twosigma.webtau.utils.StringUtils;
 
@@ -46,8 +47,65 @@ public class WebTauConfig {
     private final ConfigValue verbosityLevel = declare("verbosityLevel", "output verbosity level. " +
             "0 - no output; 1 - test names; 2 - first level steps; etc", () -> Integer.MAX_VALUE);
     private final ConfigValue waitTimeout = declare("waitTimeout", "wait timeout in milliseconds", () -> 5000);
+    private final ConfigValue parallelMaxThreads = declare("parallelMaxThreads",
+            "max number of parallel blocks executed at the same time, the rest wait for a free thread", () -> 16);
     private final ConfigValue disableFollowingRedirects = declareBoolean("disableRedirects", "disable following of redirects from HTTP calls");
     private final ConfigValue maxRedirects = declare("maxRedirects", "Maximum number of redirects to follow for an HTTP call", () -> 20);
+    private final ConfigValue httpTransport = declare("httpTransport", "HTTP transport to use: " +
+            "pooled - keep-alive connection pool; urlConnection - a new HttpURLConnection per call; " +
+            "http2 - HTTP/2 client, requires webtau-http2 module and java 11+", () -> "pooled");
+    private final ConfigValue http2Urls = declare("http2Urls", "base urls to call using HTTP/2 transport " +
+            "(requires webtau-http2 module and java 11+), other urls use httpTransport", Collections::emptyList);
+    private final ConfigValue httpRateLimits = declare("httpRateLimits", "client side limits per host (e.g. localhost:8080) " +
+            "or url prefix (e.g. http://localhost:8080/api): [requestsPerSecond: 10, burst: 5, maxInFlight: 4]",
+            Collections::emptyMap);
+    private final ConfigValue httpConnectTimeout = declare("httpConnectTimeout", "HTTP connect timeout in milliseconds. " +
+            "0 - no timeout", () -> 30000);
+    private final ConfigValue httpReadTimeout = declare("httpReadTimeout", "HTTP read timeout in milliseconds. " +
+            "0 - no timeout", () -> 0);
+    private final ConfigValue httpMaxConnectionsPerHost = declare("httpMaxConnectionsPerHost",
+            "max number of simultaneously open HTTP connections per host", () -> 20);
+    private final ConfigValue httpIdleConnectionTimeout = declare("httpIdleConnectionTimeout",
+            "time in milliseconds after which an idle pooled HTTP connection is closed", () -> 30000);
+    private final ConfigValue httpAsyncThreads = declare("httpAsyncThreads",
+            "number of threads to execute http.async calls", () -> 16);
+    private final ConfigValue httpLazyBodySize = declare("httpLazyBodySize",
+            "JSON response size in bytes starting from which body nodes are created on first access", () -> 1_000_000);
+    private final ConfigValue httpJsonSpillSize = declare("httpJsonSpillSize",
+            "JSON response size in bytes starting from which content is stored in a temp file " +
+                    "and parsed from it", () -> 10_000_000);
+    private final ConfigValue httpBinarySpillSize = declare("httpBinarySpillSize",
+            "binary response size in bytes starting from which content is stored in a temp file " +
+                    "and accessed through a memory mapped buffer", () -> 5_000_000);
+    private final ConfigValue httpRenderMaxLines = declare("httpRenderMaxLines",
+            "max number of response body lines printed to the console", () -> 1000);
+    private final ConfigValue httpRenderMaxArrayElements = declare("httpRenderMaxArrayElements",
+            "max number of array elements printed to the console, the rest is reported as ... N more", () -> 100);
+    private final ConfigValue httpRenderMaxStringWidth = declare("httpRenderMaxStringWidth",
+            "max number of characters of a single response value printed to the console", () -> 500);
+    private final ConfigValue httpRenderAsync = declareBoolean("httpRenderAsync",
+            "print response bodies to the console from a background thread");
+    private final ConfigValue httpBodyRetention = declare("httpBodyRetention", "how request and response bodies " +
+            "are kept for the report: full; failedOnly - only bodies of failed calls; truncate - cut bodies to " +
+            "httpBodyRetentionSize; sidecar - store larger bodies in files next to the report", () -> "full");
+    private final ConfigValue httpBodyRetentionSize = declare("httpBodyRetentionSize",
+            "body size in UTF-8 bytes used by truncate and sidecar body retention", () -> 65536);
+    private final ConfigValue httpRecordReplay = declare("httpRecordReplay", "HTTP record/replay mode: " +
+            "off; record - store every response in the cassette; replay - only use stored responses; " +
+            "record-missing - replay stored responses and record the rest", () -> "off");
+    private final ConfigValue httpCassettePath = declare("httpCassettePath",
+            "directory of recorded HTTP responses used by httpRecordReplay", () -> Paths.get("webtau-cassettes"));
+    private final ConfigValue httpAcceptEncoding = declare("httpAcceptEncoding",
+            "Accept-Encoding header to send: auto - every encoding webtau can decode " +
+                    "(gzip, deflate, br when org.brotli:dec is on the classpath); empty - don't send the header",
+            () -> "auto");
+    private final ConfigValue httpRequestGzipSize = declare("httpRequestGzipSize",
+            "request body size in bytes starting from which body is sent gzip compressed. 0 - never compress", () -> 0);
+    private final ConfigValue httpCache = declareBoolean("httpCache",
+            "cache GET responses on the client side following Cache-Control max-age and revalidating with ETag/Last-Modified");
+    private final ConfigValue httpCacheMaxEntries = declare("httpCacheMaxEntries",
+            "max number of responses kept by http cache and by http.cached calls, least recently used are evicted first",
+            () -> 1000);
     private final ConfigValue userAgent = declare("userAgent", "User agent to send on HTTP requests",
             () -> "webtau/" + WebTauMeta.getVersion());
     private final ConfigValue removeWebtauFromUserAgent = declare("removeWebtauFromUserAgent",
@@ -180,6 +238,10 @@ public class WebTauConfig {
         return waitTimeout.getAsInt();
     }
 
+    public int getParallelMaxThreads() {
+        return parallelMaxThreads.getAsInt();
+    }
+
     public boolean shouldFollowRedirects() {
         return !disableFollowingRedirects.getAsBoolean();
     }
@@ -188,6 +250,135 @@ public class WebTauConfig {
         return maxRedirects.getAsInt();
     }
 
+    public String getHttpTransport() {
+        return httpTransport.getAsString();
+    }
+
+    /**
+     * @return limits per target, JSON object is accepted when passed as a system property or env variable
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, ?> getHttpRateLimits() {
+        Object value = httpRateLimits.getAsObject();
+        if (value instanceof Map) {
+            return (Map<String, ?>) value;
+        }
+
+        if (value instanceof String) {
+            return parseHttpRateLimits((String) value);
+        }
+
+        throw new IllegalArgumentException(httpRateLimits.getKey() + " must be a map or a JSON object, given: " + value);
+    }
+
+    private Map<String, ?> parseHttpRateLimits(String value) {
+        if (value.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            return JsonUtils.deserializeAsMap(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(httpRateLimits.getKey() + " must be a JSON object, " +
+                    "e.g. {\"localhost:8080\": {\"requestsPerSecond\": 10}}, given: " + value, e);
+        }
+    }
+
+    /**
+     * @return base urls, comma separated value is accepted when passed as a system property or env variable
+     */
+    public List<String> getHttp2Urls() {
+        Object value = http2Urls.getAsObject();
+        if (value instanceof String) {
+            return Arrays.stream(((String) value).split(","))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .collect(Collectors.toList());
+        }
+
+        return http2Urls.getAsList();
+    }
+
+    public int getHttpConnectTimeout() {
+        return httpConnectTimeout.getAsInt();
+    }
+
+    public int getHttpReadTimeout() {
+        return httpReadTimeout.getAsInt();
+    }
+
+    public int getHttpMaxConnectionsPerHost() {
+        return httpMaxConnectionsPerHost.getAsInt();
+    }
+
+    public int getHttpIdleConnectionTimeout() {
+        return httpIdleConnectionTimeout.getAsInt();
+    }
+
+    public int getHttpAsyncThreads() {
+        return httpAsyncThreads.getAsInt();
+    }
+
+    public int getHttpLazyBodySize() {
+        return httpLazyBodySize.getAsInt();
+    }
+
+    public int getHttpJsonSpillSize() {
+        return httpJsonSpillSize.getAsInt();
+    }
+
+    public int getHttpRenderMaxLines() {
+        return httpRenderMaxLines.getAsInt();
+    }
+
+    public int getHttpRenderMaxArrayElements() {
+        return httpRenderMaxArrayElements.getAsInt();
+    }
+
+    public int getHttpRenderMaxStringWidth() {
+        return httpRenderMaxStringWidth.getAsInt();
+    }
+
+    public boolean isHttpRenderAsync() {
+        return httpRenderAsync.getAsBoolean();
+    }
+
+    public String getHttpBodyRetention() {
+        return httpBodyRetention.getAsString();
+    }
+
+    public int getHttpBodyRetentionSize() {
+        return httpBodyRetentionSize.getAsInt();
+    }
+
+    public int getHttpBinarySpillSize() {
+        return httpBinarySpillSize.getAsInt();
+    }
+
+    public String getHttpRecordReplay() {
+        return httpRecordReplay.getAsString();
+    }
+
+    public Path getHttpCassettePath() {
+        return getWorkingDir().resolve(httpCassettePath.getAsPath());
+    }
+
+    public String getHttpAcceptEncoding() {
+        return httpAcceptEncoding.getAsString();
+    }
+
+    public int getHttpRequestGzipSize() {
+        return httpRequestGzipSize.getAsInt();
+    }
+
+    public boolean isHttpCacheEnabled() {
+        return httpCache.getAsBoolean();
+    }
+
+    public int getHttpCacheMaxEntries() {
+        return httpCacheMaxEntries.getAsInt();
+    }
+
     public String getUserAgent() {
         if (userAgent.isDefault()) {
             return userAgent.getAsString();
@@ -350,8 +541,32 @@ public class WebTauConfig {
                 verbosityLevel,
                 workingDir,
                 waitTimeout,
+                parallelMaxThreads,
                 disableFollowingRedirects,
                 maxRedirects,
+                httpTransport,
+                http2Urls,
+                httpRateLimits,
+                httpConnectTimeout,
+                httpReadTimeout,
+                httpMaxConnectionsPerHost,
+                httpIdleConnectionTimeout,
+                httpAsyncThreads,
+                httpLazyBodySize,
+                httpJsonSpillSize,
+                httpBinarySpillSize,
+                httpRenderMaxLines,
+                httpRenderMaxArrayElements,
+                httpRenderMaxStringWidth,
+                httpRenderAsync,
+                httpBodyRetention,
+                httpBodyRetentionSize,
+                httpRecordReplay,
+                httpCassettePath,
+                httpAcceptEncoding,
+                httpRequestGzipSize,
+                httpCache,
+                httpCacheMaxEntries,
                 userAgent,
                 removeWebtauFromUserAgent,
                 docPath,
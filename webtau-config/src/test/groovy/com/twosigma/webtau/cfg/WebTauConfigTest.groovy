@@ -18,6 +18,9 @@ package com.twosigma.webtau.cfg
 
 import org.junit.Test
 
+import static com.twosigma.webtau.Ddjt.code
+import static com.twosigma.webtau.Ddjt.throwException
+
 class WebTauConfigTest {
     @Test
     void "inits config values from env vars and overrides them from system properties"() {
@@ -51,6 +54,32 @@ class WebTauConfigTest {
         cfg.get('customConfig').should == 'default config value'
     }
 
+    @Test
+    void "parses http rate limits passed as a string"() {
+        WebTauConfig cfg = new WebTauConfig()
+
+        cfg.httpRateLimits.set("env var", '{"localhost:8080": {"requestsPerSecond": 10}}')
+        cfg.getHttpRateLimits().should == ['localhost:8080': [requestsPerSecond: 10]]
+
+        cfg.httpRateLimits.set("env var", '')
+        cfg.getHttpRateLimits().should == [:]
+    }
+
+    @Test
+    void "reports http rate limits of unsupported type"() {
+        WebTauConfig cfg = new WebTauConfig()
+
+        cfg.httpRateLimits.set("env var", 'localhost:10')
+        code {
+            cfg.getHttpRateLimits()
+        } should throwException(IllegalArgumentException, ~/httpRateLimits must be a JSON object/)
+
+        cfg.httpRateLimits.set("manual", 10)
+        code {
+            cfg.getHttpRateLimits()
+        } should throwException(IllegalArgumentException, ~/httpRateLimits must be a map or a JSON object, given: 10/)
+    }
+
     @Test
     void "convert uppercase underscore to property name"() {
         WebTauConfig.convertToCamelCase('WEBTAU_NAME').should == 'name'
@@ -20,20 +20,78 @@ import com.twosigma.webtau.console.ansi.AnsiConsoleOutput;
 import com.twosigma.webtau.utils.ServiceLoaderUtils;
 
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 public class ConsoleOutputs {
     private static final ConsoleOutput defaultOutput = new AnsiConsoleOutput();
 
-    private static final List<ConsoleOutput> outputs = ServiceLoaderUtils.load(ConsoleOutput.class);
+    private static final List<ConsoleOutput> outputs =
+            new CopyOnWriteArrayList<>(ServiceLoaderUtils.load(ConsoleOutput.class));
+
+    private static final ThreadLocal<Boolean> isConsoleThread = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final AtomicInteger pendingAsync = new AtomicInteger();
+    private static final ExecutorService asyncExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(() -> {
+            isConsoleThread.set(true);
+            r.run();
+        }, "webtau-console");
+        thread.setDaemon(true);
+
+        return thread;
+    });
 
     public static void out(Object... styleOrValues) {
-        getOutputsStream().forEach(o -> o.out(styleOrValues));
+        if (shouldQueue()) {
+            async(() -> out(styleOrValues));
+        } else {
+            getOutputsStream().forEach(o -> o.out(styleOrValues));
+        }
     }
 
     public static void err(Object... styleOrValues) {
-        getOutputsStream().forEach(o -> o.err(styleOrValues));
+        if (shouldQueue()) {
+            async(() -> err(styleOrValues));
+        } else {
+            getOutputsStream().forEach(o -> o.err(styleOrValues));
+        }
+    }
+
+    /**
+     * runs output producing code on a background console thread.
+     * While there is queued output, regular output is queued as well, so the order of lines is preserved.
+     * @param output code that prints using {@link #out(Object...)} or {@link #err(Object...)}
+     */
+    public static void async(Runnable output) {
+        pendingAsync.incrementAndGet();
+        asyncExecutor.execute(() -> {
+            try {
+                output.run();
+            } finally {
+                pendingAsync.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * waits for all the queued output to be printed
+     */
+    public static void flush() {
+        if (isConsoleThread.get() || pendingAsync.get() == 0) {
+            return;
+        }
+
+        try {
+            asyncExecutor.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     public static void add(ConsoleOutput consoleOutput) {
@@ -44,6 +102,10 @@ public class ConsoleOutputs {
         outputs.remove(consoleOutput);
     }
 
+    private static boolean shouldQueue() {
+        return !isConsoleThread.get() && pendingAsync.get() > 0;
+    }
+
     private static Stream<ConsoleOutput> getOutputsStream() {
         if (outputs.isEmpty()) {
             return Stream.of(defaultOutput);
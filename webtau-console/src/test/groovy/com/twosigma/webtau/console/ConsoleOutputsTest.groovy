@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.console
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import java.util.concurrent.CountDownLatch
+
+class ConsoleOutputsTest {
+    def capture = new CaptureOutput()
+
+    @Before
+    void addCapture() {
+        ConsoleOutputs.add(capture)
+    }
+
+    @After
+    void removeCapture() {
+        ConsoleOutputs.remove(capture)
+    }
+
+    @Test
+    void "should keep order of regular output queued after async output"() {
+        def release = new CountDownLatch(1)
+
+        ConsoleOutputs.out('line1')
+        ConsoleOutputs.async {
+            release.await()
+            ConsoleOutputs.out('line2')
+        }
+        ConsoleOutputs.out('line3')
+
+        assert capture.lines == ['line1']
+
+        release.countDown()
+        ConsoleOutputs.flush()
+
+        assert capture.lines == ['line1', 'line2', 'line3']
+    }
+
+    private static class CaptureOutput implements ConsoleOutput {
+        List<String> lines = Collections.synchronizedList([])
+
+        @Override
+        void out(Object... styleOrValues) {
+            lines.add(styleOrValues.join(''))
+        }
+
+        @Override
+        void err(Object... styleOrValues) {
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.concurrency;
+
+import com.twosigma.webtau.reporter.StepReportOptions;
+import com.twosigma.webtau.reporter.TestStep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.action;
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.id;
+import static com.twosigma.webtau.reporter.TokenizedMessage.tokenizedMessage;
+
+/**
+ * Executes blocks of code simultaneously, each block is reported as a separate step of a common parent step.
+ * Blocks inherit the current step, local handlers and local reporters of the calling thread.
+ */
+public class ParallelBlocks {
+    public static final int DEFAULT_MAX_THREADS = 16;
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private ParallelBlocks() {
+    }
+
+    /**
+     * @param blocks blocks to execute
+     * @return values returned by blocks in the order of blocks
+     */
+    public static List<Object> execute(List<? extends Supplier<?>> blocks) {
+        return execute(blocks, DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * @param blocks blocks to execute
+     * @param maxThreads max number of blocks to execute at the same time, the rest wait for a free thread
+     * @return values returned by blocks in the order of blocks
+     */
+    public static List<Object> execute(List<? extends Supplier<?>> blocks, int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("max number of threads must be positive: " + maxThreads);
+        }
+
+        String numberOfBlocks = String.valueOf(blocks.size());
+        TestStep<Void, List<Object>> step = TestStep.createStep(null,
+                tokenizedMessage(action("executing"), id(numberOfBlocks), action("blocks in parallel")),
+                () -> tokenizedMessage(action("executed"), id(numberOfBlocks), action("blocks in parallel")),
+                () -> executeBlocks(blocks, maxThreads));
+
+        return step.execute(StepReportOptions.REPORT_ALL);
+    }
+
+    private static List<Object> executeBlocks(List<? extends Supplier<?>> blocks, int maxThreads) {
+        if (blocks.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // steps are created upfront on the calling thread to keep blocks order in the report
+        List<TestStep<Void, ?>> blockSteps = new ArrayList<>();
+        TestStep<?, ?> parentStep = TestStep.getCurrentStep();
+        for (int idx = 0; idx < blocks.size(); idx++) {
+            String blockNumber = "#" + (idx + 1);
+            blockSteps.add(TestStep.createStep(null,
+                    tokenizedMessage(action("executing parallel block"), id(blockNumber)),
+                    () -> tokenizedMessage(action("executed parallel block"), id(blockNumber)),
+                    blocks.get(idx)));
+            TestStep.setCurrentStep(parentStep);
+        }
+
+        ThreadContext context = ThreadContext.capture();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(blocks.size(), maxThreads), runnable -> {
+            Thread thread = new Thread(runnable, "webtau-parallel-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (TestStep<Void, ?> blockStep : blockSteps) {
+                futures.add(executor.submit(() -> context.runWith(() -> {
+                    TestStep.setCurrentStep(blockStep);
+                    return (Object) blockStep.execute(StepReportOptions.REPORT_ALL);
+                })));
+            }
+
+            return waitForAll(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Object> waitForAll(List<Future<Object>> futures) {
+        List<Object> results = new ArrayList<>();
+        Throwable firstFailure = null;
+
+        for (Future<Object> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                results.add(null);
+
+                if (firstFailure == null) {
+                    firstFailure = e.getCause();
+                } else {
+                    firstFailure.addSuppressed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted while waiting for parallel blocks", e);
+            }
+        }
+
+        if (firstFailure instanceof RuntimeException) {
+            throw (RuntimeException) firstFailure;
+        }
+
+        if (firstFailure instanceof Error) {
+            throw (Error) firstFailure;
+        }
+
+        if (firstFailure != null) {
+            throw new RuntimeException(firstFailure);
+        }
+
+        return results;
+    }
+}
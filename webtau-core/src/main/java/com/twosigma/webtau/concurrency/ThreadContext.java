@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.concurrency;
+
+import com.twosigma.webtau.expectation.ExpectationHandlers;
+import com.twosigma.webtau.reporter.StepReporters;
+import com.twosigma.webtau.reporter.TestStep;
+import com.twosigma.webtau.utils.ServiceLoaderUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Snapshot of the current step and thread local handlers.
+ * Capture it on the calling thread and run code with it on a worker thread,
+ * so steps and validations of that code end up in the caller's scenario.
+ */
+public class ThreadContext {
+    private static final List<ThreadContextPropagator<?>> propagators = createPropagators();
+
+    private final List<Object> states;
+
+    public static ThreadContext capture() {
+        List<Object> states = new ArrayList<>(propagators.size());
+        propagators.forEach(p -> states.add(p.capture()));
+
+        return new ThreadContext(states);
+    }
+
+    private ThreadContext(List<Object> states) {
+        this.states = states;
+    }
+
+    public <R> R runWith(Supplier<R> code) {
+        List<Object> previousStates = install(states);
+        try {
+            return code.get();
+        } finally {
+            install(previousStates);
+        }
+    }
+
+    public void runWith(Runnable code) {
+        runWith(() -> {
+            code.run();
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> install(List<Object> states) {
+        List<Object> previousStates = new ArrayList<>(states.size());
+        for (int idx = 0; idx < propagators.size(); idx++) {
+            ThreadContextPropagator<Object> propagator = (ThreadContextPropagator<Object>) propagators.get(idx);
+            previousStates.add(propagator.install(states.get(idx)));
+        }
+
+        return previousStates;
+    }
+
+    private static List<ThreadContextPropagator<?>> createPropagators() {
+        List<ThreadContextPropagator<?>> result = new ArrayList<>();
+        result.add(propagator(TestStep::getCurrentStep, TestStep::setCurrentStep));
+        result.add(propagator(StepReporters::getLocalReporters, StepReporters::setLocalReporters));
+        result.add(propagator(ExpectationHandlers::getLocalHandlers, ExpectationHandlers::setLocalHandlers));
+        ServiceLoaderUtils.load(ThreadContextPropagator.class).forEach(result::add);
+
+        return result;
+    }
+
+    private static <S> ThreadContextPropagator<S> propagator(Supplier<S> capture, UnaryOperator<S> install) {
+        return new ThreadContextPropagator<S>() {
+            @Override
+            public S capture() {
+                return capture.get();
+            }
+
+            @Override
+            public S install(S state) {
+                return install.apply(state);
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.concurrency;
+
+/**
+ * Transfers thread local state (e.g. local handlers) to a thread that continues the work of another thread.
+ * Additional propagators are discovered using service loader.
+ * @param <S> type of the captured state
+ */
+public interface ThreadContextPropagator<S> {
+    /**
+     * @return state of the current thread
+     */
+    S capture();
+
+    /**
+     * @param state state to install on the current thread
+     * @return previous state of the current thread to install back once work is done
+     */
+    S install(S state);
+}
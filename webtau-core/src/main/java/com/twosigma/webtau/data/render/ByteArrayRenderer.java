@@ -16,11 +16,19 @@
 
 package com.twosigma.webtau.data.render;
 
+import java.nio.ByteBuffer;
+
 public class ByteArrayRenderer implements DataRenderer {
     @Override
     public String render(Object data) {
-        return data.getClass().equals(byte[].class) ?
-                "binary content of size " + ((byte[])data).length:
-                null;
+        if (data.getClass().equals(byte[].class)) {
+            return "binary content of size " + ((byte[]) data).length;
+        }
+
+        if (data instanceof ByteBuffer) {
+            return "binary content of size " + ((ByteBuffer) data).remaining();
+        }
+
+        return null;
     }
 }
@@ -24,10 +24,23 @@ public class TraceableValue {
 
     private CheckLevel checkLevel;
     private final Object value;
+    private final int ordinal;
+    private final CheckLevelListener listener;
 
     public TraceableValue(Object value) {
+        this(value, -1, null);
+    }
+
+    /**
+     * @param value value to trace
+     * @param ordinal value ordinal passed to the listener
+     * @param listener listener to notify when check level changes
+     */
+    public TraceableValue(Object value, int ordinal, CheckLevelListener listener) {
         this.checkLevel = CheckLevel.None;
         this.value = value;
+        this.ordinal = ordinal;
+        this.listener = listener;
     }
 
     public Object getValue() {
@@ -48,6 +61,10 @@ public class TraceableValue {
 
         if (checkLevelToUse.ordinal() > checkLevel.ordinal()) {
             checkLevel = checkLevelToUse;
+
+            if (listener != null) {
+                listener.onCheckLevelUpdate(ordinal, checkLevel);
+            }
         }
     }
 
@@ -16,7 +16,19 @@
 
 package com.twosigma.webtau.expectation;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * path is stored as a link to a parent plus the last segment, full text is built on first use and cached
+ */
 public class ActualPath {
+    private static final int NO_IDX = -1;
+
+    private final ActualPath parent;
+    private final String propName;
+    private final int idx;
+
     private String path;
 
     public ActualPath(String path) {
@@ -24,31 +36,62 @@ public class ActualPath {
             throw new IllegalArgumentException("path cannot be null");
         }
 
+        this.parent = null;
+        this.propName = null;
+        this.idx = NO_IDX;
         this.path = path;
     }
 
+    private ActualPath(ActualPath parent, String propName, int idx) {
+        this.parent = parent;
+        this.propName = propName;
+        this.idx = idx;
+    }
+
     public ActualPath property(String propName) {
-        return new ActualPath(isEmpty() ? propName : path + "." + propName);
+        return new ActualPath(this, propName, NO_IDX);
     }
 
     public ActualPath index(int idx) {
-        return new ActualPath(path + "[" + idx + "]");
+        return new ActualPath(this, null, idx);
     }
 
     public String getPath() {
-        return path;
-    }
-
-    private String attachToPath(String suffix) {
-        return isEmpty() ? suffix : path + suffix;
+        String rendered = path;
+        return rendered != null ? rendered : render();
     }
 
     public boolean isEmpty() {
-        return path.isEmpty();
+        return parent == null && path.isEmpty();
     }
 
     @Override
     public String toString() {
+        return getPath();
+    }
+
+    private String render() {
+        // walk up iteratively to the closest rendered parent so deep paths don't overflow the stack
+        List<ActualPath> notRendered = new ArrayList<>();
+        ActualPath current = this;
+        while (current.path == null) {
+            notRendered.add(current);
+            current = current.parent;
+        }
+
+        for (int i = notRendered.size() - 1; i >= 0; i--) {
+            ActualPath p = notRendered.get(i);
+            p.path = p.appendTo(p.parent.path);
+        }
+
         return path;
     }
+
+    private String appendTo(String parentPath) {
+        if (propName != null) {
+            return parentPath.isEmpty() ? propName : parentPath + "." + propName;
+        }
+
+        return parentPath + "[" + idx + "]";
+    }
 }
@@ -45,6 +45,22 @@ public class ExpectationHandlers {
         }
     }
 
+    public static List<ExpectationHandler> getLocalHandlers() {
+        return new ArrayList<>(localHandlers.get());
+    }
+
+    /**
+     * replaces local handlers of the current thread
+     * @param handlers new local handlers
+     * @return previous local handlers
+     */
+    public static List<ExpectationHandler> setLocalHandlers(List<ExpectationHandler> handlers) {
+        List<ExpectationHandler> previous = localHandlers.get();
+        localHandlers.set(new ArrayList<>(handlers));
+
+        return previous;
+    }
+
     public static Flow onValueMismatch(ValueMatcher valueMatcher, ActualPath actualPath, Object actualValue, String message) {
         return Stream.concat(localHandlers.get().stream(), globalHandlers.stream())
                 .map(h -> h.onValueMismatch(valueMatcher, actualPath, actualValue, message))
@@ -27,7 +27,6 @@ public class ActualPathMessage {
     public ActualPathMessage(ActualPath actualPath, String message) {
         this.actualPath = actualPath;
         this.message = message;
-        this.fullMessage = StringUtils.concatWithIndentation(actualPath.getPath() + ": ", message);
     }
 
     public ActualPath getActualPath() {
@@ -39,6 +38,10 @@ public class ActualPathMessage {
     }
 
     public String getFullMessage() {
+        if (fullMessage == null) {
+            fullMessage = StringUtils.concatWithIndentation(actualPath.getPath() + ": ", message);
+        }
+
         return fullMessage;
     }
 
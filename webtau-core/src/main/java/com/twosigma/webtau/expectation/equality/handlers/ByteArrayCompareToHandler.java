@@ -21,45 +21,57 @@ import com.twosigma.webtau.expectation.ActualPath;
 import com.twosigma.webtau.expectation.equality.CompareToComparator;
 import com.twosigma.webtau.expectation.equality.CompareToHandler;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.Formatter;
-import java.util.Objects;
 
+/**
+ * compares binary content given as byte arrays or as byte buffers (e.g. memory mapped responses).
+ * buffers are read using absolute positions, so no content is copied and buffer positions are not changed
+ */
 public class ByteArrayCompareToHandler implements CompareToHandler {
     @Override
     public boolean handleEquality(Object actual, Object expected) {
-        return actual.getClass().equals(byte[].class) &&
-                expected.getClass().equals(byte[].class);
+        return isBinary(actual) && isBinary(expected);
     }
 
     @Override
     public void compareEqualOnly(CompareToComparator comparator, ActualPath actualPath, Object actual, Object expected) {
-        byte[] actualArray = (byte[]) actual;
-        byte[] expectedArray = (byte[]) expected;
+        ByteBuffer actualBuffer = asBuffer(actual);
+        ByteBuffer expectedBuffer = asBuffer(expected);
 
-        if (actualArray.length != expectedArray.length) {
+        if (actualBuffer.remaining() != expectedBuffer.remaining()) {
             comparator.reportNotEqual(this, actualPath,
                     "binary content has different size:\n" +
-                            "  actual: " + actualArray.length + "\n" +
-                            "expected: " + expectedArray.length);
+                            "  actual: " + actualBuffer.remaining() + "\n" +
+                            "expected: " + expectedBuffer.remaining());
         }
 
-        int diffIdx = indexOfFirstDifference(actualArray, expectedArray);
+        int diffIdx = indexOfFirstDifference(actualBuffer, expectedBuffer);
         boolean isEqual = diffIdx == -1;
         if (isEqual) {
-            comparator.reportEqual(this, actualPath, DataRenderers.render(actualArray) + "\n" +
-                    renderActualExpected(actualArray, expectedArray, 0));
+            comparator.reportEqual(this, actualPath, DataRenderers.render(actual) + "\n" +
+                    renderActualExpected(actualBuffer, expectedBuffer, 0));
         } else {
             comparator.reportNotEqual(this, actualPath,
                     "binary content first difference idx: " + diffIdx + "\n" +
-                            renderActualExpected(actualArray, expectedArray, diffIdx));
+                            renderActualExpected(actualBuffer, expectedBuffer, diffIdx));
         }
     }
 
-    private int indexOfFirstDifference(byte[] actualArray, byte[] expectedArray) {
-        int minLength = Math.min(actualArray.length, expectedArray.length);
+    private static boolean isBinary(Object value) {
+        return value.getClass().equals(byte[].class) || value instanceof ByteBuffer;
+    }
+
+    private static ByteBuffer asBuffer(Object value) {
+        return value instanceof ByteBuffer ?
+                ((ByteBuffer) value).slice() :
+                ByteBuffer.wrap((byte[]) value);
+    }
+
+    private int indexOfFirstDifference(ByteBuffer actual, ByteBuffer expected) {
+        int minLength = Math.min(actual.remaining(), expected.remaining());
         for (int idx = 0; idx < minLength; idx++) {
-            if (!Objects.equals(expectedArray[idx], actualArray[idx])) {
+            if (expected.get(idx) != actual.get(idx)) {
                 return idx;
             }
         }
@@ -67,24 +79,23 @@ public class ByteArrayCompareToHandler implements CompareToHandler {
         return -1;
     }
 
-    private String renderActualExpected(byte[] actual, byte[] expected, int startIdx) {
-        return "  actual: " + portionOfArrayAsHex(actual, startIdx) + "\n" +
-                "expected: " + portionOfArrayAsHex(expected, startIdx);
+    private String renderActualExpected(ByteBuffer actual, ByteBuffer expected, int startIdx) {
+        return "  actual: " + portionAsHex(actual, startIdx) + "\n" +
+                "expected: " + portionAsHex(expected, startIdx);
     }
 
-    private String portionOfArrayAsHex(byte[] array, int startIdx) {
-        int len = Math.min(array.length - startIdx, 16);
-        byte[] subArray = Arrays.copyOfRange(array, startIdx, startIdx + len);
+    private String portionAsHex(ByteBuffer buffer, int startIdx) {
+        int len = Math.min(buffer.remaining() - startIdx, 16);
 
         String possibleEllipsisPrefix = startIdx > 0 ? "..." : "";
-        String possibleEllipsisSuffix = (startIdx + len) < array.length ? "..." : "";
-        return possibleEllipsisPrefix + renderAsHex(subArray) + possibleEllipsisSuffix;
+        String possibleEllipsisSuffix = (startIdx + len) < buffer.remaining() ? "..." : "";
+        return possibleEllipsisPrefix + renderAsHex(buffer, startIdx, len) + possibleEllipsisSuffix;
     }
 
-    private String renderAsHex(byte[] content) {
+    private String renderAsHex(ByteBuffer buffer, int startIdx, int len) {
         Formatter formatter = new Formatter();
-        for (byte b : content) {
-            formatter.format("%02X", b);
+        for (int idx = startIdx; idx < startIdx + len; idx++) {
+            formatter.format("%02X", buffer.get(idx));
         }
 
         return formatter.toString();
@@ -34,6 +34,8 @@ public class StepReporters {
 
     private static ThreadLocal<List<StepReporter>> localReporters = ThreadLocal.withInitial(ArrayList::new);
 
+    private static ThreadLocal<Boolean> reportingDisabled = ThreadLocal.withInitial(() -> false);
+
     public static void add(StepReporter reporter) {
         reporters.add(reporter);
     }
@@ -51,6 +53,40 @@ public class StepReporters {
         }
     }
 
+    /**
+     * executes code without notifying any reporters about its steps, including the global ones.
+     * Steps created by the code still execute and fail as usual, but don't end up in console or test report.
+     * Used for code that is executed too many times to report every step, e.g. load generation.
+     * @param code code to execute
+     * @param <R> type of returned value
+     * @return value returned by code
+     */
+    public static <R> R withoutReporting(Supplier<R> code) {
+        boolean previous = reportingDisabled.get();
+        try {
+            reportingDisabled.set(true);
+            return code.get();
+        } finally {
+            reportingDisabled.set(previous);
+        }
+    }
+
+    public static List<StepReporter> getLocalReporters() {
+        return new ArrayList<>(localReporters.get());
+    }
+
+    /**
+     * replaces local reporters of the current thread
+     * @param reporters new local reporters
+     * @return previous local reporters
+     */
+    public static List<StepReporter> setLocalReporters(List<StepReporter> reporters) {
+        List<StepReporter> previous = localReporters.get();
+        localReporters.set(new ArrayList<>(reporters));
+
+        return previous;
+    }
+
     public static void onStart(TestStep step) {
         getReportersStream().forEach(r -> r.onStepStart(step));
     }
@@ -64,6 +100,10 @@ public class StepReporters {
     }
 
     private static Stream<StepReporter> getReportersStream() {
+        if (reportingDisabled.get()) {
+            return Stream.empty();
+        }
+
         if (reporters.isEmpty() && localReporters.get().isEmpty()) {
             return Stream.of(defaultStepReporter);
         }
@@ -18,11 +18,11 @@ package com.twosigma.webtau.reporter;
 
 import com.twosigma.webtau.time.Time;
 
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -40,14 +40,16 @@ public class TestStep<C, R> {
     private boolean isInProgress;
     private boolean isSuccessful;
 
-    private List<TestStep<?, ?>> children;
+    // children and payloads can be added from async calls while reporters iterate them, adding never copies
+    private Queue<TestStep<?, ?>> children;
     private TestStep<?, ?> parent;
     private String stackTrace;
 
-    private List<TestStepPayload> payloads;
+    private Queue<TestStepPayload> payloads;
 
     private long startTime;
-    private long elapsedTime;
+    private long startNanos;
+    private long elapsedTimeMicros;
 
     private static ThreadLocal<TestStep<?, ?>> currentStep = new ThreadLocal<>();
 
@@ -86,17 +88,30 @@ public class TestStep<C, R> {
         return currentStep.get();
     }
 
+    /**
+     * makes a step current for the calling thread, so steps created next become its children.
+     * Used to continue a step on a different thread.
+     * @param step step to become current
+     * @return previously current step
+     */
+    public static TestStep<?, ?> setCurrentStep(TestStep<?, ?> step) {
+        TestStep<?, ?> previous = currentStep.get();
+        currentStep.set(step);
+
+        return previous;
+    }
+
     private TestStep(C context,
                      TokenizedMessage inProgressMessage,
                      Supplier<TokenizedMessage> completionMessageSupplier,
                      Supplier<R> action) {
         this.context = context;
-        this.children = new ArrayList<>();
+        this.children = new ConcurrentLinkedQueue<>();
         this.inProgressMessage = inProgressMessage;
         this.completionMessageSupplier = completionMessageSupplier;
         this.action = action;
         this.isInProgress = true;
-        this.payloads = new ArrayList<>();
+        this.payloads = new ConcurrentLinkedQueue<>();
     }
 
     public Stream<TestStep<?, ?>> children() {
@@ -165,7 +180,11 @@ public class TestStep<C, R> {
     }
 
     public long getElapsedTime() {
-        return elapsedTime;
+        return elapsedTimeMicros / 1000;
+    }
+
+    public long getElapsedTimeMicros() {
+        return elapsedTimeMicros;
     }
 
     public R execute(StepReportOptions stepReportOptions) {
@@ -198,10 +217,11 @@ public class TestStep<C, R> {
 
     private void startClock() {
         startTime = Time.currentTimeMillis();
+        startNanos = Time.nanoTime();
     }
 
     private void stopClock() {
-        elapsedTime = Time.currentTimeMillis() - startTime;
+        elapsedTimeMicros = Time.microsSince(startNanos);
     }
 
     public TokenizedMessage getInProgressMessage() {
@@ -216,7 +236,8 @@ public class TestStep<C, R> {
         Map<String, Object> result = new LinkedHashMap<>();
         result.put("message", completionMessage.toListOfMaps());
         result.put("startTime", startTime);
-        result.put("elapsedTime", elapsedTime);
+        result.put("elapsedTime", getElapsedTime());
+        result.put("elapsedTimeMicros", elapsedTimeMicros);
 
         if (!children.isEmpty()) {
             result.put("children", children.stream().map(TestStep::toMap).collect(toList()));
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * High dynamic range histogram of microsecond latencies with a fixed footprint.
+ * Values are grouped into power of two ranges, each split into 64 linear sub buckets,
+ * so any recorded value is reported with a relative error below 1/64 (~1.6%)
+ * from 1 microsecond up to more than an hour.
+ * Recording is lock free and can be done from multiple threads.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+
+    static final long HIGHEST_TRACKABLE_MICROS = (1L << 32) - 1;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong totalMicros;
+    private final AtomicLong maxMicros;
+
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(countsIndex(HIGHEST_TRACKABLE_MICROS) + 1);
+        totalCount = new AtomicLong();
+        totalMicros = new AtomicLong();
+        maxMicros = new AtomicLong();
+    }
+
+    /**
+     * @param micros latency in microseconds, values above ~71 minutes are recorded as the highest trackable value
+     */
+    public void record(long micros) {
+        long value = Math.max(0, Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+
+        counts.incrementAndGet(countsIndex(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int idx = 0; idx < other.counts.length(); idx++) {
+            long count = other.counts.get(idx);
+            if (count > 0) {
+                counts.addAndGet(idx, count);
+            }
+        }
+
+        totalCount.addAndGet(other.totalCount.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    /**
+     * clears recorded values, values recorded concurrently with reset may be partially lost
+     */
+    public void reset() {
+        for (int idx = 0; idx < counts.length(); idx++) {
+            counts.set(idx, 0);
+        }
+
+        totalCount.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public double getMeanMicros() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalMicros.get() / count;
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100, e.g. 99.9
+     * @return highest value that is equivalent to the value at the percentile, 0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        long countAtPercentile = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+
+        long seen = 0;
+        for (int idx = 0; idx < counts.length(); idx++) {
+            seen += counts.get(idx);
+            if (seen >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(idx), maxMicros.get());
+            }
+        }
+
+        return maxMicros.get();
+    }
+
+    static int countsIndex(long value) {
+        int bucketIdx = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_HALF_BITS);
+        int subBucketIdx = (int) (value >>> bucketIdx);
+
+        return (bucketIdx << SUB_BUCKET_HALF_BITS) + subBucketIdx;
+    }
+
+    static long lowestEquivalentValue(int countsIdx) {
+        int bucketIdx = countsIdx < SUB_BUCKET_COUNT ? 0 : (countsIdx >> SUB_BUCKET_HALF_BITS) - 1;
+        long subBucketIdx = countsIdx - ((long) bucketIdx << SUB_BUCKET_HALF_BITS);
+
+        return subBucketIdx << bucketIdx;
+    }
+
+    static long highestEquivalentValue(int countsIdx) {
+        int bucketIdx = countsIdx < SUB_BUCKET_COUNT ? 0 : (countsIdx >> SUB_BUCKET_HALF_BITS) - 1;
+        return lowestEquivalentValue(countsIdx) + (1L << bucketIdx) - 1;
+    }
+}
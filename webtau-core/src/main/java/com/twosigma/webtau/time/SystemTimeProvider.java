@@ -21,4 +21,9 @@ public class SystemTimeProvider implements TimeProvider {
     public long currentTimeMillis() {
         return System.currentTimeMillis();
     }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
 }
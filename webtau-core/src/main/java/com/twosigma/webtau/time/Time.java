@@ -26,6 +26,21 @@ public class Time {
         return Time.timeProvider.get().currentTimeMillis();
     }
 
+    /**
+     * @return monotonic time in nanoseconds to measure durations with
+     */
+    public static long nanoTime() {
+        return Time.timeProvider.get().nanoTime();
+    }
+
+    /**
+     * @param startNanos value of {@link #nanoTime()} at the start
+     * @return microseconds passed since start
+     */
+    public static long microsSince(long startNanos) {
+        return (nanoTime() - startNanos) / 1000;
+    }
+
     public static void setTimeProvider(TimeProvider replacement) {
         timeProvider.set(replacement != null ? replacement : systemTimeProvider);
     }
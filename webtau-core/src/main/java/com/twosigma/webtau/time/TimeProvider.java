@@ -16,6 +16,20 @@
 
 package com.twosigma.webtau.time;
 
+import java.util.concurrent.TimeUnit;
+
 public interface TimeProvider {
+    /**
+     * @return wall clock time, use it for timestamps only
+     */
     long currentTimeMillis();
+
+    /**
+     * monotonic clock to measure durations, value has no relation to wall clock time.
+     * Providers that only control wall clock (e.g. in tests) get durations derived from it.
+     * @return current value of the monotonic clock in nanoseconds
+     */
+    default long nanoTime() {
+        return TimeUnit.MILLISECONDS.toNanos(currentTimeMillis());
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.concurrency
+
+import com.twosigma.webtau.reporter.StepReportOptions
+import com.twosigma.webtau.reporter.StepReporter
+import com.twosigma.webtau.reporter.StepReporters
+import com.twosigma.webtau.reporter.TestStep
+import org.junit.Test
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.IntBinaryOperator
+import java.util.function.Supplier
+
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.action
+import static com.twosigma.webtau.reporter.TokenizedMessage.tokenizedMessage
+import static java.util.stream.Collectors.toList
+
+class ParallelBlocksTest {
+    @Test
+    void "returns values of blocks in the order of blocks"() {
+        def results = ParallelBlocks.execute([
+                { -> sleep(100); return 'first' } as Supplier,
+                { -> return 'second' } as Supplier])
+
+        assert results == ['first', 'second']
+    }
+
+    @Test
+    void "blocks run simultaneously"() {
+        def allStarted = new CountDownLatch(4)
+        def results = ParallelBlocks.execute((1..4).collect {
+            { ->
+                allStarted.countDown()
+                return allStarted.await(10, TimeUnit.SECONDS)
+            } as Supplier
+        })
+
+        assert results == [true, true, true, true]
+    }
+
+    @Test
+    void "number of simultaneously running blocks is limited"() {
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        ParallelBlocks.execute((1..6).collect {
+            { ->
+                maxRunning.accumulateAndGet(running.incrementAndGet(), { a, b -> Math.max(a, b) } as IntBinaryOperator)
+                sleep(50)
+                running.decrementAndGet()
+            } as Supplier
+        }, 2)
+
+        assert maxRunning.get() <= 2
+    }
+
+    @Test
+    void "steps created inside blocks are children of block steps in blocks order"() {
+        def root = createStep('root') {
+            ParallelBlocks.execute([
+                    { -> sleep(100); createStep('slow').execute(StepReportOptions.REPORT_ALL) } as Supplier,
+                    { -> createStep('fast').execute(StepReportOptions.REPORT_ALL) } as Supplier])
+        }
+        root.execute(StepReportOptions.REPORT_ALL)
+
+        def parallelStep = root.children().findFirst().get()
+        def blockSteps = parallelStep.children().collect(toList())
+        assert blockSteps.size() == 2
+        assert blockSteps.collect { it.children().findFirst().get().completionMessage.toString() } ==
+                ['done slow', 'done fast']
+        assert TestStep.currentStep == null
+    }
+
+    @Test
+    void "local reporters see steps from blocks"() {
+        def started = Collections.synchronizedList([])
+        def reporter = [onStepStart  : { step -> started.add(step.inProgressMessage.toString()) },
+                        onStepSuccess: { step -> },
+                        onStepFailure: { step -> }] as StepReporter
+
+        StepReporters.withAdditionalReporter(reporter, { ->
+            ParallelBlocks.execute([{ -> createStep('inside').execute(StepReportOptions.REPORT_ALL) } as Supplier])
+        } as Supplier)
+
+        assert started.contains('inside')
+    }
+
+    @Test
+    void "rethrows first failure after all blocks are finished"() {
+        def isSlowBlockFinished = false
+
+        try {
+            ParallelBlocks.execute([
+                    { -> throw new AssertionError('first') } as Supplier,
+                    { -> throw new IllegalStateException('second') } as Supplier,
+                    { -> sleep(200); isSlowBlockFinished = true } as Supplier])
+            assert false
+        } catch (AssertionError e) {
+            assert e.message == 'first'
+            assert e.suppressed*.message == ['second']
+        }
+
+        assert isSlowBlockFinished
+    }
+
+    private static TestStep createStep(String title, Closure code = { -> null }) {
+        return TestStep.createStep(null, tokenizedMessage(action(title)),
+                { -> tokenizedMessage(action('done ' + title)) } as Supplier,
+                code as Supplier)
+    }
+}
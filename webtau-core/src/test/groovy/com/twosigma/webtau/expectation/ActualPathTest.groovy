@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.expectation
+
+import org.junit.Test
+
+class ActualPathTest {
+    @Test
+    void "should render properties and indexes"() {
+        def path = new ActualPath("body").property("list").index(2).property("name")
+        assert path.getPath() == "body.list[2].name"
+        assert path.toString() == "body.list[2].name"
+    }
+
+    @Test
+    void "should not add delimiter to empty root"() {
+        def root = new ActualPath("")
+        assert root.isEmpty()
+
+        def child = root.property("name")
+        assert !child.isEmpty()
+        assert child.getPath() == "name"
+        assert child.index(0).getPath() == "name[0]"
+    }
+
+    @Test
+    void "should render deep paths"() {
+        def path = new ActualPath("root")
+        10000.times { path = path.index(0) }
+
+        assert path.getPath().length() == "root".length() + 10000 * "[0]".length()
+    }
+
+    @Test
+    void "should reuse rendered path"() {
+        def path = new ActualPath("root").property("a").property("b")
+        assert path.getPath().is(path.getPath())
+    }
+}
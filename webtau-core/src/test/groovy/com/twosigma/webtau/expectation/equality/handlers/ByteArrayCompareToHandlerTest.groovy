@@ -20,6 +20,8 @@ import com.twosigma.webtau.expectation.ActualPath
 import com.twosigma.webtau.expectation.equality.CompareToComparator
 import org.junit.Test
 
+import java.nio.ByteBuffer
+
 import static com.twosigma.webtau.Ddjt.createActualPath
 import static org.junit.Assert.assertEquals
 
@@ -37,6 +39,35 @@ class ByteArrayCompareToHandlerTest {
         assert !handler.handleEquality(10, a)
     }
 
+    @Test
+    void "handles byte buffers and arrays combination"() {
+        def handler = new ByteArrayCompareToHandler()
+
+        def a = [2, 3, 4] as byte[]
+        def buffer = ByteBuffer.wrap(a).asReadOnlyBuffer()
+
+        assert handler.handleEquality(buffer, a)
+        assert handler.handleEquality(a, buffer)
+        assert !handler.handleEquality(buffer, 10)
+    }
+
+    @Test
+    void "compares byte buffer with array without changing buffer position"() {
+        def buffer = ByteBuffer.wrap([1, 2, 3, 4, 5] as byte[]).asReadOnlyBuffer()
+
+        def comparator = CompareToComparator.comparator()
+        assert !comparator.compareIsEqual(actualPath, buffer, [1, 2, 7, 4, 5] as byte[])
+        assert buffer.position() == 0
+
+        assertEquals('mismatches:\n' +
+            '\n' +
+            'value: binary content first difference idx: 2\n' +
+            '         actual: ...030405\n' +
+            '       expected: ...070405', comparator.generateEqualMismatchReport())
+
+        assert comparator.compareIsEqual(actualPath, buffer, [1, 2, 3, 4, 5] as byte[])
+    }
+
     @Test
     void "prints first bytes of array as hex when matched and ellipsis to show there is more"() {
         def a = [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 29] as byte[]
@@ -16,6 +16,8 @@
 
 package com.twosigma.webtau.reporter
 
+import com.twosigma.webtau.time.Time
+import com.twosigma.webtau.time.TimeProvider
 import org.junit.BeforeClass
 import org.junit.Test
 
@@ -90,6 +92,24 @@ class TestStepTest {
         assert ! rootStep.hasPayload(PayloadC)
     }
 
+    @Test
+    void "elapsed time is measured with monotonic clock in microseconds"() {
+        def nanos = [1_000_000L, 1_250_500L].iterator()
+        Time.setTimeProvider([currentTimeMillis: { -> 5000L }, nanoTime: { -> nanos.next() }] as TimeProvider)
+        try {
+            def step = createStep('fast step')
+            step.execute(REPORT_ALL)
+
+            assert step.startTime == 5000
+            assert step.elapsedTimeMicros == 250
+            assert step.elapsedTime == 0
+            assert step.toMap().subMap(['startTime', 'elapsedTime', 'elapsedTimeMicros']) ==
+                    [startTime: 5000, elapsedTime: 0, elapsedTimeMicros: 250]
+        } finally {
+            Time.setTimeProvider(null)
+        }
+    }
+
     private static TestStep createStep(String title, Supplier stepCode = { return null }) {
         TestStep.createStep(null, tokenizedMessage(action(title)), {
             tokenizedMessage(action('done ' + title))
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.statistics
+
+import org.junit.Test
+
+class LatencyHistogramTest {
+    @Test
+    void "small values are recorded exactly"() {
+        def histogram = new LatencyHistogram()
+        (1..100).each { histogram.record(it) }
+
+        assert histogram.totalCount == 100
+        assert histogram.valueAtPercentile(50) == 50
+        assert histogram.valueAtPercentile(99) == 99
+        assert histogram.valueAtPercentile(100) == 100
+        assert histogram.meanMicros == 50.5
+    }
+
+    @Test
+    void "large values are recorded within relative precision"() {
+        def histogram = new LatencyHistogram()
+        (1..1000).each { histogram.record(it * 1000L) }
+
+        [50: 500_000, 90: 900_000, 99: 990_000, 99.9: 999_000].each { percentile, expected ->
+            def actual = histogram.valueAtPercentile(percentile)
+            assert Math.abs(actual - expected) / expected < 1.0 / 64
+        }
+
+        assert histogram.valueAtPercentile(100) == 1_000_000
+        assert histogram.maxMicros == 1_000_000
+    }
+
+    @Test
+    void "equivalent value ranges cover all values without gaps"() {
+        long previousHighest = -1
+        for (int idx = 0; idx <= LatencyHistogram.countsIndex(LatencyHistogram.HIGHEST_TRACKABLE_MICROS); idx++) {
+            assert LatencyHistogram.lowestEquivalentValue(idx) == previousHighest + 1
+            previousHighest = LatencyHistogram.highestEquivalentValue(idx)
+        }
+
+        assert previousHighest == LatencyHistogram.HIGHEST_TRACKABLE_MICROS
+    }
+
+    @Test
+    void "histograms can be merged"() {
+        def first = new LatencyHistogram()
+        def second = new LatencyHistogram()
+        first.record(10)
+        second.record(20)
+        second.record(30)
+
+        first.add(second)
+        assert first.totalCount == 3
+        assert first.maxMicros == 30
+        assert first.valueAtPercentile(50) == 20
+    }
+}
@@ -26,12 +26,22 @@ class DummyTimeProvider implements TimeProvider {
         this.timeSnapshots.addAll(timeSnapshots)
     }
 
+    /**
+     * only {@link #nanoTime} advances snapshots, as durations are measured with the monotonic clock.
+     * Wall clock returns the snapshot the monotonic clock is going to return next, so a step start timestamp
+     * taken right before its start nanos matches the first snapshot
+     */
     @Override
     long currentTimeMillis() {
+        return timeSnapshots[Math.min(currentSnapshotIdx, timeSnapshots.size() - 1)]
+    }
+
+    @Override
+    long nanoTime() {
         if (currentSnapshotIdx >= timeSnapshots.size()) {
             throw new RuntimeException("$currentSnapshotIdx idx is out of the provided time snapshots $timeSnapshots")
         }
 
-        return timeSnapshots[currentSnapshotIdx++]
+        return timeSnapshots[currentSnapshotIdx++] * 1_000_000L
     }
 }
@@ -16,6 +16,7 @@
 
 package com.twosigma.webtau
 
+import com.twosigma.webtau.concurrency.ParallelBlocks
 import com.twosigma.webtau.console.ConsoleOutputs
 import com.twosigma.webtau.console.ansi.Color
 import com.twosigma.webtau.console.ansi.FontStyle
@@ -118,6 +119,15 @@ class WebTauGroovyDsl extends WebTauDsl {
         return new LazyTestResource<E>(name, supplier)
     }
 
+    /**
+     * executes closures simultaneously and waits for all of them to finish
+     * @param blocks closures to execute
+     * @return values returned by closures
+     */
+    static List<Object> parallel(Closure... blocks) {
+        return ParallelBlocks.execute(blocks.collect { it as Supplier }, getCfg().parallelMaxThreads)
+    }
+
     static Closure action(String description, Closure code) {
         return { args ->
             String withReplacedValues = replacePlaceholders(description, args)
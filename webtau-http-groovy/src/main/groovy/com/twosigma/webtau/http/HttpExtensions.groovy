@@ -24,6 +24,8 @@ import com.twosigma.webtau.http.request.HttpRequestBody
 import com.twosigma.webtau.http.validation.HeaderDataNode
 import com.twosigma.webtau.http.validation.HttpResponseValidatorWithReturn
 
+import java.util.concurrent.CompletableFuture
+
 class HttpExtensions {
     static def get(Http http, String url, Closure validation) {
         return http.get(url, closureToHttpResponseValidator(validation))
@@ -161,6 +163,78 @@ class HttpExtensions {
         return http.delete(url, header, closureToHttpResponseValidator(validation))
     }
 
+    static CompletableFuture get(HttpAsync async, String url, Closure validation) {
+        return async.get(url, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture get(HttpAsync async, String url, HttpHeader header, Closure validation) {
+        return async.get(url, header, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture get(HttpAsync async, String url, Map<String, ?> queryParams, Closure validation) {
+        return async.get(url, new HttpQueryParams(queryParams), closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture get(HttpAsync async, String url, Map<String, ?> queryParams, HttpHeader header, Closure validation) {
+        return async.get(url, new HttpQueryParams(queryParams), header, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture post(HttpAsync async, String url, Map<String, Object> requestBody, Closure validation) {
+        return async.post(url, new JsonRequestBody(requestBody), closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture post(HttpAsync async, String url, HttpHeader header, Map<String, Object> requestBody, Closure validation) {
+        return async.post(url, header, new JsonRequestBody(requestBody), closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture post(HttpAsync async, String url, HttpRequestBody requestBody, Closure validation) {
+        return async.post(url, requestBody, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture post(HttpAsync async, String url, HttpHeader header, HttpRequestBody requestBody, Closure validation) {
+        return async.post(url, header, requestBody, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture put(HttpAsync async, String url, Map<String, Object> requestBody, Closure validation) {
+        return async.put(url, new JsonRequestBody(requestBody), closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture put(HttpAsync async, String url, HttpHeader header, Map<String, Object> requestBody, Closure validation) {
+        return async.put(url, header, new JsonRequestBody(requestBody), closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture put(HttpAsync async, String url, HttpRequestBody requestBody, Closure validation) {
+        return async.put(url, requestBody, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture put(HttpAsync async, String url, HttpHeader header, HttpRequestBody requestBody, Closure validation) {
+        return async.put(url, header, requestBody, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture delete(HttpAsync async, String url, Closure validation) {
+        return async.delete(url, closureToHttpResponseValidator(validation))
+    }
+
+    static CompletableFuture delete(HttpAsync async, String url, HttpHeader header, Closure validation) {
+        return async.delete(url, header, closureToHttpResponseValidator(validation))
+    }
+
+    static def get(HttpCached cached, String url, Closure validation) {
+        return cached.get(url, closureToHttpResponseValidator(validation))
+    }
+
+    static def get(HttpCached cached, String url, HttpHeader header, Closure validation) {
+        return cached.get(url, header, closureToHttpResponseValidator(validation))
+    }
+
+    static def get(HttpCached cached, String url, Map<String, ?> queryParams, Closure validation) {
+        return cached.get(url, new HttpQueryParams(queryParams), closureToHttpResponseValidator(validation))
+    }
+
+    static def get(HttpCached cached, String url, Map<String, ?> queryParams, HttpHeader header, Closure validation) {
+        return cached.get(url, new HttpQueryParams(queryParams), header, closureToHttpResponseValidator(validation))
+    }
+
     private static HttpResponseValidatorWithReturn closureToHttpResponseValidator(validation) {
         return new HttpResponseValidatorWithReturn() {
             @Override
@@ -192,6 +266,8 @@ class HttpExtensions {
                     return new GroovyDataNode(body)
                 case "statusCode":
                     return new GroovyDataNode(header).get("statusCode")
+                case "elapsedTime":
+                    return new GroovyDataNode(header.elapsedTime())
                 default:
                     return new GroovyDataNode(body).get(name)
             }
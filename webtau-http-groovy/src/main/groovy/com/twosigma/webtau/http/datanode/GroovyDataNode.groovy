@@ -20,6 +20,9 @@ import com.twosigma.webtau.data.traceable.TraceableValue
 import com.twosigma.webtau.expectation.ActualPath
 import com.twosigma.webtau.http.datacoverage.DataNodeToMapOfValuesConverter
 
+import java.util.function.BiConsumer
+import java.util.function.Consumer
+
 import static com.twosigma.webtau.groovy.ast.ShouldAstTransformation.SHOULD_BE_REPLACED_MESSAGE
 
 class GroovyDataNode implements DataNodeExpectations, DataNode {
@@ -111,6 +114,16 @@ class GroovyDataNode implements DataNodeExpectations, DataNode {
         return node.asMap().entrySet().collectEntries { [it.key, new GroovyDataNode(it.value)] }
     }
 
+    @Override
+    void forEachChildOrRawValue(BiConsumer<String, Object> consumer) {
+        node.forEachChildOrRawValue(consumer)
+    }
+
+    @Override
+    void forEachElementOrRawValue(Consumer<Object> consumer) {
+        node.forEachElementOrRawValue(consumer)
+    }
+
     void each(Closure consumer) {
         node.elements().each(delegateToDataNodeClosure(consumer))
     }
@@ -23,6 +23,9 @@ import com.twosigma.webtau.http.testserver.TestServerResponse
 import com.twosigma.webtau.http.validation.HttpResponseValidator
 import com.twosigma.webtau.http.validation.HttpValidationHandler
 import com.twosigma.webtau.http.validation.HttpValidationHandlers
+import com.twosigma.webtau.http.validation.HttpValidationResult
+import com.twosigma.webtau.reporter.StepReportOptions
+import com.twosigma.webtau.reporter.TestStep
 import com.twosigma.webtau.utils.FileUtils
 import com.twosigma.webtau.utils.JsonUtils
 import com.twosigma.webtau.utils.ResourceUtils
@@ -36,12 +39,16 @@ import java.time.LocalDate
 import java.time.LocalTime
 import java.time.ZoneId
 import java.time.ZonedDateTime
+import java.util.concurrent.CompletionException
 import java.util.function.Consumer
+import java.util.function.Supplier
 import java.util.stream.Collectors
 
 import static com.twosigma.webtau.Ddjt.*
 import static com.twosigma.webtau.cfg.WebTauConfig.cfg
 import static com.twosigma.webtau.http.Http.http
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.action
+import static com.twosigma.webtau.reporter.TokenizedMessage.tokenizedMessage
 import static org.junit.Assert.assertFalse
 import static org.junit.Assert.assertTrue
 
@@ -265,6 +272,24 @@ class HttpGroovyTest extends HttpTestBase {
         }
     }
 
+    @Test
+    void "elapsed time does not include rate limit permit wait"() {
+        try {
+            cfg.httpRateLimits.set("test", [(testServer.uri.toString()): [requestsPerSecond: 2, burst: 1]])
+
+            http.get('/end-point') {}
+            http.get('/end-point') {}
+
+            def validationResult = http.lastValidationResult
+            def permitWaitMillis = validationResult.permitWaitNanos / 1_000_000
+
+            permitWaitMillis.should > 200
+            validationResult.elapsedTime.should < permitWaitMillis
+        } finally {
+            cfg.httpRateLimits.reset()
+        }
+    }
+
     @Test
     void "explicitly access header and body "() {
         def a = http.get("params", [a: 1, b: 'text']) { header, body ->
@@ -1076,6 +1101,65 @@ class HttpGroovyTest extends HttpTestBase {
         http.lastValidationResult.errorMessage.should == ~/java.lang.IllegalArgumentException: Request header is null/
     }
 
+    @Test
+    void "async calls return values of validation blocks"() {
+        def futures = (1..5).collect {
+            http.async.get("/end-point") {
+                price.should == 100
+                return id
+            }
+        }
+
+        futures*.join().should == [10, 10, 10, 10, 10]
+    }
+
+    @Test
+    void "async call completes exceptionally on validation failure"() {
+        def future = http.async.get("/end-point") {
+            id.should == 11
+        }
+
+        code {
+            future.join()
+        } should throwException(CompletionException, ~/body\.id/)
+    }
+
+    @Test
+    void "awaited async call becomes the last validation result of the awaiting thread"() {
+        http.get("/end-point") {
+            id.should == 10
+        }
+
+        http.async.post("echo-body-and-header", [a: 'async']) {
+            body.a.should == 'async'
+        }.join()
+
+        http.lastValidationResult.requestMethod.should == 'POST'
+
+        String artifactName = 'async-echo-body'
+        http.doc.capture(artifactName)
+
+        readAndAssertCapturedFile(artifactName, 'response.json') { responseBodyFile ->
+            JsonUtils.deserializeAsMap(responseBodyFile).should == [a: 'async']
+        }
+    }
+
+    @Test
+    void "async calls are reported as children of the step that initiated them"() {
+        def parent = TestStep.createStep(null, tokenizedMessage(action("fan out")),
+                { -> tokenizedMessage(action("fanned out")) } as Supplier,
+                { ->
+                    def first = http.async.get("/end-point") { return id }
+                    def second = http.async.post("/echo", [id: 'posted']) { return id }
+                    return [first, second]*.join()
+                } as Supplier)
+
+        parent.execute(StepReportOptions.REPORT_ALL).should == [10, 'posted']
+
+        parent.children().count().should == 2
+        parent.getCombinedPayloadsOfType(HttpValidationResult).collect { it.requestMethod }.should == ['GET', 'POST']
+    }
+
     private static void withFailingHandler(Closure closure) {
         HttpValidationHandler handler = { result -> throw new AssertionError((Object)"schema validation error") }
         HttpValidationHandlers.withAdditionalHandler(handler, closure)
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * reads binary response into memory, switches to a temp file once content exceeds the spill size
+ */
+class BinaryContentReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private BinaryContentReader() {
+    }
+
+    static void read(HttpResponse response, InputStream inputStream, int spillSize) throws IOException {
+        if (inputStream == null) {
+            response.setBinaryContent(new byte[0]);
+            return;
+        }
+
+        ByteArrayOutputStream inMemory = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            inMemory.write(buffer, 0, read);
+
+            if (inMemory.size() >= spillSize) {
+                response.setBinaryContentFile(spill(inMemory, inputStream, buffer));
+                return;
+            }
+        }
+
+        response.setBinaryContent(inMemory.toByteArray());
+    }
+
+    private static Path spill(ByteArrayOutputStream readSoFar, InputStream rest, byte[] buffer) throws IOException {
+        Path file = Files.createTempFile("webtau-http-", ".bin");
+        file.toFile().deleteOnExit();
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            readSoFar.writeTo(out);
+
+            int read;
+            while ((read = rest.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        return file;
+    }
+}
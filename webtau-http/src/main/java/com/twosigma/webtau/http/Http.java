@@ -16,6 +16,7 @@
 
 package com.twosigma.webtau.http;
 
+import com.twosigma.webtau.concurrency.ThreadContext;
 import com.twosigma.webtau.console.ConsoleOutputs;
 import com.twosigma.webtau.console.ansi.Color;
 import com.twosigma.webtau.data.traceable.CheckLevel;
@@ -23,55 +24,82 @@ import com.twosigma.webtau.data.traceable.TraceableValue;
 import com.twosigma.webtau.expectation.ExpectationHandler;
 import com.twosigma.webtau.expectation.ExpectationHandlers;
 import com.twosigma.webtau.http.binary.BinaryRequestBody;
+import com.twosigma.webtau.http.cache.HttpResponseMemo;
+import com.twosigma.webtau.http.cache.MemoizingHttpTransport;
+import com.twosigma.webtau.http.binary.FileRequestBody;
 import com.twosigma.webtau.http.config.HttpConfigurations;
 import com.twosigma.webtau.http.datanode.DataNode;
+import com.twosigma.webtau.http.datacoverage.DataNodeCheckCoverage;
 import com.twosigma.webtau.http.datanode.DataNodeBuilder;
 import com.twosigma.webtau.http.datanode.DataNodeId;
 import com.twosigma.webtau.http.datanode.StructuredDataNode;
+import com.twosigma.webtau.http.encoding.GzipRequestBody;
+import com.twosigma.webtau.http.encoding.HttpContentEncoding;
+import com.twosigma.webtau.http.encoding.HttpContentSizes;
 import com.twosigma.webtau.http.json.JsonRequestBody;
 import com.twosigma.webtau.http.multipart.MultiPartFile;
 import com.twosigma.webtau.http.multipart.MultiPartFormData;
 import com.twosigma.webtau.http.multipart.MultiPartFormField;
+import com.twosigma.webtau.http.ratelimit.HttpPermit;
+import com.twosigma.webtau.http.ratelimit.HttpRateLimits;
 import com.twosigma.webtau.http.render.DataNodeAnsiPrinter;
 import com.twosigma.webtau.http.request.*;
 import com.twosigma.webtau.http.text.TextRequestBody;
+import com.twosigma.webtau.http.timing.HttpTimingPhase;
+import com.twosigma.webtau.http.timing.HttpTimings;
+import com.twosigma.webtau.http.transport.HttpTransport;
+import com.twosigma.webtau.http.transport.HttpTransportRequest;
+import com.twosigma.webtau.http.transport.HttpTransportResponse;
+import com.twosigma.webtau.http.transport.HttpTransports;
 import com.twosigma.webtau.http.validation.*;
 import com.twosigma.webtau.reporter.StepReportOptions;
 import com.twosigma.webtau.reporter.TestStep;
+import com.twosigma.webtau.reporter.TokenizedMessage;
 import com.twosigma.webtau.reporter.stacktrace.StackTraceUtils;
 import com.twosigma.webtau.time.Time;
 import com.twosigma.webtau.utils.CollectionUtils;
 import com.twosigma.webtau.utils.JsonParseException;
-import com.twosigma.webtau.utils.JsonUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
-import java.util.zip.GZIPInputStream;
+import java.util.function.UnaryOperator;
 
 import static com.twosigma.webtau.Ddjt.equal;
 import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
 import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.action;
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.classifier;
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.stringValue;
 import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.urlValue;
 import static com.twosigma.webtau.reporter.TokenizedMessage.tokenizedMessage;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 
 public class Http {
+    private static final int PARSE_ERROR_CONTENT_PREFIX_SIZE = 4096;
     private static final HttpResponseValidatorWithReturn EMPTY_RESPONSE_VALIDATOR = (header, body) -> null;
 
     public static final Http http = new Http();
 
     public final HttpDocumentation doc = new HttpDocumentation();
 
+    public final HttpAsync async = new HttpAsync(this);
+
+    private final HttpResponseMemo memo = new HttpResponseMemo();
+
     private final ThreadLocal<HttpValidationResult> lastValidationResult = new ThreadLocal<>();
 
     public HttpApplicationMime application = new HttpApplicationMime();
@@ -383,6 +411,10 @@ public class Http {
         return BinaryRequestBody.withType(mimeType, content);
     }
 
+    public HttpRequestBody body(String mimeType, Path file) {
+        return FileRequestBody.withType(mimeType, file);
+    }
+
     public MultiPartFormData formData(MultiPartFormField... fields) {
         MultiPartFormData formData = new MultiPartFormData();
         Arrays.stream(fields).forEach(formData::addField);
@@ -430,6 +462,28 @@ public class Http {
         return new MultiPartFile(fileName, file);
     }
 
+    /**
+     * GET calls that reuse a response received within the given time, regardless of response cache headers.
+     * Validation is executed on every call.
+     * @param ttl time to keep a response for
+     * @return memoized calls
+     */
+    public HttpCached cached(Duration ttl) {
+        return new HttpCached(this, ttl.toMillis());
+    }
+
+    public HttpCached cached(long ttlMillis) {
+        return new HttpCached(this, ttlMillis);
+    }
+
+    /**
+     * removes responses stored by <code>http.cached</code> calls and by <code>httpCache</code>
+     */
+    public void clearCache() {
+        memo.clear();
+        HttpTransports.getResponseCache().clear();
+    }
+
     public HttpValidationResult getLastValidationResult() {
         return lastValidationResult.get();
     }
@@ -438,6 +492,11 @@ public class Http {
         return request("GET", fullUrl, requestHeader, EmptyRequestBody.INSTANCE);
     }
 
+    HttpResponse getToFullUrlMemoized(String fullUrl, HttpHeader requestHeader, long ttlMillis) {
+        return request("GET", fullUrl, requestHeader, EmptyRequestBody.INSTANCE,
+                transport -> new MemoizingHttpTransport(transport, memo, ttlMillis));
+    }
+
     public HttpResponse deleteToFullUrl(String fullUrl, HttpHeader requestHeader) {
         return request("DELETE", fullUrl, requestHeader, EmptyRequestBody.INSTANCE);
     }
@@ -450,7 +509,7 @@ public class Http {
         return request("PUT", fullUrl, requestHeader, requestBody);
     }
 
-    private <R> R executeAndValidateHttpCall(String requestMethod, String url, HttpCall httpCall,
+    <R> R executeAndValidateHttpCall(String requestMethod, String url, HttpCall httpCall,
                                              HttpHeader requestHeader,
                                              HttpRequestBody requestBody,
                                              HttpResponseValidatorWithReturn validator) {
@@ -460,14 +519,83 @@ public class Http {
         HttpValidationResult validationResult = new HttpValidationResult(requestMethod, url, fullUrl, fullHeader, requestBody);
 
         TestStep<Void, R> step = createHttpStep(validationResult, requestMethod, fullUrl, httpCall, fullHeader, validator);
+        return executeHttpStep(step, validationResult);
+    }
+
+    <R> CompletableFuture<R> executeAndValidateHttpCallAsync(Executor executor,
+                                                             String requestMethod, String url,
+                                                             HttpHeader requestHeader,
+                                                             HttpRequestBody requestBody,
+                                                             HttpResponseValidatorWithReturn validator) {
+        String fullUrl = HttpConfigurations.fullUrl(url);
+        HttpHeader fullHeader = HttpConfigurations.fullHeader(fullUrl, url, requestHeader);
+
+        HttpValidationResult validationResult = new HttpValidationResult(requestMethod, url, fullUrl, fullHeader, requestBody);
+        HttpCall httpCall = (callFullUrl, callFullHeader) -> request(requestMethod, callFullUrl, callFullHeader,
+                requestBody != null ? requestBody : EmptyRequestBody.INSTANCE);
+
+        // step is created on the calling thread to keep the calls order within the parent step,
+        // but it is executed by a worker thread
+        TestStep<?, ?> callerStep = TestStep.getCurrentStep();
+        TestStep<Void, R> step = createHttpStep(validationResult, requestMethod, fullUrl, httpCall, fullHeader, validator);
+        TestStep.setCurrentStep(callerStep);
+
+        // worker thread doesn't own the last validation result, the call becomes the last one
+        // of the thread that awaits it
+        HttpAsyncCallFuture<R> future = new HttpAsyncCallFuture<>(validationResult, this::setLastValidationResult);
+
+        ThreadContext context = ThreadContext.capture();
+        executor.execute(() -> {
+            try {
+                future.complete(context.runWith(() -> {
+                    TestStep.setCurrentStep(step);
+                    return executeHttpStep(step, validationResult, false);
+                }));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    private <R> R executeHttpStep(TestStep<Void, R> step, HttpValidationResult validationResult) {
+        return executeHttpStep(step, validationResult, true);
+    }
+
+    private <R> R executeHttpStep(TestStep<Void, R> step, HttpValidationResult validationResult,
+                                  boolean isLastValidationResult) {
+        boolean failed = true;
         try {
-            return step.execute(StepReportOptions.REPORT_ALL);
+            R result = step.execute(StepReportOptions.REPORT_ALL);
+            failed = false;
+
+            return result;
         } finally {
-            lastValidationResult.set(validationResult);
+            validationResult.retainBodies(HttpBodyRetainer.fromConfig(), failed);
+
+            if (isLastValidationResult) {
+                setLastValidationResult(validationResult);
+            }
+
             step.addPayload(validationResult);
         }
     }
 
+    private void setLastValidationResult(HttpValidationResult validationResult) {
+        // full content of the last call is kept for http.doc.capture
+        HttpValidationResult previous = lastValidationResult.get();
+        if (previous == validationResult) {
+            return;
+        }
+
+        if (previous != null) {
+            previous.releaseRetainedBodies();
+        }
+
+        lastValidationResult.set(validationResult);
+    }
+
     private <R> TestStep<Void, R> createHttpStep(HttpValidationResult validationResult,
                                                  String requestMethod, String fullUrl, HttpCall httpCall,
                                                  HttpHeader fullRequestHeader,
@@ -475,13 +603,15 @@ public class Http {
         Supplier<R> httpCallSupplier = () -> {
             try {
                 long startTime = Time.currentTimeMillis();
+                long startNanos = Time.nanoTime();
                 HttpResponse response = httpCall.execute(fullUrl, fullRequestHeader);
-                response = followRedirects(requestMethod, httpCall, fullRequestHeader, response);
-
-                long endTime = Time.currentTimeMillis();
+                validationResult.addHopTimings(response.getTimings());
+                response = followRedirects(requestMethod, httpCall, fullRequestHeader, response, validationResult);
 
                 validationResult.setStartTime(startTime);
-                validationResult.setElapsedTime(endTime - startTime);
+                // waiting for a client side rate limit permit is not part of the server response time
+                validationResult.setElapsedTimeMicros(Math.max(0,
+                        Time.microsSince(startNanos) - validationResult.getPermitWaitNanos() / 1000));
                 validationResult.setResponse(response);
 
                 R validationBlockReturnedValue = validateAndRecord(validationResult, validator);
@@ -500,15 +630,28 @@ public class Http {
         };
 
         return TestStep.createStep(null, tokenizedMessage(action("executing HTTP " + requestMethod), urlValue(fullUrl)),
-                () -> tokenizedMessage(action("executed HTTP " + requestMethod), urlValue(fullUrl)),
+                () -> executedHttpMessage(validationResult, requestMethod, fullUrl),
                 httpCallSupplier);
     }
 
-    private HttpResponse followRedirects(String requestMethod, HttpCall httpCall, HttpHeader fullRequestHeader, HttpResponse response) {
+    private TokenizedMessage executedHttpMessage(HttpValidationResult validationResult, String requestMethod, String fullUrl) {
+        TokenizedMessage message = tokenizedMessage(action("executed HTTP " + requestMethod), urlValue(fullUrl));
+
+        String injectedFault = validationResult.getInjectedFault();
+        if (injectedFault != null) {
+            message.add(classifier("with injected fault"), stringValue(injectedFault));
+        }
+
+        return message;
+    }
+
+    private HttpResponse followRedirects(String requestMethod, HttpCall httpCall, HttpHeader fullRequestHeader,
+                                         HttpResponse response, HttpValidationResult validationResult) {
         int retryCount = 0;
         while (response.isRedirect() && getCfg().shouldFollowRedirects() && retryCount++ < getCfg().maxRedirects()) {
             TestStep<Void, HttpResponse> httpStep = createRedirectStep(requestMethod, response.locationHeader(), httpCall, fullRequestHeader);
             response = httpStep.execute(StepReportOptions.REPORT_ALL);
+            validationResult.addHopTimings(response.getTimings());
         }
         return response;
     }
@@ -526,11 +669,17 @@ public class Http {
     private <R> R validateAndRecord(HttpValidationResult validationResult,
                                     HttpResponseValidatorWithReturn validator) {
 
-        HeaderDataNode header = new HeaderDataNode(validationResult.getResponse());
-        DataNode body = createBodyDataNode(validationResult.getResponse());
+        HttpTimings callTimings = validationResult.getCallTimings();
+
+        long start = Time.nanoTime();
+        HeaderDataNode header = new HeaderDataNode(validationResult.getResponse(), validationResult.getElapsedTime());
+        DataNodeCheckCoverage bodyCoverage = new DataNodeCheckCoverage();
+        DataNode body = createBodyDataNode(validationResult.getResponse(), bodyCoverage);
+        long validationStart = callTimings.recordSince(HttpTimingPhase.JSON_PARSE, start);
 
         validationResult.setResponseHeaderNode(header);
         validationResult.setResponseBodyNode(body);
+        validationResult.setResponseBodyCoverage(bodyCoverage);
 
         ExpectationHandler recordAndThrowHandler = (valueMatcher, actualPath, actualValue, message) -> {
             validationResult.addMismatch(message);
@@ -576,33 +725,61 @@ public class Http {
 
             throw e;
         } finally {
+            callTimings.recordSince(HttpTimingPhase.VALIDATION, validationStart);
             renderResponse(validationResult);
         }
     }
 
-    private DataNode createBodyDataNode(HttpResponse response) {
+    private DataNode createBodyDataNode(HttpResponse response, DataNodeCheckCoverage coverage) {
         try {
             DataNodeId id = new DataNodeId("body");
 
             if (!response.isBinary() && response.nullOrEmptyTextContent()) {
-                return new StructuredDataNode(id, new TraceableValue(null));
+                return new StructuredDataNode(id, DataNodeBuilder.traceable(id, null, coverage));
             }
 
             if (response.isText()) {
-                return new StructuredDataNode(id, new TraceableValue(response.getTextContent()));
+                return new StructuredDataNode(id, DataNodeBuilder.traceable(id, response.getTextContent(), coverage));
             }
 
+            // spilled content is parsed straight from its temp file, lazy nodes and spilling have separate sizes
             if (response.isJson()) {
-                Object object = JsonUtils.deserialize(response.getTextContent());
-                return DataNodeBuilder.fromValue(id, object);
+                return response.getTextContentSize() >= getCfg().getHttpLazyBodySize() ?
+                        DataNodeBuilder.fromJsonLazily(id, response.getTextContentAsStream(), coverage) :
+                        DataNodeBuilder.fromJson(id, response.getTextContentAsStream(), coverage);
             }
 
-            return new StructuredDataNode(id, new TraceableValue(response.getBinaryContent()));
+            return new StructuredDataNode(id, DataNodeBuilder.traceable(id, binaryBodyValue(response), coverage));
         } catch (JsonParseException e) {
-            throw new RuntimeException("error parsing body: " + response.getTextContent(), e);
+            throw new RuntimeException("error parsing body: " + textContentPrefix(response), e);
         }
     }
 
+    // large content is stored in a temp file, only its beginning goes to the error message
+    private static String textContentPrefix(HttpResponse response) {
+        try (Reader reader = new InputStreamReader(response.getTextContentAsStream(), StandardCharsets.UTF_8)) {
+            char[] prefix = new char[PARSE_ERROR_CONTENT_PREFIX_SIZE];
+            int read = IOUtils.read(reader, prefix);
+
+            return read < prefix.length ?
+                    new String(prefix, 0, read) :
+                    new String(prefix) + "... (" + response.getTextContentSize() + " bytes total)";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // content above 2GB can't be mapped into a single buffer and is exposed as a stream
+    private static Object binaryBodyValue(HttpResponse response) {
+        if (!response.isBinaryContentSpilled()) {
+            return response.getBinaryContent();
+        }
+
+        return response.isBinaryContentMappable() ?
+                response.getBinaryContentAsBuffer() :
+                response.getBinaryContentAsStream();
+    }
+
     private void validateStatusCode(HttpValidationResult validationResult) {
         DataNode statusCode = validationResult.getHeaderNode().statusCode();
         if (statusCode.getTraceableValue().getCheckLevel() != CheckLevel.None) {
@@ -650,75 +827,146 @@ public class Http {
         } else if (!result.hasResponseContent()) {
             ConsoleOutputs.out(Color.YELLOW, "[no content]");
         } else {
-            new DataNodeAnsiPrinter().print(result.getBodyNode());
+            DataNodeAnsiPrinter printer = new DataNodeAnsiPrinter(
+                    getCfg().getHttpRenderMaxLines(),
+                    getCfg().getHttpRenderMaxArrayElements(),
+                    getCfg().getHttpRenderMaxStringWidth());
+
+            DataNode body = result.getBodyNode();
+            if (getCfg().isHttpRenderAsync()) {
+                // nodes are rendered on this thread, console thread only prints the snapshot
+                List<Object[]> lines = printer.render(body);
+                ConsoleOutputs.async(() -> lines.forEach(ConsoleOutputs::out));
+            } else {
+                printer.print(body);
+            }
         }
     }
 
     private HttpResponse request(String method, String fullUrl,
                                  HttpHeader requestHeader,
                                  HttpRequestBody requestBody) {
+        return request(method, fullUrl, requestHeader, requestBody, UnaryOperator.identity());
+    }
+
+    private HttpResponse request(String method, String fullUrl,
+                                 HttpHeader requestHeader,
+                                 HttpRequestBody requestBody,
+                                 UnaryOperator<HttpTransport> transportDecorator) {
         if (requestHeader == null) {
             throw new IllegalArgumentException("Request header is null, check your header provider is not returning null");
         }
 
-        try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(fullUrl).openConnection();
-            connection.setInstanceFollowRedirects(false);
-            connection.setRequestMethod(method);
-            connection.setRequestProperty("Content-Type", requestBody.type());
-            connection.setRequestProperty("Accept", requestBody.type());
-            connection.setRequestProperty("User-Agent", getCfg().getUserAgent());
-            requestHeader.forEachProperty(connection::setRequestProperty);
-
-            if (! (requestBody instanceof EmptyRequestBody)) {
-                connection.setDoOutput(true);
-
-                if (requestBody.isBinary()) {
-                    connection.getOutputStream().write(requestBody.asBytes());
-                } else {
-                    IOUtils.write(requestBody.asString(), connection.getOutputStream(), UTF_8);
-                }
-            }
+        HttpTransport transport = transportDecorator.apply(HttpTransports.transport(fullUrl));
+        HttpRequestBody sentBody = encodeRequestBody(requestHeader, requestBody);
+        HttpTransportRequest transportRequest = new HttpTransportRequest(method, fullUrl,
+                effectiveRequestHeader(requestHeader, requestBody, sentBody), sentBody);
+
+        HttpContentSizes contentSizes = new HttpContentSizes();
+        recordRequestSize(contentSizes, transportRequest, requestBody);
+
+        HttpTimings timings = transportRequest.getTimings();
+        HttpPermit permit = HttpRateLimits.acquire(fullUrl);
+        if (permit.isLimited()) {
+            timings.record(HttpTimingPhase.PERMIT_WAIT, permit.getWaitNanos());
+        }
+
+        // in-flight slot is held until response body is read
+        try (HttpPermit ignored = permit;
+             HttpTransportResponse transportResponse = transport.send(transportRequest)) {
 
-            return extractHttpResponse(connection);
+            long bodyReadStart = Time.nanoTime();
+            HttpResponse httpResponse = extractHttpResponse(transportResponse, contentSizes);
+            timings.recordSince(HttpTimingPhase.BODY_READ, bodyReadStart);
+
+            timings.setUrl(fullUrl);
+            timings.setStatusCode(httpResponse.getStatusCode());
+
+            httpResponse.setTransport(transport.getName(), transport.stats());
+            httpResponse.setTimings(timings);
+            httpResponse.setProtocol(transportResponse.getProtocol());
+            httpResponse.setReplayed(transportResponse.isReplayed());
+            httpResponse.setCacheStatus(transportResponse.getCacheStatus());
+            httpResponse.setContentSizes(contentSizes);
+
+            return httpResponse;
         } catch (IOException e) {
             throw new RuntimeException("couldn't " + method + ": " + fullUrl, e);
         }
     }
 
-    private HttpResponse extractHttpResponse(HttpURLConnection connection) throws IOException {
-        HttpResponse httpResponse = new HttpResponse();
-        populateResponseHeader(httpResponse, connection);
+    private HttpHeader effectiveRequestHeader(HttpHeader requestHeader, HttpRequestBody requestBody, HttpRequestBody sentBody) {
+        HttpHeaderFields.Builder header = HttpHeader.builder()
+                .set("Content-Type", requestBody.type())
+                .set("Accept", requestBody.type())
+                .set("User-Agent", getCfg().getUserAgent());
 
-        InputStream inputStream = getInputStream(connection);
-        httpResponse.setStatusCode(connection.getResponseCode());
-        httpResponse.setContentType(connection.getContentType() != null ? connection.getContentType() : "");
+        String acceptEncoding = HttpContentEncoding.acceptEncoding(getCfg().getHttpAcceptEncoding());
+        if (acceptEncoding != null) {
+            header.set("Accept-Encoding", acceptEncoding);
+        }
 
-        if (!httpResponse.isBinary()) {
-            httpResponse.setTextContent(inputStream != null ? IOUtils.toString(inputStream, StandardCharsets.UTF_8) : "");
-        } else {
-            httpResponse.setBinaryContent(inputStream != null ? IOUtils.toByteArray(inputStream) : new byte[0]);
+        header.setAll(requestHeader.getFields());
+
+        if (sentBody != requestBody) {
+            header.set("Content-Encoding", HttpContentEncoding.GZIP);
         }
 
-        return httpResponse;
+        return new HttpHeader(header.build());
     }
 
-    private InputStream getInputStream(HttpURLConnection connection) throws IOException {
-        InputStream inputStream = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+    private HttpRequestBody encodeRequestBody(HttpHeader requestHeader, HttpRequestBody requestBody) {
+        int gzipSize = getCfg().getHttpRequestGzipSize();
+        if (gzipSize <= 0 || requestBody.isStreamed() || requestBody instanceof EmptyRequestBody ||
+                requestHeader.containsKey("Content-Encoding")) {
+            return requestBody;
+        }
+
+        return requestBody.contentLength() >= gzipSize ?
+                new GzipRequestBody(requestBody) :
+                requestBody;
+    }
 
-        if ("gzip".equals(connection.getContentEncoding())) {
-            inputStream = new GZIPInputStream(inputStream);
+    private static void recordRequestSize(HttpContentSizes contentSizes, HttpTransportRequest transportRequest,
+                                          HttpRequestBody requestBody) {
+        if (!transportRequest.hasBody()) {
+            return;
         }
 
-        return inputStream;
+        HttpRequestBody sentBody = transportRequest.getBody();
+        long originalSize = requestBody.contentLength();
+        if (originalSize >= 0) {
+            contentSizes.setRequest(sentBody != requestBody ? HttpContentEncoding.GZIP : null,
+                    originalSize, sentBody.contentLength());
+        }
     }
 
-    private void populateResponseHeader(HttpResponse httpResponse, HttpURLConnection connection) {
-        connection.getHeaderFields().forEach((key, values) -> {
-            if (!values.isEmpty()) {
-                httpResponse.addHeader(key, values.get(0));
-            }
-        });
+    private HttpResponse extractHttpResponse(HttpTransportResponse transportResponse,
+                                             HttpContentSizes contentSizes) throws IOException {
+        HttpResponse httpResponse = new HttpResponse();
+        transportResponse.getHeader().forEachProperty(httpResponse::addHeader);
+
+        httpResponse.setStatusCode(transportResponse.getStatusCode());
+        httpResponse.setContentType(transportResponse.getContentType() != null ? transportResponse.getContentType() : "");
+
+        CountingInputStream received = transportResponse.getBody() != null ?
+                new CountingInputStream(transportResponse.getBody()) : null;
+        CountingInputStream decoded = received != null ?
+                new CountingInputStream(HttpContentEncoding.decode(transportResponse.getContentEncoding(), received)) : null;
+
+        if (httpResponse.isJson()) {
+            JsonContentReader.read(httpResponse, decoded, getCfg().getHttpJsonSpillSize());
+        } else if (!httpResponse.isBinary()) {
+            httpResponse.setTextContentAsBytes(decoded != null ? IOUtils.toByteArray(decoded) : new byte[0]);
+        } else {
+            BinaryContentReader.read(httpResponse, decoded, getCfg().getHttpBinarySpillSize());
+        }
+
+        contentSizes.setResponse(transportResponse.getContentEncoding(),
+                received != null ? received.getByteCount() : 0,
+                decoded != null ? decoded.getByteCount() : 0);
+
+        return httpResponse;
     }
 
     /**
@@ -745,7 +993,7 @@ public class Http {
         return v;
     }
 
-    private interface HttpCall {
+    interface HttpCall {
         HttpResponse execute(String fullUrl, HttpHeader fullHeader);
     }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http;
+
+import com.twosigma.webtau.http.json.JsonRequestBody;
+import com.twosigma.webtau.http.request.HttpQueryParams;
+import com.twosigma.webtau.http.request.HttpRequestBody;
+import com.twosigma.webtau.http.validation.HttpResponseValidator;
+import com.twosigma.webtau.http.validation.HttpResponseValidatorIgnoringReturn;
+import com.twosigma.webtau.http.validation.HttpResponseValidatorWithReturn;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+
+/**
+ * Non blocking variants of http calls. Validation is executed when response arrives.
+ * Each call is still reported as a step of the scenario that initiated it.
+ * Calls are executed by a pool of <code>httpAsyncThreads</code> threads.
+ */
+public class HttpAsync {
+    private final Http http;
+    private volatile ExecutorService executor;
+
+    HttpAsync(Http http) {
+        this.http = http;
+    }
+
+    public <E> CompletableFuture<E> get(String url, HttpQueryParams queryParams, HttpHeader header, HttpResponseValidatorWithReturn validator) {
+        return execute("GET", queryParams.attachToUrl(url), header, null, validator);
+    }
+
+    public CompletableFuture<Void> get(String url, HttpQueryParams queryParams, HttpHeader header, HttpResponseValidator validator) {
+        return get(url, queryParams, header, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> get(String url, HttpQueryParams queryParams, HttpResponseValidatorWithReturn validator) {
+        return get(url, queryParams, HttpHeader.EMPTY, validator);
+    }
+
+    public CompletableFuture<Void> get(String url, HttpQueryParams queryParams, HttpResponseValidator validator) {
+        return get(url, queryParams, HttpHeader.EMPTY, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> get(String url, HttpHeader header, HttpResponseValidatorWithReturn validator) {
+        return get(url, HttpQueryParams.EMPTY, header, validator);
+    }
+
+    public CompletableFuture<Void> get(String url, HttpHeader header, HttpResponseValidator validator) {
+        return get(url, HttpQueryParams.EMPTY, header, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> get(String url, HttpResponseValidatorWithReturn validator) {
+        return get(url, HttpQueryParams.EMPTY, HttpHeader.EMPTY, validator);
+    }
+
+    public CompletableFuture<Void> get(String url, HttpResponseValidator validator) {
+        return get(url, HttpQueryParams.EMPTY, HttpHeader.EMPTY, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> post(String url, HttpHeader header, HttpRequestBody requestBody, HttpResponseValidatorWithReturn validator) {
+        return execute("POST", url, header, requestBody, validator);
+    }
+
+    public CompletableFuture<Void> post(String url, HttpHeader header, HttpRequestBody requestBody, HttpResponseValidator validator) {
+        return post(url, header, requestBody, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> post(String url, HttpRequestBody requestBody, HttpResponseValidatorWithReturn validator) {
+        return post(url, HttpHeader.EMPTY, requestBody, validator);
+    }
+
+    public CompletableFuture<Void> post(String url, HttpRequestBody requestBody, HttpResponseValidator validator) {
+        return post(url, HttpHeader.EMPTY, requestBody, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> post(String url, HttpHeader header, Map<String, Object> requestBody, HttpResponseValidatorWithReturn validator) {
+        return post(url, header, new JsonRequestBody(requestBody), validator);
+    }
+
+    public CompletableFuture<Void> post(String url, HttpHeader header, Map<String, Object> requestBody, HttpResponseValidator validator) {
+        return post(url, header, new JsonRequestBody(requestBody), new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> post(String url, Map<String, Object> requestBody, HttpResponseValidatorWithReturn validator) {
+        return post(url, HttpHeader.EMPTY, new JsonRequestBody(requestBody), validator);
+    }
+
+    public CompletableFuture<Void> post(String url, Map<String, Object> requestBody, HttpResponseValidator validator) {
+        return post(url, HttpHeader.EMPTY, new JsonRequestBody(requestBody), new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> put(String url, HttpHeader header, HttpRequestBody requestBody, HttpResponseValidatorWithReturn validator) {
+        return execute("PUT", url, header, requestBody, validator);
+    }
+
+    public CompletableFuture<Void> put(String url, HttpHeader header, HttpRequestBody requestBody, HttpResponseValidator validator) {
+        return put(url, header, requestBody, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> put(String url, HttpRequestBody requestBody, HttpResponseValidatorWithReturn validator) {
+        return put(url, HttpHeader.EMPTY, requestBody, validator);
+    }
+
+    public CompletableFuture<Void> put(String url, HttpRequestBody requestBody, HttpResponseValidator validator) {
+        return put(url, HttpHeader.EMPTY, requestBody, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> put(String url, HttpHeader header, Map<String, Object> requestBody, HttpResponseValidatorWithReturn validator) {
+        return put(url, header, new JsonRequestBody(requestBody), validator);
+    }
+
+    public CompletableFuture<Void> put(String url, HttpHeader header, Map<String, Object> requestBody, HttpResponseValidator validator) {
+        return put(url, header, new JsonRequestBody(requestBody), new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> put(String url, Map<String, Object> requestBody, HttpResponseValidatorWithReturn validator) {
+        return put(url, HttpHeader.EMPTY, new JsonRequestBody(requestBody), validator);
+    }
+
+    public CompletableFuture<Void> put(String url, Map<String, Object> requestBody, HttpResponseValidator validator) {
+        return put(url, HttpHeader.EMPTY, new JsonRequestBody(requestBody), new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> delete(String url, HttpHeader header, HttpResponseValidatorWithReturn validator) {
+        return execute("DELETE", url, header, null, validator);
+    }
+
+    public CompletableFuture<Void> delete(String url, HttpHeader header, HttpResponseValidator validator) {
+        return delete(url, header, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> CompletableFuture<E> delete(String url, HttpResponseValidatorWithReturn validator) {
+        return delete(url, HttpHeader.EMPTY, validator);
+    }
+
+    public CompletableFuture<Void> delete(String url, HttpResponseValidator validator) {
+        return delete(url, HttpHeader.EMPTY, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    private <E> CompletableFuture<E> execute(String requestMethod, String url,
+                                             HttpHeader header,
+                                             HttpRequestBody requestBody,
+                                             HttpResponseValidatorWithReturn validator) {
+        return http.executeAndValidateHttpCallAsync(getExecutor(), requestMethod, url, header, requestBody, validator);
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = createExecutor(getCfg().getHttpAsyncThreads());
+                }
+            }
+        }
+
+        return executor;
+    }
+
+    private static ExecutorService createExecutor(int numberOfThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = (runnable) -> {
+            Thread thread = new Thread(runnable, "webtau-http-async-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.http;
+
+import com.twosigma.webtau.http.validation.HttpValidationResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Result of an async http call. Validation result of the call becomes the last validation result
+ * of the thread that awaits the call, so <code>http.doc.capture</code> works the same way as after a sync call.
+ * @param <R> value returned from a validation block
+ */
+class HttpAsyncCallFuture<R> extends CompletableFuture<R> {
+    private final HttpValidationResult validationResult;
+    private final Consumer<HttpValidationResult> publisher;
+
+    HttpAsyncCallFuture(HttpValidationResult validationResult, Consumer<HttpValidationResult> publisher) {
+        this.validationResult = validationResult;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public R join() {
+        try {
+            return super.join();
+        } finally {
+            publish();
+        }
+    }
+
+    @Override
+    public R get() throws InterruptedException, ExecutionException {
+        try {
+            return super.get();
+        } finally {
+            publish();
+        }
+    }
+
+    @Override
+    public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return super.get(timeout, unit);
+        } finally {
+            publish();
+        }
+    }
+
+    private void publish() {
+        if (isDone() && !isCancelled()) {
+            publisher.accept(validationResult);
+        }
+    }
+}
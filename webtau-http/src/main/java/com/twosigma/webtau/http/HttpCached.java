@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http;
+
+import com.twosigma.webtau.http.request.HttpQueryParams;
+import com.twosigma.webtau.http.validation.HttpResponseValidator;
+import com.twosigma.webtau.http.validation.HttpResponseValidatorIgnoringReturn;
+import com.twosigma.webtau.http.validation.HttpResponseValidatorWithReturn;
+
+/**
+ * GET calls that reuse a response received within time to live. Response is keyed by full url and full header.
+ * Concurrent calls with the same key wait for a single network call.
+ * Number of kept responses is bounded by <code>httpCacheMaxEntries</code>.
+ */
+public class HttpCached {
+    private final Http http;
+    private final long ttlMillis;
+
+    HttpCached(Http http, long ttlMillis) {
+        this.http = http;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public <E> E get(String url, HttpQueryParams queryParams, HttpHeader header, HttpResponseValidatorWithReturn validator) {
+        return http.executeAndValidateHttpCall("GET", queryParams.attachToUrl(url),
+                (fullUrl, fullHeader) -> http.getToFullUrlMemoized(fullUrl, fullHeader, ttlMillis),
+                header, null, validator);
+    }
+
+    public void get(String url, HttpQueryParams queryParams, HttpHeader header, HttpResponseValidator validator) {
+        get(url, queryParams, header, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> E get(String url, HttpQueryParams queryParams, HttpResponseValidatorWithReturn validator) {
+        return get(url, queryParams, HttpHeader.EMPTY, validator);
+    }
+
+    public void get(String url, HttpQueryParams queryParams, HttpResponseValidator validator) {
+        get(url, queryParams, HttpHeader.EMPTY, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> E get(String url, HttpHeader header, HttpResponseValidatorWithReturn validator) {
+        return get(url, HttpQueryParams.EMPTY, header, validator);
+    }
+
+    public void get(String url, HttpHeader header, HttpResponseValidator validator) {
+        get(url, HttpQueryParams.EMPTY, header, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+
+    public <E> E get(String url, HttpResponseValidatorWithReturn validator) {
+        return get(url, HttpQueryParams.EMPTY, HttpHeader.EMPTY, validator);
+    }
+
+    public void get(String url, HttpResponseValidator validator) {
+        get(url, HttpQueryParams.EMPTY, HttpHeader.EMPTY, new HttpResponseValidatorIgnoringReturn(validator));
+    }
+}
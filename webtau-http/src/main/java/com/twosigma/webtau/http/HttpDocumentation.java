@@ -104,7 +104,7 @@ public class HttpDocumentation {
             Path fullPath = path.resolve(fileName);
 
             if (lastValidationResult.getResponse().isBinary()) {
-                FileUtils.writeBinaryContent(fullPath, lastValidationResult.getResponse().getBinaryContent());
+                FileUtils.writeBinaryContent(fullPath, lastValidationResult.getResponse().getBinaryContentAsStream());
             } else {
                 FileUtils.writeTextContent(fullPath,
                         prettyPrintContent(lastValidationResult.getResponseType(),
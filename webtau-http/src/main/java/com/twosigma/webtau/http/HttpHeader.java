@@ -27,60 +27,94 @@ import static java.util.stream.Collectors.joining;
 public class HttpHeader {
     private static final Set<String> KEYS_TO_REDACT = new HashSet<>(Arrays.asList("authorization", "cookie", "set-cookie"));
 
-    public static final HttpHeader EMPTY = new HttpHeader(Collections.emptyMap());
+    public static final HttpHeader EMPTY = new HttpHeader(HttpHeaderFields.EMPTY);
 
-    private Map<String, String> header;
+    private HttpHeaderFields fields;
 
     public HttpHeader() {
-        this.header = new LinkedHashMap<>();
+        this(HttpHeaderFields.EMPTY);
     }
 
     public HttpHeader(Map<String, String> header) {
-        this.header = header;
+        this(HttpHeaderFields.fromMap(header));
     }
 
+    public HttpHeader(HttpHeaderFields fields) {
+        this.fields = fields;
+    }
+
+    public static HttpHeaderFields.Builder builder() {
+        return HttpHeaderFields.builder();
+    }
+
+    public HttpHeaderFields getFields() {
+        return fields;
+    }
+
+    /**
+     * iterates over every header value, a multi-valued header is passed once per value
+     * @param consumer name and value consumer
+     */
     public void forEachProperty(BiConsumer<String, String> consumer) {
-        header.forEach(consumer);
+        fields.forEachValue(consumer);
+    }
+
+    public void forEachField(BiConsumer<String, List<String>> consumer) {
+        fields.forEachField(consumer);
     }
 
     public <T> Stream<T> mapProperties(BiFunction<String, String, T> mapper) {
-        return header.entrySet().stream().map(e -> mapper.apply(e.getKey(), e.getValue()));
+        List<T> result = new ArrayList<>();
+        fields.forEachValue((k, v) -> result.add(mapper.apply(k, v)));
+
+        return result.stream();
     }
 
     public HttpHeader merge(Map<String, String> properties) {
-        Map<String, String> copy = new LinkedHashMap<>(this.header);
-        copy.putAll(properties);
+        HttpHeaderFields.Builder builder = fields.toBuilder();
+        properties.forEach(builder::set);
 
-        return new HttpHeader(copy);
+        return new HttpHeader(builder.build());
     }
 
     public HttpHeader merge(HttpHeader otherHeaders) {
-        return merge(otherHeaders.header);
+        return new HttpHeader(fields.toBuilder().setAll(otherHeaders.fields).build());
     }
 
+    /**
+     * header names are case-insensitive
+     * @param key header name
+     * @return true if header is present
+     */
     public boolean containsKey(String key) {
-        return header.containsKey(key);
+        return fields.contains(key);
     }
 
+    /**
+     * @param key case-insensitive header name
+     * @return first value of the header or null
+     */
     public String get(String key) {
-        return header.get(key);
+        return fields.getFirst(key);
     }
 
     public String caseInsensitiveGet(String key) {
-        return header.entrySet().stream()
-                .filter(entry -> key.equalsIgnoreCase(entry.getKey()))
-                .findFirst()
-                .map(Map.Entry::getValue)
-                .orElse(null);
+        return fields.getFirst(key);
+    }
+
+    /**
+     * @param key case-insensitive header name
+     * @return all the values of the header in the order they were received, empty list if header is not present
+     */
+    public List<String> getAll(String key) {
+        return fields.getAll(key);
     }
 
     /**
-     * Adds an addition header to this HttpHeader object.  This function
-     * may throw UnsupportedOperationException depending on how HttpHeader
-     * was constructed.
+     * Adds an addition header to this HttpHeader object.
      *
-     * For that reason, this method is deprecated and you should use either
-     * <code>with(String key, String value)</code> or one of the <code>merge</code>
+     * This method is deprecated as it is the only mutating one,
+     * use either <code>with(String key, String value)</code> or one of the <code>merge</code>
      * methods which are non-mutating.
      *
      * @deprecated use <code>with(String key, String value)</code>
@@ -89,23 +123,18 @@ public class HttpHeader {
      */
     @Deprecated
     public void add(String key, String value) {
-        header.put(key, value);
+        fields = fields.toBuilder().set(key, value).build();
     }
 
     public HttpHeader with(String key, String value) {
-        Map<String, String> copy = new LinkedHashMap<>(this.header);
-        copy.put(key, value);
-
-        return new HttpHeader(copy);
+        return new HttpHeader(fields.toBuilder().set(key, value).build());
     }
 
     public HttpHeader redactSecrets() {
-        Map<String, String> redacted = new LinkedHashMap<>();
-        for (Map.Entry<String, String> entry : header.entrySet()) {
-            redacted.put(entry.getKey(), redactValueIfRequired(entry.getKey(), entry.getValue()));
-        }
+        HttpHeaderFields.Builder redacted = HttpHeaderFields.builder();
+        fields.forEachValue((key, value) -> redacted.add(key, redactValueIfRequired(key, value)));
 
-        return new HttpHeader(redacted);
+        return new HttpHeader(redacted.build());
     }
 
     public List<Map<String, String>> toListOfMaps() {
@@ -129,19 +158,17 @@ public class HttpHeader {
         }
 
         HttpHeader that = (HttpHeader) o;
-        return Objects.equals(header, that.header);
+        return Objects.equals(fields, that.fields);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(header);
+        return Objects.hash(fields);
     }
 
     @Override
     public String toString() {
-        return header.entrySet()
-                .stream()
-                .map(e -> e.getKey() + ": " + e.getValue())
+        return mapProperties((k, v) -> k + ": " + v)
                 .collect(joining("\n"));
     }
 
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * immutable, ordered storage of http header fields. Names are matched case-insensitively
+ * through a lower case index, a name can have multiple values.
+ * Use {@link #builder()} to accumulate fields without copying on every addition.
+ */
+public class HttpHeaderFields {
+    public static final HttpHeaderFields EMPTY = new HttpHeaderFields(Collections.emptyMap());
+
+    private final Map<String, Field> fieldsByLowerCaseName;
+
+    private HttpHeaderFields(Map<String, Field> fieldsByLowerCaseName) {
+        this.fieldsByLowerCaseName = fieldsByLowerCaseName;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static HttpHeaderFields fromMap(Map<String, String> values) {
+        Builder builder = new Builder();
+        values.forEach(builder::set);
+        return builder.build();
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.addAll(this);
+        return builder;
+    }
+
+    public boolean isEmpty() {
+        return fieldsByLowerCaseName.isEmpty();
+    }
+
+    public int size() {
+        return fieldsByLowerCaseName.size();
+    }
+
+    public boolean contains(String name) {
+        return find(name) != null;
+    }
+
+    /**
+     * @param name case-insensitive field name
+     * @return original case of the field name or null if the field is not present
+     */
+    public String originalName(String name) {
+        Field field = find(name);
+        return field != null ? field.name : null;
+    }
+
+    public String getFirst(String name) {
+        Field field = find(name);
+        return field != null ? field.values.get(0) : null;
+    }
+
+    public List<String> getAll(String name) {
+        Field field = find(name);
+        return field != null ? field.values : Collections.emptyList();
+    }
+
+    /**
+     * iterates over every value, a multi-valued field is passed once per value
+     * @param consumer name and value consumer
+     */
+    public void forEachValue(BiConsumer<String, String> consumer) {
+        fieldsByLowerCaseName.values().forEach(field ->
+                field.values.forEach(value -> consumer.accept(field.name, value)));
+    }
+
+    public void forEachField(BiConsumer<String, List<String>> consumer) {
+        fieldsByLowerCaseName.values().forEach(field -> consumer.accept(field.name, field.values));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        HttpHeaderFields that = (HttpHeaderFields) o;
+        return Objects.equals(fieldsByLowerCaseName, that.fieldsByLowerCaseName);
+    }
+
+    @Override
+    public int hashCode() {
+        return fieldsByLowerCaseName.hashCode();
+    }
+
+    private Field find(String name) {
+        return name == null ? null : fieldsByLowerCaseName.get(lowerCase(name));
+    }
+
+    private static String lowerCase(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * mutable accumulator. {@link #build()} hands its storage over to the built instance without copying,
+     * modifications after that start from a fresh copy so built instances never change.
+     */
+    public static class Builder {
+        private Map<String, Field> fields;
+        private boolean shared;
+
+        private Builder() {
+            this.fields = new LinkedHashMap<>();
+        }
+
+        public Builder add(String name, String value) {
+            if (name == null) {
+                return this;
+            }
+
+            ensureOwned();
+            String key = lowerCase(name);
+            Field existing = fields.get(key);
+            fields.put(key, existing == null ? new Field(name, value) : existing.withValue(value));
+
+            return this;
+        }
+
+        public Builder set(String name, String value) {
+            if (name == null) {
+                return this;
+            }
+
+            ensureOwned();
+            fields.put(lowerCase(name), new Field(name, value));
+
+            return this;
+        }
+
+        public Builder setAll(String name, List<String> values) {
+            if (name == null || values.isEmpty()) {
+                return this;
+            }
+
+            ensureOwned();
+            fields.put(lowerCase(name), new Field(name, Collections.unmodifiableList(new ArrayList<>(values))));
+
+            return this;
+        }
+
+        public Builder remove(String name) {
+            if (name == null) {
+                return this;
+            }
+
+            ensureOwned();
+            fields.remove(lowerCase(name));
+
+            return this;
+        }
+
+        public Builder addAll(HttpHeaderFields other) {
+            ensureOwned();
+            other.fieldsByLowerCaseName.forEach((key, field) -> {
+                Field existing = fields.get(key);
+                fields.put(key, existing == null ? field : existing.withValues(field.values));
+            });
+
+            return this;
+        }
+
+        public Builder setAll(HttpHeaderFields other) {
+            ensureOwned();
+            fields.putAll(other.fieldsByLowerCaseName);
+
+            return this;
+        }
+
+        public HttpHeaderFields build() {
+            if (fields.isEmpty()) {
+                return EMPTY;
+            }
+
+            shared = true;
+            return new HttpHeaderFields(Collections.unmodifiableMap(fields));
+        }
+
+        private void ensureOwned() {
+            if (shared) {
+                fields = new LinkedHashMap<>(fields);
+                shared = false;
+            }
+        }
+    }
+
+    private static class Field {
+        private final String name;
+        private final List<String> values;
+
+        Field(String name, String value) {
+            this(name, Collections.singletonList(value));
+        }
+
+        Field(String name, List<String> values) {
+            this.name = name;
+            this.values = values;
+        }
+
+        Field withValue(String value) {
+            return withValues(Collections.singletonList(value));
+        }
+
+        Field withValues(List<String> additional) {
+            List<String> combined = new ArrayList<>(values.size() + additional.size());
+            combined.addAll(values);
+            combined.addAll(additional);
+
+            return new Field(name, Collections.unmodifiableList(combined));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Field field = (Field) o;
+            return name.equals(field.name) && values.equals(field.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, values);
+        }
+    }
+}
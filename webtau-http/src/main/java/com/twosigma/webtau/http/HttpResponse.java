@@ -16,43 +16,243 @@
 
 package com.twosigma.webtau.http;
 
-import com.twosigma.webtau.utils.StringUtils;
+import com.twosigma.webtau.http.cache.HttpCacheStatus;
+import com.twosigma.webtau.http.encoding.HttpContentSizes;
+import com.twosigma.webtau.http.timing.HttpTimings;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 
 public class HttpResponse {
-    private String textContent;
+    /**
+     * header set by fault injecting proxies (e.g. test server fault proxy) to list faults injected into the response
+     */
+    public static final String INJECTED_FAULT_HEADER = "X-Webtau-Injected-Fault";
+
+    private byte[] textContent;
+    private Path textContentFile;
     private byte[] binaryContent;
+    private ByteBuffer binaryContentBuffer;
+    private Path binaryContentFile;
+    private long binaryContentSize;
     private String contentType;
 
     private int statusCode;
+    private final HttpHeaderFields.Builder headerBuilder;
     private HttpHeader header;
 
+    private String transportName;
+    private Map<String, ?> transportStats;
+    private String protocol;
+    private HttpTimings timings;
+    private boolean replayed;
+    private HttpCacheStatus cacheStatus;
+    private HttpContentSizes contentSizes;
+
     public HttpResponse() {
-        header = new HttpHeader();
+        headerBuilder = HttpHeader.builder();
+        header = HttpHeader.EMPTY;
     }
 
+    /**
+     * text content is kept as UTF-8 bytes (or in a temp file for large JSON responses) and decoded on every call
+     * @return text content or null if there is no text content
+     */
     public String getTextContent() {
-        return textContent;
+        if (textContentFile != null) {
+            try {
+                return new String(Files.readAllBytes(textContentFile), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return textContent != null ? new String(textContent, StandardCharsets.UTF_8) : null;
+    }
+
+    public InputStream getTextContentAsStream() {
+        if (textContentFile != null) {
+            try {
+                return Files.newInputStream(textContentFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return new ByteArrayInputStream(textContent != null ? textContent : new byte[0]);
     }
 
     public void setTextContent(String content) {
-        this.textContent = content;
+        this.textContent = content != null ? content.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    public void setTextContentAsBytes(byte[] utf8Content) {
+        this.textContent = utf8Content;
+    }
+
+    public long getTextContentSize() {
+        if (textContentFile != null) {
+            try {
+                return Files.size(textContentFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return textContent != null ? textContent.length : 0;
     }
 
     public boolean nullOrEmptyTextContent() {
-        return StringUtils.nullOrEmpty(textContent);
+        return textContentFile == null && (textContent == null || textContent.length == 0);
+    }
+
+    /**
+     * large JSON content is stored in a temp file and parsed from it when body nodes are built,
+     * file is deleted by {@link #releaseTextContent()}
+     * @param file temp file with text content
+     */
+    public void setJsonContentFile(Path file) {
+        this.textContentFile = file;
+        this.textContent = null;
+    }
+
+    public boolean isTextContentSpilled() {
+        return textContentFile != null;
     }
 
+    /**
+     * content stored in a temp file is read into a new array on every call,
+     * use {@link #getBinaryContentAsStream()} or {@link #getBinaryContentAsBuffer()} to avoid it
+     * @return binary content
+     */
     public byte[] getBinaryContent() {
-        return binaryContent;
+        if (binaryContentFile == null) {
+            return binaryContent;
+        }
+
+        try {
+            return Files.readAllBytes(binaryContentFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * content stored in a temp file is mapped on first call. Content above 2GB doesn't fit a single buffer,
+     * use {@link #getBinaryContentAsStream()} for it
+     * @return read only view of binary content, memory mapped if content is stored in a temp file
+     */
+    public ByteBuffer getBinaryContentAsBuffer() {
+        if (binaryContentBuffer == null && binaryContentFile != null) {
+            binaryContentBuffer = map(binaryContentFile, binaryContentSize);
+        }
+
+        if (binaryContentBuffer != null) {
+            return binaryContentBuffer.duplicate();
+        }
+
+        return binaryContent != null ? ByteBuffer.wrap(binaryContent).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * @return binary content as a stream, content stored in a temp file is streamed from the file
+     */
+    public InputStream getBinaryContentAsStream() {
+        if (binaryContentFile != null) {
+            try {
+                return Files.newInputStream(binaryContentFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return new ByteArrayInputStream(binaryContent != null ? binaryContent : new byte[0]);
+    }
+
+    public long getBinaryContentSize() {
+        if (binaryContentFile != null) {
+            return binaryContentSize;
+        }
+
+        return binaryContent != null ? binaryContent.length : 0;
+    }
+
+    /**
+     * @return true if content fits a single {@link ByteBuffer}
+     */
+    public boolean isBinaryContentMappable() {
+        return getBinaryContentSize() <= Integer.MAX_VALUE;
+    }
+
+    public boolean isBinaryContentSpilled() {
+        return binaryContentFile != null;
     }
 
     public void setBinaryContent(byte[] binaryContent) {
         this.binaryContent = binaryContent;
     }
 
+    /**
+     * uses given file as binary content, file is mapped on first access and deleted by {@link #releaseBinaryContent()}
+     * @param file temp file with binary content
+     */
+    public void setBinaryContentFile(Path file) {
+        try {
+            this.binaryContentSize = Files.size(file);
+            this.binaryContentFile = file;
+            this.binaryContentBuffer = null;
+            this.binaryContent = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * drops text content and deletes its temp file, content must not be accessed afterwards
+     */
+    public void releaseTextContent() {
+        textContent = null;
+
+        if (textContentFile == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(textContentFile);
+        } catch (IOException ignored) {
+            // file is marked to be deleted on exit
+        }
+
+        textContentFile = null;
+    }
+
+    /**
+     * deletes temp file that backs binary content. Mapping itself is released once the buffer is garbage collected.
+     */
+    public void releaseBinaryContent() {
+        if (binaryContentFile == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(binaryContentFile);
+        } catch (IOException ignored) {
+            // some platforms don't allow to delete mapped files, file is marked to be deleted on exit
+        }
+
+        binaryContentFile = null;
+    }
+
     public int getStatusCode() {
         return statusCode;
     }
@@ -66,7 +266,8 @@ public class HttpResponse {
     }
 
     public boolean hasContent() {
-        return binaryContent != null || (textContent != null && !textContent.isEmpty());
+        return binaryContent != null || binaryContentFile != null || binaryContentBuffer != null ||
+                !nullOrEmptyTextContent();
     }
 
     public boolean isJson() {
@@ -94,18 +295,116 @@ public class HttpResponse {
     }
 
     public HttpHeader getHeader() {
+        if (header == null) {
+            header = new HttpHeader(headerBuilder.build());
+        }
+
         return header;
     }
 
+    /**
+     * adds a header value, values of a header with the same name are kept in the order they were added
+     * @param key header name
+     * @param value header value
+     */
     public void addHeader(String key, String value) {
-        header = header.with(key, value);
+        headerBuilder.add(key, value);
+        header = null;
     }
 
     public boolean isRedirect() {
         return statusCode >=300 && statusCode < 400 && locationHeader() != null;
     }
 
+    public String getTransportName() {
+        return transportName;
+    }
+
+    public Map<String, ?> getTransportStats() {
+        return transportStats;
+    }
+
+    public void setTransport(String transportName, Map<String, ?> transportStats) {
+        this.transportName = transportName;
+        this.transportStats = transportStats;
+    }
+
+    /**
+     * @return network timings of the request that produced this response
+     */
+    public HttpTimings getTimings() {
+        return timings;
+    }
+
+    public void setTimings(HttpTimings timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * @return negotiated protocol, e.g. HTTP/1.1 or HTTP/2, null if it is not known
+     */
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    /**
+     * @return true if response was replayed from a recording instead of received from the network
+     */
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    public void setReplayed(boolean replayed) {
+        this.replayed = replayed;
+    }
+
+    /**
+     * @return how response was served by a cache, null if caching was not involved
+     */
+    public HttpCacheStatus getCacheStatus() {
+        return cacheStatus;
+    }
+
+    public void setCacheStatus(HttpCacheStatus cacheStatus) {
+        this.cacheStatus = cacheStatus;
+    }
+
+    /**
+     * @return bytes sent and received by the request that produced this response, before and after encoding
+     */
+    public HttpContentSizes getContentSizes() {
+        return contentSizes;
+    }
+
+    public void setContentSizes(HttpContentSizes contentSizes) {
+        this.contentSizes = contentSizes;
+    }
+
     public String locationHeader() {
-        return header.caseInsensitiveGet("Location");
+        return getHeader().caseInsensitiveGet("Location");
+    }
+
+    /**
+     * @return description of faults injected by a proxy, null if the response was not perturbed
+     */
+    public String injectedFaultHeader() {
+        return getHeader().caseInsensitiveGet(INJECTED_FAULT_HEADER);
+    }
+
+    private static ByteBuffer map(Path file, long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("binary content of " + size + " bytes doesn't fit a single buffer, " +
+                    "use getBinaryContentAsStream()");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
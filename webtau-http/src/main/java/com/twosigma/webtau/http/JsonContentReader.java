@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.http;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * reads JSON response into memory. Once content exceeds the spill size, the content goes to a temp file,
+ * and body nodes are later built by a streaming parser straight from the file.
+ */
+class JsonContentReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private JsonContentReader() {
+    }
+
+    static void read(HttpResponse response, InputStream inputStream, int spillSize) throws IOException {
+        if (inputStream == null) {
+            response.setTextContentAsBytes(new byte[0]);
+            return;
+        }
+
+        ByteArrayOutputStream inMemory = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            inMemory.write(buffer, 0, read);
+
+            if (inMemory.size() >= spillSize) {
+                spill(response, inMemory, inputStream);
+                return;
+            }
+        }
+
+        response.setTextContentAsBytes(inMemory.toByteArray());
+    }
+
+    private static void spill(HttpResponse response, ByteArrayOutputStream readSoFar,
+                              InputStream rest) throws IOException {
+        Path file = Files.createTempFile("webtau-http-", ".json");
+        file.toFile().deleteOnExit();
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+            readSoFar.writeTo(out);
+            IOUtils.copy(rest, out, BUFFER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        response.setJsonContentFile(file);
+    }
+}
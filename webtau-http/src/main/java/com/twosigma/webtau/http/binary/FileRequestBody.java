@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.binary;
+
+import com.twosigma.webtau.http.request.HttpRequestBody;
+import com.twosigma.webtau.utils.FileUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * binary body that is copied from a file straight to a connection
+ */
+public class FileRequestBody implements HttpRequestBody {
+    private final String type;
+    private final Path file;
+
+    public static FileRequestBody withType(String type, Path file) {
+        return new FileRequestBody(type, file);
+    }
+
+    private FileRequestBody(String type, Path file) {
+        this.type = type;
+        this.file = file;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
+    @Override
+    public String type() {
+        return type;
+    }
+
+    @Override
+    public byte[] asBytes() {
+        return FileUtils.fileBinaryContent(file);
+    }
+
+    @Override
+    public boolean isStreamed() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Files.copy(file, out);
+    }
+
+    @Override
+    public Map<String, ?> metadata() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("fileName", file.getFileName().toString());
+        result.put("contentLength", contentLength());
+
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.transport.HttpTransportResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.Locale;
+
+/**
+ * status, header and raw body of a cached response together with its freshness
+ */
+class CachedHttpResponse {
+    private final int statusCode;
+    private final HttpHeader header;
+    private final byte[] body;
+    private final boolean replayed;
+    private final long expiresAt;
+
+    CachedHttpResponse(int statusCode, HttpHeader header, byte[] body, boolean replayed, long expiresAt) {
+        this.statusCode = statusCode;
+        this.header = header;
+        this.body = body;
+        this.replayed = replayed;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @param statusCode status code
+     * @param header response header
+     * @param body raw response body
+     * @param replayed response comes from a recording
+     * @param now time response was received at
+     * @return response fresh for Cache-Control max-age, no-cache and missing max-age make it stale right away
+     */
+    static CachedHttpResponse fromCacheControl(int statusCode, HttpHeader header, byte[] body, boolean replayed, long now) {
+        return new CachedHttpResponse(statusCode, header, body, replayed, now + maxAgeMillis(header));
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    HttpHeader getHeader() {
+        return header;
+    }
+
+    boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    String getETag() {
+        return header.get("ETag");
+    }
+
+    String getLastModified() {
+        return header.get("Last-Modified");
+    }
+
+    boolean hasValidators() {
+        return getETag() != null || getLastModified() != null;
+    }
+
+    /**
+     * @return true if response can be stored by http cache: successful, not marked as no-store
+     * and either has max-age or can be revalidated
+     */
+    static boolean isStorable(int statusCode, HttpHeader header) {
+        if (statusCode != 200 || cacheControlDirectives(header).contains("no-store")) {
+            return false;
+        }
+
+        return maxAgeMillis(header) > 0 || header.get("ETag") != null || header.get("Last-Modified") != null;
+    }
+
+    /**
+     * @param notModifiedHeader header of 304 response
+     * @param now time 304 response was received at
+     * @return the same response with header updated from 304 response and freshness recalculated
+     */
+    CachedHttpResponse revalidated(HttpHeader notModifiedHeader, long now) {
+        return fromCacheControl(statusCode, header.merge(notModifiedHeader), body, replayed, now);
+    }
+
+    CachedHttpResponse withExpiration(long expiresAt) {
+        return new CachedHttpResponse(statusCode, header, body, replayed, expiresAt);
+    }
+
+    HttpTransportResponse toTransportResponse(HttpCacheStatus cacheStatus) {
+        HttpTransportResponse response = new HttpTransportResponse(statusCode, header,
+                body != null ? new ByteArrayInputStream(body) : null, replayed);
+        response.setCacheStatus(cacheStatus);
+
+        return response;
+    }
+
+    private static String cacheControlDirectives(HttpHeader header) {
+        String cacheControl = header.get("Cache-Control");
+        return cacheControl != null ? cacheControl.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static long maxAgeMillis(HttpHeader header) {
+        String cacheControl = header.get("Cache-Control");
+        if (cacheControl == null) {
+            return 0;
+        }
+
+        long maxAge = 0;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.equals("no-cache") || trimmed.equals("no-store")) {
+                return 0;
+            }
+
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    maxAge = Long.parseLong(trimmed.substring("max-age=".length()).replace("\"", "").trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return Math.max(0, maxAge) * 1000;
+    }
+}
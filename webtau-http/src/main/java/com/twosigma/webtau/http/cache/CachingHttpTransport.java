@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.transport.HttpTransport;
+import com.twosigma.webtau.http.transport.HttpTransportRequest;
+import com.twosigma.webtau.http.transport.HttpTransportResponse;
+import com.twosigma.webtau.time.Time;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Map;
+
+/**
+ * serves GET requests from {@link HttpResponseCache} while responses are fresh according to Cache-Control max-age,
+ * revalidates stale responses with If-None-Match/If-Modified-Since.
+ * Responses that can't be stored or are larger than the max body size are passed through without buffering.
+ */
+public class CachingHttpTransport implements HttpTransport {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final HttpTransport delegate;
+    private final HttpResponseCache cache;
+    private final long maxBodySize;
+
+    public CachingHttpTransport(HttpTransport delegate, HttpResponseCache cache) {
+        this(delegate, cache, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param delegate transport to send requests with
+     * @param cache cache to store responses in
+     * @param maxBodySize responses with larger bodies are passed through as streams and are not cached
+     */
+    public CachingHttpTransport(HttpTransport delegate, HttpResponseCache cache, long maxBodySize) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean handles(String fullUrl) {
+        return delegate.handles(fullUrl);
+    }
+
+    @Override
+    public Map<String, ?> stats() {
+        return delegate.stats();
+    }
+
+    @Override
+    public HttpTransportResponse send(HttpTransportRequest request) throws IOException {
+        if (!request.getMethod().equals("GET") || request.hasBody()) {
+            return delegate.send(request);
+        }
+
+        String key = cacheKey(request);
+        CachedHttpResponse cached = cache.find(key);
+        if (cached != null && cached.isFresh(Time.currentTimeMillis())) {
+            return cached.toTransportResponse(HttpCacheStatus.HIT);
+        }
+
+        HttpTransportRequest actualRequest = cached != null && cached.hasValidators() ?
+                request.withHeader(conditionalHeader(request.getHeader(), cached)) :
+                request;
+
+        HttpTransportResponse response = delegate.send(actualRequest);
+        try {
+            long now = Time.currentTimeMillis();
+
+            if (cached != null && response.getStatusCode() == 304) {
+                response.close();
+
+                CachedHttpResponse revalidated = cached.revalidated(response.getHeader(), now);
+                cache.put(key, revalidated);
+
+                return revalidated.toTransportResponse(HttpCacheStatus.REVALIDATED);
+            }
+
+            // cacheability is decided before the body is read, so large and uncacheable bodies stay streamed
+            if (!CachedHttpResponse.isStorable(response.getStatusCode(), response.getHeader()) ||
+                    declaredContentLength(response) > maxBodySize) {
+                cache.remove(key);
+                response.setCacheStatus(HttpCacheStatus.MISS);
+
+                return response;
+            }
+
+            ByteArrayOutputStream readSoFar = new ByteArrayOutputStream();
+            if (!readUpTo(response.getBody(), readSoFar, maxBodySize)) {
+                cache.remove(key);
+                return passThrough(response, new SequenceInputStream(
+                        new ByteArrayInputStream(readSoFar.toByteArray()), response.getBody()));
+            }
+
+            response.close();
+
+            CachedHttpResponse received = CachedHttpResponse.fromCacheControl(response.getStatusCode(),
+                    response.getHeader(), response.getBody() != null ? readSoFar.toByteArray() : null,
+                    response.isReplayed(), now);
+            cache.put(key, received);
+
+            return received.toTransportResponse(HttpCacheStatus.MISS);
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    static String cacheKey(HttpTransportRequest request) {
+        return request.getMethod() + " " + request.getFullUrl() + "\n" + request.getHeader();
+    }
+
+    private static HttpHeader conditionalHeader(HttpHeader header, CachedHttpResponse cached) {
+        HttpHeader conditional = header;
+        if (cached.getETag() != null) {
+            conditional = conditional.with("If-None-Match", cached.getETag());
+        }
+
+        if (cached.getLastModified() != null) {
+            conditional = conditional.with("If-Modified-Since", cached.getLastModified());
+        }
+
+        return conditional;
+    }
+
+    private static long declaredContentLength(HttpTransportResponse response) {
+        String contentLength = response.getHeader().caseInsensitiveGet("Content-Length");
+        if (contentLength == null) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return false if body is larger than the max size, read part of the body is in the output
+     */
+    private static boolean readUpTo(InputStream body, ByteArrayOutputStream out, long maxSize) throws IOException {
+        if (body == null) {
+            return true;
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+
+            if (out.size() > maxSize) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static HttpTransportResponse passThrough(HttpTransportResponse response, InputStream body) {
+        HttpTransportResponse result = new HttpTransportResponse(response.getStatusCode(), response.getHeader(),
+                body, response.isReplayed());
+        result.setProtocol(response.getProtocol());
+        result.setCacheStatus(HttpCacheStatus.MISS);
+
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache;
+
+public enum HttpCacheStatus {
+    /**
+     * response is served from cache without a network call
+     */
+    HIT("hit"),
+
+    /**
+     * server confirmed that cached response is still valid (304 Not Modified)
+     */
+    REVALIDATED("revalidated"),
+
+    /**
+     * response is received from the network
+     */
+    MISS("miss");
+
+    private final String id;
+
+    HttpCacheStatus(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache;
+
+import java.util.Map;
+
+/**
+ * responses stored by {@link CachingHttpTransport}
+ */
+public class HttpResponseCache {
+    private final Map<String, CachedHttpResponse> responses = new LeastRecentlyUsedMap<>();
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    public synchronized void clear() {
+        responses.clear();
+    }
+
+    synchronized CachedHttpResponse find(String key) {
+        return responses.get(key);
+    }
+
+    synchronized void put(String key, CachedHttpResponse response) {
+        responses.put(key, response);
+    }
+
+    synchronized void remove(String key) {
+        responses.remove(key);
+    }
+}
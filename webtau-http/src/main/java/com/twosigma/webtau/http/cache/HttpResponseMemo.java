@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache;
+
+import com.twosigma.webtau.time.Time;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * responses memoized by <code>http.cached(ttl)</code> calls regardless of response cache headers.
+ * Concurrent calls with the same key share a single network call.
+ */
+public class HttpResponseMemo {
+    private final Map<String, CompletableFuture<CachedHttpResponse>> responses = new LeastRecentlyUsedMap<>();
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    public synchronized void clear() {
+        responses.clear();
+    }
+
+    MemoizedResponse get(String key, long ttlMillis, ResponseLoader loader) throws IOException {
+        CompletableFuture<CachedHttpResponse> future;
+        boolean loadedByThisCall = false;
+
+        synchronized (this) {
+            future = responses.get(key);
+            if (future == null || isExpired(future)) {
+                future = new CompletableFuture<>();
+                responses.put(key, future);
+                loadedByThisCall = true;
+            }
+        }
+
+        if (loadedByThisCall) {
+            load(key, ttlMillis, loader, future);
+        }
+
+        try {
+            return new MemoizedResponse(future.join(), loadedByThisCall ? HttpCacheStatus.MISS : HttpCacheStatus.HIT);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    private void load(String key, long ttlMillis, ResponseLoader loader, CompletableFuture<CachedHttpResponse> future) {
+        try {
+            CachedHttpResponse loaded = loader.load();
+            future.complete(loaded.withExpiration(Time.currentTimeMillis() + ttlMillis));
+
+            // error responses are shared with concurrent callers, but not kept for the next ones
+            if (loaded.getStatusCode() >= 400) {
+                synchronized (this) {
+                    responses.remove(key, future);
+                }
+            }
+        } catch (Throwable e) {
+            // any failure, including errors, must complete the future, otherwise concurrent callers wait forever
+            synchronized (this) {
+                responses.remove(key, future);
+            }
+
+            future.completeExceptionally(e instanceof IOException ? new UncheckedIOException((IOException) e) : e);
+        }
+    }
+
+    private static boolean isExpired(CompletableFuture<CachedHttpResponse> future) {
+        return future.isDone() && !future.isCompletedExceptionally() &&
+                !future.join().isFresh(Time.currentTimeMillis());
+    }
+
+    interface ResponseLoader {
+        CachedHttpResponse load() throws IOException;
+    }
+
+    static class MemoizedResponse {
+        private final CachedHttpResponse response;
+        private final HttpCacheStatus status;
+
+        MemoizedResponse(CachedHttpResponse response, HttpCacheStatus status) {
+            this.response = response;
+            this.status = status;
+        }
+
+        CachedHttpResponse getResponse() {
+            return response;
+        }
+
+        HttpCacheStatus getStatus() {
+            return status;
+        }
+    }
+}
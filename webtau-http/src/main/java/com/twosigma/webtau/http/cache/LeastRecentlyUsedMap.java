@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+
+/**
+ * access ordered map bounded by <code>httpCacheMaxEntries</code>. Not thread safe.
+ */
+class LeastRecentlyUsedMap<K, V> extends LinkedHashMap<K, V> {
+    LeastRecentlyUsedMap() {
+        super(16, 0.75f, true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > getCfg().getHttpCacheMaxEntries();
+    }
+}
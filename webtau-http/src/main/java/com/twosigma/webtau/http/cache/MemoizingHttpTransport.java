@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache;
+
+import com.twosigma.webtau.http.transport.HttpTransport;
+import com.twosigma.webtau.http.transport.HttpTransportRequest;
+import com.twosigma.webtau.http.transport.HttpTransportResponse;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * serves requests from {@link HttpResponseMemo} for the given time to live, used by <code>http.cached(ttl)</code>
+ */
+public class MemoizingHttpTransport implements HttpTransport {
+    private final HttpTransport delegate;
+    private final HttpResponseMemo memo;
+    private final long ttlMillis;
+
+    public MemoizingHttpTransport(HttpTransport delegate, HttpResponseMemo memo, long ttlMillis) {
+        this.delegate = delegate;
+        this.memo = memo;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean handles(String fullUrl) {
+        return delegate.handles(fullUrl);
+    }
+
+    @Override
+    public Map<String, ?> stats() {
+        return delegate.stats();
+    }
+
+    @Override
+    public HttpTransportResponse send(HttpTransportRequest request) throws IOException {
+        HttpResponseMemo.MemoizedResponse memoized = memo.get(CachingHttpTransport.cacheKey(request), ttlMillis, () -> {
+            try (HttpTransportResponse response = delegate.send(request)) {
+                byte[] body = response.getBody() != null ? IOUtils.toByteArray(response.getBody()) : null;
+                return new CachedHttpResponse(response.getStatusCode(), response.getHeader(), body,
+                        response.isReplayed(), Long.MAX_VALUE);
+            }
+        });
+
+        return memoized.getResponse().toTransportResponse(memoized.getStatus());
+    }
+}
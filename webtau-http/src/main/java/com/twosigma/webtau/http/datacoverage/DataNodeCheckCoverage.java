@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.datacoverage;
+
+import com.twosigma.webtau.data.traceable.CheckLevel;
+import com.twosigma.webtau.data.traceable.TraceableValue;
+import com.twosigma.webtau.http.datanode.DataNodeId;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects passed and failed paths of a single response as checks happen.
+ * Each tracked value gets an ordinal, check levels are kept as bits. Ids are kept only for checked values,
+ * so coverage retained after a call is bounded by the number of checked values, not by the response size.
+ */
+public class DataNodeCheckCoverage {
+    private final Map<Integer, DataNodeId> checkedIds;
+    private final BitSet passed;
+    private final BitSet failed;
+    private int numberOfTrackedValues;
+
+    public DataNodeCheckCoverage() {
+        this.checkedIds = new HashMap<>();
+        this.passed = new BitSet();
+        this.failed = new BitSet();
+    }
+
+    public synchronized TraceableValue track(DataNodeId id, Object value) {
+        int ordinal = numberOfTrackedValues++;
+        return new TraceableValue(value, ordinal, (checkedOrdinal, checkLevel) ->
+                onCheckLevelUpdate(checkedOrdinal, id, checkLevel));
+    }
+
+    public synchronized List<String> getFailedPaths() {
+        return paths(failed);
+    }
+
+    public synchronized List<String> getPassedPaths() {
+        return paths(passed);
+    }
+
+    public synchronized int numberOfTrackedValues() {
+        return numberOfTrackedValues;
+    }
+
+    synchronized int numberOfRetainedIds() {
+        return checkedIds.size();
+    }
+
+    private synchronized void onCheckLevelUpdate(int ordinal, DataNodeId id, CheckLevel checkLevel) {
+        if (checkLevel.isFailed()) {
+            checkedIds.put(ordinal, id);
+            failed.set(ordinal);
+            passed.clear(ordinal);
+        } else if (checkLevel.isPassed()) {
+            checkedIds.put(ordinal, id);
+            passed.set(ordinal);
+        }
+    }
+
+    private List<String> paths(BitSet ordinals) {
+        List<String> paths = new ArrayList<>(ordinals.cardinality());
+        for (int ordinal = ordinals.nextSetBit(0); ordinal >= 0; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+            paths.add(checkedIds.get(ordinal).getPath());
+        }
+
+        return paths;
+    }
+}
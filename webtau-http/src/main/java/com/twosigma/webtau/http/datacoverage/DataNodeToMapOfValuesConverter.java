@@ -20,12 +20,11 @@ import com.twosigma.webtau.data.traceable.TraceableValue;
 import com.twosigma.webtau.http.datanode.DataNode;
 import com.twosigma.webtau.http.datanode.DataNodeId;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import static java.util.stream.Collectors.toList;
-
 public class DataNodeToMapOfValuesConverter {
     private TraceableValueConverter traceableValueConverter;
 
@@ -45,15 +44,23 @@ public class DataNodeToMapOfValuesConverter {
 
     private Map<String, Object> convertToMap(DataNode dataNode) {
         Map<String, Object> converted = new LinkedHashMap<>();
-        dataNode.asMap().forEach((k, v) -> converted.put(k, convert(v)));
+        dataNode.forEachChildOrRawValue((k, v) -> converted.put(k, convertNodeOrRawValue(v)));
 
         return converted;
     }
 
     private List<Object> convertToList(DataNode dataNode) {
-        return dataNode.elements().stream()
-                .map(this::convert)
-                .collect(toList());
+        List<Object> converted = new ArrayList<>(dataNode.numberOfElements());
+        dataNode.forEachElementOrRawValue(v -> converted.add(convertNodeOrRawValue(v)));
+
+        return converted;
+    }
+
+    private Object convertNodeOrRawValue(Object nodeOrRawValue) {
+        // raw value belongs to a node that was never accessed, so there is nothing to trace
+        return nodeOrRawValue instanceof DataNode ?
+                convert((DataNode) nodeOrRawValue) :
+                nodeOrRawValue;
     }
 
     private Object convertSingleValue(DataNodeId id, TraceableValue value) {
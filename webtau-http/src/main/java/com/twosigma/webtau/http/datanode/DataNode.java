@@ -21,8 +21,11 @@ import com.twosigma.webtau.expectation.ActualPath;
 import com.twosigma.webtau.expectation.equality.CompareToComparator;
 import com.twosigma.webtau.expectation.equality.CompareToResult;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static com.twosigma.webtau.Ddjt.createActualPath;
 
@@ -51,6 +54,31 @@ public interface DataNode extends DataNodeExpectations, Comparable, Iterable<Dat
 
     Map<String, DataNode> asMap();
 
+    /**
+     * iterates over children without creating nodes that were not accessed yet
+     * @param consumer receives child name and either a {@link DataNode} or a raw value of a not yet created node
+     */
+    default void forEachChildOrRawValue(BiConsumer<String, Object> consumer) {
+        asMap().forEach(consumer);
+    }
+
+    /**
+     * iterates over elements without creating nodes that were not accessed yet
+     * @param consumer receives either a {@link DataNode} or a raw value of a not yet created node
+     */
+    default void forEachElementOrRawValue(Consumer<Object> consumer) {
+        elements().forEach(consumer);
+    }
+
+    /**
+     * iterates over the first elements without creating nodes that were not accessed yet
+     * @param limit max number of elements to iterate over
+     * @param consumer receives either a {@link DataNode} or a raw value of a not yet created node
+     */
+    default void forEachElementOrRawValue(int limit, Consumer<Object> consumer) {
+        elements().stream().limit(limit).forEach(consumer);
+    }
+
     default boolean isNull() {
         return false;
     }
@@ -58,7 +86,8 @@ public interface DataNode extends DataNodeExpectations, Comparable, Iterable<Dat
     default boolean isBinary() {
         return getTraceableValue() != null &&
                 getTraceableValue().getValue() != null &&
-                getTraceableValue().getValue().getClass().equals(byte[].class);
+                (getTraceableValue().getValue().getClass().equals(byte[].class) ||
+                        getTraceableValue().getValue() instanceof ByteBuffer);
     }
 
     @Override
@@ -16,8 +16,15 @@
 
 package com.twosigma.webtau.http.datanode;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.twosigma.webtau.data.traceable.TraceableValue;
+import com.twosigma.webtau.http.datacoverage.DataNodeCheckCoverage;
+import com.twosigma.webtau.utils.JsonParseException;
+import com.twosigma.webtau.utils.JsonUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -66,4 +73,153 @@ public class DataNodeBuilder {
             return new StructuredDataNode(id, new TraceableValue(value));
         }
     }
+
+    /**
+     * creates a node that keeps passed value as is and creates child nodes on first access
+     * @param id node id
+     * @param value parsed value: map, list or a single value
+     * @return node
+     */
+    public static DataNode fromValueLazily(DataNodeId id, Object value) {
+        return fromValueLazily(id, value, null);
+    }
+
+    /**
+     * creates a node that keeps passed value as is and creates child nodes on first access
+     * @param id node id
+     * @param value parsed value: map, list or a single value
+     * @param coverage coverage to track created values with, can be null
+     * @return node
+     */
+    @SuppressWarnings("unchecked")
+    public static DataNode fromValueLazily(DataNodeId id, Object value, DataNodeCheckCoverage coverage) {
+        if (value instanceof Map) {
+            return new StructuredDataNode(id, new LazyDataNodeMap(id, (Map<String, Object>) value, coverage));
+        } else if (value instanceof List) {
+            return new StructuredDataNode(id, new LazyDataNodeList(id, (List<Object>) value, coverage));
+        } else {
+            return new StructuredDataNode(id, traceable(id, value, coverage));
+        }
+    }
+
+    /**
+     * parses json into compact maps and lists, nodes are created on first access
+     * @param id root node id
+     * @param json json content
+     * @return root node
+     */
+    public static DataNode fromJsonLazily(DataNodeId id, InputStream json) {
+        return fromJsonLazily(id, json, null);
+    }
+
+    /**
+     * parses json into compact maps and lists, nodes are created on first access
+     * @param id root node id
+     * @param json json content
+     * @param coverage coverage to track created values with, can be null
+     * @return root node
+     */
+    public static DataNode fromJsonLazily(DataNodeId id, InputStream json, DataNodeCheckCoverage coverage) {
+        try (JsonParser parser = JsonUtils.createParser(json)) {
+            if (parser.nextToken() == null) {
+                return new StructuredDataNode(id, traceable(id, null, coverage));
+            }
+
+            return fromValueLazily(id, parser.readValueAs(Object.class), coverage);
+        } catch (IOException e) {
+            throw new JsonParseException(e.getMessage());
+        }
+    }
+
+    /**
+     * builds nodes directly from json tokens, without intermediate maps and lists
+     * @param id root node id
+     * @param json json content
+     * @return root node
+     */
+    public static DataNode fromJson(DataNodeId id, InputStream json) {
+        return fromJson(id, json, null);
+    }
+
+    /**
+     * builds nodes directly from json tokens, without intermediate maps and lists
+     * @param id root node id
+     * @param json json content
+     * @param coverage coverage to track created values with, can be null
+     * @return root node
+     */
+    public static DataNode fromJson(DataNodeId id, InputStream json, DataNodeCheckCoverage coverage) {
+        try (JsonParser parser = JsonUtils.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return new StructuredDataNode(id, traceable(id, null, coverage));
+            }
+
+            return fromJsonToken(id, parser, token, coverage);
+        } catch (IOException e) {
+            throw new JsonParseException(e.getMessage());
+        }
+    }
+
+    /**
+     * @param id value node id
+     * @param value value to trace
+     * @param coverage coverage to track value with, can be null
+     * @return traceable value
+     */
+    public static TraceableValue traceable(DataNodeId id, Object value, DataNodeCheckCoverage coverage) {
+        return coverage != null ? coverage.track(id, value) : new TraceableValue(value);
+    }
+
+    private static DataNode fromJsonToken(DataNodeId id, JsonParser parser, JsonToken token,
+                                          DataNodeCheckCoverage coverage) throws IOException {
+        if (token == null) {
+            throw new JsonParseException("unexpected end of json content");
+        }
+
+        switch (token) {
+            case START_OBJECT:
+                return new StructuredDataNode(id, buildMapOfNodes(id, parser, coverage));
+            case START_ARRAY:
+                return new StructuredDataNode(id, buildListOfNodes(id, parser, coverage));
+            case VALUE_STRING:
+                return new StructuredDataNode(id, traceable(id, parser.getText(), coverage));
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return new StructuredDataNode(id, traceable(id, parser.getNumberValue(), coverage));
+            case VALUE_TRUE:
+                return new StructuredDataNode(id, traceable(id, Boolean.TRUE, coverage));
+            case VALUE_FALSE:
+                return new StructuredDataNode(id, traceable(id, Boolean.FALSE, coverage));
+            case VALUE_NULL:
+                return new StructuredDataNode(id, traceable(id, null, coverage));
+            default:
+                throw new JsonParseException("unexpected json token: " + token);
+        }
+    }
+
+    private static Map<String, DataNode> buildMapOfNodes(DataNodeId id, JsonParser parser,
+                                                     DataNodeCheckCoverage coverage) throws IOException {
+        Map<String, DataNode> result = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            result.put(key, fromJsonToken(id.child(key), parser, parser.nextToken(), coverage));
+        }
+
+        return result;
+    }
+
+    private static List<DataNode> buildListOfNodes(DataNodeId id, JsonParser parser,
+                                                   DataNodeCheckCoverage coverage) throws IOException {
+        List<DataNode> result = new ArrayList<>();
+        int idx = 0;
+        JsonToken token = parser.nextToken();
+        while (token != JsonToken.END_ARRAY) {
+            result.add(fromJsonToken(id.peer(idx), parser, token, coverage));
+            token = parser.nextToken();
+            idx++;
+        }
+
+        return result;
+    }
 }
@@ -16,36 +16,54 @@
 
 package com.twosigma.webtau.http.datanode;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * id is stored as a link to a parent id plus the last segment, full path is built on first use and cached
+ */
 public class DataNodeId {
+    private final DataNodeId parent;
+    private final String name;
+    private final int idx;
+    private final boolean isPeer;
+
     private String path;
-    private String name;
-    private int idx;
 
     public DataNodeId(String name) {
-        this.name = name;
-        this.path = name;
+        this(name, name);
     }
 
     public DataNodeId(String path, String name) {
-        this.path = path;
-        this.name = name;
+        this(path, name, 0);
     }
 
     public DataNodeId(String path, String name, int idx) {
-        this(path, name);
+        this.parent = null;
+        this.name = name;
         this.idx = idx;
+        this.isPeer = false;
+        this.path = path;
+    }
+
+    private DataNodeId(DataNodeId parent, String name, int idx, boolean isPeer) {
+        this.parent = parent;
+        this.name = name;
+        this.idx = idx;
+        this.isPeer = isPeer;
     }
 
     public DataNodeId child(String name) {
-        return new DataNodeId(path + "." + name, name);
+        return new DataNodeId(this, name, 0, false);
     }
 
     public DataNodeId peer(int idx) {
-        return new DataNodeId(path + "[" + idx + "]", name, idx);
+        return new DataNodeId(this, name, idx, true);
     }
 
     public String getPath() {
-        return path;
+        String rendered = path;
+        return rendered != null ? rendered : render();
     }
 
     public String getName() {
@@ -58,6 +76,24 @@ public class DataNodeId {
 
     @Override
     public String toString() {
+        return getPath();
+    }
+
+    private String render() {
+        List<DataNodeId> notRendered = new ArrayList<>();
+        DataNodeId current = this;
+        while (current.path == null) {
+            notRendered.add(current);
+            current = current.parent;
+        }
+
+        for (int i = notRendered.size() - 1; i >= 0; i--) {
+            DataNodeId id = notRendered.get(i);
+            id.path = id.isPeer ?
+                    id.parent.path + "[" + id.idx + "]" :
+                    id.parent.path + "." + id.name;
+        }
+
         return path;
     }
 }
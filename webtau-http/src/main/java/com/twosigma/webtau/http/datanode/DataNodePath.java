@@ -0,0 +1,329 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.datanode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed form of a path like <code>items[0].price</code>, <code>items[-1]</code>, <code>items[*].price</code>
+ * or <code>items[?status=='active'].id</code>. Parsed paths are cached, so validation code that runs in loops
+ * doesn't parse the same paths over and over.
+ */
+public class DataNodePath {
+    static final int MAX_CACHED_PATHS = 4096;
+
+    // least recently used paths are evicted, so paths used in a loop stay cached while one-off paths come and go
+    private static final Map<String, DataNodePath> cache = new LinkedHashMap<String, DataNodePath>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DataNodePath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    private final String text;
+    private final Segment head;
+    private final DataNodePath tail;
+
+    private DataNodePath(String text, Segment head, DataNodePath tail) {
+        this.text = text;
+        this.head = head;
+        this.tail = tail;
+    }
+
+    public static DataNodePath compile(String path) {
+        synchronized (cache) {
+            DataNodePath compiled = cache.get(path);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+
+        DataNodePath compiled = parse(path);
+        synchronized (cache) {
+            cache.put(path, compiled);
+        }
+
+        return compiled;
+    }
+
+    public DataNode evaluate(DataNode root) {
+        return root instanceof StructuredDataNode ?
+                ((StructuredDataNode) root).get(this) :
+                root.get(text);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    Segment getHead() {
+        return head;
+    }
+
+    DataNodePath getTail() {
+        return tail;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    static int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    static boolean isCached(String path) {
+        synchronized (cache) {
+            return cache.containsKey(path);
+        }
+    }
+
+    private static DataNodePath parse(String path) {
+        List<Integer> dotPositions = new ArrayList<>();
+        int depth = 0;
+        for (int idx = 0; idx < path.length(); idx++) {
+            char c = path.charAt(idx);
+            if (isQuote(c) && depth > 0) {
+                idx = closingQuoteIdx(path, idx);
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            } else if (c == '.' && depth <= 0) {
+                dotPositions.add(idx);
+            }
+        }
+
+        DataNodePath result = null;
+        int end = path.length();
+        for (int idx = dotPositions.size() - 1; idx >= -1; idx--) {
+            int start = idx == -1 ? 0 : dotPositions.get(idx) + 1;
+            String text = path.substring(start);
+            result = new DataNodePath(text, parseSegment(path.substring(start, end)), result);
+            end = start - 1;
+        }
+
+        return result;
+    }
+
+    private static Segment parseSegment(String segment) {
+        int openBraceIdx = -1;
+        int closeBraceIdx = -1;
+        int numberOfBraces = 0;
+        for (int idx = 0; idx < segment.length(); idx++) {
+            char c = segment.charAt(idx);
+            if (isQuote(c) && openBraceIdx != -1 && closeBraceIdx == -1) {
+                idx = closingQuoteIdx(segment, idx);
+            } else if (c == '[') {
+                numberOfBraces++;
+                openBraceIdx = openBraceIdx == -1 ? idx : openBraceIdx;
+            } else if (c == ']') {
+                numberOfBraces++;
+                closeBraceIdx = closeBraceIdx == -1 ? idx : closeBraceIdx;
+            }
+        }
+
+        if (openBraceIdx == -1 && closeBraceIdx == -1) {
+            return new Segment(segment, SegmentType.NAME, 0, null);
+        }
+
+        if (openBraceIdx == -1 || closeBraceIdx == -1) {
+            throw new IllegalArgumentException("Requested name " + segment +
+                    " is not a simple name nor does it contain a properly formatted index");
+        }
+
+        if (openBraceIdx > closeBraceIdx ||
+                numberOfBraces != 2 ||
+                closeBraceIdx != segment.length() - 1) {
+            throw new IllegalArgumentException("Requested name " + segment + " contains mismatched indexing brackets");
+        }
+
+        String name = segment.substring(0, openBraceIdx);
+        String selector = segment.substring(openBraceIdx + 1, closeBraceIdx);
+
+        if (selector.startsWith("?")) {
+            return new Segment(name, SegmentType.FILTER, 0, Filter.parse(segment, selector.substring(1)));
+        }
+
+        if (selector.equals("*")) {
+            return new Segment(name, SegmentType.WILDCARD, 0, null);
+        }
+
+        try {
+            return new Segment(name, SegmentType.INDEX, Integer.parseInt(selector), null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Requested index " + selector + " of name " + name + " is not an integer");
+        }
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '\'' || c == '"';
+    }
+
+    /**
+     * brackets and dots inside quoted filter literals are part of the literal
+     * @return index of the closing quote, last index of the text if quote is not closed
+     */
+    private static int closingQuoteIdx(String text, int openQuoteIdx) {
+        int closeQuoteIdx = text.indexOf(text.charAt(openQuoteIdx), openQuoteIdx + 1);
+        return closeQuoteIdx != -1 ? closeQuoteIdx : text.length() - 1;
+    }
+
+    enum SegmentType {
+        NAME,
+        INDEX,
+        WILDCARD,
+        FILTER
+    }
+
+    static class Segment {
+        private final String name;
+        private final SegmentType type;
+        private final int idx;
+        private final Filter filter;
+
+        Segment(String name, SegmentType type, int idx, Filter filter) {
+            this.name = name;
+            this.type = type;
+            this.idx = idx;
+            this.filter = filter;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        SegmentType getType() {
+            return type;
+        }
+
+        int getIdx() {
+            return idx;
+        }
+
+        Filter getFilter() {
+            return filter;
+        }
+    }
+
+    /**
+     * <code>field==literal</code> or <code>field!=literal</code>, literal is a quoted string, a number,
+     * <code>true</code>, <code>false</code> or <code>null</code>
+     */
+    static class Filter {
+        private final String text;
+        private final DataNodePath field;
+        private final boolean negate;
+        private final Object expected;
+
+        private Filter(String text, DataNodePath field, boolean negate, Object expected) {
+            this.text = text;
+            this.field = field;
+            this.negate = negate;
+            this.expected = expected;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        boolean matches(DataNode element) {
+            Object actual = field.evaluate(element).get();
+            return negate != literalEquals(actual);
+        }
+
+        private boolean literalEquals(Object actual) {
+            if (expected == null) {
+                return actual == null;
+            }
+
+            if (expected instanceof BigDecimal) {
+                return actual instanceof Number &&
+                        new BigDecimal(actual.toString()).compareTo((BigDecimal) expected) == 0;
+            }
+
+            return expected.equals(actual);
+        }
+
+        static Filter parse(String segment, String condition) {
+            int operatorIdx = operatorIdx(condition);
+            if (operatorIdx == -1) {
+                throw new IllegalArgumentException("Requested name " + segment +
+                        " contains filter without == or != operator");
+            }
+
+            boolean negate = condition.charAt(operatorIdx) == '!';
+            String field = condition.substring(0, operatorIdx).trim();
+            String literal = condition.substring(operatorIdx + 2).trim();
+            if (field.isEmpty()) {
+                throw new IllegalArgumentException("Requested name " + segment + " contains filter without a field");
+            }
+
+            return new Filter("[?" + condition + "]", compile(field), negate, parseLiteral(segment, literal));
+        }
+
+        /**
+         * operators inside quoted literals are part of the literal
+         * @return index of the first <code>==</code> or <code>!=</code> outside of quotes, -1 if there is none
+         */
+        private static int operatorIdx(String condition) {
+            for (int idx = 0; idx < condition.length() - 1; idx++) {
+                char c = condition.charAt(idx);
+                if (isQuote(c)) {
+                    idx = closingQuoteIdx(condition, idx);
+                } else if ((c == '=' || c == '!') && condition.charAt(idx + 1) == '=') {
+                    return idx;
+                }
+            }
+
+            return -1;
+        }
+
+        private static Object parseLiteral(String segment, String literal) {
+            if (literal.length() >= 2 &&
+                    (literal.startsWith("'") && literal.endsWith("'") ||
+                            literal.startsWith("\"") && literal.endsWith("\""))) {
+                return literal.substring(1, literal.length() - 1);
+            }
+
+            switch (literal) {
+                case "null":
+                    return null;
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                default:
+                    try {
+                        return new BigDecimal(literal);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Requested name " + segment +
+                                " contains filter with unsupported value " + literal +
+                                ", use quotes for strings");
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.datanode;
+
+import com.twosigma.webtau.http.datacoverage.DataNodeCheckCoverage;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Elements of a list node backed by parsed values. An element node is created on first access.
+ */
+class LazyDataNodeList extends AbstractList<DataNode> implements RandomAccess {
+    private final DataNodeId id;
+    private final List<Object> raw;
+    private final DataNodeCheckCoverage coverage;
+    private final DataNode[] materialized;
+
+    LazyDataNodeList(DataNodeId id, List<Object> raw, DataNodeCheckCoverage coverage) {
+        this.id = id;
+        this.raw = raw;
+        this.coverage = coverage;
+        this.materialized = new DataNode[raw.size()];
+    }
+
+    @Override
+    public DataNode get(int idx) {
+        DataNode node = materialized[idx];
+        if (node == null) {
+            node = DataNodeBuilder.fromValueLazily(id.peer(idx), raw.get(idx), coverage);
+            materialized[idx] = node;
+        }
+
+        return node;
+    }
+
+    @Override
+    public int size() {
+        return raw.size();
+    }
+
+    List<Object> getRaw() {
+        return raw;
+    }
+
+    void forEachMaterializedOrRaw(Consumer<Object> consumer) {
+        forEachMaterializedOrRaw(materialized.length, consumer);
+    }
+
+    void forEachMaterializedOrRaw(int limit, Consumer<Object> consumer) {
+        int size = Math.min(limit, materialized.length);
+        for (int idx = 0; idx < size; idx++) {
+            DataNode node = materialized[idx];
+            consumer.accept(node != null ? node : raw.get(idx));
+        }
+    }
+}
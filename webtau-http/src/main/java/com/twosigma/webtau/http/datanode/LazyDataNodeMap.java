@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.datanode;
+
+import com.twosigma.webtau.http.datacoverage.DataNodeCheckCoverage;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Children of an object node backed by parsed values. A child node is created on first access.
+ */
+class LazyDataNodeMap extends AbstractMap<String, DataNode> {
+    private final DataNodeId id;
+    private final Map<String, Object> raw;
+    private final DataNodeCheckCoverage coverage;
+    private final Map<String, DataNode> materialized;
+
+    LazyDataNodeMap(DataNodeId id, Map<String, Object> raw, DataNodeCheckCoverage coverage) {
+        this.id = id;
+        this.raw = raw;
+        this.coverage = coverage;
+        this.materialized = new HashMap<>();
+    }
+
+    @Override
+    public DataNode get(Object key) {
+        if (!raw.containsKey(key)) {
+            return null;
+        }
+
+        String name = (String) key;
+        return materialized.computeIfAbsent(name, n -> DataNodeBuilder.fromValueLazily(id.child(n), raw.get(n), coverage));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return raw.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return raw.size();
+    }
+
+    @Override
+    public Set<Entry<String, DataNode>> entrySet() {
+        return new AbstractSet<Entry<String, DataNode>>() {
+            @Override
+            public Iterator<Entry<String, DataNode>> iterator() {
+                Iterator<String> keys = raw.keySet().iterator();
+                return new Iterator<Entry<String, DataNode>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, DataNode> next() {
+                        String key = keys.next();
+                        return new SimpleImmutableEntry<>(key, get(key));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return raw.size();
+            }
+        };
+    }
+
+    Map<String, Object> getRaw() {
+        return raw;
+    }
+
+    void forEachMaterializedOrRaw(BiConsumer<String, Object> consumer) {
+        raw.forEach((name, value) -> {
+            DataNode node = materialized.get(name);
+            consumer.accept(name, node != null ? node : value);
+        });
+    }
+}
@@ -19,11 +19,14 @@ package com.twosigma.webtau.http.datanode;
 import com.twosigma.webtau.data.traceable.TraceableValue;
 import com.twosigma.webtau.http.datacoverage.DataNodeToMapOfValuesConverter;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
@@ -35,6 +38,9 @@ public class StructuredDataNode implements DataNode {
     private TraceableValue value;
     private List<DataNode> values;
 
+    // nodes collected from list elements, validation code in loops requests the same paths repeatedly
+    private Map<String, DataNode> collectedByPath;
+
     private boolean isSingleValue;
 
     public StructuredDataNode(DataNodeId id, TraceableValue value) {
@@ -60,60 +66,57 @@ public class StructuredDataNode implements DataNode {
 
     @Override
     public DataNode get(String nameOrPath) {
-        if (isList()) {
-            return getAsCollectFromList(nameOrPath);
-        }
+        return get(DataNodePath.compile(nameOrPath));
+    }
 
-        int dotIdx = nameOrPath.indexOf('.');
-        if (dotIdx == -1) {
-            // simple name
-            return getChild(nameOrPath);
+    DataNode get(DataNodePath path) {
+        if (isList()) {
+            return getAsCollectFromList(path);
         }
 
-        String rootName = nameOrPath.substring(0, dotIdx);
-        DataNode root = getChild(rootName);
-        String pathUnderRoot = nameOrPath.substring(dotIdx + 1);
+        DataNode selected = select(path.getHead());
+        DataNodePath tail = path.getTail();
 
-        return root.get(pathUnderRoot);
+        return tail == null ? selected : tail.evaluate(selected);
     }
 
-    private DataNode getChild(String name) {
-        int openBraceIdx = name.indexOf('[');
-        int closeBraceIdx = name.indexOf(']');
-        if (openBraceIdx != -1 && closeBraceIdx != -1) {
-            return getIndexedChild(name, openBraceIdx, closeBraceIdx);
-        } else if (openBraceIdx != -1 || closeBraceIdx != -1) {
-            throw new IllegalArgumentException("Requested name " + name + " is not a simple name nor does it contain a properly formatted index");
+    private DataNode select(DataNodePath.Segment segment) {
+        DataNode child = getChild(segment.getName());
+
+        switch (segment.getType()) {
+            case INDEX:
+                int idx = segment.getIdx();
+                return child.get(idx < 0 ? child.numberOfElements() + idx : idx);
+            case WILDCARD:
+                return child.isList() ? child : new NullDataNode(id.child(segment.getName() + "[*]"));
+            case FILTER:
+                return filter(child, segment.getFilter());
+            default:
+                return child;
         }
+    }
 
-        // simple name
+    private DataNode getChild(String name) {
         return (children != null && children.containsKey(name)) ?
                 children.get(name) :
                 new NullDataNode(id.child(name));
     }
 
-    private DataNode getIndexedChild(String name, int openBraceIdx, int closeBraceIdx) {
-        int additionalOpenIdx = name.indexOf('[', openBraceIdx + 1);
-        int additionalCloseId = name.indexOf(']', closeBraceIdx + 1);
-
-        if (additionalOpenIdx != -1 || additionalCloseId != -1 || openBraceIdx > closeBraceIdx) {
-            throw new IllegalArgumentException("Requested name " + name + " contains mismatched indexing brackets");
+    private static DataNode filter(DataNode list, DataNodePath.Filter filter) {
+        DataNodeId filteredId = new DataNodeId(list.id().getPath() + filter.getText(),
+                list.id().getName() + filter.getText());
+        if (!list.isList()) {
+            return new NullDataNode(filteredId);
         }
 
-        String indexStr = name.substring(openBraceIdx + 1, closeBraceIdx);
-        try {
-            int idx = Integer.valueOf(indexStr);
-            String nameWithoutIndex = name.substring(0, openBraceIdx);
-            DataNode node = get(nameWithoutIndex);
-
-            if (idx < 0) {
-                idx = node.numberOfElements() + idx;
+        List<DataNode> matched = new ArrayList<>();
+        for (DataNode element : list.elements()) {
+            if (filter.matches(element)) {
+                matched.add(element);
             }
-
-            return node.get(idx);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Requested index " + indexStr + " of name " + name.substring(0, openBraceIdx) + " is not an integer");
         }
+
+        return new StructuredDataNode(filteredId, matched);
     }
 
     @Override
@@ -186,6 +189,33 @@ public class StructuredDataNode implements DataNode {
         return children != null ? Collections.unmodifiableMap(children) : Collections.emptyMap();
     }
 
+    @Override
+    public void forEachChildOrRawValue(BiConsumer<String, Object> consumer) {
+        if (children instanceof LazyDataNodeMap) {
+            ((LazyDataNodeMap) children).forEachMaterializedOrRaw(consumer);
+        } else {
+            asMap().forEach(consumer);
+        }
+    }
+
+    @Override
+    public void forEachElementOrRawValue(Consumer<Object> consumer) {
+        if (values instanceof LazyDataNodeList) {
+            ((LazyDataNodeList) values).forEachMaterializedOrRaw(consumer);
+        } else {
+            elements().forEach(consumer);
+        }
+    }
+
+    @Override
+    public void forEachElementOrRawValue(int limit, Consumer<Object> consumer) {
+        if (values instanceof LazyDataNodeList) {
+            ((LazyDataNodeList) values).forEachMaterializedOrRaw(limit, consumer);
+        } else {
+            elements().stream().limit(limit).forEach(consumer);
+        }
+    }
+
     @Override
     public String toString() {
         if (isSingleValue) {
@@ -199,18 +229,46 @@ public class StructuredDataNode implements DataNode {
         return "{" + children.entrySet().stream().map(e -> e.getKey() + ": " + e.getValue()).collect(joining(", "))  + "}";
     }
 
-    private DataNode getAsCollectFromList(String nameOrPath) {
-        if (values.stream().noneMatch(v -> v.has(nameOrPath))) {
-            return new NullDataNode(id.child(nameOrPath));
+    private DataNode getAsCollectFromList(DataNodePath path) {
+        String key = path.getText();
+        if (collectedByPath != null) {
+            DataNode collected = collectedByPath.get(key);
+            if (collected != null) {
+                return collected;
+            }
+        } else {
+            collectedByPath = new HashMap<>();
         }
 
-        return new StructuredDataNode(id.child(nameOrPath),
-                values.stream()
-                        .map(n -> n.get(nameOrPath))
-                        .collect(Collectors.toList()));
+        DataNode collected = collectFromList(path);
+        collectedByPath.put(key, collected);
+
+        return collected;
+    }
+
+    private DataNode collectFromList(DataNodePath path) {
+        List<DataNode> collected = new ArrayList<>(values.size());
+        boolean hasAny = false;
+        for (DataNode element : values) {
+            DataNode node = path.evaluate(element);
+            hasAny = hasAny || !node.isNull();
+            collected.add(node);
+        }
+
+        return hasAny ?
+                new StructuredDataNode(id.child(path.getText()), collected) :
+                new NullDataNode(id.child(path.getText()));
     }
 
     private Object extractComplexValue() {
+        if (values instanceof LazyDataNodeList) {
+            return ((LazyDataNodeList) values).getRaw();
+        }
+
+        if (children instanceof LazyDataNodeMap) {
+            return ((LazyDataNodeMap) children).getRaw();
+        }
+
         if (values != null) {
             return values.stream().map(DataNode::get).collect(toList());
         }
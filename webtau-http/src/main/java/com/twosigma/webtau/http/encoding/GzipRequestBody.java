@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.encoding;
+
+import com.twosigma.webtau.http.request.HttpRequestBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip compressed version of a request body, sent with <code>Content-Encoding: gzip</code>
+ */
+public class GzipRequestBody implements HttpRequestBody {
+    private final HttpRequestBody original;
+    private final byte[] compressed;
+
+    public GzipRequestBody(HttpRequestBody original) {
+        this.original = original;
+        this.compressed = compress(original.contentAsBytes());
+    }
+
+    public HttpRequestBody getOriginal() {
+        return original;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
+    @Override
+    public String type() {
+        return original.type();
+    }
+
+    @Override
+    public byte[] asBytes() {
+        return compressed;
+    }
+
+    private static byte[] compress(byte[] content) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(result)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return result.toByteArray();
+    }
+}
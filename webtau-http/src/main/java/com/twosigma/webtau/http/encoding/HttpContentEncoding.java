@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.encoding;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Constructor;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * streaming decoding of response content based on Content-Encoding.
+ * Brotli is decoded when <code>org.brotli:dec</code> is on the classpath, webtau doesn't depend on it directly.
+ */
+public class HttpContentEncoding {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    public static final String BROTLI = "br";
+
+    private static final String BROTLI_INPUT_STREAM_CLASS = "org.brotli.dec.BrotliInputStream";
+    private static final Constructor<?> brotliInputStream = findBrotliInputStream();
+
+    private HttpContentEncoding() {
+    }
+
+    public static boolean isBrotliAvailable() {
+        return brotliInputStream != null;
+    }
+
+    /**
+     * @param configured <code>httpAcceptEncoding</code> config value
+     * @return value for Accept-Encoding header, null if header should not be sent
+     */
+    public static String acceptEncoding(String configured) {
+        if (configured == null || configured.trim().isEmpty()) {
+            return null;
+        }
+
+        if (!configured.equals("auto")) {
+            return configured;
+        }
+
+        return isBrotliAvailable() ?
+                GZIP + ", " + DEFLATE + ", " + BROTLI :
+                GZIP + ", " + DEFLATE;
+    }
+
+    /**
+     * @param contentEncoding value of Content-Encoding header, codings are listed in the order they were applied
+     * @param content raw content
+     * @return decoded content, unknown codings and empty content are left as is
+     * @throws IOException if content can't be decoded
+     */
+    public static InputStream decode(String contentEncoding, InputStream content) throws IOException {
+        if (content == null || contentEncoding == null) {
+            return content;
+        }
+
+        // empty body (e.g. HEAD, 204 or Content-Length: 0) has nothing to decode, gzip would fail to read its header
+        PushbackInputStream peekable = new PushbackInputStream(content);
+        int first = peekable.read();
+        if (first == -1) {
+            return peekable;
+        }
+        peekable.unread(first);
+
+        String[] codings = contentEncoding.split(",");
+        InputStream decoded = peekable;
+        for (int idx = codings.length - 1; idx >= 0; idx--) {
+            decoded = decodeSingle(codings[idx].trim().toLowerCase(Locale.ROOT), decoded);
+        }
+
+        return decoded;
+    }
+
+    private static InputStream decodeSingle(String coding, InputStream content) throws IOException {
+        switch (coding) {
+            case GZIP:
+            case "x-gzip":
+                return new GZIPInputStream(content);
+            case DEFLATE:
+                return inflate(content);
+            case BROTLI:
+                return isBrotliAvailable() ? brotli(content) : content;
+            default:
+                return content;
+        }
+    }
+
+    /**
+     * deflate is supposed to be zlib wrapped, but some servers send raw deflate data. Zlib header is checked to pick the right one.
+     */
+    private static InputStream inflate(InputStream content) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(content);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+
+        boolean zlibWrapped = first != -1 && second != -1 &&
+                (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+
+        return new InflaterInputStream(buffered, new Inflater(!zlibWrapped));
+    }
+
+    private static InputStream brotli(InputStream content) throws IOException {
+        try {
+            return (InputStream) brotliInputStream.newInstance(content);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("can't create " + BROTLI_INPUT_STREAM_CLASS, e);
+        }
+    }
+
+    private static Constructor<?> findBrotliInputStream() {
+        try {
+            return Class.forName(BROTLI_INPUT_STREAM_CLASS).getConstructor(InputStream.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.encoding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * number of bytes sent and received for a single request next to their size before encoding and after decoding
+ */
+public class HttpContentSizes {
+    private String requestEncoding;
+    private long requestBytes = -1;
+    private long requestSentBytes = -1;
+
+    private String responseEncoding;
+    private long responseReceivedBytes = -1;
+    private long responseBytes = -1;
+
+    public void setRequest(String encoding, long originalBytes, long sentBytes) {
+        this.requestEncoding = encoding;
+        this.requestBytes = originalBytes;
+        this.requestSentBytes = sentBytes;
+    }
+
+    public void setResponse(String encoding, long receivedBytes, long decodedBytes) {
+        this.responseEncoding = encoding;
+        this.responseReceivedBytes = receivedBytes;
+        this.responseBytes = decodedBytes;
+    }
+
+    public String getRequestEncoding() {
+        return requestEncoding;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getRequestSentBytes() {
+        return requestSentBytes;
+    }
+
+    public String getResponseEncoding() {
+        return responseEncoding;
+    }
+
+    public long getResponseReceivedBytes() {
+        return responseReceivedBytes;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return bytes not sent or received thanks to encoding
+     */
+    public long getSavedBytes() {
+        long saved = 0;
+        if (requestSentBytes >= 0) {
+            saved += requestBytes - requestSentBytes;
+        }
+
+        if (responseReceivedBytes >= 0) {
+            saved += responseBytes - responseReceivedBytes;
+        }
+
+        return saved;
+    }
+
+    public Map<String, ?> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (requestSentBytes >= 0) {
+            result.put("requestEncoding", requestEncoding);
+            result.put("requestBytes", requestBytes);
+            result.put("requestSentBytes", requestSentBytes);
+        }
+
+        if (responseReceivedBytes >= 0) {
+            result.put("responseEncoding", responseEncoding);
+            result.put("responseReceivedBytes", responseReceivedBytes);
+            result.put("responseBytes", responseBytes);
+        }
+
+        result.put("savedBytes", getSavedBytes());
+
+        return result;
+    }
+}
@@ -16,24 +16,35 @@
 
 package com.twosigma.webtau.http.multipart;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+/**
+ * writes multipart content straight to an output stream, or only counts its size without reading files
+ */
 class MultiPartContentBuilder {
     private static final String LINE_END = "\r\n";
 
-    private final ByteArrayOutputStream outputStream;
+    private final OutputStream outputStream;
+    private long size;
+
+    static MultiPartContentBuilder writingTo(OutputStream outputStream) {
+        return new MultiPartContentBuilder(outputStream);
+    }
+
+    static MultiPartContentBuilder sizeOnly() {
+        return new MultiPartContentBuilder(null);
+    }
 
-    MultiPartContentBuilder() {
-        outputStream = new ByteArrayOutputStream();
+    private MultiPartContentBuilder(OutputStream outputStream) {
+        this.outputStream = outputStream;
     }
 
     void write(String text) {
-        try {
-            outputStream.write(text.getBytes());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        write(text.getBytes());
     }
 
     void writeln(String text) {
@@ -54,14 +65,29 @@ class MultiPartContentBuilder {
     }
 
     void write(byte[] content) {
+        size += content.length;
+        if (outputStream == null) {
+            return;
+        }
+
         try {
             outputStream.write(content);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void write(Path file) {
+        try {
+            size += outputStream == null ?
+                    Files.size(file) :
+                    Files.copy(file, outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    byte[] toByteArray() {
-        return outputStream.toByteArray();
+    long getSize() {
+        return size;
     }
 }
@@ -23,15 +23,23 @@ import java.nio.file.Path;
 public class MultiPartFile {
     private final String name;
     private final byte[] content;
+    private final Path file;
 
     public MultiPartFile(String name, byte[] content) {
         this.name = name;
         this.content = content;
+        this.file = null;
     }
 
+    /**
+     * file content is streamed when request is sent
+     * @param name file name to report to the server
+     * @param file path to the file
+     */
     public MultiPartFile(String name, Path file) {
         this.name = name;
-        this.content = FileUtils.fileBinaryContent(file);
+        this.content = null;
+        this.file = file;
     }
 
     public String getName() {
@@ -39,6 +47,10 @@ public class MultiPartFile {
     }
 
     public byte[] getContent() {
-        return content;
+        return file != null ? FileUtils.fileBinaryContent(file) : content;
+    }
+
+    public Path getFile() {
+        return file;
     }
 }
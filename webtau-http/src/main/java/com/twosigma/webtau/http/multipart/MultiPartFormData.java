@@ -18,13 +18,21 @@ package com.twosigma.webtau.http.multipart;
 
 import com.twosigma.webtau.http.request.HttpRequestBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class MultiPartFormData implements HttpRequestBody {
+    private static final String NORMALIZED_BOUNDARY = "webtau-boundary";
+
     private final String boundary;
     private final List<MultiPartFormField> fields;
 
@@ -39,7 +47,9 @@ public class MultiPartFormData implements HttpRequestBody {
         fields.forEach((fieldName, content) -> {
             if (content instanceof MultiPartFile) {
                 MultiPartFile file = (MultiPartFile) content;
-                addField(MultiPartFormField.binaryFormField(fieldName, file.getContent(), file.getName()));
+                addField(file.getFile() != null ?
+                        MultiPartFormField.fileFormField(fieldName, file.getFile(), file.getName()) :
+                        MultiPartFormField.binaryFormField(fieldName, file.getContent(), file.getName()));
             } else if (content instanceof byte[]) {
                 addField(MultiPartFormField.binaryFormField(fieldName, (byte[]) content, null));
             } else if (content instanceof String) {
@@ -73,12 +83,61 @@ public class MultiPartFormData implements HttpRequestBody {
 
     @Override
     public byte[] asBytes() {
-        return buildMultiPartRequest();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        buildMultiPartRequest(MultiPartContentBuilder.writingTo(outputStream));
+
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public boolean isStreamed() {
+        return true;
     }
 
-    private byte[] buildMultiPartRequest() {
-        MultiPartContentBuilder builder = new MultiPartContentBuilder();
+    @Override
+    public long contentLength() {
+        try {
+            MultiPartContentBuilder sizeOnly = MultiPartContentBuilder.sizeOnly();
+            buildMultiPartRequest(sizeOnly);
+
+            return sizeOnly.getSize();
+        } catch (UncheckedIOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        try {
+            buildMultiPartRequest(MultiPartContentBuilder.writingTo(out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
+    @Override
+    public void writeNormalizedTo(OutputStream out) throws IOException {
+        try {
+            buildMultiPartRequest(MultiPartContentBuilder.writingTo(out), NORMALIZED_BOUNDARY);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Map<String, ?> metadata() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("contentLength", contentLength());
+        result.put("parts", fields.stream().map(MultiPartFormField::metadata).collect(Collectors.toList()));
+
+        return result;
+    }
+
+    private void buildMultiPartRequest(MultiPartContentBuilder builder) {
+        buildMultiPartRequest(builder, boundary);
+    }
+
+    private void buildMultiPartRequest(MultiPartContentBuilder builder, String boundary) {
         fields.forEach(field -> {
             builder.writeln("--" + boundary);
             field.writeRequest(builder);
@@ -86,7 +145,5 @@ public class MultiPartFormData implements HttpRequestBody {
         });
 
         builder.writeln("--" + boundary + "--");
-
-        return builder.toByteArray();
     }
 }
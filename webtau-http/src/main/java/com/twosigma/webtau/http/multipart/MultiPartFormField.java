@@ -16,39 +16,65 @@
 
 package com.twosigma.webtau.http.multipart;
 
-import com.twosigma.webtau.utils.FileUtils;
-
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class MultiPartFormField {
     private final byte[] content;
+    private final Path file;
     private final String contentType;
     private final String fieldName;
     private final String fileName;
 
     public static MultiPartFormField binaryFormField(String fieldName, byte[] content, String fileName) {
-        return new MultiPartFormField(fieldName, "application/octet-stream", content, fileName);
+        return new MultiPartFormField(fieldName, "application/octet-stream", content, null, fileName);
     }
 
     public static MultiPartFormField textFormField(String fieldName, String content, String fileName) {
-        return new MultiPartFormField(fieldName, null, content.getBytes(), fileName);
+        return new MultiPartFormField(fieldName, null, content.getBytes(), null, fileName);
     }
 
     public static MultiPartFormField fileFormField(String fieldName, Path file) {
         return fileFormField(fieldName, file, file.getFileName().toString());
     }
 
+    /**
+     * file content is not read upfront, it is copied to a connection when request is sent
+     * @param fieldName form field name
+     * @param file path to the file to send
+     * @param fileName file name to report to the server
+     * @return form field
+     */
     public static MultiPartFormField fileFormField(String fieldName, Path file, String fileName) {
-        return binaryFormField(fieldName, FileUtils.fileBinaryContent(file), fileName);
+        return new MultiPartFormField(fieldName, "application/octet-stream", null, file, fileName);
     }
 
-    private MultiPartFormField(String fieldName, String contentType, byte[] content, String fileName) {
+    private MultiPartFormField(String fieldName, String contentType, byte[] content, Path file, String fileName) {
         this.content = content;
+        this.file = file;
         this.contentType = contentType;
         this.fieldName = fieldName;
         this.fileName = fileName;
     }
 
+    Map<String, Object> metadata() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("fieldName", fieldName);
+        if (fileName != null) {
+            result.put("fileName", fileName);
+        }
+
+        if (contentType != null) {
+            result.put("contentType", contentType);
+        }
+
+        result.put("size", contentSize());
+
+        return result;
+    }
+
     void writeRequest(MultiPartContentBuilder builder) {
         builder.writeHeader("Content-Disposition", "form-data");
         builder.write("; ");
@@ -68,6 +94,25 @@ public class MultiPartFormField {
         }
 
         builder.newLine();
-        builder.write(content);
+        writeContent(builder);
+    }
+
+    private long contentSize() {
+        try {
+            MultiPartContentBuilder sizeOnly = MultiPartContentBuilder.sizeOnly();
+            writeContent(sizeOnly);
+
+            return sizeOnly.getSize();
+        } catch (UncheckedIOException e) {
+            return -1;
+        }
+    }
+
+    private void writeContent(MultiPartContentBuilder builder) {
+        if (file != null) {
+            builder.write(file);
+        } else {
+            builder.write(content);
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.performance;
+
+import com.twosigma.webtau.http.datanode.DataNode;
+import com.twosigma.webtau.http.datanode.DataNodeBuilder;
+import com.twosigma.webtau.http.datanode.DataNodeId;
+import com.twosigma.webtau.statistics.LatencyHistogram;
+
+/**
+ * Snapshot of latencies of an operation. Values are in milliseconds, same as the recorded elapsed time,
+ * and are returned as data nodes,
+ * so they can be validated the same way as response values, e.g.
+ * <code>performance.operation("GET /customers/{id}").percentile(99).shouldBe &lt; 300</code>
+ */
+public class HttpOperationPerformance {
+    private final String operation;
+    private final LatencyHistogram histogram;
+
+    HttpOperationPerformance(String operation, LatencyHistogram histogram) {
+        this.operation = operation;
+        this.histogram = histogram;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    public long getPercentile(double percentile) {
+        return toMillis(histogram.valueAtPercentile(percentile));
+    }
+
+    public long getMax() {
+        return toMillis(histogram.getMaxMicros());
+    }
+
+    public double getMean() {
+        return histogram.getMeanMicros() / 1000.0;
+    }
+
+    public DataNode count() {
+        return node("count", getCount());
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100, e.g. 99.9
+     * @return latency in milliseconds
+     */
+    public DataNode percentile(double percentile) {
+        String name = "p" + (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+        return node(name, getPercentile(percentile));
+    }
+
+    public DataNode max() {
+        return node("max", getMax());
+    }
+
+    public DataNode mean() {
+        return node("mean", getMean());
+    }
+
+    @Override
+    public String toString() {
+        return operation + ": count=" + getCount() + ", p50=" + getPercentile(50) + "ms, p99=" + getPercentile(99) +
+                "ms, max=" + getMax() + "ms";
+    }
+
+    private DataNode node(String name, Object value) {
+        return DataNodeBuilder.fromValue(new DataNodeId(operation + " " + name, name), value);
+    }
+
+    // aggregates are reported in whole milliseconds, same as elapsedTime of a call
+    private static long toMillis(long micros) {
+        return micros / 1000;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.performance;
+
+import com.twosigma.webtau.utils.UrlUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Operation definition like <code>GET /customers/{id}</code>. Method is optional.
+ * A <code>{param}</code> segment matches any single path segment.
+ * Recorded paths have id-like segments (numbers, uuids, long hex strings) replaced with <code>{}</code>,
+ * so a literal id in a template matches any id.
+ */
+class HttpOperationTemplate {
+    static final String ID_SEGMENT = "{}";
+
+    private static final Pattern ID_LIKE = Pattern.compile(
+            "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}");
+
+    private final String definition;
+    private final String method;
+    private final List<String> segments;
+
+    HttpOperationTemplate(String definition) {
+        this.definition = definition.trim();
+
+        int spaceIdx = this.definition.indexOf(' ');
+        this.method = spaceIdx == -1 ? null : this.definition.substring(0, spaceIdx).toUpperCase(Locale.ROOT);
+        this.segments = splitPath(spaceIdx == -1 ? this.definition : this.definition.substring(spaceIdx + 1).trim());
+    }
+
+    String getDefinition() {
+        return definition;
+    }
+
+    /**
+     * @param operationKey key created by {@link #operationKey(String, String)}
+     * @return true if recorded operation matches the template
+     */
+    boolean matches(String operationKey) {
+        int spaceIdx = operationKey.indexOf(' ');
+        if (method != null && !method.equals(operationKey.substring(0, spaceIdx))) {
+            return false;
+        }
+
+        List<String> keySegments = splitPath(operationKey.substring(spaceIdx + 1));
+        if (keySegments.size() != segments.size()) {
+            return false;
+        }
+
+        for (int idx = 0; idx < segments.size(); idx++) {
+            if (!segmentMatches(segments.get(idx), keySegments.get(idx))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static String operationKey(String method, String url) {
+        String path = UrlUtils.extractPath(url);
+        int queryIdx = path.indexOf('?');
+        if (queryIdx != -1) {
+            path = path.substring(0, queryIdx);
+        }
+
+        StringBuilder key = new StringBuilder(method).append(' ');
+        for (String segment : splitPath(path)) {
+            key.append('/').append(normalizeSegment(segment));
+        }
+
+        if (key.charAt(key.length() - 1) == ' ') {
+            key.append('/');
+        }
+
+        return key.toString();
+    }
+
+    private static boolean segmentMatches(String templateSegment, String keySegment) {
+        if (templateSegment.startsWith("{") && templateSegment.endsWith("}")) {
+            return true;
+        }
+
+        return normalizeSegment(templateSegment).equals(keySegment);
+    }
+
+    private static String normalizeSegment(String segment) {
+        return ID_LIKE.matcher(segment).matches() ? ID_SEGMENT : segment;
+    }
+
+    private static List<String> splitPath(String path) {
+        String trimmed = path;
+        while (trimmed.startsWith("/")) {
+            trimmed = trimmed.substring(1);
+        }
+
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+
+        return trimmed.isEmpty() ? Arrays.asList() : Arrays.asList(trimmed.split("/"));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.performance;
+
+import com.twosigma.webtau.http.validation.HttpValidationHandlers;
+
+/**
+ * Latency assertions over recorded http calls:
+ * <pre>
+ * performance.operation("GET /customers/{id}").percentile(99).shouldBe &lt; 300
+ * </pre>
+ * Calls are recorded for the whole run. Use {@link #record(Runnable)} to limit assertions to calls of a scenario.
+ */
+public class HttpPerformance {
+    public static final HttpPerformance performance = new HttpPerformance();
+
+    private final HttpPerformanceRecorder runRecorder;
+
+    private HttpPerformance() {
+        runRecorder = new HttpPerformanceRecorder();
+    }
+
+    /**
+     * @param operation operation definition, e.g. <code>GET /customers/{id}</code>, method is optional
+     * @return aggregated performance of the matching calls made so far in the run
+     */
+    public HttpOperationPerformance operation(String operation) {
+        return runRecorder.operation(operation);
+    }
+
+    /**
+     * @return aggregated performance of all the calls made so far in the run
+     */
+    public HttpOperationPerformance overall() {
+        return runRecorder.overall();
+    }
+
+    /**
+     * records only the calls made by the code, including the calls made from async http and load threads
+     * @param code code to execute
+     * @return recorder to query
+     */
+    public HttpPerformanceRecorder record(Runnable code) {
+        HttpPerformanceRecorder recorder = new HttpPerformanceRecorder();
+        HttpValidationHandlers.withAdditionalHandler(recorder, () -> {
+            code.run();
+            return null;
+        });
+
+        return recorder;
+    }
+
+    HttpPerformanceRecorder getRunRecorder() {
+        return runRecorder;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.performance;
+
+import com.twosigma.webtau.http.validation.HttpValidationHandler;
+import com.twosigma.webtau.http.validation.HttpValidationResult;
+import com.twosigma.webtau.statistics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a latency histogram per recorded operation, so aggregates don't require to re-scan http calls.
+ * Number of distinct operations is capped, calls above the cap only contribute to the overall numbers.
+ */
+public class HttpPerformanceRecorder implements HttpValidationHandler {
+    static final int MAX_OPERATIONS = 1000;
+
+    private final Map<String, LatencyHistogram> histogramsByOperation;
+    private final LatencyHistogram overall;
+
+    HttpPerformanceRecorder() {
+        histogramsByOperation = new ConcurrentHashMap<>();
+        overall = new LatencyHistogram();
+    }
+
+    @Override
+    public void validate(HttpValidationResult validationResult) {
+        if (validationResult.getResponse() == null) {
+            return;
+        }
+
+        long elapsedMicros = validationResult.getElapsedTimeMicros();
+        overall.record(elapsedMicros);
+
+        String key = HttpOperationTemplate.operationKey(validationResult.getRequestMethod(),
+                validationResult.getFullUrl());
+        LatencyHistogram histogram = histogramsByOperation.get(key);
+        if (histogram == null && histogramsByOperation.size() < MAX_OPERATIONS) {
+            histogram = histogramsByOperation.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+
+        if (histogram != null) {
+            histogram.record(elapsedMicros);
+        }
+    }
+
+    /**
+     * @param operation operation definition, e.g. <code>GET /customers/{id}</code>, method is optional
+     * @return aggregated performance of the calls that match the operation
+     */
+    public HttpOperationPerformance operation(String operation) {
+        HttpOperationTemplate template = new HttpOperationTemplate(operation);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        histogramsByOperation.forEach((key, histogram) -> {
+            if (template.matches(key)) {
+                merged.add(histogram);
+            }
+        });
+
+        return new HttpOperationPerformance(template.getDefinition(), merged);
+    }
+
+    /**
+     * @return aggregated performance of all the recorded calls
+     */
+    public HttpOperationPerformance overall() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(overall);
+
+        return new HttpOperationPerformance("all calls", copy);
+    }
+
+    void reset() {
+        histogramsByOperation.clear();
+        overall.reset();
+    }
+}
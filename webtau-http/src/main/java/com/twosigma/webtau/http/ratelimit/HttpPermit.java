@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * permission to send a request. In-flight slot is held until permit is closed
+ */
+public class HttpPermit implements AutoCloseable {
+    public static final HttpPermit NONE = new HttpPermit(null, 0, null);
+
+    private final HttpRateLimit limit;
+    private final long waitNanos;
+    private final Semaphore inFlight;
+    private final AtomicBoolean released;
+
+    HttpPermit(HttpRateLimit limit, long waitNanos, Semaphore inFlight) {
+        this.limit = limit;
+        this.waitNanos = waitNanos;
+        this.inFlight = inFlight;
+        this.released = new AtomicBoolean();
+    }
+
+    /**
+     * @return limit that was applied, null if request is not limited
+     */
+    public HttpRateLimit getLimit() {
+        return limit;
+    }
+
+    public boolean isLimited() {
+        return limit != null;
+    }
+
+    /**
+     * @return time spent waiting for a token and an in-flight slot
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    @Override
+    public void close() {
+        if (inFlight != null && released.compareAndSet(false, true)) {
+            inFlight.release();
+        }
+    }
+}
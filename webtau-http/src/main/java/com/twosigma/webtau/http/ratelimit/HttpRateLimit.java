@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * limits declared for a host or url prefix in <code>httpRateLimits</code> config
+ */
+public class HttpRateLimit {
+    private static final List<String> KEYS = Arrays.asList("requestsPerSecond", "burst", "maxInFlight");
+
+    private final String target;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final int maxInFlight;
+
+    public HttpRateLimit(String target, double requestsPerSecond, int burst, int maxInFlight) {
+        if (requestsPerSecond < 0 || burst < 0 || maxInFlight < 0) {
+            throw new IllegalArgumentException("http rate limit values must not be negative: " + target);
+        }
+
+        this.target = target;
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst > 0 ? burst : (int) Math.max(1, Math.ceil(requestsPerSecond));
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @param target host, host:port or url prefix
+     * @param definition map with requestsPerSecond, burst and maxInFlight, missing values mean no limit
+     * @return parsed limit
+     */
+    public static HttpRateLimit fromMap(String target, Map<String, ?> definition) {
+        definition.keySet().stream()
+                .filter(key -> !KEYS.contains(key))
+                .findFirst()
+                .ifPresent(key -> {
+                    throw new IllegalArgumentException("unknown http rate limit property <" + key + "> for " +
+                            target + ", available: " + KEYS);
+                });
+
+        return new HttpRateLimit(target,
+                number(target, definition, "requestsPerSecond").doubleValue(),
+                number(target, definition, "burst").intValue(),
+                number(target, definition, "maxInFlight").intValue());
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * @return sustained rate, 0 if rate is not limited
+     */
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    /**
+     * @return number of requests that can be sent at once after a quiet period
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @return max number of requests waiting for a response at the same time, 0 if not limited
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public boolean isRateLimited() {
+        return requestsPerSecond > 0;
+    }
+
+    public boolean isInFlightLimited() {
+        return maxInFlight > 0;
+    }
+
+    public Map<String, ?> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", target);
+        result.put("requestsPerSecond", requestsPerSecond);
+        result.put("burst", burst);
+        result.put("maxInFlight", maxInFlight);
+
+        return result;
+    }
+
+    private static Number number(String target, Map<String, ?> definition, String key) {
+        Object value = definition.get(key);
+        if (value == null) {
+            return 0;
+        }
+
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+
+        try {
+            return Double.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("http rate limit property <" + key + "> for " + target +
+                    " must be a number, given: " + value);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit;
+
+import com.twosigma.webtau.time.Time;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * enforces a single {@link HttpRateLimit}, shared by all the threads calling the same host or url prefix
+ */
+public class HttpRateLimiter {
+    private final HttpRateLimit limit;
+    private final TokenBucket bucket;
+    private final Semaphore inFlight;
+
+    public HttpRateLimiter(HttpRateLimit limit) {
+        this.limit = limit;
+        this.bucket = limit.isRateLimited() ?
+                new TokenBucket(limit.getRequestsPerSecond(), limit.getBurst(), Time.nanoTime()) :
+                null;
+        this.inFlight = limit.isInFlightLimited() ?
+                new Semaphore(limit.getMaxInFlight(), true) :
+                null;
+    }
+
+    public HttpRateLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * blocks until request is allowed by both rate and in-flight limits
+     * @param fullUrl url to call, used for error reporting
+     * @return permit that must be closed once response is consumed
+     */
+    public HttpPermit acquire(String fullUrl) {
+        long start = Time.nanoTime();
+        try {
+            if (bucket != null) {
+                long waitNanos = bucket.reserve(start);
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            }
+
+            if (inFlight != null) {
+                inFlight.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while waiting for http rate limit <" + limit.getTarget() +
+                    "> to call " + fullUrl, e);
+        }
+
+        return new HttpPermit(limit, Time.nanoTime() - start, inFlight);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * limiters built from <code>httpRateLimits</code> definitions.
+ * Target with a scheme is an url prefix, otherwise it is a host or host:port.
+ * When multiple targets match, the longest one wins.
+ */
+public class HttpRateLimiters {
+    static final HttpRateLimiters EMPTY = new HttpRateLimiters(Collections.emptyMap());
+
+    private final Map<String, ?> definitions;
+    private final List<HttpRateLimiter> limiters;
+
+    @SuppressWarnings("unchecked")
+    public HttpRateLimiters(Map<String, ?> definitions) {
+        this.definitions = new LinkedHashMap<>(definitions);
+        this.limiters = new ArrayList<>();
+
+        definitions.forEach((target, definition) -> {
+            if (!(definition instanceof Map)) {
+                throw new IllegalArgumentException("http rate limit for " + target +
+                        " must be a map, e.g. [requestsPerSecond: 10, maxInFlight: 4], given: " + definition);
+            }
+
+            limiters.add(new HttpRateLimiter(HttpRateLimit.fromMap(target, (Map<String, ?>) definition)));
+        });
+    }
+
+    boolean isDefinedBy(Map<String, ?> definitions) {
+        return this.definitions.equals(definitions);
+    }
+
+    /**
+     * @param fullUrl url to call
+     * @return most specific limiter for the url, null if url is not limited
+     */
+    public HttpRateLimiter find(String fullUrl) {
+        if (limiters.isEmpty()) {
+            return null;
+        }
+
+        URL url = parseUrl(fullUrl);
+
+        HttpRateLimiter found = null;
+        int foundLength = -1;
+        for (HttpRateLimiter limiter : limiters) {
+            String target = limiter.getLimit().getTarget();
+            if (target.length() > foundLength && matches(target, fullUrl, url)) {
+                found = limiter;
+                foundLength = target.length();
+            }
+        }
+
+        return found;
+    }
+
+    private static boolean matches(String target, String fullUrl, URL url) {
+        if (target.contains("://")) {
+            return fullUrl.startsWith(target);
+        }
+
+        if (url == null) {
+            return false;
+        }
+
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+        return target.equalsIgnoreCase(url.getHost()) ||
+                target.equalsIgnoreCase(url.getHost() + ":" + port);
+    }
+
+    private static URL parseUrl(String fullUrl) {
+        try {
+            return new URL(fullUrl);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+}
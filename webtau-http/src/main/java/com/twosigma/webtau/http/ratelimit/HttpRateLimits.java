@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit;
+
+import java.util.Map;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+
+/**
+ * client side rate and in-flight limits from <code>httpRateLimits</code> config.
+ * Limiters are shared by all the threads and rebuilt when config changes.
+ */
+public class HttpRateLimits {
+    private static volatile HttpRateLimiters limiters = HttpRateLimiters.EMPTY;
+
+    private HttpRateLimits() {
+    }
+
+    /**
+     * blocks until request to the url is allowed
+     * @param fullUrl url to call
+     * @return permit that must be closed once response is consumed, {@link HttpPermit#NONE} if url is not limited
+     */
+    public static HttpPermit acquire(String fullUrl) {
+        Map<String, ?> definitions = getCfg().getHttpRateLimits();
+        if (definitions.isEmpty()) {
+            return HttpPermit.NONE;
+        }
+
+        HttpRateLimiter limiter = limiters(definitions).find(fullUrl);
+        return limiter != null ? limiter.acquire(fullUrl) : HttpPermit.NONE;
+    }
+
+    private static HttpRateLimiters limiters(Map<String, ?> definitions) {
+        HttpRateLimiters current = limiters;
+        if (current.isDefinedBy(definitions)) {
+            return current;
+        }
+
+        synchronized (HttpRateLimits.class) {
+            if (!limiters.isDefinedBy(definitions)) {
+                limiters = new HttpRateLimiters(definitions);
+            }
+
+            return limiters;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit;
+
+/**
+ * refills with a constant rate up to a capacity. Caller that finds bucket empty still takes a token,
+ * putting bucket into debt, and waits until the token would have been refilled.
+ * Concurrent callers are scheduled one after another this way instead of all waking up at once.
+ */
+public class TokenBucket {
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double tokensPerSecond, int capacity, long nowNanos) {
+        if (tokensPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("rate and capacity must be positive");
+        }
+
+        this.tokensPerNano = tokensPerSecond / NANOS_IN_SECOND;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * @param nowNanos current {@link com.twosigma.webtau.time.Time#nanoTime()}
+     * @return nanoseconds to wait before the taken token can be used, 0 if it can be used right away
+     */
+    public synchronized long reserve(long nowNanos) {
+        refill(nowNanos);
+        tokens -= 1;
+
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -37,24 +37,63 @@ public class DataNodeAnsiPrinter {
     private static final Object[] FAIL_STYLE = new Object[]{FontStyle.BOLD, Color.RED};
     private static final Object[] NO_STYLE = new Object[]{};
 
-    private List<Line> lines;
+    private static final Color TRUNCATION_COLOR = Color.YELLOW;
+
+    private final int maxLines;
+    private final int maxArrayElements;
+    private final int maxStringWidth;
+
+    private List<Object[]> lines;
     private Line currentLine;
+    private int numberOfLines;
     private int indentation;
 
     public DataNodeAnsiPrinter() {
+        this(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxLines max number of lines to print, the rest of the output is replaced with a truncation note
+     * @param maxArrayElements max number of array elements to print, the rest is replaced with ... N more
+     * @param maxStringWidth max number of characters of a single value to print
+     */
+    public DataNodeAnsiPrinter(int maxLines, int maxArrayElements, int maxStringWidth) {
+        this.maxLines = maxLines;
+        this.maxArrayElements = maxArrayElements;
+        this.maxStringWidth = maxStringWidth;
     }
 
     public void print(DataNode dataNode) {
+        render(dataNode).forEach(ConsoleOutputs::out);
+    }
+
+    /**
+     * renders node into styled lines without printing them. Lines are a snapshot of values and their check levels,
+     * so they can be printed by another thread while the node is still being validated
+     * @param dataNode node to render
+     * @return lines of styles and values to pass to {@link ConsoleOutputs#out(Object...)}
+     */
+    public List<Object[]> render(DataNode dataNode) {
         lines = new ArrayList<>();
         currentLine = new Line();
-        lines.add(currentLine);
+        numberOfLines = 0;
 
         printNode(dataNode, false);
 
-        lines.forEach(l -> ConsoleOutputs.out(l.getStyleAndValues().toArray()));
+        if (isLimitReached()) {
+            lines.add(new Object[]{TRUNCATION_COLOR, "... output is truncated to " + maxLines + " lines"});
+        } else {
+            flushLine();
+        }
+
+        return lines;
     }
 
     private void printNode(DataNode dataNode, boolean skipIndent) {
+        if (isLimitReached()) {
+            return;
+        }
+
         if (dataNode.isList()) {
             printList(dataNode, skipIndent);
         } else if (dataNode.isSingleValue()) {
@@ -86,28 +125,25 @@ public class DataNodeAnsiPrinter {
     }
 
     private void printNotEmptyObject(DataNode dataNode, boolean skipIndent) {
-        Map<String, DataNode> children = dataNode.asMap();
+        int size = dataNode.numberOfChildren();
 
         openScope("{", skipIndent);
 
-        int idx = 0;
-        for (Map.Entry<String, DataNode> entry : children.entrySet()) {
-            String k = entry.getKey();
-            DataNode v = entry.getValue();
-
-            boolean isLast = idx == children.size() - 1;
+        int[] idx = new int[]{0};
+        dataNode.forEachChildOrRawValue((k, v) -> {
+            boolean isLast = idx[0] == size - 1;
 
             printIndentation();
             printKey(k);
-            printNode(v, true);
+            printNodeOrRawValue(v, true);
 
             if (! isLast) {
                 printDelimiter(",");
                 println();
             }
 
-            idx++;
-        }
+            idx[0]++;
+        });
 
         closeScope("}");
     }
@@ -132,12 +168,75 @@ public class DataNodeAnsiPrinter {
     private void printNonEmptyList(DataNode dataNode, boolean skipIndent) {
         openScope("[", skipIndent);
 
-        int size = dataNode.elements().size();
+        int size = dataNode.numberOfElements();
+        int numberToPrint = Math.min(size, maxArrayElements);
+        int[] idx = new int[]{0};
+        dataNode.forEachElementOrRawValue(numberToPrint, v -> {
+            printNodeOrRawValue(v, false);
+
+            boolean isLast = idx[0] == size - 1;
+            if (! isLast) {
+                printDelimiter(",");
+                println();
+            }
+
+            idx[0]++;
+        });
+
+        printNumberOfSkippedElements(size - numberToPrint);
+        closeScope("]");
+    }
+
+    private void printNodeOrRawValue(Object nodeOrRawValue, boolean skipIndent) {
+        if (nodeOrRawValue instanceof DataNode) {
+            printNode((DataNode) nodeOrRawValue, skipIndent);
+        } else {
+            printRawValue(nodeOrRawValue, skipIndent);
+        }
+    }
+
+    /**
+     * values of nodes that were never accessed, they have no checks so printed without a style
+     */
+    private void printRawValue(Object value, boolean skipIndent) {
+        if (isLimitReached()) {
+            return;
+        }
+
+        if (value instanceof Map) {
+            printRawObject((Map<?, ?>) value, skipIndent);
+        } else if (value instanceof List) {
+            printRawList((List<?>) value, skipIndent);
+        } else {
+            if (! skipIndent) {
+                printIndentation();
+            }
+
+            if (value instanceof String) {
+                print(STRING_COLOR);
+            }
+
+            print(NO_STYLE);
+            print(convertToString(value));
+        }
+    }
+
+    private void printRawObject(Map<?, ?> map, boolean skipIndent) {
+        if (map.isEmpty()) {
+            printEmptyObject(skipIndent);
+            return;
+        }
+
+        openScope("{", skipIndent);
+
         int idx = 0;
-        for (DataNode n : dataNode.elements()) {
-            printNode(n, false);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            boolean isLast = idx == map.size() - 1;
+
+            printIndentation();
+            printKey(entry.getKey().toString());
+            printRawValue(entry.getValue(), true);
 
-            boolean isLast = idx == size - 1;
             if (! isLast) {
                 printDelimiter(",");
                 println();
@@ -146,9 +245,41 @@ public class DataNodeAnsiPrinter {
             idx++;
         }
 
+        closeScope("}");
+    }
+
+    private void printRawList(List<?> list, boolean skipIndent) {
+        if (list.isEmpty()) {
+            printEmptyList(skipIndent);
+            return;
+        }
+
+        openScope("[", skipIndent);
+
+        int numberToPrint = Math.min(list.size(), maxArrayElements);
+        for (int idx = 0; idx < numberToPrint && !isLimitReached(); idx++) {
+            printRawValue(list.get(idx), false);
+
+            boolean isLast = idx == list.size() - 1;
+            if (! isLast) {
+                printDelimiter(",");
+                println();
+            }
+        }
+
+        printNumberOfSkippedElements(list.size() - numberToPrint);
         closeScope("]");
     }
 
+    private void printNumberOfSkippedElements(int numberOfSkipped) {
+        if (numberOfSkipped <= 0) {
+            return;
+        }
+
+        printIndentation();
+        print(TRUNCATION_COLOR, "... " + numberOfSkipped + " more");
+    }
+
     private void printSingle(DataNode dataNode) {
         TraceableValue traceableValue = dataNode.getTraceableValue();
 
@@ -180,9 +311,14 @@ public class DataNodeAnsiPrinter {
             return "null";
         }
 
+        String text = value.toString();
+        if (text.length() > maxStringWidth) {
+            text = text.substring(0, maxStringWidth) + "...";
+        }
+
         return value instanceof String ?
-                "\"" + value + "\"":
-                value.toString();
+                "\"" + text + "\"":
+                text;
     }
 
     private Object[] valueStyle(TraceableValue traceableValue) {
@@ -236,13 +372,30 @@ public class DataNodeAnsiPrinter {
     }
 
     private void print(Object... styleAndValues) {
+        if (isLimitReached()) {
+            return;
+        }
+
         currentLine.append(styleAndValues);
     }
 
     private void println(Object... styleAndValues) {
+        if (isLimitReached()) {
+            return;
+        }
+
         print(styleAndValues);
+        flushLine();
         currentLine = new Line();
-        lines.add(currentLine);
+    }
+
+    private void flushLine() {
+        lines.add(currentLine.getStyleAndValues().toArray());
+        numberOfLines++;
+    }
+
+    private boolean isLimitReached() {
+        return numberOfLines >= maxLines;
     }
 
     private String indentation() {
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.replay;
+
+import com.twosigma.webtau.http.request.HttpRequestBody;
+import com.twosigma.webtau.http.transport.HttpTransportRequest;
+import com.twosigma.webtau.utils.HashUtils;
+import com.twosigma.webtau.utils.JsonUtils;
+import org.apache.commons.io.output.NullOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * identifies a recorded call by method, full url and hash of the normalized request body.
+ * JSON bodies are normalized by sorting object keys. Streamed bodies (files, multipart) are hashed while they are
+ * written with {@link HttpRequestBody#writeNormalizedTo}, so multipart boundaries that differ between runs
+ * don't change the key and content is never fully loaded into memory.
+ */
+public class HttpCallKey {
+    private final String key;
+    private final byte[] hash;
+
+    HttpCallKey(String key) {
+        this.key = key;
+        this.hash = HashUtils.sha256(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HttpCallKey of(HttpTransportRequest request) {
+        String bodyHash = request.hasBody() ? HashUtils.toHex(bodyHash(request.getBody())) : "-";
+        return new HttpCallKey(request.getMethod() + " " + request.getFullUrl() + " " + bodyHash);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    byte[] getHash() {
+        return hash;
+    }
+
+    String getHashAsHex() {
+        return HashUtils.toHex(hash);
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    private static byte[] bodyHash(HttpRequestBody body) {
+        return body.isStreamed() ?
+                streamedBodyHash(body) :
+                HashUtils.sha256(normalizedBody(body));
+    }
+
+    private static byte[] streamedBodyHash(HttpRequestBody body) {
+        MessageDigest digest = HashUtils.sha256Digest();
+        try (OutputStream out = new DigestOutputStream(NullOutputStream.NULL_OUTPUT_STREAM, digest)) {
+            body.writeNormalizedTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't read request body to identify recorded call", e);
+        }
+
+        return digest.digest();
+    }
+
+    private static byte[] normalizedBody(HttpRequestBody body) {
+        if (!body.isBinary() && body.type().contains("json")) {
+            try {
+                return JsonUtils.serialize(sortKeys(JsonUtils.deserialize(body.asString())))
+                        .getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                return body.contentAsBytes();
+            }
+        }
+
+        return body.contentAsBytes();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object sortKeys(Object json) {
+        if (json instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            ((Map<String, Object>) json).forEach((k, v) -> sorted.put(k, sortKeys(v)));
+            return sorted;
+        }
+
+        if (json instanceof List) {
+            return ((List<Object>) json).stream().map(HttpCallKey::sortKeys).collect(Collectors.toList());
+        }
+
+        return json;
+    }
+}
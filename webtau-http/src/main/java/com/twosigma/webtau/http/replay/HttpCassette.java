@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.replay;
+
+import com.twosigma.webtau.utils.HashUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * directory with recorded responses. Responses are appended to <code>responses.bin</code>,
+ * every append adds a fixed size record (key hash, offset, length) to <code>index.bin</code>.
+ * A key recorded again is appended as well, the last record wins.
+ *
+ * Lookups go through a concurrent map and map only the region of a found response, so replay does not take locks.
+ * Appends are serialized within the JVM and take a file lock on the index, so several JVMs can record into
+ * the same cassette. Records appended by other JVMs are picked up on a lookup miss.
+ * Files are opened for the duration of a single operation.
+ */
+public class HttpCassette {
+    static final String RESPONSES_FILE_NAME = "responses.bin";
+    static final String INDEX_FILE_NAME = "index.bin";
+
+    private static final int HASH_SIZE = 32;
+    private static final int INDEX_RECORD_SIZE = HASH_SIZE + Long.BYTES + Integer.BYTES;
+
+    private static final Map<Path, HttpCassette> cassettes = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Path responsesPath;
+    private final Path indexPath;
+    private final Map<String, Entry> entries;
+    private long numberOfLoadedRecords;
+
+    private HttpCassette(Path path) throws IOException {
+        this.path = path;
+        this.responsesPath = path.resolve(RESPONSES_FILE_NAME);
+        this.indexPath = path.resolve(INDEX_FILE_NAME);
+        this.entries = new ConcurrentHashMap<>();
+
+        Files.createDirectories(path);
+        loadNewIndexRecords();
+    }
+
+    public static HttpCassette forPath(Path path) {
+        return cassettes.computeIfAbsent(path.toAbsolutePath().normalize(), HttpCassette::open);
+    }
+
+    static HttpCassette open(Path path) {
+        try {
+            return new HttpCassette(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't open http cassette: " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(HttpCallKey key) {
+        return entries.containsKey(key.getHashAsHex());
+    }
+
+    RecordedHttpResponse find(HttpCallKey key) {
+        Entry entry = entries.get(key.getHashAsHex());
+        if (entry == null) {
+            entry = findRecordedByOthers(key);
+        }
+
+        if (entry == null) {
+            return null;
+        }
+
+        RecordedHttpResponse recorded = RecordedHttpResponse.deserialize(mapEntry(entry));
+        return recorded.getKey().equals(key.getKey()) ? recorded : null;
+    }
+
+    synchronized void record(HttpCallKey key, RecordedHttpResponse response) {
+        byte[] serialized = response.serialize();
+
+        try (FileChannel index = FileChannel.open(indexPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = index.lock();
+             FileChannel responses = FileChannel.open(responsesPath,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = responses.size();
+            writeFully(responses, ByteBuffer.wrap(serialized), offset);
+
+            // index record goes last, an interrupted append leaves responses without index entry that are never read
+            ByteBuffer indexRecord = ByteBuffer.allocate(INDEX_RECORD_SIZE);
+            indexRecord.put(key.getHash());
+            indexRecord.putLong(offset);
+            indexRecord.putInt(serialized.length);
+            indexRecord.flip();
+            writeFully(index, indexRecord, index.size());
+
+            entries.put(key.getHashAsHex(), new Entry(offset, serialized.length));
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't record http response to: " + path, e);
+        }
+    }
+
+    private synchronized Entry findRecordedByOthers(HttpCallKey key) {
+        try {
+            loadNewIndexRecords();
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't read http cassette: " + path, e);
+        }
+
+        return entries.get(key.getHashAsHex());
+    }
+
+    private void loadNewIndexRecords() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+
+        try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            long numberOfRecords = index.size() / INDEX_RECORD_SIZE;
+            if (numberOfRecords <= numberOfLoadedRecords) {
+                return;
+            }
+
+            long start = numberOfLoadedRecords * INDEX_RECORD_SIZE;
+            MappedByteBuffer mapped = index.map(FileChannel.MapMode.READ_ONLY, start,
+                    numberOfRecords * INDEX_RECORD_SIZE - start);
+
+            byte[] hash = new byte[HASH_SIZE];
+            for (long idx = numberOfLoadedRecords; idx < numberOfRecords; idx++) {
+                mapped.get(hash);
+                long offset = mapped.getLong();
+                int length = mapped.getInt();
+
+                entries.put(HashUtils.toHex(hash), new Entry(offset, length));
+            }
+
+            numberOfLoadedRecords = numberOfRecords;
+        }
+    }
+
+    private ByteBuffer mapEntry(Entry entry) {
+        try (FileChannel responses = FileChannel.open(responsesPath, StandardOpenOption.READ)) {
+            return responses.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't read http cassette: " + path, e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static class Entry {
+        private final long offset;
+        private final int length;
+
+        Entry(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
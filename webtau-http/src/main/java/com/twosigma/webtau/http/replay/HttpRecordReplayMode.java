@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.replay;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public enum HttpRecordReplayMode {
+    OFF("off"),
+    RECORD("record"),
+    REPLAY("replay"),
+    RECORD_MISSING("record-missing");
+
+    private final String id;
+
+    HttpRecordReplayMode(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean replays() {
+        return this == REPLAY || this == RECORD_MISSING;
+    }
+
+    public boolean records() {
+        return this == RECORD || this == RECORD_MISSING;
+    }
+
+    public static HttpRecordReplayMode fromId(String id) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.id.equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("unknown http record/replay mode <" + id + ">, available: " +
+                        Arrays.stream(values()).map(HttpRecordReplayMode::getId).collect(Collectors.joining(", "))));
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.http.replay;
+
+import java.nio.file.Path;
+
+/**
+ * thrown in replay only mode when a call has no recorded response
+ */
+public class HttpReplayMissException extends RuntimeException {
+    private final String key;
+
+    HttpReplayMissException(HttpCallKey key, Path cassettePath) {
+        super("no recorded response for <" + key.getKey() + "> in " + cassettePath +
+                ", record it with httpRecordReplay=record-missing");
+        this.key = key.getKey();
+    }
+
+    /**
+     * @return key of the call that has no recorded response: method, full url and request body hash
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.replay;
+
+import com.twosigma.webtau.http.transport.HttpTransport;
+import com.twosigma.webtau.http.transport.HttpTransportRequest;
+import com.twosigma.webtau.http.transport.HttpTransportResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * replays responses from {@link HttpCassette} and records responses received by the decorated transport
+ * according to {@link HttpRecordReplayMode}. Recorded bodies are kept in memory and stored as a single cassette
+ * record, so bodies above the max recorded body size are refused instead of being recorded.
+ */
+public class RecordReplayHttpTransport implements HttpTransport {
+    // a cassette record, including key and header, is mapped as a single buffer
+    private static final long MAX_CASSETTE_BODY_SIZE = 1024L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final HttpTransport delegate;
+    private final HttpRecordReplayMode mode;
+    private final HttpCassette cassette;
+    private final long maxRecordedBodySize;
+
+    public RecordReplayHttpTransport(HttpTransport delegate, HttpRecordReplayMode mode, HttpCassette cassette) {
+        this(delegate, mode, cassette, MAX_CASSETTE_BODY_SIZE);
+    }
+
+    /**
+     * @param delegate transport to send calls that are not replayed with
+     * @param mode record/replay mode
+     * @param cassette cassette to replay responses from and record responses to
+     * @param maxRecordedBodySize max size in bytes of a response body to record, larger responses fail the call
+     */
+    public RecordReplayHttpTransport(HttpTransport delegate, HttpRecordReplayMode mode, HttpCassette cassette,
+                                     long maxRecordedBodySize) {
+        this.delegate = delegate;
+        this.mode = mode;
+        this.cassette = cassette;
+        this.maxRecordedBodySize = Math.min(maxRecordedBodySize, MAX_CASSETTE_BODY_SIZE);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean handles(String fullUrl) {
+        return delegate.handles(fullUrl);
+    }
+
+    @Override
+    public Map<String, ?> stats() {
+        return delegate.stats();
+    }
+
+    @Override
+    public HttpTransportResponse send(HttpTransportRequest request) throws IOException {
+        HttpCallKey key = HttpCallKey.of(request);
+
+        if (mode.replays()) {
+            RecordedHttpResponse recorded = cassette.find(key);
+            if (recorded != null) {
+                return recorded.toTransportResponse(true);
+            }
+
+            if (!mode.records()) {
+                throw new HttpReplayMissException(key, cassette.getPath());
+            }
+        }
+
+        try (HttpTransportResponse response = delegate.send(request)) {
+            byte[] body = response.getBody() != null ? readBody(key, response.getBody()) : null;
+            RecordedHttpResponse recorded = new RecordedHttpResponse(key.getKey(),
+                    response.getStatusCode(), response.getHeader(), body);
+            cassette.record(key, recorded);
+
+            return recorded.toTransportResponse(false);
+        }
+    }
+
+    private byte[] readBody(HttpCallKey key, InputStream body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+
+            if (out.size() > maxRecordedBodySize) {
+                throw new IOException("response body of <" + key + "> is larger than " + maxRecordedBodySize +
+                        " bytes and can't be recorded, increase httpBinarySpillSize to record it");
+            }
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.replay;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.HttpHeaderFields;
+import com.twosigma.webtau.http.transport.HttpTransportResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * status, header and raw (not decoded) body of a response as it is stored in a cassette
+ */
+class RecordedHttpResponse {
+    private final String key;
+    private final int statusCode;
+    private final HttpHeader header;
+    private final byte[] body;
+
+    RecordedHttpResponse(String key, int statusCode, HttpHeader header, byte[] body) {
+        this.key = key;
+        this.statusCode = statusCode;
+        this.header = header;
+        this.body = body;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    HttpHeader getHeader() {
+        return header;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    HttpTransportResponse toTransportResponse(boolean replayed) {
+        return new HttpTransportResponse(statusCode, header,
+                body != null ? new ByteArrayInputStream(body) : null, replayed);
+    }
+
+    byte[] serialize() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            writeString(out, key);
+            out.writeInt(statusCode);
+
+            List<String> headerValues = new ArrayList<>();
+            header.forEachProperty((name, value) -> {
+                headerValues.add(name);
+                headerValues.add(value);
+            });
+
+            out.writeInt(headerValues.size() / 2);
+            for (String nameOrValue : headerValues) {
+                writeString(out, nameOrValue);
+            }
+
+            out.writeInt(body != null ? body.length : -1);
+            if (body != null) {
+                out.write(body);
+            }
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static RecordedHttpResponse deserialize(ByteBuffer buffer) {
+        String key = readString(buffer);
+        int statusCode = buffer.getInt();
+
+        HttpHeaderFields.Builder header = HttpHeader.builder();
+        int numberOfHeaderValues = buffer.getInt();
+        for (int idx = 0; idx < numberOfHeaderValues; idx++) {
+            header.add(readString(buffer), readString(buffer));
+        }
+
+        int bodyLength = buffer.getInt();
+        byte[] body = null;
+        if (bodyLength >= 0) {
+            body = new byte[bodyLength];
+            buffer.get(body);
+        }
+
+        return new RecordedHttpResponse(key, statusCode, new HttpHeader(header.build()), body);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
@@ -21,6 +21,7 @@ import com.twosigma.webtau.reporter.TestResultPayload;
 import com.twosigma.webtau.reporter.TestResultPayloadExtractor;
 import com.twosigma.webtau.reporter.TestStep;
 
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -33,6 +34,15 @@ public class HttpCallsTestResultPayloadExtractor implements TestResultPayloadExt
                 .flatMap(s -> s.getCombinedPayloadsOfType(HttpValidationResult.class));
 
         return Stream.of(new TestResultPayload(HTTP_CALLS_PAYLOAD_NAME,
-                payloads.map(HttpValidationResult::toMap).collect(Collectors.toList())));
+                payloads.map(HttpCallsTestResultPayloadExtractor::toMapAndRelease).collect(Collectors.toList())));
+    }
+
+    // test is finished at this point and only the summarized form is used by reports
+    private static Map<String, ?> toMapAndRelease(HttpValidationResult validationResult) {
+        Map<String, ?> result = validationResult.toMap();
+        validationResult.releaseRetainedBodies();
+        validationResult.releaseResponseContent();
+
+        return result;
     }
 }
@@ -17,6 +17,9 @@
 package com.twosigma.webtau.http.request;
 
 import com.twosigma.webtau.http.binary.BinaryRequestBody;
+import com.twosigma.webtau.http.binary.FileRequestBody;
+
+import java.nio.file.Path;
 
 public class HttpApplicationMime {
     public HttpRequestBody octetStream(byte[] content) {
@@ -26,4 +29,12 @@ public class HttpApplicationMime {
     public HttpRequestBody pdf(byte[] content) {
         return BinaryRequestBody.withType("application/pdf", content);
     }
+
+    public HttpRequestBody octetStream(Path file) {
+        return FileRequestBody.withType("application/octet-stream", file);
+    }
+
+    public HttpRequestBody pdf(Path file) {
+        return FileRequestBody.withType("application/pdf", file);
+    }
 }
@@ -16,6 +16,13 @@
 
 package com.twosigma.webtau.http.request;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public interface HttpRequestBody {
     boolean isBinary();
     String type();
@@ -27,4 +34,50 @@ public interface HttpRequestBody {
     default byte[] asBytes() {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * streamed body is written to a connection piece by piece using {@link #writeTo(OutputStream)}
+     * and is never fully loaded into memory. Only {@link #metadata()} of a streamed body is reported.
+     * @return true if body must be streamed
+     */
+    default boolean isStreamed() {
+        return false;
+    }
+
+    /**
+     * @return content size in bytes, -1 if size is not known upfront and chunked transfer must be used
+     */
+    default long contentLength() {
+        return contentAsBytes().length;
+    }
+
+    /**
+     * writes content to the stream. Can be called multiple times, e.g. when request is retried
+     * @param out stream to write to
+     * @throws IOException in case of write errors
+     */
+    default void writeTo(OutputStream out) throws IOException {
+        out.write(contentAsBytes());
+    }
+
+    /**
+     * writes content that identifies the body regardless of the run it was created in,
+     * e.g. without randomly generated multipart boundaries
+     * @param out stream to write to
+     * @throws IOException in case of write errors
+     */
+    default void writeNormalizedTo(OutputStream out) throws IOException {
+        writeTo(out);
+    }
+
+    /**
+     * @return summary of a body to report instead of its content
+     */
+    default Map<String, ?> metadata() {
+        return Collections.emptyMap();
+    }
+
+    default byte[] contentAsBytes() {
+        return isBinary() ? asBytes() : asString().getBytes(UTF_8);
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.timing;
+
+public enum HttpTimingPhase {
+    PERMIT_WAIT("permitWait"),
+    DNS_RESOLUTION("dnsResolution"),
+    TCP_CONNECT("tcpConnect"),
+    TLS_HANDSHAKE("tlsHandshake"),
+    REQUEST_WRITE("requestWrite"),
+    TIME_TO_FIRST_BYTE("timeToFirstByte"),
+    BODY_READ("bodyRead"),
+    JSON_PARSE("jsonParse"),
+    VALIDATION("validation");
+
+    private final String id;
+
+    HttpTimingPhase(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
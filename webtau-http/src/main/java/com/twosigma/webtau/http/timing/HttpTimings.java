@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.timing;
+
+import com.twosigma.webtau.time.Time;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * nanosecond durations of phases of a single request (one redirect hop) or of a whole call
+ */
+public class HttpTimings {
+    private final Map<HttpTimingPhase, Long> nanosByPhase;
+
+    private String url;
+    private int statusCode;
+    private Boolean connectionReused;
+
+    public HttpTimings() {
+        nanosByPhase = new EnumMap<>(HttpTimingPhase.class);
+    }
+
+    /**
+     * adds duration to a phase, e.g. request retried on a new connection spends time connecting twice
+     * @param phase phase
+     * @param nanos duration in nanoseconds
+     */
+    public void record(HttpTimingPhase phase, long nanos) {
+        nanosByPhase.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * records time passed since given start
+     * @param phase phase
+     * @param startNanos value of {@link Time#nanoTime()} when phase started
+     * @return current {@link Time#nanoTime()} to be used as a start of a next phase
+     */
+    public long recordSince(HttpTimingPhase phase, long startNanos) {
+        long now = Time.nanoTime();
+        record(phase, now - startNanos);
+
+        return now;
+    }
+
+    public void add(HttpTimings timings) {
+        timings.nanosByPhase.forEach(this::record);
+    }
+
+    public boolean has(HttpTimingPhase phase) {
+        return nanosByPhase.containsKey(phase);
+    }
+
+    public long getNanos(HttpTimingPhase phase) {
+        return nanosByPhase.getOrDefault(phase, 0L);
+    }
+
+    public long getTotalNanos() {
+        return nanosByPhase.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public boolean isEmpty() {
+        return nanosByPhase.isEmpty();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public Boolean getConnectionReused() {
+        return connectionReused;
+    }
+
+    public void setConnectionReused(Boolean connectionReused) {
+        this.connectionReused = connectionReused;
+    }
+
+    /**
+     * @return phase id to nanoseconds, only recorded phases in the order they happen
+     */
+    public Map<String, Long> phasesToMap() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        nanosByPhase.forEach((phase, nanos) -> result.put(phase.getId(), nanos));
+
+        return result;
+    }
+
+    public Map<String, ?> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (url != null) {
+            result.put("url", url);
+            result.put("statusCode", statusCode);
+        }
+
+        if (connectionReused != null) {
+            result.put("connectionReused", connectionReused);
+        }
+
+        result.put("phases", phasesToMap());
+
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes <code>Transfer-Encoding: chunked</code> body from the underlying connection stream
+ */
+class ChunkedInputStream extends InputStream {
+    private final InputStream in;
+    private long chunkRemaining;
+    private boolean isLastChunkRead;
+
+    ChunkedInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!prepareChunk()) {
+            return -1;
+        }
+
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("connection closed in the middle of a chunk");
+        }
+
+        chunkRemaining--;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (!prepareChunk()) {
+            return -1;
+        }
+
+        int numberOfRead = in.read(buffer, offset, (int) Math.min(length, chunkRemaining));
+        if (numberOfRead == -1) {
+            throw new EOFException("connection closed in the middle of a chunk");
+        }
+
+        chunkRemaining -= numberOfRead;
+        return numberOfRead;
+    }
+
+    boolean isFullyRead() {
+        return isLastChunkRead;
+    }
+
+    private boolean prepareChunk() throws IOException {
+        if (isLastChunkRead) {
+            return false;
+        }
+
+        if (chunkRemaining > 0) {
+            return true;
+        }
+
+        String sizeLine = HttpWireFormat.readLine(in);
+        if (sizeLine == null) {
+            throw new EOFException("connection closed before chunk size");
+        }
+
+        // chunk separator left from the previous chunk
+        if (sizeLine.isEmpty()) {
+            sizeLine = HttpWireFormat.readLine(in);
+            if (sizeLine == null) {
+                throw new EOFException("connection closed before chunk size");
+            }
+        }
+
+        int extensionIdx = sizeLine.indexOf(';');
+        String size = (extensionIdx == -1 ? sizeLine : sizeLine.substring(0, extensionIdx)).trim();
+        chunkRemaining = Long.parseLong(size, 16);
+
+        if (chunkRemaining == 0) {
+            skipTrailer();
+            isLastChunkRead = true;
+            return false;
+        }
+
+        return true;
+    }
+
+    private void skipTrailer() throws IOException {
+        String line = HttpWireFormat.readLine(in);
+        while (line != null && !line.isEmpty()) {
+            line = HttpWireFormat.readLine(in);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Encodes body using <code>Transfer-Encoding: chunked</code>. Writes are buffered into chunks of a fixed size.
+ * {@link #finish()} writes the last chunk but leaves the underlying connection stream open.
+ */
+class ChunkedOutputStream extends OutputStream {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final byte[] CRLF = "\r\n".getBytes(ISO_8859_1);
+
+    private final OutputStream out;
+    private final byte[] chunk;
+    private int chunkLength;
+
+    ChunkedOutputStream(OutputStream out) {
+        this.out = out;
+        this.chunk = new byte[CHUNK_SIZE];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        chunk[chunkLength++] = (byte) b;
+        if (chunkLength == chunk.length) {
+            flushChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        while (length > 0) {
+            int toCopy = Math.min(length, chunk.length - chunkLength);
+            System.arraycopy(buffer, offset, chunk, chunkLength, toCopy);
+            chunkLength += toCopy;
+            offset += toCopy;
+            length -= toCopy;
+
+            if (chunkLength == chunk.length) {
+                flushChunk();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushChunk();
+        out.flush();
+    }
+
+    void finish() throws IOException {
+        flushChunk();
+        out.write('0');
+        out.write(CRLF);
+        out.write(CRLF);
+    }
+
+    private void flushChunk() throws IOException {
+        if (chunkLength == 0) {
+            return;
+        }
+
+        out.write(Integer.toHexString(chunkLength).getBytes(ISO_8859_1));
+        out.write(CRLF);
+        out.write(chunk, 0, chunkLength);
+        out.write(CRLF);
+        chunkLength = 0;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads exactly content length bytes from the underlying connection stream
+ */
+class ContentLengthInputStream extends InputStream {
+    private final InputStream in;
+    private long remaining;
+
+    ContentLengthInputStream(InputStream in, long contentLength) {
+        this.in = in;
+        this.remaining = contentLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        int b = in.read();
+        if (b == -1) {
+            throw prematureEnd();
+        }
+
+        remaining--;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        int numberOfRead = in.read(buffer, offset, (int) Math.min(length, remaining));
+        if (numberOfRead == -1) {
+            throw prematureEnd();
+        }
+
+        remaining -= numberOfRead;
+        return numberOfRead;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(in.available(), remaining);
+    }
+
+    boolean isFullyRead() {
+        return remaining <= 0;
+    }
+
+    private EOFException prematureEnd() {
+        return new EOFException("connection closed with " + remaining + " bytes of content left");
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.time.Time;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keep-alive connections grouped by scheme, host and port.
+ * Number of leased connections per route is limited; idle connections are evicted after the idle timeout.
+ */
+class HttpConnectionPool {
+    private final Map<HttpRoute, RouteConnections> connectionsByRoute = new ConcurrentHashMap<>();
+    private final AtomicLong numberOfCreated = new AtomicLong();
+
+    PooledHttpConnection lease(HttpRoute route, Settings settings) throws IOException {
+        RouteConnections routeConnections = connectionsByRoute.computeIfAbsent(route, r -> new RouteConnections());
+
+        PooledHttpConnection idle = routeConnections.leaseIdleOrReserve(settings);
+        if (idle != null) {
+            return idle.markReused(settings.readTimeout);
+        }
+
+        try {
+            PooledHttpConnection connection = PooledHttpConnection.open(route,
+                    settings.connectTimeout, settings.readTimeout);
+            numberOfCreated.incrementAndGet();
+
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            routeConnections.cancelReservation();
+            throw e;
+        }
+    }
+
+    void release(PooledHttpConnection connection, boolean isReusable) {
+        RouteConnections routeConnections = connectionsByRoute.get(connection.getRoute());
+        routeConnections.release(connection, isReusable && connection.isOpen());
+    }
+
+    void closeIdle() {
+        connectionsByRoute.values().forEach(RouteConnections::closeIdle);
+    }
+
+    Map<String, Object> stats() {
+        int leased = 0;
+        int idle = 0;
+        for (RouteConnections routeConnections : connectionsByRoute.values()) {
+            synchronized (routeConnections) {
+                leased += routeConnections.numberOfLeased;
+                idle += routeConnections.idle.size();
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("leased", leased);
+        result.put("idle", idle);
+        result.put("created", numberOfCreated.get());
+
+        return result;
+    }
+
+    static class Settings {
+        private final int maxPerRoute;
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final long idleTimeout;
+
+        Settings(int maxPerRoute, int connectTimeout, int readTimeout, long idleTimeout) {
+            this.maxPerRoute = maxPerRoute;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    private static class RouteConnections {
+        private final Deque<PooledHttpConnection> idle = new ArrayDeque<>();
+        private int numberOfLeased;
+
+        /**
+         * @return most recently used idle connection or null if a slot for a new connection was reserved instead
+         */
+        synchronized PooledHttpConnection leaseIdleOrReserve(Settings settings) throws IOException {
+            boolean hasDeadline = settings.connectTimeout > 0;
+            long deadline = Time.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.connectTimeout);
+
+            while (true) {
+                evictExpired(settings.idleTimeout);
+
+                PooledHttpConnection connection = idle.pollFirst();
+                if (connection != null) {
+                    numberOfLeased++;
+                    return connection;
+                }
+
+                if (numberOfLeased < settings.maxPerRoute) {
+                    numberOfLeased++;
+                    return null;
+                }
+
+                long waitTime = hasDeadline ? deadline - Time.nanoTime() : 0;
+                if (hasDeadline && waitTime <= 0) {
+                    throw new IOException("timed out waiting for a free connection, " +
+                            "max number of connections per host: " + settings.maxPerRoute);
+                }
+
+                try {
+                    wait(hasDeadline ? Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitTime)) : 0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while waiting for a free connection", e);
+                }
+            }
+        }
+
+        synchronized void cancelReservation() {
+            numberOfLeased--;
+            notifyAll();
+        }
+
+        synchronized void release(PooledHttpConnection connection, boolean isReusable) {
+            numberOfLeased--;
+
+            if (isReusable) {
+                connection.markIdle(Time.nanoTime());
+                idle.addFirst(connection);
+            } else {
+                connection.close();
+            }
+
+            notifyAll();
+        }
+
+        synchronized void closeIdle() {
+            idle.forEach(PooledHttpConnection::close);
+            idle.clear();
+        }
+
+        private void evictExpired(long idleTimeout) {
+            long now = Time.nanoTime();
+            long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+
+            Iterator<PooledHttpConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledHttpConnection connection = it.next();
+                if (!connection.isOpen() || connection.isIdleExpired(now, idleTimeoutNanos)) {
+                    connection.close();
+                    it.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import java.net.URL;
+import java.util.Objects;
+
+class HttpRoute {
+    private final String scheme;
+    private final String host;
+    private final int port;
+
+    static HttpRoute fromUrl(URL url) {
+        String scheme = url.getProtocol().toLowerCase();
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+
+        return new HttpRoute(scheme, url.getHost(), port);
+    }
+
+    HttpRoute(String scheme, String host, int port) {
+        this.scheme = scheme;
+        this.host = host;
+        this.port = port;
+    }
+
+    String getScheme() {
+        return scheme;
+    }
+
+    String getHost() {
+        return host;
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    boolean isSecure() {
+        return scheme.equals("https");
+    }
+
+    String hostHeader() {
+        boolean isDefaultPort = (isSecure() && port == 443) || (!isSecure() && port == 80);
+        String hostToUse = host.contains(":") && !host.startsWith("[") ? "[" + host + "]" : host;
+
+        return isDefaultPort ? hostToUse : hostToUse + ":" + port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        HttpRoute that = (HttpRoute) o;
+        return port == that.port &&
+                scheme.equals(that.scheme) &&
+                host.equalsIgnoreCase(that.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(scheme, host.toLowerCase(), port);
+    }
+
+    @Override
+    public String toString() {
+        return scheme + "://" + host + ":" + port;
+    }
+}
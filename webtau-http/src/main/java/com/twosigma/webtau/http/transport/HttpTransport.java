@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Sends HTTP requests over the wire. Additional transports are discovered using service loader
+ * and take priority over the built-in ones for the urls they handle.
+ */
+public interface HttpTransport {
+    String getName();
+
+    HttpTransportResponse send(HttpTransportRequest request) throws IOException;
+
+    default boolean handles(String fullUrl) {
+        return true;
+    }
+
+    default Map<String, ?> stats() {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.request.EmptyRequestBody;
+import com.twosigma.webtau.http.request.HttpRequestBody;
+import com.twosigma.webtau.http.timing.HttpTimings;
+
+public class HttpTransportRequest {
+    private final String method;
+    private final String fullUrl;
+    private final HttpHeader header;
+    private final HttpRequestBody body;
+    private final HttpTimings timings;
+
+    public HttpTransportRequest(String method, String fullUrl, HttpHeader header, HttpRequestBody body) {
+        this(method, fullUrl, header, body, new HttpTimings());
+    }
+
+    private HttpTransportRequest(String method, String fullUrl, HttpHeader header, HttpRequestBody body, HttpTimings timings) {
+        this.method = method;
+        this.fullUrl = fullUrl;
+        this.header = header;
+        this.body = body;
+        this.timings = timings;
+    }
+
+    /**
+     * @param header header to send instead
+     * @return the same request with a different header, timings are shared with this request
+     */
+    public HttpTransportRequest withHeader(HttpHeader header) {
+        return new HttpTransportRequest(method, fullUrl, header, body, timings);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+
+    public HttpHeader getHeader() {
+        return header;
+    }
+
+    public HttpRequestBody getBody() {
+        return body;
+    }
+
+    /**
+     * transports record network phases of the request here
+     * @return timings of this request
+     */
+    public HttpTimings getTimings() {
+        return timings;
+    }
+
+    public boolean hasBody() {
+        return body != null && !(body instanceof EmptyRequestBody);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.cache.HttpCacheStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Status, header and not yet consumed body of a response.
+ * Must be closed to let transport reuse the underlying connection.
+ */
+public class HttpTransportResponse implements Closeable {
+    private final int statusCode;
+    private final HttpHeader header;
+    private final InputStream body;
+    private final boolean replayed;
+    private HttpCacheStatus cacheStatus;
+    private String protocol;
+
+    public HttpTransportResponse(int statusCode, HttpHeader header, InputStream body) {
+        this(statusCode, header, body, false);
+    }
+
+    public HttpTransportResponse(int statusCode, HttpHeader header, InputStream body, boolean replayed) {
+        this.statusCode = statusCode;
+        this.header = header;
+        this.body = body;
+        this.replayed = replayed;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public HttpHeader getHeader() {
+        return header;
+    }
+
+    public String getContentType() {
+        return header.caseInsensitiveGet("Content-Type");
+    }
+
+    public String getContentEncoding() {
+        return header.caseInsensitiveGet("Content-Encoding");
+    }
+
+    /**
+     * @return true if response comes from a recording instead of the network
+     */
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    /**
+     * @return how response was served by a cache, null if caching was not involved
+     */
+    public HttpCacheStatus getCacheStatus() {
+        return cacheStatus;
+    }
+
+    public void setCacheStatus(HttpCacheStatus cacheStatus) {
+        this.cacheStatus = cacheStatus;
+    }
+
+    /**
+     * @return negotiated protocol, e.g. HTTP/1.1 or HTTP/2, null if response didn't come from the network
+     */
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    /**
+     * @return response body stream, null if there is no body
+     */
+    public InputStream getBody() {
+        return body;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (body != null) {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.http.cache.CachingHttpTransport;
+import com.twosigma.webtau.http.cache.HttpResponseCache;
+import com.twosigma.webtau.http.replay.HttpCassette;
+import com.twosigma.webtau.http.replay.HttpRecordReplayMode;
+import com.twosigma.webtau.http.replay.RecordReplayHttpTransport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+
+public class HttpTransports {
+    private static final HttpTransport pooled = new PooledHttpTransport();
+    private static final HttpTransport urlConnection = new UrlConnectionHttpTransport();
+
+    private static final HttpResponseCache responseCache = new HttpResponseCache();
+
+    private static final List<HttpTransport> transports = Collections.synchronizedList(
+            loadAvailableTransports());
+
+    public static void add(HttpTransport transport) {
+        transports.add(transport);
+    }
+
+    public static void remove(HttpTransport transport) {
+        transports.remove(transport);
+    }
+
+    public static HttpTransport transport(String fullUrl) {
+        HttpTransport transport = selectTransport(fullUrl);
+
+        HttpRecordReplayMode mode = HttpRecordReplayMode.fromId(getCfg().getHttpRecordReplay());
+        if (mode != HttpRecordReplayMode.OFF) {
+            transport = new RecordReplayHttpTransport(transport, mode, HttpCassette.forPath(getCfg().getHttpCassettePath()),
+                    getCfg().getHttpBinarySpillSize());
+        }
+
+        return getCfg().isHttpCacheEnabled() ?
+                new CachingHttpTransport(transport, responseCache, getCfg().getHttpBinarySpillSize()) :
+                transport;
+    }
+
+    public static HttpResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    private static HttpTransport selectTransport(String fullUrl) {
+        synchronized (transports) {
+            for (HttpTransport transport : transports) {
+                if (transport.handles(fullUrl)) {
+                    return transport;
+                }
+            }
+        }
+
+        return defaultTransport(fullUrl);
+    }
+
+    private static HttpTransport defaultTransport(String fullUrl) {
+        String name = getCfg().getHttpTransport();
+        if (name.equals(urlConnection.getName())) {
+            return urlConnection;
+        }
+
+        if (!name.equals(pooled.getName())) {
+            throw new IllegalArgumentException("unknown http transport <" + name + ">, available: " +
+                    pooled.getName() + ", " + urlConnection.getName());
+        }
+
+        // pooled transport talks to hosts directly, proxied requests go through HttpURLConnection
+        return pooled.handles(fullUrl) ? pooled : urlConnection;
+    }
+
+    /**
+     * transports may be compiled for a newer java version (e.g. HTTP/2 one),
+     * such transports are skipped when the current runtime can't load them
+     */
+    private static List<HttpTransport> loadAvailableTransports() {
+        List<HttpTransport> result = new ArrayList<>();
+        Iterator<HttpTransport> it = ServiceLoader.load(HttpTransport.class).iterator();
+        while (it.hasNext()) {
+            try {
+                result.add(it.next());
+            } catch (ServiceConfigurationError e) {
+                // not supported by the current runtime, try the next one
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.HttpHeaderFields;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * HTTP/1.1 request and response head serialization
+ */
+class HttpWireFormat {
+    /**
+     * content length marker to send body using chunked transfer encoding
+     */
+    static final long CHUNKED = -2;
+
+    private static final String CRLF = "\r\n";
+
+    private HttpWireFormat() {
+    }
+
+    static void writeRequestHead(OutputStream out, String method, URL url, HttpRoute route,
+                                 HttpHeader header, long contentLength) throws IOException {
+        StringBuilder head = new StringBuilder();
+        head.append(method).append(' ').append(requestTarget(url)).append(" HTTP/1.1").append(CRLF);
+
+        if (header.caseInsensitiveGet("Host") == null) {
+            head.append("Host: ").append(route.hostHeader()).append(CRLF);
+        }
+
+        header.forEachProperty((name, value) -> {
+            if (name == null || value == null || isFramingHeader(name)) {
+                return;
+            }
+
+            head.append(name).append(": ").append(value).append(CRLF);
+        });
+
+        if (contentLength == CHUNKED) {
+            head.append("Transfer-Encoding: chunked").append(CRLF);
+        } else if (contentLength >= 0) {
+            head.append("Content-Length: ").append(contentLength).append(CRLF);
+        }
+
+        head.append(CRLF);
+        out.write(head.toString().getBytes(ISO_8859_1));
+    }
+
+    static ResponseHead readResponseHead(InputStream in) throws IOException {
+        ResponseHead head = readSingleResponseHead(in);
+
+        // skip interim responses like 100 Continue
+        while (head.statusCode >= 100 && head.statusCode < 200 && head.statusCode != 101) {
+            head = readSingleResponseHead(in);
+        }
+
+        return head;
+    }
+
+    /**
+     * @param in stream to read from
+     * @return line without line terminator or null if stream ended before any character was read
+     * @throws IOException in case of read errors
+     */
+    static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b = in.read();
+        if (b == -1) {
+            return null;
+        }
+
+        while (b != -1 && b != '\n') {
+            if (b != '\r') {
+                line.write(b);
+            }
+
+            b = in.read();
+        }
+
+        return new String(line.toByteArray(), ISO_8859_1);
+    }
+
+    private static ResponseHead readSingleResponseHead(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        if (statusLine == null) {
+            throw new EOFException("connection closed before response status line");
+        }
+
+        String[] parts = statusLine.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("malformed response status line: " + statusLine);
+        }
+
+        HttpHeaderFields.Builder header = HttpHeader.builder();
+        String line = readLine(in);
+        while (line != null && !line.isEmpty()) {
+            int colonIdx = line.indexOf(':');
+            if (colonIdx > 0) {
+                header.add(line.substring(0, colonIdx).trim(), line.substring(colonIdx + 1).trim());
+            }
+
+            line = readLine(in);
+        }
+
+        return new ResponseHead(parts[0], Integer.parseInt(parts[1].trim()), new HttpHeader(header.build()));
+    }
+
+    private static String requestTarget(URL url) {
+        String path = url.getPath().isEmpty() ? "/" : url.getPath();
+        return url.getQuery() != null ? path + "?" + url.getQuery() : path;
+    }
+
+    private static boolean isFramingHeader(String name) {
+        return name.equalsIgnoreCase("Content-Length") || name.equalsIgnoreCase("Transfer-Encoding");
+    }
+
+    static class ResponseHead {
+        private final String protocolVersion;
+        private final int statusCode;
+        private final HttpHeader header;
+
+        ResponseHead(String protocolVersion, int statusCode, HttpHeader header) {
+            this.protocolVersion = protocolVersion;
+            this.statusCode = statusCode;
+            this.header = header;
+        }
+
+        String getProtocolVersion() {
+            return protocolVersion;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        HttpHeader getHeader() {
+            return header;
+        }
+
+        boolean isKeepAlive() {
+            String connection = header.caseInsensitiveGet("Connection");
+            if (protocolVersion.equals("HTTP/1.0")) {
+                return connection != null && connection.equalsIgnoreCase("keep-alive");
+            }
+
+            return connection == null || !connection.equalsIgnoreCase("close");
+        }
+
+        boolean isChunked() {
+            String transferEncoding = header.caseInsensitiveGet("Transfer-Encoding");
+            return transferEncoding != null && transferEncoding.toLowerCase().contains("chunked");
+        }
+
+        long contentLength() {
+            String contentLength = header.caseInsensitiveGet("Content-Length");
+            return contentLength != null ? Long.parseLong(contentLength.trim()) : -1;
+        }
+    }
+}
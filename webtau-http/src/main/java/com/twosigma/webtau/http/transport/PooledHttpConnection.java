@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.http.timing.HttpTimingPhase;
+import com.twosigma.webtau.http.timing.HttpTimings;
+import com.twosigma.webtau.time.Time;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+class PooledHttpConnection {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final HttpRoute route;
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private final HttpTimings openTimings;
+    private long bytesSent;
+
+    private long idleSince;
+    private boolean isReused;
+
+    static PooledHttpConnection open(HttpRoute route, int connectTimeout, int readTimeout) throws IOException {
+        HttpTimings openTimings = new HttpTimings();
+
+        Socket socket = new Socket();
+        try {
+            long start = Time.nanoTime();
+            InetAddress address = InetAddress.getByName(route.getHost());
+            start = openTimings.recordSince(HttpTimingPhase.DNS_RESOLUTION, start);
+
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(address, route.getPort()), connectTimeout);
+            socket.setSoTimeout(readTimeout);
+            start = openTimings.recordSince(HttpTimingPhase.TCP_CONNECT, start);
+
+            if (route.isSecure()) {
+                socket = startTls(socket, route);
+                openTimings.recordSince(HttpTimingPhase.TLS_HANDSHAKE, start);
+            }
+
+            return new PooledHttpConnection(route, socket, openTimings);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private PooledHttpConnection(HttpRoute route, Socket socket, HttpTimings openTimings) throws IOException {
+        this.route = route;
+        this.socket = socket;
+        this.openTimings = openTimings;
+        this.in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+        this.out = new BufferedOutputStream(new SentBytesCountingOutputStream(socket.getOutputStream()), BUFFER_SIZE);
+    }
+
+    HttpRoute getRoute() {
+        return route;
+    }
+
+    InputStream getInputStream() {
+        return in;
+    }
+
+    OutputStream getOutputStream() {
+        return out;
+    }
+
+    /**
+     * @return time spent resolving, connecting and negotiating TLS when connection was opened
+     */
+    HttpTimings getOpenTimings() {
+        return openTimings;
+    }
+
+    /**
+     * @return number of bytes that left the write buffer and were handed to the socket
+     */
+    long getBytesSent() {
+        return bytesSent;
+    }
+
+    boolean isReused() {
+        return isReused;
+    }
+
+    boolean isOpen() {
+        return !socket.isClosed() && !socket.isInputShutdown() && !socket.isOutputShutdown();
+    }
+
+    void markIdle(long nowNanos) {
+        idleSince = nowNanos;
+    }
+
+    boolean isIdleExpired(long nowNanos, long idleTimeoutNanos) {
+        return nowNanos - idleSince > idleTimeoutNanos;
+    }
+
+    PooledHttpConnection markReused(int readTimeout) throws IOException {
+        socket.setSoTimeout(readTimeout);
+        isReused = true;
+        bytesSent = 0;
+        return this;
+    }
+
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static Socket startTls(Socket plainSocket, HttpRoute route) throws IOException {
+        SSLSocketFactory sslSocketFactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+        SSLSocket sslSocket = (SSLSocket) sslSocketFactory.createSocket(plainSocket,
+                route.getHost(), route.getPort(), true);
+
+        SSLParameters sslParameters = sslSocket.getSSLParameters();
+        sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+        sslSocket.setSSLParameters(sslParameters);
+        sslSocket.startHandshake();
+
+        return sslSocket;
+    }
+
+    private class SentBytesCountingOutputStream extends FilterOutputStream {
+        SentBytesCountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            bytesSent++;
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            bytesSent += len;
+            out.write(b, off, len);
+        }
+    }
+}
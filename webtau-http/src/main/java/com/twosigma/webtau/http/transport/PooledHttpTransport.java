@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.request.HttpRequestBody;
+import com.twosigma.webtau.http.timing.HttpTimingPhase;
+import com.twosigma.webtau.http.timing.HttpTimings;
+import com.twosigma.webtau.time.Time;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+/**
+ * HTTP/1.1 transport that keeps connections alive and reuses them between calls to the same host
+ */
+public class PooledHttpTransport implements HttpTransport {
+    private final HttpConnectionPool pool = new HttpConnectionPool();
+
+    @Override
+    public String getName() {
+        return "pooled";
+    }
+
+    @Override
+    public boolean handles(String fullUrl) {
+        try {
+            URI uri = new URI(fullUrl);
+            String scheme = uri.getScheme();
+            if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+                return false;
+            }
+
+            ProxySelector proxySelector = ProxySelector.getDefault();
+            if (proxySelector == null) {
+                return true;
+            }
+
+            List<Proxy> proxies = proxySelector.select(uri);
+            return proxies.isEmpty() || proxies.get(0).type() == Proxy.Type.DIRECT;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public HttpTransportResponse send(HttpTransportRequest request) throws IOException {
+        URL url = new URL(request.getFullUrl());
+        HttpRoute route = HttpRoute.fromUrl(url);
+        HttpConnectionPool.Settings settings = new HttpConnectionPool.Settings(
+                getCfg().getHttpMaxConnectionsPerHost(),
+                getCfg().getHttpConnectTimeout(),
+                getCfg().getHttpReadTimeout(),
+                getCfg().getHttpIdleConnectionTimeout());
+
+        HttpRequestBody streamedBody = request.hasBody() && request.getBody().isStreamed() ? request.getBody() : null;
+        byte[] body = request.hasBody() && streamedBody == null ? request.getBody().contentAsBytes() : null;
+
+        long contentLength;
+        if (streamedBody != null) {
+            contentLength = streamedBody.contentLength();
+        } else if (body != null) {
+            contentLength = body.length;
+        } else {
+            contentLength = isBodyExpected(request.getMethod()) ? 0 : -1;
+        }
+
+        boolean isChunked = streamedBody != null && contentLength < 0;
+
+        while (true) {
+            PooledHttpConnection connection = pool.lease(route, settings);
+
+            HttpTimings timings = request.getTimings();
+            timings.setConnectionReused(connection.isReused());
+            if (!connection.isReused()) {
+                timings.add(connection.getOpenTimings());
+            }
+
+            HttpWireFormat.ResponseHead responseHead;
+            try {
+                long start = Time.nanoTime();
+                OutputStream out = connection.getOutputStream();
+                HttpWireFormat.writeRequestHead(out, request.getMethod(), url, route,
+                        request.getHeader(), isChunked ? HttpWireFormat.CHUNKED : contentLength);
+                if (body != null) {
+                    out.write(body);
+                } else if (isChunked) {
+                    ChunkedOutputStream chunked = new ChunkedOutputStream(out);
+                    streamedBody.writeTo(chunked);
+                    chunked.finish();
+                } else if (streamedBody != null) {
+                    streamedBody.writeTo(out);
+                }
+                out.flush();
+                start = timings.recordSince(HttpTimingPhase.REQUEST_WRITE, start);
+
+                responseHead = HttpWireFormat.readResponseHead(connection.getInputStream());
+                timings.recordSince(HttpTimingPhase.TIME_TO_FIRST_BYTE, start);
+            } catch (IOException e) {
+                pool.release(connection, false);
+
+                // server may have closed an idle connection before we used it.
+                // non idempotent request is repeated only if none of it reached the server
+                if (connection.isReused() && isStaleConnectionFailure(e) &&
+                        (connection.getBytesSent() == 0 || isIdempotent(request.getMethod()))) {
+                    continue;
+                }
+
+                throw e;
+            } catch (RuntimeException e) {
+                pool.release(connection, false);
+                throw e;
+            }
+
+            HttpTransportResponse response = createResponse(request.getMethod(), connection, responseHead);
+            response.setProtocol(responseHead.getProtocolVersion());
+
+            return response;
+        }
+    }
+
+    @Override
+    public Map<String, ?> stats() {
+        return pool.stats();
+    }
+
+    private HttpTransportResponse createResponse(String method,
+                                                 PooledHttpConnection connection,
+                                                 HttpWireFormat.ResponseHead responseHead) {
+        int statusCode = responseHead.getStatusCode();
+        HttpHeader header = responseHead.getHeader();
+
+        if (method.equalsIgnoreCase("HEAD") || statusCode == 204 || statusCode == 304) {
+            pool.release(connection, responseHead.isKeepAlive());
+            return new HttpTransportResponse(statusCode, header, null);
+        }
+
+        InputStream in = connection.getInputStream();
+        if (responseHead.isChunked()) {
+            ChunkedInputStream chunked = new ChunkedInputStream(in);
+            return new HttpTransportResponse(statusCode, header, new ReleaseOnCloseInputStream(chunked,
+                    connection, () -> responseHead.isKeepAlive() && chunked.isFullyRead()));
+        }
+
+        long contentLength = responseHead.contentLength();
+        if (contentLength >= 0) {
+            ContentLengthInputStream bounded = new ContentLengthInputStream(in, contentLength);
+            return new HttpTransportResponse(statusCode, header, new ReleaseOnCloseInputStream(bounded,
+                    connection, () -> responseHead.isKeepAlive() && bounded.isFullyRead()));
+        }
+
+        // body ends when server closes connection
+        return new HttpTransportResponse(statusCode, header,
+                new ReleaseOnCloseInputStream(in, connection, () -> false));
+    }
+
+    private static boolean isBodyExpected(String method) {
+        return method.equalsIgnoreCase("POST") ||
+                method.equalsIgnoreCase("PUT") ||
+                method.equalsIgnoreCase("PATCH");
+    }
+
+    private static boolean isIdempotent(String method) {
+        return method.equalsIgnoreCase("GET") ||
+                method.equalsIgnoreCase("HEAD") ||
+                method.equalsIgnoreCase("OPTIONS") ||
+                method.equalsIgnoreCase("PUT") ||
+                method.equalsIgnoreCase("DELETE");
+    }
+
+    private static boolean isStaleConnectionFailure(IOException e) {
+        return e instanceof EOFException || e instanceof SocketException;
+    }
+
+    private interface ReuseCheck {
+        boolean isReusable();
+    }
+
+    private class ReleaseOnCloseInputStream extends FilterInputStream {
+        private final PooledHttpConnection connection;
+        private final ReuseCheck reuseCheck;
+        private boolean isReleased;
+
+        ReleaseOnCloseInputStream(InputStream in, PooledHttpConnection connection, ReuseCheck reuseCheck) {
+            super(in);
+            this.connection = connection;
+            this.reuseCheck = reuseCheck;
+        }
+
+        @Override
+        public void close() {
+            if (isReleased) {
+                return;
+            }
+
+            isReleased = true;
+            pool.release(connection, reuseCheck.isReusable());
+        }
+    }
+}
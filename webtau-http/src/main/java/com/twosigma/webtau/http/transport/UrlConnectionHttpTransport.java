@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.HttpHeaderFields;
+import com.twosigma.webtau.http.request.HttpRequestBody;
+import com.twosigma.webtau.http.timing.HttpTimingPhase;
+import com.twosigma.webtau.http.timing.HttpTimings;
+import com.twosigma.webtau.time.Time;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Opens a new {@link HttpURLConnection} for every request.
+ * Connection reuse is left to the JDK keep-alive cache.
+ * Connection phases are not exposed, so connecting is included in request write or time to first byte timing.
+ */
+public class UrlConnectionHttpTransport implements HttpTransport {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Override
+    public String getName() {
+        return "urlConnection";
+    }
+
+    @Override
+    public HttpTransportResponse send(HttpTransportRequest request) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(request.getFullUrl()).openConnection();
+        connection.setInstanceFollowRedirects(false);
+        connection.setConnectTimeout(getCfg().getHttpConnectTimeout());
+        connection.setReadTimeout(getCfg().getHttpReadTimeout());
+        connection.setRequestMethod(request.getMethod());
+        request.getHeader().forEachField((name, values) -> {
+            connection.setRequestProperty(name, values.get(0));
+            values.stream().skip(1).forEach(value -> connection.addRequestProperty(name, value));
+        });
+
+        HttpTimings timings = request.getTimings();
+        long start = Time.nanoTime();
+
+        if (request.hasBody()) {
+            connection.setDoOutput(true);
+
+            HttpRequestBody requestBody = request.getBody();
+            if (requestBody.isStreamed()) {
+                writeStreamed(connection, requestBody);
+            } else if (requestBody.isBinary()) {
+                connection.getOutputStream().write(requestBody.asBytes());
+            } else {
+                IOUtils.write(requestBody.asString(), connection.getOutputStream(), UTF_8);
+            }
+        }
+
+        start = timings.recordSince(HttpTimingPhase.REQUEST_WRITE, start);
+
+        int statusCode = connection.getResponseCode();
+        timings.recordSince(HttpTimingPhase.TIME_TO_FIRST_BYTE, start);
+        InputStream body = statusCode < 400 ? connection.getInputStream() : connection.getErrorStream();
+
+        HttpTransportResponse response = new HttpTransportResponse(statusCode, responseHeader(connection), body);
+        response.setProtocol(protocol(connection));
+
+        return response;
+    }
+
+    private static void writeStreamed(HttpURLConnection connection, HttpRequestBody requestBody) throws IOException {
+        long contentLength = requestBody.contentLength();
+        if (contentLength >= 0) {
+            connection.setFixedLengthStreamingMode(contentLength);
+        } else {
+            connection.setChunkedStreamingMode(CHUNK_SIZE);
+        }
+
+        try (OutputStream out = connection.getOutputStream()) {
+            requestBody.writeTo(out);
+        }
+    }
+
+    private static String protocol(HttpURLConnection connection) {
+        String statusLine = connection.getHeaderField(0);
+        if (statusLine == null || !statusLine.startsWith("HTTP/")) {
+            return null;
+        }
+
+        int spaceIdx = statusLine.indexOf(' ');
+        return spaceIdx == -1 ? statusLine : statusLine.substring(0, spaceIdx);
+    }
+
+    private static HttpHeader responseHeader(HttpURLConnection connection) {
+        // getHeaderFields lists values of a repeated header in reverse order, indexed access keeps the wire order
+        HttpHeaderFields.Builder header = HttpHeader.builder();
+        for (int idx = 0; ; idx++) {
+            String key = connection.getHeaderFieldKey(idx);
+            String value = connection.getHeaderField(idx);
+            if (key == null && value == null) {
+                break;
+            }
+
+            // null key holds the status line
+            if (key != null) {
+                header.add(key, value);
+            }
+        }
+
+        return new HttpHeader(header.build());
+    }
+}
@@ -27,7 +27,6 @@ import com.twosigma.webtau.http.datanode.NullDataNode;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class HeaderDataNode implements DataNode {
     private static final Set<CamelCaseTranslation> translations = setOf(
@@ -38,19 +37,38 @@ public class HeaderDataNode implements DataNode {
 
     private final DataNode dataNode;
     private final HttpHeader responseHeader;
+    private final Map<String, String> keysByLowerCase;
+    private final DataNode elapsedTime;
 
     public HeaderDataNode(HttpResponse response) {
+        this(response, null);
+    }
+
+    /**
+     * @param response response to expose
+     * @param elapsedTime call elapsed time in milliseconds, null if not known
+     */
+    public HeaderDataNode(HttpResponse response, Long elapsedTime) {
         Map<String, Object> headerData = new HashMap<>();
 
         headerData.put("statusCode", response.getStatusCode());
         headerData.put("contentType", response.getContentType());
 
-        response.getHeader().forEachProperty(headerData::put);
+        HttpHeader header = response.getHeader();
+        header.forEachField((name, values) ->
+                headerData.put(name, values.size() == 1 ? values.get(0) : values));
 
-        translations.forEach(translation -> addCamelCaseVersion(headerData, translation));
+        translations.forEach(translation -> addCamelCaseVersion(header, headerData, translation));
 
         this.dataNode = DataNodeBuilder.fromMap(new DataNodeId("header"), headerData);
-        this.responseHeader = response.getHeader();
+        this.responseHeader = header;
+        this.keysByLowerCase = new HashMap<>();
+        headerData.keySet().forEach(key -> keysByLowerCase.putIfAbsent(key.toLowerCase(Locale.ROOT), key));
+
+        DataNodeId elapsedTimeId = new DataNodeId("elapsedTime");
+        this.elapsedTime = elapsedTime != null ?
+                DataNodeBuilder.fromValue(elapsedTimeId, elapsedTime) :
+                new NullDataNode(elapsedTimeId);
     }
 
     public HttpHeader getResponseHeader() {
@@ -136,22 +154,24 @@ public class HeaderDataNode implements DataNode {
         return dataNode.get("statusCode");
     }
 
-    private Optional<String> findMatchingCaseInsensitiveKey(String name) {
-        return findMatchingCaseInsensitiveKey(name, dataNode.asMap().keySet().stream());
+    /**
+     * elapsed time is not a header, but it is validated in the same block as status code
+     * @return call elapsed time in milliseconds
+     */
+    public DataNode elapsedTime() {
+        return elapsedTime;
     }
 
-    private static Optional<String> findMatchingCaseInsensitiveKey(String name, Stream<String> keys) {
-        String lowerCaseName = name.toLowerCase();
-        return keys
-                .filter(k -> k != null && k.toLowerCase().equals(lowerCaseName))
-                .findFirst();
+    private Optional<String> findMatchingCaseInsensitiveKey(String name) {
+        return Optional.ofNullable(keysByLowerCase.get(name.toLowerCase(Locale.ROOT)));
     }
 
-    private static void addCamelCaseVersion(Map<String, Object> headerData, CamelCaseTranslation translation) {
-        Optional<String> existingHeaderName = findMatchingCaseInsensitiveKey(translation.originalName, headerData.keySet().stream());
-        if (existingHeaderName.isPresent()) {
-            Object converted = translation.conversion.apply((String) headerData.get(existingHeaderName.get()));
+    private static void addCamelCaseVersion(HttpHeader header, Map<String, Object> headerData, CamelCaseTranslation translation) {
+        String existingHeaderName = header.getFields().originalName(translation.originalName);
+        if (existingHeaderName != null) {
+            Object converted = translation.conversion.apply(header.get(translation.originalName));
 
+            headerData.remove(existingHeaderName);
             headerData.put(translation.camelCaseName, converted);
             headerData.put(translation.originalName, converted);
         }
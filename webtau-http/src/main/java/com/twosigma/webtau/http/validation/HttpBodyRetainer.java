@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.validation;
+
+import com.twosigma.webtau.utils.HashUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+
+/**
+ * Applies {@link HttpBodyRetention} to a body when a call is recorded. Sizes are in UTF-8 bytes.
+ * Content is streamed, so only what is kept is read into memory, even for bodies stored in temp files.
+ * Sidecar bodies are written as scripts next to the report, so the report can load them on demand
+ * even when it is opened from a file system.
+ */
+public class HttpBodyRetainer {
+    private final HttpBodyRetention retention;
+    private final int maxSize;
+    private final Path sidecarDir;
+
+    public HttpBodyRetainer(HttpBodyRetention retention, int maxSize, Path sidecarDir) {
+        this.retention = retention;
+        this.maxSize = maxSize;
+        this.sidecarDir = sidecarDir;
+    }
+
+    public static HttpBodyRetainer fromConfig() {
+        Path reportPath = getCfg().getReportPath().toAbsolutePath();
+        String reportName = reportPath.getFileName().toString().replaceFirst("\\.html?$", "");
+
+        return new HttpBodyRetainer(
+                HttpBodyRetention.fromId(getCfg().getHttpBodyRetention()),
+                getCfg().getHttpBodyRetentionSize(),
+                reportPath.resolveSibling(reportName + "-bodies"));
+    }
+
+    public boolean keepsFullBodies() {
+        return retention == HttpBodyRetention.FULL;
+    }
+
+    /**
+     * @param content body content
+     * @param failed true if the call failed
+     * @return body to keep for the report
+     */
+    public RetainedHttpBody retain(String content, boolean failed) {
+        if (content == null) {
+            return RetainedHttpBody.full(null);
+        }
+
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        return retain(utf8.length, () -> new ByteArrayInputStream(utf8), failed);
+    }
+
+    /**
+     * @param size content size in UTF-8 bytes
+     * @param content provides a new stream of UTF-8 content on every call
+     * @param failed true if the call failed
+     * @return body to keep for the report
+     */
+    public RetainedHttpBody retain(long size, Supplier<InputStream> content, boolean failed) {
+        switch (retention) {
+            case FAILED_ONLY:
+                return failed ?
+                        RetainedHttpBody.full(readAll(content)) :
+                        RetainedHttpBody.omitted(retention, size);
+            case TRUNCATE:
+                return size > maxSize ?
+                        RetainedHttpBody.truncated(readPrefix(content, maxSize), size) :
+                        RetainedHttpBody.full(readAll(content));
+            case SIDECAR:
+                return size > maxSize ?
+                        writeSidecar(size, content) :
+                        RetainedHttpBody.full(readAll(content));
+            default:
+                return RetainedHttpBody.full(readAll(content));
+        }
+    }
+
+    // content is read twice: to name the file after the content hash, and to write the file
+    private RetainedHttpBody writeSidecar(long size, Supplier<InputStream> content) {
+        String hash = sha256Hex(content);
+        Path file = sidecarDir.resolve(hash + ".js");
+
+        // bodies with the same content share a file
+        if (!Files.exists(file)) {
+            writeSidecarScript(file, hash, content);
+        }
+
+        return RetainedHttpBody.sidecar(size, hash,
+                sidecarDir.getFileName() + "/" + file.getFileName());
+    }
+
+    private static void writeSidecarScript(Path file, String hash, Supplier<InputStream> content) {
+        try {
+            Files.createDirectories(file.getParent());
+
+            // written to a temp file first, so a partially written script is never loaded by the report
+            Path tempFile = Files.createTempFile(file.getParent(), hash, ".tmp");
+            try (Reader reader = new BufferedReader(new InputStreamReader(content.get(), StandardCharsets.UTF_8));
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(
+                         Files.newOutputStream(tempFile), StandardCharsets.UTF_8))) {
+                writer.write("webtauSidecarBodyLoaded(\"" + hash + "\", \"");
+                writeJsonStringContent(reader, writer);
+                writer.write("\");\n");
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't write sidecar body: " + file, e);
+        }
+    }
+
+    // escapes content the same way a JSON string is escaped, line separators are escaped for older JS engines
+    private static void writeJsonStringContent(Reader reader, Writer writer) throws IOException {
+        int c;
+        while ((c = reader.read()) != -1) {
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        writer.write(String.format("\\u%04x", c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+    }
+
+    private static String sha256Hex(Supplier<InputStream> content) {
+        MessageDigest digest = HashUtils.sha256Digest();
+        try (InputStream in = new DigestInputStream(content.get(), digest)) {
+            IOUtils.copy(in, NullOutputStream.NULL_OUTPUT_STREAM);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return HashUtils.toHex(digest.digest());
+    }
+
+    private static String readAll(Supplier<InputStream> content) {
+        try (InputStream in = content.get()) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // a multi-byte character cut at the end is dropped
+    private static String readPrefix(Supplier<InputStream> content, int maxBytes) {
+        try (InputStream in = content.get()) {
+            byte[] prefix = new byte[maxBytes];
+            int read = IOUtils.read(in, prefix);
+
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.IGNORE)
+                    .onUnmappableCharacter(CodingErrorAction.IGNORE)
+                    .decode(ByteBuffer.wrap(prefix, 0, read))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
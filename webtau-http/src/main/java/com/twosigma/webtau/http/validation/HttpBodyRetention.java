@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.validation;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * defines how request and response bodies are kept for the report
+ */
+public enum HttpBodyRetention {
+    FULL("full"),
+    FAILED_ONLY("failedOnly"),
+    TRUNCATE("truncate"),
+    SIDECAR("sidecar");
+
+    private final String id;
+
+    HttpBodyRetention(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public static HttpBodyRetention fromId(String id) {
+        return Arrays.stream(values())
+                .filter(retention -> retention.id.equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("unknown http body retention <" + id + ">, available: " +
+                        Arrays.stream(values()).map(HttpBodyRetention::getId).collect(Collectors.joining(", "))));
+    }
+}
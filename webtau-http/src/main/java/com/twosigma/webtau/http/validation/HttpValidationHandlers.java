@@ -36,6 +36,22 @@ public class HttpValidationHandlers {
         }
     }
 
+    public static List<HttpValidationHandler> getLocalHandlers() {
+        return new ArrayList<>(localHandlers.get());
+    }
+
+    /**
+     * replaces local handlers of the current thread
+     * @param handlers new local handlers
+     * @return previous local handlers
+     */
+    public static List<HttpValidationHandler> setLocalHandlers(List<HttpValidationHandler> handlers) {
+        List<HttpValidationHandler> previous = localHandlers.get();
+        localHandlers.set(new ArrayList<>(handlers));
+
+        return previous;
+    }
+
     public static void validate(HttpValidationResult validationResult) {
         Stream.concat(localHandlers.get().stream(), globalHandlers.stream())
                 .forEach(c -> c.validate(validationResult));
@@ -20,9 +20,13 @@ import com.twosigma.webtau.data.traceable.CheckLevel;
 import com.twosigma.webtau.http.HttpHeader;
 import com.twosigma.webtau.http.request.HttpRequestBody;
 import com.twosigma.webtau.http.HttpResponse;
+import com.twosigma.webtau.http.datacoverage.DataNodeCheckCoverage;
 import com.twosigma.webtau.http.datacoverage.DataNodeToMapOfValuesConverter;
 import com.twosigma.webtau.http.datacoverage.TraceableValueConverter;
 import com.twosigma.webtau.http.datanode.DataNode;
+import com.twosigma.webtau.http.encoding.HttpContentSizes;
+import com.twosigma.webtau.http.timing.HttpTimingPhase;
+import com.twosigma.webtau.http.timing.HttpTimings;
 import com.twosigma.webtau.reporter.TestStepPayload;
 import com.twosigma.webtau.utils.StringUtils;
 
@@ -43,17 +47,26 @@ public class HttpValidationResult implements TestStepPayload {
     private final String fullUrl;
     private final String requestMethod;
     private HttpHeader requestHeader;
-    private final HttpRequestBody requestBody;
+    private HttpRequestBody requestBody;
 
     private final List<String> mismatches;
 
     private HttpResponse response;
     private HeaderDataNode responseHeaderNode;
     private DataNode responseBodyNode;
+    private DataNodeCheckCoverage responseBodyCoverage;
+    private RetainedHttpBody retainedRequestBody;
+    private RetainedHttpBody retainedResponseBody;
+    private boolean isRetentionApplied;
+    private List<String> releasedFailedPaths;
+    private List<String> releasedPassedPaths;
     private long startTime;
-    private long elapsedTime;
+    private long elapsedTimeMicros;
     private String errorMessage;
 
+    private final List<HttpTimings> hopTimings;
+    private final HttpTimings callTimings;
+
     public HttpValidationResult(String requestMethod,
                                 String url,
                                 String fullUrl,
@@ -66,6 +79,8 @@ public class HttpValidationResult implements TestStepPayload {
         this.requestHeader = requestHeader;
         this.requestBody = requestBody;
         this.mismatches = new ArrayList<>();
+        this.hopTimings = new ArrayList<>();
+        this.callTimings = new HttpTimings();
     }
 
     public String getId() {
@@ -84,6 +99,134 @@ public class HttpValidationResult implements TestStepPayload {
         this.response = response;
     }
 
+    /**
+     * @param timings network timings of a single request, one per redirect hop
+     */
+    public void addHopTimings(HttpTimings timings) {
+        if (timings != null) {
+            hopTimings.add(timings);
+        }
+    }
+
+    public List<HttpTimings> getHopTimings() {
+        return hopTimings;
+    }
+
+    /**
+     * @return timings of phases that happen once per call, e.g. body parsing and validation
+     */
+    public HttpTimings getCallTimings() {
+        return callTimings;
+    }
+
+    /**
+     * @return all hops and call level phases combined
+     */
+    public HttpTimings getTotalTimings() {
+        HttpTimings total = new HttpTimings();
+        hopTimings.forEach(total::add);
+        total.add(callTimings);
+
+        return total;
+    }
+
+    /**
+     * @return time spent waiting for client side rate limit permits, not included in network phases
+     */
+    public long getPermitWaitNanos() {
+        return getTotalTimings().getNanos(HttpTimingPhase.PERMIT_WAIT);
+    }
+
+    /**
+     * @return protocol negotiated for the final response, e.g. HTTP/1.1 or HTTP/2. null if it is not known
+     */
+    public String getProtocol() {
+        return response != null ? response.getProtocol() : null;
+    }
+
+    /**
+     * @return true if final response was replayed from a recording instead of received from the network
+     */
+    public boolean isReplayed() {
+        return response != null && response.isReplayed();
+    }
+
+    /**
+     * @return faults injected into the final response by a proxy, null if there were none
+     */
+    public String getInjectedFault() {
+        return response != null ? response.injectedFaultHeader() : null;
+    }
+
+    /**
+     * @return bytes sent and received by the final request, before and after encoding. null if there is no response
+     */
+    public HttpContentSizes getContentSizes() {
+        return response != null ? response.getContentSizes() : null;
+    }
+
+    /**
+     * releases temp storage of large responses, response content must not be accessed afterwards
+     */
+    public void releaseResponseContent() {
+        if (response != null) {
+            response.releaseBinaryContent();
+            response.releaseTextContent();
+        }
+    }
+
+    /**
+     * applies body retention policy to the bodies used by {@link #toMap()}
+     * @param retainer retention policy
+     * @param failed true if the call failed
+     */
+    public void retainBodies(HttpBodyRetainer retainer, boolean failed) {
+        if (retainer.keepsFullBodies()) {
+            return;
+        }
+
+        isRetentionApplied = true;
+
+        if (requestBody != null && !requestBody.isBinary() && !requestBody.isStreamed()) {
+            retainedRequestBody = retainer.retain(requestBody.asString(), failed);
+        }
+
+        // large content is stored in a temp file, retainer streams it and reads only what it keeps
+        if (response != null && !response.isBinary()) {
+            retainedResponseBody = response.nullOrEmptyTextContent() ?
+                    retainer.retain(response.getTextContent(), failed) :
+                    retainer.retain(response.getTextContentSize(), response::getTextContentAsStream, failed);
+        }
+    }
+
+    /**
+     * releases body nodes and check coverage, paths of checked values are kept.
+     * Full request and response content is released too once the retained bodies are captured.
+     * Result must not be used for doc capture afterwards.
+     */
+    public void releaseRetainedBodies() {
+        if (releasedFailedPaths == null) {
+            releasedFailedPaths = getFailedPaths();
+            releasedPassedPaths = getPassedPaths();
+        }
+
+        responseBodyNode = null;
+        responseBodyCoverage = null;
+
+        if (!isRetentionApplied) {
+            return;
+        }
+
+        if (response != null) {
+            response.releaseTextContent();
+        }
+
+        if (requestBody != null && !(requestBody instanceof ReleasedRequestBody) &&
+                (retainedRequestBody != null || requestBody.isBinary() || requestBody.isStreamed())) {
+            requestBody = new ReleasedRequestBody(requestBody);
+        }
+    }
+
     public void setResponseHeaderNode(HeaderDataNode responseHeader) {
         this.responseHeaderNode = responseHeader;
     }
@@ -92,12 +235,32 @@ public class HttpValidationResult implements TestStepPayload {
         this.responseBodyNode = responseBody;
     }
 
+    /**
+     * @param responseBodyCoverage coverage that tracks body values as checks happen,
+     *                             when not set paths are extracted by traversing the whole body
+     */
+    public void setResponseBodyCoverage(DataNodeCheckCoverage responseBodyCoverage) {
+        this.responseBodyCoverage = responseBodyCoverage;
+    }
+
     public List<String> getFailedPaths() {
-        return extractPaths(responseBodyNode, CheckLevel::isFailed);
+        if (releasedFailedPaths != null) {
+            return releasedFailedPaths;
+        }
+
+        return responseBodyCoverage != null ?
+                replaceStartOfThePaths(responseBodyCoverage.getFailedPaths()) :
+                extractPaths(responseBodyNode, CheckLevel::isFailed);
     }
 
     public List<String> getPassedPaths() {
-        return extractPaths(responseBodyNode, CheckLevel::isPassed);
+        if (releasedPassedPaths != null) {
+            return releasedPassedPaths;
+        }
+
+        return responseBodyCoverage != null ?
+                replaceStartOfThePaths(responseBodyCoverage.getPassedPaths()) :
+                extractPaths(responseBodyNode, CheckLevel::isPassed);
     }
 
     public void setStartTime(long startTime) {
@@ -105,7 +268,11 @@ public class HttpValidationResult implements TestStepPayload {
     }
 
     public void setElapsedTime(long elapsedTime) {
-        this.elapsedTime = elapsedTime;
+        this.elapsedTimeMicros = elapsedTime * 1000;
+    }
+
+    public void setElapsedTimeMicros(long elapsedTimeMicros) {
+        this.elapsedTimeMicros = elapsedTimeMicros;
     }
 
     public String getRequestType() {
@@ -185,7 +352,11 @@ public class HttpValidationResult implements TestStepPayload {
     }
 
     public long getElapsedTime() {
-        return elapsedTime;
+        return elapsedTimeMicros / 1000;
+    }
+
+    public long getElapsedTimeMicros() {
+        return elapsedTimeMicros;
     }
 
     @Override
@@ -197,7 +368,8 @@ public class HttpValidationResult implements TestStepPayload {
         result.put("url", fullUrl);
 
         result.put("startTime", startTime);
-        result.put("elapsedTime", elapsedTime);
+        result.put("elapsedTime", getElapsedTime());
+        result.put("elapsedTimeMicros", elapsedTimeMicros);
         result.put("errorMessage", errorMessage);
         result.put("mismatches", mismatches);
 
@@ -205,17 +377,62 @@ public class HttpValidationResult implements TestStepPayload {
 
         if (requestBody != null) {
             result.put("requestType", requestBody.type());
-            result.put("requestBody", requestBody.isBinary() ? BINARY_CONTENT_PLACEHOLDER : requestBody.asString());
+            if (retainedRequestBody != null) {
+                retainedRequestBody.putInto(result, "requestBody");
+            } else {
+                result.put("requestBody", requestBody.isBinary() ? BINARY_CONTENT_PLACEHOLDER : requestBody.asString());
+            }
+
+            if (requestBody.isStreamed()) {
+                result.put("requestBodyMetadata", requestBody.metadata());
+            }
         }
 
         if (response != null) {
             result.put("responseType", response.getContentType());
             result.put("responseStatusCode", response.getStatusCode());
             result.put("responseHeader", response.getHeader().redactSecrets().toListOfMaps());
-            result.put("responseBody", response.isBinary() ? BINARY_CONTENT_PLACEHOLDER : response.getTextContent());
+            if (retainedResponseBody != null) {
+                retainedResponseBody.putInto(result, "responseBody");
+            } else {
+                result.put("responseBody", response.isBinary() ? BINARY_CONTENT_PLACEHOLDER : response.getTextContent());
+            }
+
+            if (response.getTransportName() != null) {
+                Map<String, Object> transport = new LinkedHashMap<>();
+                transport.put("name", response.getTransportName());
+                transport.put("stats", response.getTransportStats());
+                if (response.getProtocol() != null) {
+                    transport.put("protocol", response.getProtocol());
+                }
+                result.put("transport", transport);
+            }
+
+            if (response.isReplayed()) {
+                result.put("replayed", true);
+            }
+
+            if (response.getCacheStatus() != null) {
+                result.put("cache", response.getCacheStatus().getId());
+            }
+
+            if (getInjectedFault() != null) {
+                result.put("injectedFault", getInjectedFault());
+            }
+
+            if (response.getContentSizes() != null) {
+                result.put("contentSizes", response.getContentSizes().toMap());
+            }
+        }
+
+        if (!hopTimings.isEmpty() || !callTimings.isEmpty()) {
+            Map<String, Object> timings = new LinkedHashMap<>();
+            timings.put("phases", getTotalTimings().phasesToMap());
+            timings.put("hops", hopTimings.stream().map(HttpTimings::toMap).collect(Collectors.toList()));
+            result.put("timings", timings);
         }
 
-        if (responseBodyNode != null) {
+        if (responseBodyNode != null || responseBodyCoverage != null || releasedFailedPaths != null) {
             Map<String, Object> responseBodyChecks = new LinkedHashMap<>();
             result.put("responseBodyChecks", responseBodyChecks);
             responseBodyChecks.put("failedPaths", getFailedPaths());
@@ -227,6 +444,9 @@ public class HttpValidationResult implements TestStepPayload {
 
     private List<String> extractPaths(DataNode dataNode, Function<CheckLevel, Boolean> includePath) {
         List<String> paths = new ArrayList<>();
+        if (dataNode == null) {
+            return paths;
+        }
 
         TraceableValueConverter traceableValueConverter = (id, traceableValue) -> {
             if (includePath.apply(traceableValue.getCheckLevel())) {
@@ -242,6 +462,15 @@ public class HttpValidationResult implements TestStepPayload {
         return paths;
     }
 
+    private static List<String> replaceStartOfThePaths(List<String> paths) {
+        List<String> result = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            result.add(replaceStartOfThePath(path));
+        }
+
+        return result;
+    }
+
     private static String replaceStartOfThePath(String path) {
         if (path.startsWith("body")) {
             return path.replace("body", "root");
@@ -257,4 +486,46 @@ public class HttpValidationResult implements TestStepPayload {
     private String generateId() {
         return "httpCall-" + idCounter.incrementAndGet();
     }
+
+    /**
+     * keeps what reports need from a request body after its content is released
+     */
+    private static class ReleasedRequestBody implements HttpRequestBody {
+        private final String type;
+        private final boolean isBinary;
+        private final boolean isStreamed;
+        private final Map<String, ?> metadata;
+
+        ReleasedRequestBody(HttpRequestBody original) {
+            this.type = original.type();
+            this.isBinary = original.isBinary();
+            this.isStreamed = original.isStreamed();
+            this.metadata = original.isStreamed() ? original.metadata() : null;
+        }
+
+        @Override
+        public boolean isBinary() {
+            return isBinary;
+        }
+
+        @Override
+        public String type() {
+            return type;
+        }
+
+        @Override
+        public String asString() {
+            return null;
+        }
+
+        @Override
+        public boolean isStreamed() {
+            return isStreamed;
+        }
+
+        @Override
+        public Map<String, ?> metadata() {
+            return metadata;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.validation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * body content as it is kept for the report, together with the information about what was dropped
+ */
+public class RetainedHttpBody {
+    private final String content;
+    private final Map<String, Object> retention;
+
+    private RetainedHttpBody(String content, Map<String, Object> retention) {
+        this.content = content;
+        this.retention = retention;
+    }
+
+    static RetainedHttpBody full(String content) {
+        return new RetainedHttpBody(content, Collections.emptyMap());
+    }
+
+    static RetainedHttpBody omitted(HttpBodyRetention policy, long size) {
+        return new RetainedHttpBody(null, retention(policy, size));
+    }
+
+    static RetainedHttpBody truncated(String content, long size) {
+        Map<String, Object> retention = retention(HttpBodyRetention.TRUNCATE, size);
+        retention.put("retainedSize", content.getBytes(StandardCharsets.UTF_8).length);
+
+        return new RetainedHttpBody(content, retention);
+    }
+
+    static RetainedHttpBody sidecar(long size, String hash, String file) {
+        Map<String, Object> retention = retention(HttpBodyRetention.SIDECAR, size);
+        retention.put("hash", hash);
+        retention.put("file", file);
+
+        return new RetainedHttpBody(null, retention);
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return policy, original size and policy specific details. empty when the body is kept as is
+     */
+    public Map<String, Object> getRetention() {
+        return retention;
+    }
+
+    void putInto(Map<String, Object> result, String bodyKey) {
+        result.put(bodyKey, content);
+        if (!retention.isEmpty()) {
+            result.put(bodyKey + "Retention", retention);
+        }
+    }
+
+    private static Map<String, Object> retention(HttpBodyRetention policy, long size) {
+        Map<String, Object> retention = new LinkedHashMap<>();
+        retention.put("policy", policy.getId());
+        retention.put("size", size);
+
+        return retention;
+    }
+}
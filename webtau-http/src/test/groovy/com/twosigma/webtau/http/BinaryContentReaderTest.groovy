@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http
+
+import org.junit.Test
+
+import java.nio.file.Files
+
+class BinaryContentReaderTest {
+    @Test
+    void "should keep content below spill size in memory"() {
+        def response = new HttpResponse()
+        BinaryContentReader.read(response, new ByteArrayInputStream([1, 2, 3] as byte[]), 10)
+
+        assert !response.isBinaryContentSpilled()
+        assert response.getBinaryContent() == [1, 2, 3] as byte[]
+        assert response.getBinaryContentAsBuffer().remaining() == 3
+    }
+
+    @Test
+    void "should store content above spill size in a temp file and delete it on release"() {
+        def content = (0..<1000).collect { it as byte } as byte[]
+
+        def response = new HttpResponse()
+        BinaryContentReader.read(response, new ByteArrayInputStream(content), 100)
+
+        assert response.isBinaryContentSpilled()
+        assert response.hasContent()
+
+        def file = response.binaryContentFile
+        assert Files.exists(file)
+
+        def buffer = response.getBinaryContentAsBuffer()
+        assert buffer.isReadOnly()
+        assert buffer.remaining() == 1000
+        assert buffer.get(999) == content[999]
+        assert response.getBinaryContent() == content
+        assert response.getBinaryContentSize() == 1000
+        assert response.getBinaryContentAsStream().withCloseable { it.bytes } == content
+
+        response.releaseBinaryContent()
+        assert !Files.exists(file)
+        assert !response.isBinaryContentSpilled()
+    }
+
+    @Test
+    void "should treat missing body as empty content"() {
+        def response = new HttpResponse()
+        BinaryContentReader.read(response, null, 100)
+
+        assert response.getBinaryContent().length == 0
+    }
+}
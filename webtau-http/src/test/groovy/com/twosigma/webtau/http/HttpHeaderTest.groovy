@@ -88,4 +88,50 @@ class HttpHeaderTest {
         def newHeader = header.with('foo', 'bar')
         newHeader.should == new HttpHeader(['foo': 'bar'])
     }
+
+    @Test
+    void "get and contains key ignore case"() {
+        def header = new HttpHeader(['Content-Type': 'application/json'])
+        header.get('content-type').should == 'application/json'
+        header.containsKey('CONTENT-TYPE').should == true
+        header.containsKey('Accept').should == false
+    }
+
+    @Test
+    void "keeps multiple values of the same header in order"() {
+        def header = new HttpHeader(HttpHeader.builder()
+                .add('Set-Cookie', 'a=1')
+                .add('Content-Type', 'text/plain')
+                .add('set-cookie', 'b=2')
+                .build())
+
+        header.getAll('SET-COOKIE').should == ['a=1', 'b=2']
+        header.get('set-cookie').should == 'a=1'
+        header.getAll('Accept').should == []
+        header.toString().should == 'Set-Cookie: a=1\n' +
+                'Set-Cookie: b=2\n' +
+                'Content-Type: text/plain'
+    }
+
+    @Test
+    void "with replaces all values of a header regardless of case"() {
+        def header = new HttpHeader(HttpHeader.builder()
+                .add('Accept', 'text/plain')
+                .add('Accept', 'text/html')
+                .build())
+
+        header.with('accept', 'application/json').should == new HttpHeader(['accept': 'application/json'])
+    }
+
+    @Test
+    void "builder modifications after build do not change built header"() {
+        def builder = HttpHeader.builder().add('foo', 'bar')
+        def header = new HttpHeader(builder.build())
+
+        builder.add('foo', 'baz').add('other', 'value')
+
+        header.getAll('foo').should == ['bar']
+        header.containsKey('other').should == false
+        new HttpHeader(builder.build()).getAll('foo').should == ['bar', 'baz']
+    }
 }
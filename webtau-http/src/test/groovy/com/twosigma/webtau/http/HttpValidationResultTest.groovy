@@ -19,14 +19,21 @@ package com.twosigma.webtau.http
 import com.twosigma.webtau.data.traceable.CheckLevel
 import com.twosigma.webtau.data.traceable.TraceableValue
 import com.twosigma.webtau.http.binary.BinaryRequestBody
+import com.twosigma.webtau.http.datacoverage.DataNodeCheckCoverage
 import com.twosigma.webtau.http.datanode.DataNodeBuilder
 import com.twosigma.webtau.http.datanode.DataNodeId
 import com.twosigma.webtau.http.datanode.StructuredDataNode
+import com.twosigma.webtau.http.text.TextRequestBody
 import com.twosigma.webtau.http.validation.HeaderDataNode
+import com.twosigma.webtau.http.validation.HttpBodyRetainer
+import com.twosigma.webtau.http.validation.HttpBodyRetention
+import com.twosigma.webtau.http.testserver.TestServerFaultProxy
 import com.twosigma.webtau.http.validation.HttpValidationResult
 import com.twosigma.webtau.utils.JsonUtils
 import org.junit.Test
 
+import java.nio.file.Files
+
 class HttpValidationResultTest {
     private static commonExpectation = [
             id: ~/httpCall-\d+/,
@@ -38,7 +45,8 @@ class HttpValidationResultTest {
             responseStatusCode: 200,
             mismatches: [],
             startTime: 12345678,
-            elapsedTime: 100]
+            elapsedTime: 100,
+            elapsedTimeMicros: 100000]
 
     @Test
     void "should capture validation results"() {
@@ -60,6 +68,43 @@ class HttpValidationResultTest {
                 responseBodyChecks: [failedPaths: ['root.childA'], passedPaths:['root.childB']]]
     }
 
+    @Test
+    void "should use paths tracked by body coverage"() {
+        def responseAsJson = '{"childA": "valueA", "childB": "valueB"}'
+
+        def coverage = new DataNodeCheckCoverage()
+        def n = DataNodeBuilder.fromJson(new DataNodeId('body'), new ByteArrayInputStream(responseAsJson.bytes), coverage)
+        n.get('childB').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitPassed)
+
+        def validationResult = createValidationResult(null)
+        validationResult.setResponse(new HttpResponse(textContent: responseAsJson, contentType: 'application/json', statusCode: 200))
+        validationResult.setResponseBodyNode(n)
+        validationResult.setResponseBodyCoverage(coverage)
+
+        validationResult.toMap().should == [
+                *: commonExpectation,
+                responseType: 'application/json',
+                responseBody: responseAsJson,
+                responseBodyChecks: [failedPaths: [], passedPaths:['root.childB']]]
+    }
+
+    @Test
+    void "should capture fault injected by proxy"() {
+        def response = new HttpResponse(textContent: 'partial', contentType: 'text/plain', statusCode: 200)
+        response.addHeader('x-webtau-injected-fault', 'delay 200ms, throttle 1024B/s')
+
+        def validationResult = createValidationResult(null)
+        validationResult.setResponse(response)
+
+        validationResult.injectedFault.should == 'delay 200ms, throttle 1024B/s'
+        validationResult.toMap().injectedFault.should == 'delay 200ms, throttle 1024B/s'
+    }
+
+    @Test
+    void "injected fault header should match the one set by the fault proxy"() {
+        HttpResponse.INJECTED_FAULT_HEADER.should == TestServerFaultProxy.INJECTED_FAULT_HEADER
+    }
+
     @Test
     void "should replace binary content with placeholder"() {
         def binaryContent = [1, 2, 3] as byte[]
@@ -79,6 +124,121 @@ class HttpValidationResultTest {
                 responseBodyChecks: [failedPaths: [], passedPaths: []]]
     }
 
+    @Test
+    void "should keep bodies of passed calls only for failedOnly retention"() {
+        def passed = createTextValidationResult('{"a": 1}')
+        passed.retainBodies(new HttpBodyRetainer(HttpBodyRetention.FAILED_ONLY, 100, null), false)
+
+        passed.toMap().responseBody.should == null
+        passed.toMap().responseBodyRetention.should == [policy: 'failedOnly', size: 8]
+
+        def failed = createTextValidationResult('{"a": 1}')
+        failed.retainBodies(new HttpBodyRetainer(HttpBodyRetention.FAILED_ONLY, 100, null), true)
+
+        failed.toMap().responseBody.should == '{"a": 1}'
+        failed.toMap().containsKey('responseBodyRetention').should == false
+    }
+
+    @Test
+    void "should truncate bodies and release content"() {
+        def validationResult = createTextValidationResult('0123456789')
+        validationResult.retainBodies(new HttpBodyRetainer(HttpBodyRetention.TRUNCATE, 4, null), false)
+        validationResult.releaseRetainedBodies()
+
+        validationResult.response.textContent.should == null
+        validationResult.toMap().responseBody.should == '0123'
+        validationResult.toMap().responseBodyRetention.should == [policy: 'truncate', size: 10, retainedSize: 4]
+    }
+
+    @Test
+    void "should truncate by UTF-8 bytes without splitting characters"() {
+        def validationResult = createTextValidationResult('ab\u00e9cd')
+        validationResult.retainBodies(new HttpBodyRetainer(HttpBodyRetention.TRUNCATE, 3, null), false)
+
+        validationResult.toMap().responseBody.should == 'ab'
+        validationResult.toMap().responseBodyRetention.should == [policy: 'truncate', size: 6, retainedSize: 2]
+    }
+
+    @Test
+    void "should truncate content stored in a temp file"() {
+        def file = Files.createTempFile('webtau-http-', '.json')
+        file.text = '["0123456789"]'
+
+        def response = new HttpResponse(contentType: 'application/json', statusCode: 200)
+        response.setJsonContentFile(file)
+
+        def validationResult = createValidationResult(null)
+        validationResult.setResponse(response)
+        validationResult.retainBodies(new HttpBodyRetainer(HttpBodyRetention.TRUNCATE, 5, null), false)
+        validationResult.releaseRetainedBodies()
+
+        Files.exists(file).should == false
+        validationResult.toMap().responseBody.should == '["012'
+        validationResult.toMap().responseBodyRetention.should == [policy: 'truncate', size: 14, retainedSize: 5]
+    }
+
+    @Test
+    void "should keep checked paths and request summary after release"() {
+        def responseAsJson = '{"childA": "valueA", "childB": "valueB"}'
+
+        def validationResult = createValidationResult(TextRequestBody.withType('text/plain', 'request content'))
+        validationResult.setResponse(new HttpResponse(textContent: responseAsJson, contentType: 'application/json', statusCode: 200))
+
+        def coverage = new DataNodeCheckCoverage()
+        def n = DataNodeBuilder.fromJson(new DataNodeId('body'), new ByteArrayInputStream(responseAsJson.bytes), coverage)
+        n.get('childA').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitFailed)
+        n.get('childB').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitPassed)
+        validationResult.setResponseBodyNode(n)
+        validationResult.setResponseBodyCoverage(coverage)
+
+        validationResult.retainBodies(new HttpBodyRetainer(HttpBodyRetention.TRUNCATE, 7, null), false)
+        validationResult.releaseRetainedBodies()
+
+        validationResult.bodyNode.should == null
+        validationResult.responseBodyCoverage.should == null
+        validationResult.requestContent.should == null
+        validationResult.requestType.should == 'text/plain'
+
+        def map = validationResult.toMap()
+        map.requestType.should == 'text/plain'
+        map.requestBody.should == 'request'
+        map.responseBodyChecks.should == [failedPaths: ['root.childA'], passedPaths: ['root.childB']]
+    }
+
+    @Test
+    void "should store large bodies in sidecar files"() {
+        def sidecarDir = Files.createTempDirectory('webtau-report').resolve('report-bodies')
+
+        def validationResult = createTextValidationResult('0123456789')
+        validationResult.retainBodies(new HttpBodyRetainer(HttpBodyRetention.SIDECAR, 4, sidecarDir), false)
+
+        def retention = validationResult.toMap().responseBodyRetention
+        validationResult.toMap().responseBody.should == null
+        retention.file.should == "report-bodies/${retention.hash}.js"
+
+        def script = sidecarDir.resolve(retention.hash + '.js').text
+        script.should == "webtauSidecarBodyLoaded(\"${retention.hash}\", \"0123456789\");\n"
+    }
+
+    @Test
+    void "should escape sidecar body as a JSON string"() {
+        def sidecarDir = Files.createTempDirectory('webtau-report').resolve('report-bodies')
+
+        def validationResult = createTextValidationResult('{"a": "line\nnext"}')
+        validationResult.retainBodies(new HttpBodyRetainer(HttpBodyRetention.SIDECAR, 4, sidecarDir), false)
+
+        def hash = validationResult.toMap().responseBodyRetention.hash
+        def script = sidecarDir.resolve(hash + '.js').text
+        script.should == 'webtauSidecarBodyLoaded("' + hash + '", "{\\"a\\": \\"line\\nnext\\"}");\n'
+    }
+
+    private static HttpValidationResult createTextValidationResult(String responseBody) {
+        def validationResult = createValidationResult(null)
+        validationResult.setResponse(new HttpResponse(textContent: responseBody, contentType: 'text/plain', statusCode: 200))
+
+        return validationResult
+    }
+
     private static HttpValidationResult createValidationResult(requestBody) {
         def validationResult = new HttpValidationResult('POST', '/test/url', 'http://site/test/url',
                 new HttpHeader([:]), requestBody)
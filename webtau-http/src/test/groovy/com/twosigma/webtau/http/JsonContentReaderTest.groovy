@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.http
+
+import com.twosigma.webtau.http.datanode.DataNodeBuilder
+import com.twosigma.webtau.http.datanode.DataNodeId
+import org.junit.Test
+
+import java.nio.file.Files
+
+import static java.nio.charset.StandardCharsets.UTF_8
+
+class JsonContentReaderTest {
+    @Test
+    void "should keep content below spill size in memory"() {
+        def response = new HttpResponse()
+        JsonContentReader.read(response, stream('{"a": 1}'), 100)
+
+        assert !response.isTextContentSpilled()
+        assert response.getTextContent() == '{"a": 1}'
+    }
+
+    @Test
+    void "should store content above spill size in a temp file"() {
+        def json = '[' + (1..100).collect { '{"id": ' + it + '}' }.join(', ') + ']'
+
+        def response = new HttpResponse()
+        JsonContentReader.read(response, stream(json), 64)
+
+        assert response.isTextContentSpilled()
+        assert response.getTextContentAsStream().getText(UTF_8.name()) == json
+        assert response.getTextContentSize() == json.length()
+
+        def body = DataNodeBuilder.fromJson(new DataNodeId('body'), response.getTextContentAsStream())
+        assert body.elements().size() == 100
+        assert body.get(99).get('id').get() == 100
+
+        def file = response.textContentFile
+        response.releaseTextContent()
+
+        assert !Files.exists(file)
+        assert !response.isTextContentSpilled()
+    }
+
+    @Test
+    void "should build lazy nodes from content stored in a temp file"() {
+        def json = '{"items": [' + (1..100).collect { '{"id": ' + it + '}' }.join(', ') + ']}'
+
+        def response = new HttpResponse()
+        JsonContentReader.read(response, stream(json), 64)
+
+        def body = DataNodeBuilder.fromJsonLazily(new DataNodeId('body'), response.getTextContentAsStream())
+        assert body.get('items').numberOfElements() == 100
+        assert body.get('items').get(42).get('id').get() == 43
+
+        response.releaseTextContent()
+    }
+
+    @Test
+    void "should keep full text of malformed content above spill size"() {
+        def json = '{"items": [' + ('1, ' * 50) + '}'
+
+        def response = new HttpResponse()
+        JsonContentReader.read(response, stream(json), 32)
+
+        assert response.getTextContent() == json
+
+        response.releaseTextContent()
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(UTF_8))
+    }
+}
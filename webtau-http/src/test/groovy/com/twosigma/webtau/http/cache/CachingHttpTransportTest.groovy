@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache
+
+import com.twosigma.webtau.http.HttpHeader
+import com.twosigma.webtau.http.request.EmptyRequestBody
+import com.twosigma.webtau.http.transport.HttpTransport
+import com.twosigma.webtau.http.transport.HttpTransportRequest
+import com.twosigma.webtau.http.transport.HttpTransportResponse
+import com.twosigma.webtau.time.Time
+import com.twosigma.webtau.time.TimeProvider
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+class CachingHttpTransportTest {
+    long now
+    List<HttpTransportRequest> sentRequests
+    List<HttpTransportResponse> responses
+
+    @Before
+    void init() {
+        now = 1000
+        sentRequests = []
+        responses = []
+        Time.setTimeProvider({ -> now } as TimeProvider)
+    }
+
+    @After
+    void cleanup() {
+        Time.setTimeProvider(null)
+    }
+
+    @Test
+    void "serves fresh responses from cache"() {
+        responses << response(200, ['Cache-Control': 'public, max-age=60'], 'currencies')
+        def transport = cachingTransport()
+
+        send(transport).should == [status: 'miss', body: 'currencies']
+
+        now += 59_000
+        send(transport).should == [status: 'hit', body: 'currencies']
+        sentRequests.size().should == 1
+    }
+
+    @Test
+    void "revalidates stale responses using etag and last modified"() {
+        responses << response(200, ['ETag': '"v1"', 'Last-Modified': 'Mon, 01 Jul 2019 10:00:00 GMT'], 'config')
+        responses << response(304, ['Cache-Control': 'max-age=10'], null)
+        def transport = cachingTransport()
+
+        send(transport).should == [status: 'miss', body: 'config']
+        send(transport).should == [status: 'revalidated', body: 'config']
+        send(transport).should == [status: 'hit', body: 'config']
+
+        sentRequests.size().should == 2
+        sentRequests[1].header.get('If-None-Match').should == '"v1"'
+        sentRequests[1].header.get('If-Modified-Since').should == 'Mon, 01 Jul 2019 10:00:00 GMT'
+    }
+
+    @Test
+    void "does not store no-store and error responses"() {
+        responses << response(200, ['Cache-Control': 'no-store', 'ETag': '"v1"'], 'first')
+        responses << response(500, ['Cache-Control': 'max-age=60'], 'error')
+        responses << response(200, [:], 'third')
+        def transport = cachingTransport()
+
+        send(transport).should == [status: 'miss', body: 'first']
+        send(transport).should == [status: 'miss', body: 'error']
+        send(transport).should == [status: 'miss', body: 'third']
+        sentRequests.every { it.header.get('If-None-Match') == null }.should == true
+    }
+
+    @Test
+    void "passes uncacheable responses through without reading the body"() {
+        def body = new ByteArrayInputStream('stream'.bytes)
+        def original = new HttpTransportResponse(200, new HttpHeader(['Cache-Control': 'no-store']), body)
+        responses << original
+        def transport = cachingTransport()
+
+        def request = new HttpTransportRequest('GET', 'http://localhost/currencies', HttpHeader.EMPTY, EmptyRequestBody.INSTANCE)
+        def response = transport.send(request)
+
+        response.is(original).should == true
+        response.cacheStatus.id.should == 'miss'
+        body.available().should == 6
+    }
+
+    @Test
+    void "does not store responses larger than max body size"() {
+        responses << response(200, ['Cache-Control': 'max-age=60', 'Content-Length': '9'], 'too large')
+        responses << response(200, ['Cache-Control': 'max-age=60'], 'too large')
+        responses << response(200, ['Cache-Control': 'max-age=60'], 'too large')
+        def transport = cachingTransport(4)
+
+        send(transport).should == [status: 'miss', body: 'too large']
+        send(transport).should == [status: 'miss', body: 'too large']
+        send(transport).should == [status: 'miss', body: 'too large']
+        sentRequests.size().should == 3
+    }
+
+    private HttpTransport cachingTransport(long maxBodySize = Long.MAX_VALUE) {
+        def delegate = [
+                getName: { -> 'fake' },
+                send   : { HttpTransportRequest request ->
+                    sentRequests << request
+                    return responses.remove(0)
+                }
+        ] as HttpTransport
+
+        return new CachingHttpTransport(delegate, new HttpResponseCache(), maxBodySize)
+    }
+
+    private static Map send(HttpTransport transport) {
+        def request = new HttpTransportRequest('GET', 'http://localhost/currencies', HttpHeader.EMPTY, EmptyRequestBody.INSTANCE)
+        def response = transport.send(request)
+        return [status: response.cacheStatus.id, body: response.body?.text]
+    }
+
+    private static HttpTransportResponse response(int statusCode, Map<String, String> header, String body) {
+        return new HttpTransportResponse(statusCode, new HttpHeader(header),
+                body != null ? new ByteArrayInputStream(body.bytes) : null)
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.cache
+
+import com.twosigma.webtau.http.HttpHeader
+import com.twosigma.webtau.http.request.EmptyRequestBody
+import com.twosigma.webtau.http.transport.HttpTransport
+import com.twosigma.webtau.http.transport.HttpTransportRequest
+import com.twosigma.webtau.http.transport.HttpTransportResponse
+import org.junit.Test
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.twosigma.webtau.Ddjt.code
+import static com.twosigma.webtau.Ddjt.throwException
+
+class MemoizingHttpTransportTest {
+    @Test
+    void "concurrent calls share a single network call"() {
+        def numberOfCalls = new AtomicInteger()
+        def release = new CountDownLatch(1)
+
+        def delegate = [
+                getName: { -> 'fake' },
+                send   : { HttpTransportRequest request ->
+                    numberOfCalls.incrementAndGet()
+                    release.await()
+                    return new HttpTransportResponse(200, HttpHeader.EMPTY, new ByteArrayInputStream('reference'.bytes))
+                }
+        ] as HttpTransport
+
+        def transport = new MemoizingHttpTransport(delegate, new HttpResponseMemo(), 60_000)
+
+        def executor = Executors.newFixedThreadPool(4)
+        def futures = (1..4).collect {
+            executor.submit({ send(transport) } as Callable)
+        }
+
+        Thread.sleep(100)
+        release.countDown()
+
+        def results = futures.collect { it.get() }
+        executor.shutdown()
+
+        numberOfCalls.get().should == 1
+        results.body.should == ['reference'] * 4
+        results.status.sort().should == ['hit', 'hit', 'hit', 'miss']
+    }
+
+    @Test
+    void "error responses are not memoized"() {
+        def statusCodes = [500, 200]
+        def delegate = [
+                getName: { -> 'fake' },
+                send   : { HttpTransportRequest request ->
+                    return new HttpTransportResponse(statusCodes.remove(0), HttpHeader.EMPTY, null)
+                }
+        ] as HttpTransport
+
+        def transport = new MemoizingHttpTransport(delegate, new HttpResponseMemo(), 60_000)
+
+        transport.send(request()).statusCode.should == 500
+        transport.send(request()).statusCode.should == 200
+        transport.send(request()).statusCode.should == 200
+        statusCodes.should == []
+    }
+
+    @Test
+    void "error thrown by a call is not memoized"() {
+        def failures = [new OutOfMemoryError('no memory')]
+        def delegate = [
+                getName: { -> 'fake' },
+                send   : { HttpTransportRequest request ->
+                    if (!failures.isEmpty()) {
+                        throw failures.remove(0)
+                    }
+
+                    return new HttpTransportResponse(200, HttpHeader.EMPTY, new ByteArrayInputStream('reference'.bytes))
+                }
+        ] as HttpTransport
+
+        def transport = new MemoizingHttpTransport(delegate, new HttpResponseMemo(), 60_000)
+
+        code {
+            transport.send(request())
+        } should throwException(OutOfMemoryError, 'no memory')
+
+        send(transport).should == [status: 'miss', body: 'reference']
+    }
+
+    private static Map send(HttpTransport transport) {
+        def response = transport.send(request())
+        return [status: response.cacheStatus.id, body: response.body.text]
+    }
+
+    private static HttpTransportRequest request() {
+        return new HttpTransportRequest('GET', 'http://localhost/currencies', HttpHeader.EMPTY, EmptyRequestBody.INSTANCE)
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.datacoverage
+
+import com.twosigma.webtau.data.traceable.CheckLevel
+import com.twosigma.webtau.data.traceable.TraceableValue
+import com.twosigma.webtau.http.datanode.DataNodeBuilder
+import com.twosigma.webtau.http.datanode.DataNodeId
+import org.junit.Test
+
+class DataNodeCheckCoverageTest {
+    private static final String JSON = '{"id": 1, "items": [{"price": 10}, {"price": 20}], "status": "OPEN"}'
+
+    @Test
+    void "should track paths as checks happen in document order"() {
+        def coverage = new DataNodeCheckCoverage()
+        def body = DataNodeBuilder.fromJson(new DataNodeId('body'), stream(JSON), coverage)
+
+        body.get('status').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitPassed)
+        body.get('items[1].price').getTraceableValue().updateCheckLevel(CheckLevel.FuzzyFailed)
+        body.get('id').getTraceableValue().updateCheckLevel(CheckLevel.FuzzyPassed)
+
+        coverage.numberOfTrackedValues().should == 4
+        coverage.passedPaths.should == ['body.id', 'body.status']
+        coverage.failedPaths.should == ['body.items[1].price']
+    }
+
+    @Test
+    void "should move path from passed to failed"() {
+        def coverage = new DataNodeCheckCoverage()
+        def body = DataNodeBuilder.fromJson(new DataNodeId('body'), stream(JSON), coverage)
+
+        def id = body.get('id').getTraceableValue()
+        id.updateCheckLevel(CheckLevel.ExplicitPassed)
+        id.updateCheckLevel(CheckLevel.ExplicitFailed)
+
+        coverage.passedPaths.should == []
+        coverage.failedPaths.should == ['body.id']
+    }
+
+    @Test
+    void "should ignore values checked with disabled tracing"() {
+        def coverage = new DataNodeCheckCoverage()
+        def body = DataNodeBuilder.fromJson(new DataNodeId('body'), stream(JSON), coverage)
+
+        TraceableValue.withDisabledChecks {
+            body.get('id').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitPassed)
+        }
+
+        coverage.passedPaths.should == []
+    }
+
+    @Test
+    void "should track lazily created values on access"() {
+        def coverage = new DataNodeCheckCoverage()
+        def body = DataNodeBuilder.fromJsonLazily(new DataNodeId('body'), stream(JSON), coverage)
+
+        body.get('items').get(0).get('price').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitPassed)
+
+        coverage.numberOfTrackedValues().should == 1
+        coverage.passedPaths.should == ['body.items[0].price']
+    }
+
+    @Test
+    void "should retain ids of checked values only"() {
+        def json = '{"items": [' + (1..1000).collect { '{"id": ' + it + '}' }.join(', ') + ']}'
+
+        def coverage = new DataNodeCheckCoverage()
+        def body = DataNodeBuilder.fromJson(new DataNodeId('body'), stream(json), coverage)
+
+        body.get('items[10].id').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitPassed)
+        body.get('items[20].id').getTraceableValue().updateCheckLevel(CheckLevel.ExplicitFailed)
+
+        coverage.numberOfTrackedValues().should == 1000
+        coverage.numberOfRetainedIds().should == 2
+        coverage.passedPaths.should == ['body.items[10].id']
+        coverage.failedPaths.should == ['body.items[20].id']
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes('UTF-8'))
+    }
+}
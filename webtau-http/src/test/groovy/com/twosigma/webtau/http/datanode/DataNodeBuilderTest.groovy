@@ -16,6 +16,8 @@
 
 package com.twosigma.webtau.http.datanode
 
+import com.twosigma.webtau.utils.JsonParseException
+import com.twosigma.webtau.utils.JsonUtils
 import org.junit.Test
 
 class DataNodeBuilderTest {
@@ -54,6 +56,77 @@ class DataNodeBuilderTest {
         assertSingleValue(n.get(1).get("k22"), "v22")
     }
 
+    @Test
+    void "should build data node from json stream"() {
+        def json = '{"id": 10, "price": 1.5, "big": 12345678901, "flag": true, "none": null, ' +
+                '"list": [1, "two", {"k": "v"}], "empty": {}}'
+        def n = DataNodeBuilder.fromJson(new DataNodeId("body"), new ByteArrayInputStream(json.getBytes("UTF-8")))
+
+        assert n.asMap().keySet().toList() == ['id', 'price', 'big', 'flag', 'none', 'list', 'empty']
+
+        assertSingleValue(n.get("id"), 10)
+        assert n.get("id").get().getClass() == Integer
+        assertSingleValue(n.get("price"), 1.5d)
+        assertSingleValue(n.get("big"), 12345678901L)
+        assertSingleValue(n.get("flag"), true)
+        assertSingleValue(n.get("none"), null)
+
+        def list = n.get("list")
+        assert list.numberOfElements() == 3
+        assertSingleValue(list.get(0), 1)
+        assertSingleValue(list.get(1), "two")
+        assertSingleValue(list.get(2).get("k"), "v")
+        assert list.get(2).get("k").id().path == 'body.list[2].k'
+
+        assert n.get("empty").numberOfChildren() == 0
+    }
+
+    @Test
+    void "should build the same nodes from json stream and from deserialized json"() {
+        def json = '[{"a": [1, 2.5, null]}, "text", false]'
+
+        def fromStream = DataNodeBuilder.fromJson(new DataNodeId("body"), new ByteArrayInputStream(json.getBytes("UTF-8")))
+        def fromValue = DataNodeBuilder.fromValue(new DataNodeId("body"), JsonUtils.deserialize(json))
+
+        assert fromStream.toString() == fromValue.toString()
+    }
+
+    @Test(expected = JsonParseException)
+    void "should report malformed json"() {
+        DataNodeBuilder.fromJson(new DataNodeId("body"), new ByteArrayInputStream('{"a": [1, 2'.getBytes("UTF-8")))
+    }
+
+    @Test
+    void "should create lazy nodes only for accessed children"() {
+        def json = '{"id": 10, "items": [{"name": "a"}, {"name": "b"}], "meta": {"total": 2}}'
+        def n = DataNodeBuilder.fromJsonLazily(new DataNodeId("body"), new ByteArrayInputStream(json.getBytes("UTF-8")))
+
+        def visited = []
+        n.forEachChildOrRawValue { k, v -> visited << [k, v instanceof DataNode] }
+        assert visited == [['id', false], ['items', false], ['meta', false]]
+
+        def name = n.get("items").get(1).get("name")
+        assertSingleValue(name, "b")
+        assert name.id().path == 'body.items[1].name'
+
+        def elements = []
+        n.get("items").forEachElementOrRawValue { elements << (it instanceof DataNode) }
+        assert elements == [false, true]
+
+        assert n.get("meta").get().total == 2
+    }
+
+    @Test
+    void "should build the same nodes lazily and eagerly"() {
+        def json = '[{"a": [1, 2.5, null]}, "text", false, {}]'
+
+        def lazy = DataNodeBuilder.fromJsonLazily(new DataNodeId("body"), new ByteArrayInputStream(json.getBytes("UTF-8")))
+        def eager = DataNodeBuilder.fromJson(new DataNodeId("body"), new ByteArrayInputStream(json.getBytes("UTF-8")))
+
+        assert lazy.toString() == eager.toString()
+        assert lazy.get() == eager.get()
+    }
+
     private static void assertSingleValue(DataNode actual, expected) {
         assert actual.numberOfChildren() == 0
         assert actual.numberOfElements() == 0
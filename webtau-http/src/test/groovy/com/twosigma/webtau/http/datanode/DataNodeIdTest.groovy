@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.datanode
+
+import org.junit.Test
+
+class DataNodeIdTest {
+    @Test
+    void "should render children and peers"() {
+        def list = new DataNodeId("body").child("list")
+        def element = list.peer(3)
+        def name = element.child("name")
+
+        assert list.getPath() == "body.list"
+        assert element.getPath() == "body.list[3]"
+        assert element.getName() == "list"
+        assert element.getIdx() == 3
+        assert name.toString() == "body.list[3].name"
+        assert name.getName() == "name"
+    }
+
+    @Test
+    void "should keep explicitly provided path"() {
+        def id = new DataNodeId("header.statusCode", "statusCode")
+        assert id.child("a").getPath() == "header.statusCode.a"
+    }
+}
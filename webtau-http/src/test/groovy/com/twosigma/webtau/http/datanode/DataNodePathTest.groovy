@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.datanode
+
+import org.junit.Test
+
+import static com.twosigma.webtau.Ddjt.code
+import static com.twosigma.webtau.Ddjt.throwException
+
+class DataNodePathTest {
+    @Test
+    void "should split path into segments"() {
+        def path = DataNodePath.compile("root.items[-1].price")
+
+        path.head.name.should == 'root'
+        path.tail.head.name.should == 'items'
+        path.tail.head.type.should == DataNodePath.SegmentType.INDEX
+        path.tail.head.idx.should == -1
+        path.tail.tail.text.should == 'price'
+        path.tail.tail.tail.should == null
+    }
+
+    @Test
+    void "should parse wildcard and filter segments"() {
+        DataNodePath.compile("items[*]").head.type.should == DataNodePath.SegmentType.WILDCARD
+
+        def filter = DataNodePath.compile("items[?status == 'OPEN']").head
+        filter.type.should == DataNodePath.SegmentType.FILTER
+        filter.filter.text.should == "[?status == 'OPEN']"
+    }
+
+    @Test
+    void "should reuse compiled paths"() {
+        DataNodePath.compile("a.b[0]").is(DataNodePath.compile("a.b[0]")).should == true
+    }
+
+    @Test
+    void "should keep recently used paths when cache is full"() {
+        def frequent = DataNodePath.compile("frequent.path[0]")
+
+        (1..DataNodePath.MAX_CACHED_PATHS * 2).each {
+            DataNodePath.compile("one.off.path${it}")
+            if (it % 100 == 0) {
+                DataNodePath.compile("frequent.path[0]")
+            }
+        }
+
+        DataNodePath.cacheSize().should == DataNodePath.MAX_CACHED_PATHS
+        DataNodePath.isCached("frequent.path[0]").should == true
+        DataNodePath.compile("frequent.path[0]").is(frequent).should == true
+    }
+
+    @Test
+    void "should treat brackets and dots inside quoted filter literals as part of the literal"() {
+        def path = DataNodePath.compile("items[?name=='a]b.c[d'].price")
+
+        path.head.type.should == DataNodePath.SegmentType.FILTER
+        path.head.filter.text.should == "[?name=='a]b.c[d']"
+        path.tail.text.should == 'price'
+        path.tail.tail.should == null
+
+        DataNodePath.compile('items[?name=="x]"]').head.filter.text.should == '[?name=="x]"]'
+    }
+
+    @Test
+    void "should treat operators inside quoted filter literals as part of the literal"() {
+        def notEqual = DataNodePath.compile("items[?name!='a==b']").head.filter
+        notEqual.field.text.should == 'name'
+        notEqual.negate.should == true
+        notEqual.expected.should == 'a==b'
+
+        def equal = DataNodePath.compile('items[?name == "a!=b"]').head.filter
+        equal.field.text.should == 'name'
+        equal.negate.should == false
+        equal.expected.should == 'a!=b'
+    }
+
+    @Test
+    void "should report malformed paths"() {
+        code {
+            DataNodePath.compile("a[0")
+        } should throwException(IllegalArgumentException, ~/properly formatted index/)
+
+        code {
+            DataNodePath.compile("a]0[")
+        } should throwException(IllegalArgumentException, ~/mismatched indexing brackets/)
+
+        code {
+            DataNodePath.compile("a[b]")
+        } should throwException(IllegalArgumentException, ~/is not an integer/)
+    }
+}
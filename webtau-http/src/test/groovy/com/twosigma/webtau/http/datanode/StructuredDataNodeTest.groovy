@@ -198,4 +198,38 @@ class StructuredDataNodeTest {
         has = node.has('key2.name.foo')
         has.should == false
     }
+
+    @Test
+    void "should collect over list with wildcard path"() {
+        def node = DataNodeBuilder.fromMap(new DataNodeId("body"), [
+            items: [[price: 10], [price: 20]]
+        ])
+
+        List<Integer> prices = node.get("items[*].price").get()
+        prices.should == [10, 20]
+    }
+
+    @Test
+    void "should filter list elements with path"() {
+        def node = DataNodeBuilder.fromMap(new DataNodeId("body"), [
+            items: [[status: 'OPEN', id: 1], [status: 'CLOSED', id: 2], [status: 'OPEN', id: 3]]
+        ])
+
+        List<Integer> ids = node.get("items[?status=='OPEN'].id").get()
+        ids.should == [1, 3]
+
+        node.get("items[?id!=2]").numberOfElements().should == 2
+        node.get("items[?status=='MISSING']").numberOfElements().should == 0
+        node.get("items[?status=='CLOSED'].id").id().path.should == "body.items[?status=='CLOSED'].id"
+    }
+
+    @Test
+    void "should reuse nodes collected from list"() {
+        def node = DataNodeBuilder.fromList(new DataNodeId("body"), [
+            [name: 'name1'],
+            [name: 'name2']
+        ])
+
+        node.get('name').is(node.get('name')).should == true
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.encoding
+
+import com.twosigma.webtau.http.text.TextRequestBody
+import org.junit.Test
+
+import java.nio.charset.StandardCharsets
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+class HttpContentEncodingTest {
+    private static final String CONTENT = 'hello world, hello world, hello world'
+
+    @Test
+    void "decodes gzip"() {
+        assert decodeToString('gzip', gzip(bytes(CONTENT))) == CONTENT
+        assert decodeToString('x-gzip', gzip(bytes(CONTENT))) == CONTENT
+    }
+
+    @Test
+    void "decodes zlib wrapped and raw deflate"() {
+        assert decodeToString('deflate', deflate(bytes(CONTENT), false)) == CONTENT
+        assert decodeToString('Deflate', deflate(bytes(CONTENT), true)) == CONTENT
+    }
+
+    @Test
+    void "decodes multiple codings in reverse order they were applied"() {
+        def encoded = gzip(deflate(bytes(CONTENT), false))
+        assert decodeToString('deflate, gzip', encoded) == CONTENT
+    }
+
+    @Test
+    void "treats empty content as empty regardless of coding"() {
+        assert decodeToString('gzip', new byte[0]) == ''
+        assert decodeToString('deflate, gzip', new byte[0]) == ''
+    }
+
+    @Test
+    void "leaves content with unknown or missing coding as is"() {
+        assert decodeToString('identity', bytes(CONTENT)) == CONTENT
+        assert decodeToString(null, bytes(CONTENT)) == CONTENT
+    }
+
+    @Test
+    void "accept encoding header value"() {
+        assert HttpContentEncoding.acceptEncoding('') == null
+        assert HttpContentEncoding.acceptEncoding(null) == null
+        assert HttpContentEncoding.acceptEncoding('gzip') == 'gzip'
+        assert HttpContentEncoding.acceptEncoding('auto').startsWith('gzip, deflate')
+    }
+
+    @Test
+    void "gzip request body keeps original type"() {
+        def original = TextRequestBody.withType('text/plain', CONTENT)
+        def body = new GzipRequestBody(original)
+
+        assert body.isBinary()
+        assert body.type() == 'text/plain'
+        assert body.getOriginal().is(original)
+        assert new String(new GZIPInputStream(new ByteArrayInputStream(body.asBytes())).bytes,
+                StandardCharsets.UTF_8) == CONTENT
+    }
+
+    @Test
+    void "content sizes report saved bytes"() {
+        def sizes = new HttpContentSizes()
+        sizes.setResponse('gzip', 100, 400)
+
+        assert sizes.toMap() == [responseEncoding: 'gzip', responseReceivedBytes: 100L,
+                                 responseBytes: 400L, savedBytes: 300L]
+
+        sizes.setRequest('gzip', 200, 50)
+        assert sizes.savedBytes == 450
+    }
+
+    private static String decodeToString(String coding, byte[] content) {
+        return new String(HttpContentEncoding.decode(coding, new ByteArrayInputStream(content)).bytes,
+                StandardCharsets.UTF_8)
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8)
+    }
+
+    private static byte[] gzip(byte[] content) {
+        def out = new ByteArrayOutputStream()
+        new GZIPOutputStream(out).withStream { it.write(content) }
+        return out.toByteArray()
+    }
+
+    private static byte[] deflate(byte[] content, boolean raw) {
+        def out = new ByteArrayOutputStream()
+        new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw)).withStream { it.write(content) }
+        return out.toByteArray()
+    }
+}
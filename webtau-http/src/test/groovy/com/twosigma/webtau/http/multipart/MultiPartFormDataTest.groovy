@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.multipart
+
+import org.junit.Test
+
+import java.nio.file.Files
+
+class MultiPartFormDataTest {
+    @Test
+    void "should stream file parts and report the same length as written"() {
+        def file = Files.createTempFile("webtau-multipart", ".bin")
+        try {
+            Files.write(file, "file content" as byte[])
+
+            def formData = new MultiPartFormData()
+            formData.addField(MultiPartFormField.textFormField("description", "my file", null))
+            formData.addField(MultiPartFormField.fileFormField("file", file, "report.bin"))
+
+            def out = new ByteArrayOutputStream()
+            formData.writeTo(out)
+
+            assert formData.isStreamed()
+            assert formData.contentLength() == out.size()
+            assert out.toByteArray() == formData.asBytes()
+
+            def text = out.toString()
+            assert text.contains('name="file"; filename="report.bin"\r\n' +
+                    'Content-Type: application/octet-stream\r\n' +
+                    '\r\n' +
+                    'file content\r\n')
+        } finally {
+            Files.deleteIfExists(file)
+        }
+    }
+
+    @Test
+    void "should provide parts metadata instead of content"() {
+        def formData = new MultiPartFormData()
+        formData.addField(MultiPartFormField.binaryFormField("data", [1, 2, 3] as byte[], "data.bin"))
+
+        assert formData.metadata() == [contentLength: formData.contentLength(),
+                                       parts: [[fieldName: "data", fileName: "data.bin",
+                                                contentType: "application/octet-stream", size: 3]]]
+    }
+
+    @Test
+    void "should report unknown length when file is missing"() {
+        def formData = new MultiPartFormData()
+        formData.addField(MultiPartFormField.fileFormField("file", Files.createTempDirectory("webtau").resolve("missing")))
+
+        assert formData.contentLength() == -1
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.performance
+
+import org.junit.Test
+
+class HttpOperationTemplateTest {
+    @Test
+    void "operation key replaces id like segments and drops query"() {
+        HttpOperationTemplate.operationKey('GET', 'http://localhost:8080/customers/123?page=2').should == 'GET /customers/{}'
+        HttpOperationTemplate.operationKey('GET', '/customers/7a1c3f0e-9b2d-4c5e-8f6a-1b2c3d4e5f60/orders').should ==
+                'GET /customers/{}/orders'
+        HttpOperationTemplate.operationKey('POST', 'http://localhost:8080/customers').should == 'POST /customers'
+        HttpOperationTemplate.operationKey('GET', 'http://localhost:8080').should == 'GET /'
+    }
+
+    @Test
+    void "template params match any segment"() {
+        def template = new HttpOperationTemplate('GET /customers/{id}')
+
+        template.matches('GET /customers/{}').should == true
+        template.matches('GET /customers/john').should == true
+        template.matches('POST /customers/{}').should == false
+        template.matches('GET /customers/{}/orders').should == false
+    }
+
+    @Test
+    void "method is optional"() {
+        def template = new HttpOperationTemplate('/customers')
+
+        template.matches('GET /customers').should == true
+        template.matches('POST /customers').should == true
+        template.matches('GET /orders').should == false
+    }
+
+    @Test
+    void "literal id in template matches any id"() {
+        new HttpOperationTemplate('get /customers/42').matches('GET /customers/{}').should == true
+    }
+}
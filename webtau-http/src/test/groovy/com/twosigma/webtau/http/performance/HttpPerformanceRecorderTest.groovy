@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.performance
+
+import com.twosigma.webtau.http.HttpHeader
+import com.twosigma.webtau.http.HttpResponse
+import com.twosigma.webtau.http.validation.HttpValidationResult
+import org.junit.Test
+
+class HttpPerformanceRecorderTest {
+    @Test
+    void "aggregates calls per operation template"() {
+        def recorder = new HttpPerformanceRecorder()
+        (1..100).each { recorder.validate(result('GET', "http://localhost/customers/${it}", it)) }
+        recorder.validate(result('POST', 'http://localhost/customers', 500))
+
+        def customer = recorder.operation('GET /customers/{id}')
+        customer.count().should == 100
+        customer.percentile(50).should == 50
+        customer.percentile(99).should == 99
+        customer.max().should == 100
+
+        recorder.operation('/customers').count().should == 1
+        recorder.overall().count().should == 101
+        recorder.overall().max().should == 500
+    }
+
+    @Test
+    void "aggregate values are data nodes with operation in the id"() {
+        def recorder = new HttpPerformanceRecorder()
+        recorder.validate(result('GET', 'http://localhost/customers/1', 10))
+
+        def p99 = recorder.operation('GET /customers/{id}').percentile(99.9)
+        p99.id().path.should == 'GET /customers/{id} p99.9'
+        p99.should == 10
+    }
+
+    @Test
+    void "calls without response are not recorded"() {
+        def recorder = new HttpPerformanceRecorder()
+        recorder.validate(new HttpValidationResult('GET', '/customers', 'http://localhost/customers',
+                new HttpHeader([:]), null))
+
+        recorder.overall().count().should == 0
+    }
+
+    @Test
+    void "number of tracked operations is capped"() {
+        def recorder = new HttpPerformanceRecorder()
+        (1..HttpPerformanceRecorder.MAX_OPERATIONS + 10).each {
+            recorder.validate(result('GET', "http://localhost/customers/name${it}", 1))
+        }
+
+        recorder.operation('GET /customers/{name}').count().should == HttpPerformanceRecorder.MAX_OPERATIONS
+        recorder.overall().count().should == HttpPerformanceRecorder.MAX_OPERATIONS + 10
+    }
+
+    private static HttpValidationResult result(String method, String fullUrl, long elapsedTime) {
+        def validationResult = new HttpValidationResult(method, fullUrl, fullUrl, new HttpHeader([:]), null)
+        validationResult.setResponse(new HttpResponse(statusCode: 200))
+        validationResult.setElapsedTime(elapsedTime)
+
+        return validationResult
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit
+
+import org.junit.Test
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class HttpRateLimitersTest {
+    @Test
+    void "picks the most specific matching target"() {
+        def limiters = new HttpRateLimiters([
+                'staging'                   : [requestsPerSecond: 10],
+                'staging:8080'              : [requestsPerSecond: 20],
+                'http://staging:8080/orders': [maxInFlight: 2]])
+
+        assert target(limiters, 'http://staging/customers') == 'staging'
+        assert target(limiters, 'http://staging:8080/customers') == 'staging:8080'
+        assert target(limiters, 'http://staging:8080/orders/1') == 'http://staging:8080/orders'
+        assert target(limiters, 'http://prod:8080/orders/1') == null
+    }
+
+    @Test
+    void "matches default port"() {
+        def limiters = new HttpRateLimiters(['secure:443': [maxInFlight: 1]])
+
+        assert target(limiters, 'https://secure/path') == 'secure:443'
+        assert target(limiters, 'http://secure/path') == null
+    }
+
+    @Test
+    void "burst defaults to requests per second"() {
+        def limit = HttpRateLimit.fromMap('host', [requestsPerSecond: 2.5])
+
+        assert limit.toMap() == [target: 'host', requestsPerSecond: 2.5d, burst: 3, maxInFlight: 0]
+    }
+
+    @Test
+    void "validates limit definitions"() {
+        def unknown = expectFailure { new HttpRateLimiters(['host': [requestPerSecond: 1]]) }
+        assert unknown.contains('unknown http rate limit property <requestPerSecond> for host')
+
+        def notMap = expectFailure { new HttpRateLimiters(['host': 10]) }
+        assert notMap.contains('http rate limit for host must be a map')
+    }
+
+    @Test
+    void "limits requests in flight until permit is closed"() {
+        def limiter = new HttpRateLimiter(new HttpRateLimit('host', 0, 0, 1))
+        def first = limiter.acquire('http://host/a')
+
+        def acquired = new CountDownLatch(1)
+        HttpPermit second = null
+        def waiter = Thread.start {
+            second = limiter.acquire('http://host/b')
+            acquired.countDown()
+        }
+
+        assert !acquired.await(100, TimeUnit.MILLISECONDS)
+
+        first.close()
+        first.close()
+        assert acquired.await(5, TimeUnit.SECONDS)
+        waiter.join()
+
+        assert second.limited
+        assert second.waitNanos >= TimeUnit.MILLISECONDS.toNanos(100)
+        second.close()
+    }
+
+    private static String target(HttpRateLimiters limiters, String url) {
+        return limiters.find(url)?.limit?.target
+    }
+
+    private static String expectFailure(Closure code) {
+        try {
+            code()
+        } catch (IllegalArgumentException e) {
+            return e.message
+        }
+
+        throw new AssertionError('exception expected')
+    }
+}
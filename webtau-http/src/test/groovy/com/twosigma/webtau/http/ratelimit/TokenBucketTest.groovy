@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.ratelimit
+
+import org.junit.Test
+
+class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L
+
+    @Test
+    void "allows burst right away"() {
+        def bucket = new TokenBucket(2, 3, 0)
+
+        assert (1..3).collect { bucket.reserve(0) } == [0L, 0L, 0L]
+    }
+
+    @Test
+    void "schedules callers after burst one after another"() {
+        def bucket = new TokenBucket(2, 1, 0)
+
+        assert bucket.reserve(0) == 0
+        assert bucket.reserve(0) == SECOND / 2
+        assert bucket.reserve(0) == SECOND
+    }
+
+    @Test
+    void "refills with rate up to capacity"() {
+        def bucket = new TokenBucket(10, 2, 0)
+        bucket.reserve(0)
+        bucket.reserve(0)
+
+        assert bucket.reserve(SECOND / 10 as long) == 0
+        assert bucket.reserve(SECOND / 10 as long) == SECOND / 10
+
+        def idleBucket = new TokenBucket(10, 2, 0)
+        assert (1..3).collect { idleBucket.reserve(100 * SECOND) } == [0L, 0L, SECOND / 10 as long]
+    }
+}
@@ -21,6 +21,7 @@ import com.twosigma.webtau.console.ConsoleOutputs
 import com.twosigma.webtau.console.ansi.AnsiConsoleOutput
 import com.twosigma.webtau.console.ansi.Color
 import com.twosigma.webtau.console.ansi.FontStyle
+import com.twosigma.webtau.data.traceable.CheckLevel
 import com.twosigma.webtau.http.datanode.DataNodeBuilder
 import com.twosigma.webtau.http.datanode.DataNodeId
 import org.junit.AfterClass
@@ -128,6 +129,36 @@ class DataNodeAnsiPrinterTest {
                 ']', textOnly)
     }
 
+    @Test
+    void "should print not accessed lazy nodes the same way as regular nodes"() {
+        def json = '[{"key1": "value1", "key2": "value2", "key3": {"key31": null, "key32": [5, 6]}}, {"key4": []}]'
+        def dataNode = DataNodeBuilder.fromJsonLazily(new DataNodeId("root"),
+                new ByteArrayInputStream(json.getBytes("UTF-8")))
+
+        dataNode.get(0).get('key2').should(equal('value2'))
+
+        def textOnly = withCapturedOutput {
+            new DataNodeAnsiPrinter().print(dataNode)
+        }
+
+        Assert.assertEquals('[\n' +
+                '  {\n' +
+                '    "key1": "value1",\n' +
+                '    "key2": __"value2"__,\n' +
+                '    "key3": {\n' +
+                '      "key31": null,\n' +
+                '      "key32": [\n' +
+                '        5,\n' +
+                '        6\n' +
+                '      ]\n' +
+                '    }\n' +
+                '  },\n' +
+                '  {\n' +
+                '    "key4": []\n' +
+                '  }\n' +
+                ']', textOnly)
+    }
+
     @Test
     void "should collapse empty list and object"() {
         def textOnly = withCapturedOutput {
@@ -156,6 +187,75 @@ class DataNodeAnsiPrinterTest {
                 '}', textOnly)
     }
 
+    @Test
+    void "should limit number of printed array elements"() {
+        def textOnly = withCapturedOutput {
+            new DataNodeAnsiPrinter(100, 2, 100).print(DataNodeBuilder.fromMap(new DataNodeId("root"), [
+                    ids: [1, 2, 3, 4, 5]]))
+        }
+
+        Assert.assertEquals('{\n' +
+                '  "ids": [\n' +
+                '    1,\n' +
+                '    2,\n' +
+                '    ... 3 more\n' +
+                '  ]\n' +
+                '}', textOnly)
+    }
+
+    @Test
+    void "should not visit lazy array elements past the limit"() {
+        def accessed = []
+        def raw = new ArrayList<Object>([1, 2, 3, 4, 5]) {
+            @Override
+            Object get(int index) {
+                accessed << index
+                return super.get(index)
+            }
+        }
+
+        def textOnly = withCapturedOutput {
+            new DataNodeAnsiPrinter(100, 2, 100).print(DataNodeBuilder.fromValueLazily(new DataNodeId("root"), raw, null))
+        }
+
+        Assert.assertEquals('[\n' +
+                '  1,\n' +
+                '  2,\n' +
+                '  ... 3 more\n' +
+                ']', textOnly)
+        Assert.assertEquals([0, 1], accessed)
+    }
+
+    @Test
+    void "should render a snapshot that is not affected by later checks"() {
+        def node = DataNodeBuilder.fromList(new DataNodeId("root"), [1, 2])
+        def lines = new DataNodeAnsiPrinter().render(node)
+
+        node.get(0).getTraceableValue().updateCheckLevel(CheckLevel.ExplicitPassed)
+
+        def textOnly = withCapturedOutput {
+            lines.each { ConsoleOutputs.out(it) }
+        }
+
+        Assert.assertEquals('[\n' +
+                '  1,\n' +
+                '  2\n' +
+                ']', textOnly)
+    }
+
+    @Test
+    void "should limit number of printed lines and string width"() {
+        def textOnly = withCapturedOutput {
+            new DataNodeAnsiPrinter(3, 100, 5).print(DataNodeBuilder.fromList(new DataNodeId("root"), [
+                    'short', 'long value', 'value3', 'value4']))
+        }
+
+        Assert.assertEquals('[\n' +
+                '  "short",\n' +
+                '  "long ...",\n' +
+                '... output is truncated to 3 lines', textOnly)
+    }
+
     private static String withCapturedOutput(Closure code) {
         def capture = new CaptureOutput()
         try {
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.replay
+
+import com.twosigma.webtau.http.HttpHeader
+import com.twosigma.webtau.http.binary.FileRequestBody
+import com.twosigma.webtau.http.json.JsonRequestBody
+import com.twosigma.webtau.http.multipart.MultiPartFormData
+import com.twosigma.webtau.http.request.EmptyRequestBody
+import com.twosigma.webtau.http.request.HttpRequestBody
+import com.twosigma.webtau.http.transport.HttpTransport
+import com.twosigma.webtau.http.transport.HttpTransportRequest
+import com.twosigma.webtau.http.transport.HttpTransportResponse
+import org.junit.Test
+
+import java.nio.file.Files
+
+import static com.twosigma.webtau.Ddjt.code
+import static com.twosigma.webtau.Ddjt.throwException
+
+class HttpCassetteTest {
+    @Test
+    void "replays recorded responses after reopen"() {
+        def path = Files.createTempDirectory('webtau-cassette')
+        def key = HttpCallKey.of(getCall('http://localhost/customers/1'))
+
+        def cassette = HttpCassette.open(path)
+        cassette.record(key, response(key, 200, '{"id": 1}'))
+        cassette.find(key).body.should == '{"id": 1}'.bytes
+
+        def reopened = HttpCassette.open(path)
+        reopened.size().should == 1
+
+        def replayed = reopened.find(key)
+        replayed.statusCode.should == 200
+        replayed.header.getAll('Set-Cookie').should == ['a=1', 'b=2']
+        new String(replayed.body).should == '{"id": 1}'
+    }
+
+    @Test
+    void "last recorded response wins"() {
+        def cassette = HttpCassette.open(Files.createTempDirectory('webtau-cassette'))
+        def key = HttpCallKey.of(getCall('http://localhost/customers/1'))
+
+        cassette.record(key, response(key, 500, 'error'))
+        cassette.record(key, response(key, 200, 'ok'))
+
+        new String(cassette.find(key).body).should == 'ok'
+        new String(HttpCassette.open(cassette.path).find(key).body).should == 'ok'
+    }
+
+    @Test
+    void "returns null for calls that were not recorded"() {
+        def cassette = HttpCassette.open(Files.createTempDirectory('webtau-cassette'))
+        cassette.find(HttpCallKey.of(getCall('http://localhost/missing'))).should == null
+    }
+
+    @Test
+    void "call key ignores json keys order"() {
+        def first = HttpCallKey.of(postCall('http://localhost/customers', [firstName: 'FN', lastName: 'LN']))
+        def second = HttpCallKey.of(postCall('http://localhost/customers', [lastName: 'LN', firstName: 'FN']))
+        def different = HttpCallKey.of(postCall('http://localhost/customers', [lastName: 'LN2', firstName: 'FN']))
+
+        first.key.should == second.key
+        first.key.should != different.key
+        first.key.startsWith('POST http://localhost/customers ').should == true
+    }
+
+    @Test
+    void "finds responses recorded through another instance of the same cassette"() {
+        def path = Files.createTempDirectory('webtau-cassette')
+        def key = HttpCallKey.of(getCall('http://localhost/customers/1'))
+
+        def reader = HttpCassette.open(path)
+        def writer = HttpCassette.open(path)
+        writer.record(key, response(key, 200, 'recorded elsewhere'))
+
+        new String(reader.find(key).body).should == 'recorded elsewhere'
+    }
+
+    @Test
+    void "call key hashes content of streamed bodies"() {
+        def dir = Files.createTempDirectory('webtau-upload')
+        def first = dir.resolve('first.txt')
+        def second = dir.resolve('second.txt')
+        first.text = 'abc'
+        second.text = 'abd'
+
+        def firstKey = HttpCallKey.of(postCall('http://localhost/upload', FileRequestBody.withType('text/plain', first)))
+        def secondKey = HttpCallKey.of(postCall('http://localhost/upload', FileRequestBody.withType('text/plain', second)))
+
+        firstKey.key.should != secondKey.key
+    }
+
+    @Test
+    void "call key ignores multipart boundaries"() {
+        def first = HttpCallKey.of(postCall('http://localhost/upload', new MultiPartFormData([file: 'content'])))
+        def second = HttpCallKey.of(postCall('http://localhost/upload', new MultiPartFormData([file: 'content'])))
+        def different = HttpCallKey.of(postCall('http://localhost/upload', new MultiPartFormData([file: 'other'])))
+
+        first.key.should == second.key
+        first.key.should != different.key
+    }
+
+    @Test
+    void "replay only mode names the call without recorded response"() {
+        def cassette = HttpCassette.open(Files.createTempDirectory('webtau-cassette'))
+        def transport = new RecordReplayHttpTransport(null, HttpRecordReplayMode.REPLAY, cassette)
+
+        code {
+            transport.send(getCall('http://localhost/missing'))
+        } should throwException(HttpReplayMissException, ~/no recorded response for <GET http:\/\/localhost\/missing -> in/)
+    }
+
+    @Test
+    void "refuses to record response body above max recorded body size"() {
+        def cassette = HttpCassette.open(Files.createTempDirectory('webtau-cassette'))
+        def delegate = [send: { HttpTransportRequest request ->
+            new HttpTransportResponse(200, HttpHeader.EMPTY, new ByteArrayInputStream(('a' * 100).bytes))
+        }] as HttpTransport
+
+        def transport = new RecordReplayHttpTransport(delegate, HttpRecordReplayMode.RECORD, cassette, 10)
+
+        code {
+            transport.send(getCall('http://localhost/large'))
+        } should throwException(IOException, ~/response body of <GET http:\/\/localhost\/large .*> is larger than 10 bytes/)
+
+        cassette.size().should == 0
+    }
+
+    private static HttpTransportRequest getCall(String url) {
+        return new HttpTransportRequest('GET', url, HttpHeader.EMPTY, EmptyRequestBody.INSTANCE)
+    }
+
+    private static HttpTransportRequest postCall(String url, Map<String, Object> body) {
+        return postCall(url, new JsonRequestBody(body))
+    }
+
+    private static HttpTransportRequest postCall(String url, HttpRequestBody body) {
+        return new HttpTransportRequest('POST', url, HttpHeader.EMPTY, body)
+    }
+
+    private static RecordedHttpResponse response(HttpCallKey key, int statusCode, String body) {
+        def header = new HttpHeader(HttpHeader.builder()
+                .add('Set-Cookie', 'a=1')
+                .add('Set-Cookie', 'b=2')
+                .build())
+
+        return new RecordedHttpResponse(key.key, statusCode, header, body.bytes)
+    }
+}
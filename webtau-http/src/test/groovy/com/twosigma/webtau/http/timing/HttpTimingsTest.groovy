@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.timing
+
+import org.junit.Test
+
+import static com.twosigma.webtau.http.timing.HttpTimingPhase.*
+
+class HttpTimingsTest {
+    @Test
+    void "should keep phases in the order they happen and accumulate repeated phases"() {
+        def timings = new HttpTimings()
+        timings.record(TIME_TO_FIRST_BYTE, 300)
+        timings.record(TCP_CONNECT, 100)
+        timings.record(TCP_CONNECT, 50)
+
+        assert timings.phasesToMap() == [tcpConnect: 150L, timeToFirstByte: 300L]
+        assert timings.totalNanos == 450
+        assert timings.getNanos(DNS_RESOLUTION) == 0
+    }
+
+    @Test
+    void "should include hop details only when set"() {
+        def timings = new HttpTimings()
+        timings.record(BODY_READ, 10)
+
+        assert timings.toMap() == [phases: [bodyRead: 10L]]
+
+        timings.url = 'http://localhost/a'
+        timings.statusCode = 302
+        timings.connectionReused = true
+
+        assert timings.toMap() == [url: 'http://localhost/a', statusCode: 302, connectionReused: true,
+                                   phases: [bodyRead: 10L]]
+    }
+
+    @Test
+    void "should combine timings"() {
+        def first = new HttpTimings()
+        first.record(REQUEST_WRITE, 5)
+
+        def second = new HttpTimings()
+        second.record(REQUEST_WRITE, 7)
+        second.record(VALIDATION, 1)
+
+        first.add(second)
+        assert first.phasesToMap() == [requestWrite: 12L, validation: 1L]
+    }
+}
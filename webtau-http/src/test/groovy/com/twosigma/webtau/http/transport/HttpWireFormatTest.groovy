@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.transport
+
+import com.twosigma.webtau.http.HttpHeader
+import org.junit.Test
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1
+
+class HttpWireFormatTest {
+    @Test
+    void "writes request line, host and content length"() {
+        def out = new ByteArrayOutputStream()
+        def url = new URL('http://localhost:8080/path?a=b')
+
+        HttpWireFormat.writeRequestHead(out, 'POST', url, HttpRoute.fromUrl(url),
+                new HttpHeader(['Content-Type': 'application/json', 'Content-Length': '100']), 12)
+
+        out.toString('ISO-8859-1').should == 'POST /path?a=b HTTP/1.1\r\n' +
+                'Host: localhost:8080\r\n' +
+                'Content-Type: application/json\r\n' +
+                'Content-Length: 12\r\n' +
+                '\r\n'
+    }
+
+    @Test
+    void "skips interim responses and reads header"() {
+        def head = HttpWireFormat.readResponseHead(stream('HTTP/1.1 100 Continue\r\n\r\n' +
+                'HTTP/1.1 200 OK\r\n' +
+                'Content-Length: 5\r\n' +
+                'Connection: close\r\n' +
+                '\r\n'))
+
+        head.statusCode.should == 200
+        head.contentLength().should == 5
+        head.keepAlive.should == false
+    }
+
+    @Test
+    void "decodes chunked body"() {
+        def chunked = new ChunkedInputStream(stream('4\r\nwiki\r\n5;ext=1\r\npedia\r\n0\r\nTrailer: t\r\n\r\n'))
+
+        new String(chunked.bytes, ISO_8859_1).should == 'wikipedia'
+        chunked.fullyRead.should == true
+    }
+
+    @Test
+    void "reads exactly content length bytes"() {
+        def bounded = new ContentLengthInputStream(stream('helloHTTP/1.1'), 5)
+
+        new String(bounded.bytes, ISO_8859_1).should == 'hello'
+        bounded.fullyRead.should == true
+    }
+
+    @Test
+    void "writes transfer encoding when body is chunked"() {
+        def out = new ByteArrayOutputStream()
+        def url = new URL('http://localhost:8080/upload')
+
+        HttpWireFormat.writeRequestHead(out, 'POST', url, HttpRoute.fromUrl(url),
+                new HttpHeader([:]), HttpWireFormat.CHUNKED)
+
+        out.toString('ISO-8859-1').should == 'POST /upload HTTP/1.1\r\n' +
+                'Host: localhost:8080\r\n' +
+                'Transfer-Encoding: chunked\r\n' +
+                '\r\n'
+    }
+
+    @Test
+    void "encodes chunked body that can be decoded back"() {
+        def content = (0..<200_000).collect { (it % 251) as byte } as byte[]
+
+        def out = new ByteArrayOutputStream()
+        def chunked = new ChunkedOutputStream(out)
+        chunked.write(content, 0, 10)
+        chunked.write(content, 10, content.length - 10)
+        chunked.finish()
+
+        def decoded = new ChunkedInputStream(new ByteArrayInputStream(out.toByteArray()))
+        assert decoded.bytes == content
+        decoded.fullyRead.should == true
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(ISO_8859_1))
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.http.transport
+
+import com.twosigma.webtau.http.HttpHeader
+import com.twosigma.webtau.http.request.EmptyRequestBody
+import com.twosigma.webtau.http.text.TextRequestBody
+import com.twosigma.webtau.time.Time
+import com.twosigma.webtau.time.TimeProvider
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.twosigma.webtau.Ddjt.code
+import static com.twosigma.webtau.Ddjt.throwException
+import static java.nio.charset.StandardCharsets.ISO_8859_1
+
+class PooledHttpTransportTest {
+    KeepAliveServer server
+
+    @Before
+    void startServer() {
+        server = new KeepAliveServer()
+    }
+
+    @After
+    void stopServer() {
+        server.close()
+        Time.setTimeProvider(null)
+    }
+
+    @Test
+    void "reuses connection for sequential calls to the same host"() {
+        def transport = new PooledHttpTransport()
+
+        send(transport, 'GET', '/a').should == 'ok'
+        send(transport, 'GET', '/b').should == 'ok'
+
+        server.numberOfConnections.get().should == 1
+        transport.stats().should == [leased: 0, idle: 1, created: 1]
+    }
+
+    @Test
+    void "evicts connections idle for longer than idle timeout"() {
+        long now = 1000
+        Time.setTimeProvider({ -> now } as TimeProvider)
+
+        def pool = new HttpConnectionPool()
+        def route = HttpRoute.fromUrl(new URL(server.baseUrl))
+        def settings = new HttpConnectionPool.Settings(2, 1000, 1000, 500)
+
+        pool.release(pool.lease(route, settings), true)
+
+        now += 400
+        def reused = pool.lease(route, settings)
+        reused.reused.should == true
+        pool.release(reused, true)
+
+        now += 501
+        def fresh = pool.lease(route, settings)
+        fresh.reused.should == false
+        pool.release(fresh, false)
+
+        pool.stats().should == [leased: 0, idle: 0, created: 2]
+    }
+
+    @Test
+    void "retries idempotent call when reused connection was closed by server"() {
+        server.answersPerConnection = 1
+        def transport = new PooledHttpTransport()
+
+        send(transport, 'GET', '/a').should == 'ok'
+        send(transport, 'GET', '/b').should == 'ok'
+
+        server.requests.should == ['GET /a', 'GET /b', 'GET /b']
+        server.numberOfConnections.get().should == 2
+    }
+
+    @Test
+    void "does not repeat non idempotent call that reached the server"() {
+        server.answersPerConnection = 1
+        def transport = new PooledHttpTransport()
+
+        send(transport, 'GET', '/a').should == 'ok'
+
+        code {
+            send(transport, 'POST', '/b')
+        } should throwException(EOFException)
+
+        server.requests.should == ['GET /a', 'POST /b']
+        server.numberOfConnections.get().should == 1
+    }
+
+    private String send(PooledHttpTransport transport, String method, String path) {
+        def body = method == 'POST' ? TextRequestBody.withType('text/plain', 'data') : EmptyRequestBody.INSTANCE
+        def request = new HttpTransportRequest(method, server.baseUrl + path, new HttpHeader([:]), body)
+
+        def response = transport.send(request)
+        try {
+            return new String(response.body.bytes, ISO_8859_1)
+        } finally {
+            response.close()
+        }
+    }
+
+    /**
+     * keep-alive server that answers a number of requests on each connection,
+     * then reads one more request and closes the connection without a response
+     */
+    private static class KeepAliveServer implements Closeable {
+        final ServerSocket serverSocket = new ServerSocket(0)
+        final AtomicInteger numberOfConnections = new AtomicInteger()
+        final List<String> requests = new CopyOnWriteArrayList<>()
+        volatile int answersPerConnection = Integer.MAX_VALUE
+
+        KeepAliveServer() {
+            Thread.start {
+                while (!serverSocket.closed) {
+                    try {
+                        def socket = serverSocket.accept()
+                        numberOfConnections.incrementAndGet()
+                        Thread.start { serve(socket) }
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+
+        String getBaseUrl() {
+            return "http://localhost:${serverSocket.localPort}"
+        }
+
+        private void serve(Socket socket) {
+            socket.withCloseable {
+                def input = new BufferedInputStream(socket.inputStream)
+                def output = socket.outputStream
+
+                int answered = 0
+                while (readRequest(input)) {
+                    if (answered == answersPerConnection) {
+                        return
+                    }
+
+                    output.write('HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok'.getBytes(ISO_8859_1))
+                    output.flush()
+                    answered++
+                }
+            }
+        }
+
+        private boolean readRequest(InputStream input) {
+            def requestLine = HttpWireFormat.readLine(input)
+            if (requestLine == null) {
+                return false
+            }
+
+            int contentLength = 0
+            String line
+            while ((line = HttpWireFormat.readLine(input))) {
+                if (line.toLowerCase().startsWith('content-length:')) {
+                    contentLength = line.substring('content-length:'.length()).trim().toInteger()
+                }
+            }
+
+            contentLength.times { input.read() }
+            requests.add(requestLine.substring(0, requestLine.lastIndexOf(' ')))
+
+            return true
+        }
+
+        @Override
+        void close() {
+            serverSocket.close()
+        }
+    }
+}
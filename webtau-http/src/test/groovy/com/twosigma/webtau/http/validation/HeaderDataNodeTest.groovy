@@ -65,4 +65,26 @@ class HeaderDataNodeTest {
         nonExisting.id().path.should == 'header.NonExisting'
         nonExisting.id().name.should == 'NonExisting'
     }
+
+    @Test
+    void "multi valued header is exposed as a list"() {
+        def response = new HttpResponse()
+        response.addHeader('Set-Cookie', 'a=1')
+        response.addHeader('set-cookie', 'b=2')
+        def node = new HeaderDataNode(response)
+
+        node.get('set-cookie').should == ['a=1', 'b=2']
+        response.header.getAll('Set-Cookie').should == ['a=1', 'b=2']
+    }
+
+    @Test
+    void "elapsed time is exposed next to the header values"() {
+        def node = new HeaderDataNode(new HttpResponse(), 120)
+
+        node.elapsedTime().should == 120
+        node.elapsedTime().id().path.should == 'elapsedTime'
+        node.has('elapsedTime').should == false
+
+        headerNode.elapsedTime().getClass().should == NullDataNode
+    }
 }
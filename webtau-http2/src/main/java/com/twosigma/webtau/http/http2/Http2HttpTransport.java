@@ -0,0 +1,282 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.http2;
+
+import com.twosigma.webtau.http.HttpHeader;
+import com.twosigma.webtau.http.HttpHeaderFields;
+import com.twosigma.webtau.http.request.HttpRequestBody;
+import com.twosigma.webtau.http.timing.HttpTimingPhase;
+import com.twosigma.webtau.http.timing.HttpTimings;
+import com.twosigma.webtau.http.transport.HttpTransport;
+import com.twosigma.webtau.http.transport.HttpTransportRequest;
+import com.twosigma.webtau.http.transport.HttpTransportResponse;
+import com.twosigma.webtau.time.Time;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.twosigma.webtau.cfg.WebTauConfig.getCfg;
+
+/**
+ * HTTP/2 transport based on java 11 {@link HttpClient}.
+ * Protocol is negotiated with ALPN for https urls and with h2c upgrade for http urls,
+ * falls back to HTTP/1.1 when server doesn't support HTTP/2.
+ * Concurrent requests to the same host are multiplexed as streams of a single connection.
+ * Used for urls listed in <code>http2Urls</code> or for all urls when <code>httpTransport</code> is http2.
+ * Connection phases are not exposed, so everything before response header is reported as time to first byte.
+ */
+public class Http2HttpTransport implements HttpTransport {
+    private static final String NAME = "http2";
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    // HttpClient manages these headers itself and refuses to accept them from a caller
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+            "connection", "content-length", "date", "expect", "from", "host", "origin", "referer",
+            "upgrade", "via", "warning");
+
+    private final AtomicLong http2Responses = new AtomicLong();
+    private final AtomicLong http11Responses = new AtomicLong();
+
+    private volatile ConfiguredClient configuredClient;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean handles(String fullUrl) {
+        return NAME.equals(getCfg().getHttpTransport()) ||
+                getCfg().getHttp2Urls().stream().anyMatch(fullUrl::startsWith);
+    }
+
+    @Override
+    public HttpTransportResponse send(HttpTransportRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getFullUrl()))
+                .method(request.getMethod(), bodyPublisher(request));
+
+        int readTimeout = getCfg().getHttpReadTimeout();
+        if (readTimeout > 0) {
+            builder.timeout(Duration.ofMillis(readTimeout));
+        }
+
+        request.getHeader().forEachProperty((name, value) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                setHeader(builder, name, value);
+            }
+        });
+
+        HttpTimings timings = request.getTimings();
+        long start = Time.nanoTime();
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client().send(builder.build(), BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for " + request.getFullUrl());
+        }
+
+        timings.recordSince(HttpTimingPhase.TIME_TO_FIRST_BYTE, start);
+
+        HttpTransportResponse transportResponse = new HttpTransportResponse(response.statusCode(),
+                responseHeader(response), response.body());
+        transportResponse.setProtocol(protocol(response.version()));
+
+        return transportResponse;
+    }
+
+    @Override
+    public Map<String, ?> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("http2Responses", http2Responses.get());
+        stats.put("http11Responses", http11Responses.get());
+
+        return stats;
+    }
+
+    private HttpClient client() {
+        int connectTimeout = getCfg().getHttpConnectTimeout();
+
+        ConfiguredClient current = configuredClient;
+        if (current == null || current.connectTimeout != connectTimeout) {
+            current = new ConfiguredClient(connectTimeout);
+            configuredClient = current;
+        }
+
+        return current.client;
+    }
+
+    private String protocol(HttpClient.Version version) {
+        if (version == HttpClient.Version.HTTP_2) {
+            http2Responses.incrementAndGet();
+            return "HTTP/2";
+        }
+
+        http11Responses.incrementAndGet();
+        return "HTTP/1.1";
+    }
+
+    private static HttpHeader responseHeader(HttpResponse<?> response) {
+        HttpHeaderFields.Builder header = HttpHeader.builder();
+        response.headers().map().forEach((name, values) -> {
+            // HTTP/2 pseudo headers like :status are already part of the response
+            if (!name.startsWith(":")) {
+                header.setAll(name, values);
+            }
+        });
+
+        return new HttpHeader(header.build());
+    }
+
+    private static void setHeader(HttpRequest.Builder builder, String name, String value) {
+        try {
+            builder.header(name, value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("header <" + name + "> can't be sent with " + NAME +
+                    " transport: " + e.getMessage(), e);
+        }
+    }
+
+    private static BodyPublisher bodyPublisher(HttpTransportRequest request) {
+        if (!request.hasBody()) {
+            return BodyPublishers.noBody();
+        }
+
+        HttpRequestBody body = request.getBody();
+        if (!body.isStreamed()) {
+            return BodyPublishers.ofByteArray(body.contentAsBytes());
+        }
+
+        BodyPublisher streamed = BodyPublishers.ofInputStream(() -> pipe(body));
+        long contentLength = body.contentLength();
+
+        return contentLength >= 0 ?
+                BodyPublishers.fromPublisher(streamed, contentLength) :
+                streamed;
+    }
+
+    /**
+     * streamed body can only write itself to an output stream, while HttpClient pulls content from an input stream.
+     * Failure to write the body is re-thrown to HttpClient from the reading side, so the request fails with it.
+     */
+    private static InputStream pipe(HttpRequestBody body) {
+        try {
+            BodyPipe in = new BodyPipe();
+            PipedOutputStream out = new PipedOutputStream(in);
+
+            Thread writer = new Thread(() -> {
+                // failure is recorded before the pipe is closed, so the reader never sees a truncated body as complete
+                try {
+                    body.writeTo(out);
+                } catch (IOException e) {
+                    in.writeFailed(e);
+                } catch (RuntimeException e) {
+                    in.writeFailed(new IOException("can't write request body", e));
+                } finally {
+                    closeQuietly(out);
+                }
+            }, "webtau-http2-body-writer");
+            writer.setDaemon(true);
+            writer.start();
+
+            return in;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(PipedOutputStream out) {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static class BodyPipe extends PipedInputStream {
+        private volatile IOException writeFailure;
+
+        BodyPipe() {
+            super(PIPE_SIZE);
+        }
+
+        void writeFailed(IOException e) {
+            writeFailure = e;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            throwIfWriteFailed();
+            int read = super.read();
+            throwIfWriteFailed();
+
+            return read;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            throwIfWriteFailed();
+            int read = super.read(b, off, len);
+            throwIfWriteFailed();
+
+            return read;
+        }
+
+        private void throwIfWriteFailed() throws IOException {
+            IOException failure = writeFailure;
+            if (failure != null) {
+                throw new IOException("can't write request body: " + failure.getMessage(), failure);
+            }
+        }
+    }
+
+    private static class ConfiguredClient {
+        private final int connectTimeout;
+        private final HttpClient client;
+
+        ConfiguredClient(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .followRedirects(HttpClient.Redirect.NEVER);
+            if (connectTimeout > 0) {
+                builder.connectTimeout(Duration.ofMillis(connectTimeout));
+            }
+
+            this.client = builder.build();
+        }
+    }
+}
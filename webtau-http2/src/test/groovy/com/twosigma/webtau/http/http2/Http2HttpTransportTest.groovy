@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.http2
+
+import com.twosigma.webtau.http.HttpHeader
+import com.twosigma.webtau.http.request.EmptyRequestBody
+import com.twosigma.webtau.http.request.HttpRequestBody
+import com.twosigma.webtau.http.testserver.TestServer
+import com.twosigma.webtau.http.testserver.TestServerProtocolEcho
+import com.twosigma.webtau.http.testserver.TestServerResponseEcho
+import com.twosigma.webtau.http.text.TextRequestBody
+import com.twosigma.webtau.http.transport.HttpTransportRequest
+import org.junit.AfterClass
+import org.junit.BeforeClass
+import org.junit.Test
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+import static com.twosigma.webtau.Ddjt.code
+import static com.twosigma.webtau.Ddjt.throwException
+import static java.nio.charset.StandardCharsets.UTF_8
+
+class Http2HttpTransportTest {
+    private static final TestServer testServer = new TestServer()
+
+    @BeforeClass
+    static void startServer() {
+        testServer.registerGet('/protocol', new TestServerProtocolEcho())
+        testServer.registerPost('/echo', new TestServerResponseEcho(201))
+        testServer.startRandomPort()
+    }
+
+    @AfterClass
+    static void stopServer() {
+        testServer.stop()
+    }
+
+    @Test
+    void "negotiates HTTP/2 over cleartext connection"() {
+        def transport = new Http2HttpTransport()
+
+        def response = send(transport, 'GET', '/protocol', EmptyRequestBody.INSTANCE)
+        assert response == [statusCode: 200, protocol: 'HTTP/2', body: 'HTTP/2.0']
+        assert transport.stats() == [http2Responses: 1L, http11Responses: 0L]
+    }
+
+    @Test
+    void "sends request body over established HTTP/2 connection"() {
+        def transport = new Http2HttpTransport()
+
+        // h2c upgrade happens on the first request, servers may not upgrade requests with a body
+        send(transport, 'GET', '/protocol', EmptyRequestBody.INSTANCE)
+
+        def response = send(transport, 'POST', '/echo',
+                TextRequestBody.withType('text/plain', 'hello http2'))
+
+        assert response == [statusCode: 201, protocol: 'HTTP/2', body: 'hello http2']
+    }
+
+    @Test
+    void "multiplexes concurrent requests"() {
+        def transport = new Http2HttpTransport()
+        def executor = Executors.newFixedThreadPool(8)
+
+        try {
+            def futures = (1..32).collect {
+                executor.submit({ send(transport, 'GET', '/protocol', EmptyRequestBody.INSTANCE) } as Callable)
+            }
+
+            assert futures.collect { it.get().protocol }.unique() == ['HTTP/2']
+            assert transport.stats().http2Responses == 32L
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void "sends headers that HttpClient restricts without them"() {
+        def transport = new Http2HttpTransport()
+        def header = new HttpHeader(['Origin': 'http://localhost', 'Referer': 'http://localhost/page',
+                                     'Date': 'Mon, 01 Jul 2019 10:00:00 GMT', 'Via': '1.1 proxy'])
+
+        def url = testServer.uri.resolve('/protocol').toString()
+        def response = transport.send(new HttpTransportRequest('GET', url, header, EmptyRequestBody.INSTANCE))
+        response.close()
+
+        assert response.statusCode == 200
+    }
+
+    @Test
+    void "fails request when streamed body can't be written"() {
+        def transport = new Http2HttpTransport()
+        def body = [
+                type         : { -> 'application/octet-stream' },
+                isBinary     : { -> true },
+                isStreamed   : { -> true },
+                contentLength: { -> -1L },
+                writeTo      : { OutputStream out ->
+                    out.write('partial'.bytes)
+                    throw new IOException('source is gone')
+                }
+        ] as HttpRequestBody
+
+        send(transport, 'GET', '/protocol', EmptyRequestBody.INSTANCE)
+
+        code {
+            send(transport, 'POST', '/echo', body)
+        } should throwException(IOException)
+    }
+
+    private static Map send(Http2HttpTransport transport, String method, String path, HttpRequestBody body) {
+        def url = testServer.uri.resolve(path).toString()
+        def header = new HttpHeader(['Content-Type': body.type()])
+
+        def response = transport.send(new HttpTransportRequest(method, url, header, body))
+        try {
+            return [statusCode: response.statusCode,
+                    protocol  : response.protocol,
+                    body      : new String(response.body.bytes, UTF_8)]
+        } finally {
+            response.close()
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts iterations at a constant rate. When all the workers are busy, iterations queue up
+ * and the time they spend in the queue is part of their latency (no coordinated omission).
+ */
+public class ConstantArrivalRate extends LoadProfile {
+    static final int DEFAULT_MAX_CONCURRENCY = 100;
+
+    private final double iterationsPerSecond;
+    private final Duration duration;
+    private final int maxConcurrency;
+
+    ConstantArrivalRate(double iterationsPerSecond, Duration duration, int maxConcurrency) {
+        if (iterationsPerSecond <= 0) {
+            throw new IllegalArgumentException("iterations per second must be positive: " + iterationsPerSecond);
+        }
+
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive: " + duration);
+        }
+
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("max concurrency must be positive: " + maxConcurrency);
+        }
+
+        this.iterationsPerSecond = iterationsPerSecond;
+        this.duration = duration;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * @param maxConcurrency max number of iterations running at the same time, default is 100
+     * @return new profile with the limit
+     */
+    public ConstantArrivalRate maxConcurrency(int maxConcurrency) {
+        return new ConstantArrivalRate(iterationsPerSecond, duration, maxConcurrency);
+    }
+
+    public double getIterationsPerSecond() {
+        return iterationsPerSecond;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public long getPlannedIterations() {
+        return (long) Math.floor(duration.toNanos() / 1_000_000_000.0 * iterationsPerSecond);
+    }
+
+    @Override
+    public Map<String, ?> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("type", "constantArrivalRate");
+        result.put("iterationsPerSecond", iterationsPerSecond);
+        result.put("durationMillis", duration.toMillis());
+        result.put("maxConcurrency", maxConcurrency);
+
+        return result;
+    }
+
+    @Override
+    void generate(LoadExecution execution) throws InterruptedException {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), execution::newThread);
+
+        long planned = getPlannedIterations();
+        execution.setPlannedIterations(planned);
+
+        double intervalNanos = 1_000_000_000.0 / iterationsPerSecond;
+        long start = execution.getStartNanos();
+        try {
+            for (long idx = 0; idx < planned && !execution.isStopped(); idx++) {
+                long scheduledStart = start + (long) (idx * intervalNanos);
+                LoadExecution.sleepUntil(scheduledStart);
+
+                execution.recordBacklog(workers.getQueue().size());
+                workers.execute(() -> execution.iterate(scheduledStart));
+            }
+
+            workers.shutdown();
+            if (!workers.awaitTermination(LoadExecution.DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                execution.stop();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import com.twosigma.webtau.console.ConsoleOutputs;
+import com.twosigma.webtau.console.ansi.Color;
+import com.twosigma.webtau.reporter.StepReportOptions;
+import com.twosigma.webtau.reporter.TestStep;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.action;
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.id;
+import static com.twosigma.webtau.reporter.TokenizedMessage.tokenizedMessage;
+
+/**
+ * Runs existing scenario code (e.g. a closure with http calls) under load.
+ * Steps inside iterations are not reported individually, only the aggregated {@link LoadResult} is.
+ */
+public class Load {
+    public static final Load load = new Load();
+
+    private Load() {
+    }
+
+    public ConstantArrivalRate constantArrivalRate(double iterationsPerSecond, Duration duration) {
+        return LoadProfile.constantArrivalRate(iterationsPerSecond, duration);
+    }
+
+    public RampingVirtualUsers rampingVirtualUsers() {
+        return LoadProfile.rampingVirtualUsers();
+    }
+
+    public LoadResult run(String name, LoadProfile profile, Runnable operation) {
+        return run(name, profile, Collections.singletonMap(name, operation));
+    }
+
+    /**
+     * @param name name of the load run
+     * @param profile how to start iterations
+     * @param operations named operations, an iteration runs them in order and stops at the first failure
+     * @return aggregated result
+     */
+    public LoadResult run(String name, LoadProfile profile, Map<String, ? extends Runnable> operations) {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("at least one operation is required for load <" + name + ">");
+        }
+
+        TestStep<Void, LoadResult> step = TestStep.createStep(null,
+                tokenizedMessage(action("executing load"), id(name)),
+                () -> tokenizedMessage(action("executed load"), id(name)),
+                () -> execute(name, profile, operations));
+
+        LoadResult result = step.execute(StepReportOptions.REPORT_ALL);
+        step.addPayload(result);
+        renderSummary(result);
+
+        return result;
+    }
+
+    private static LoadResult execute(String name, LoadProfile profile, Map<String, ? extends Runnable> operations) {
+        LoadExecution execution = new LoadExecution(name, operations);
+        try {
+            profile.generate(execution);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execution.stop();
+        }
+
+        return execution.complete(profile);
+    }
+
+    private static void renderSummary(LoadResult result) {
+        result.getOperations().forEach(operation ->
+                ConsoleOutputs.out(Color.PURPLE, operation.getName(), ": ",
+                        Color.BLUE, operation.getCount(), " calls, ",
+                        operation.getErrors() > 0 ? Color.RED : Color.GREEN, operation.getErrors(), " errors, ",
+                        Color.BLUE, format(operation.getThroughput()), "/s, ",
+                        Color.YELLOW, "p50 ", format(operation.latencyPercentile(50)), "ms",
+                        " p90 ", format(operation.latencyPercentile(90)), "ms",
+                        " p99 ", format(operation.latencyPercentile(99)), "ms",
+                        " p99.9 ", format(operation.latencyPercentile(99.9)), "ms"));
+
+        if (result.isDrainTimedOut()) {
+            ConsoleOutputs.out(Color.RED, "some iterations were still running after ",
+                    LoadExecution.DRAIN_TIMEOUT.getSeconds(), "s drain timeout");
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.US, "%.2f", value);
+    }
+}
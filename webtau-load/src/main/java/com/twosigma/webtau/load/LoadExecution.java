@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import com.twosigma.webtau.concurrency.ThreadContext;
+import com.twosigma.webtau.reporter.StepReporters;
+import com.twosigma.webtau.reporter.TestStep;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * state of a single load run shared between the profile and the worker threads
+ */
+class LoadExecution {
+    static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    static final Duration TIMELINE_RESOLUTION = Duration.ofSeconds(1);
+
+    private final String name;
+    private final List<OperationStats> operations;
+    private final List<Runnable> operationCode;
+    private final ThreadContext context;
+    private final AtomicInteger threadNumber;
+    private final AtomicLong startedIterations;
+    private final AtomicLong completedIterations;
+    private final AtomicInteger maxBacklog;
+    private final long startTime;
+    private final long startNanos;
+
+    private volatile long plannedIterations;
+    private volatile boolean stopped;
+
+    LoadExecution(String name, Map<String, ? extends Runnable> operations) {
+        this.name = name;
+        this.context = ThreadContext.capture();
+        this.threadNumber = new AtomicInteger();
+        this.startedIterations = new AtomicLong();
+        this.completedIterations = new AtomicLong();
+        this.maxBacklog = new AtomicInteger();
+        this.plannedIterations = -1;
+        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+
+        long resolutionNanos = TIMELINE_RESOLUTION.toNanos();
+        this.operations = operations.keySet().stream()
+                .map(operationName -> new OperationStats(operationName, startNanos, resolutionNanos))
+                .collect(Collectors.toList());
+        this.operationCode = new ArrayList<>(operations.values());
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    void setPlannedIterations(long plannedIterations) {
+        this.plannedIterations = plannedIterations;
+    }
+
+    void recordBacklog(int backlog) {
+        maxBacklog.accumulateAndGet(backlog, Math::max);
+    }
+
+    /**
+     * worker threads continue the caller's context, but their steps are not reported:
+     * a load run produces too many of them, only the aggregated stats are
+     * @param code code to run
+     * @return new not started daemon thread
+     */
+    Thread newThread(Runnable code) {
+        Thread thread = new Thread(() -> context.runWith(() -> {
+            TestStep.setCurrentStep(null);
+            StepReporters.withoutReporting(() -> {
+                code.run();
+                return null;
+            });
+        }), "webtau-load-" + name + "-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    /**
+     * runs operations one after another, stops at the first failed one.
+     * Latency of the first operation is measured from the scheduled start, so time spent waiting
+     * for a free worker counts.
+     * @param scheduledStartNanos when the iteration was supposed to start
+     */
+    void iterate(long scheduledStartNanos) {
+        startedIterations.incrementAndGet();
+
+        long latencyStart = scheduledStartNanos;
+        for (int idx = 0; idx < operationCode.size(); idx++) {
+            long actualStart = System.nanoTime();
+            Throwable error = null;
+            try {
+                operationCode.get(idx).run();
+            } catch (Throwable e) {
+                error = e;
+            }
+
+            long end = System.nanoTime();
+            operations.get(idx).record(latencyStart, actualStart, end, error);
+
+            if (error != null) {
+                break;
+            }
+
+            latencyStart = end;
+        }
+
+        completedIterations.incrementAndGet();
+    }
+
+    LoadResult complete(LoadProfile profile) {
+        long durationNanos = System.nanoTime() - startNanos;
+
+        List<LoadOperationResult> results = operations.stream()
+                .map(stats -> stats.complete(durationNanos))
+                .collect(Collectors.toList());
+
+        return new LoadResult(name, profile, startTime, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                plannedIterations, startedIterations.get(), completedIterations.get(), maxBacklog.get(),
+                stopped, results);
+    }
+
+    static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        while (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            remaining = deadlineNanos - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import com.twosigma.webtau.statistics.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated stats of a single load operation.
+ * Latency includes the time an iteration waited past its scheduled start, service time doesn't.
+ */
+public class LoadOperationResult {
+    static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String name;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram serviceTime;
+    private final long errors;
+    private final long durationNanos;
+    private final List<String> errorSamples;
+    private final List<Map<String, ?>> timeline;
+
+    LoadOperationResult(String name, LatencyHistogram latency, LatencyHistogram serviceTime,
+                        long errors, long durationNanos,
+                        List<String> errorSamples, List<Map<String, ?>> timeline) {
+        this.name = name;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+        this.errors = errors;
+        this.durationNanos = durationNanos;
+        this.errorSamples = Collections.unmodifiableList(errorSamples);
+        this.timeline = Collections.unmodifiableList(timeline);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return latency.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getErrorRate() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) errors / count;
+    }
+
+    public double getThroughput() {
+        return durationNanos == 0 ? 0 : getCount() / (durationNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * @param percentile percentile, e.g. 99.9
+     * @return latency in milliseconds
+     */
+    public double latencyPercentile(double percentile) {
+        return toMillis(latency.valueAtPercentile(percentile));
+    }
+
+    /**
+     * @param percentile percentile, e.g. 99.9
+     * @return service time in milliseconds
+     */
+    public double serviceTimePercentile(double percentile) {
+        return toMillis(serviceTime.valueAtPercentile(percentile));
+    }
+
+    public double getMaxLatency() {
+        return toMillis(latency.getMaxMicros());
+    }
+
+    public double getMeanLatency() {
+        return latency.getMeanMicros() / 1000.0;
+    }
+
+    public List<String> getErrorSamples() {
+        return errorSamples;
+    }
+
+    public List<Map<String, ?>> getTimeline() {
+        return timeline;
+    }
+
+    public Map<String, ?> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("count", getCount());
+        result.put("errors", errors);
+        result.put("errorRate", getErrorRate());
+        result.put("throughput", getThroughput());
+        result.put("meanMillis", getMeanLatency());
+        result.put("maxMillis", getMaxLatency());
+        result.put("percentiles", percentilesMillis(latency));
+        result.put("serviceTimePercentiles", percentilesMillis(serviceTime));
+        result.put("errorSamples", errorSamples);
+        result.put("timeline", timeline);
+
+        return result;
+    }
+
+    static Map<String, Double> percentilesMillis(LatencyHistogram histogram) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (double percentile : REPORTED_PERCENTILES) {
+            String key = percentile == Math.rint(percentile) ?
+                    String.valueOf((long) percentile) :
+                    String.valueOf(percentile);
+            result.put(key, toMillis(histogram.valueAtPercentile(percentile)));
+        }
+
+        return result;
+    }
+
+    static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
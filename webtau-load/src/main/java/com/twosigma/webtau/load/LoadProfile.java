@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * defines how iterations are started during a load run
+ */
+public abstract class LoadProfile {
+    LoadProfile() {
+    }
+
+    /**
+     * open model: iterations start on a fixed schedule no matter how fast the system responds.
+     * Latency is measured from the scheduled start, so delays caused by a slow system are not omitted.
+     * @param iterationsPerSecond arrival rate
+     * @param duration how long to generate load
+     * @return profile
+     */
+    public static ConstantArrivalRate constantArrivalRate(double iterationsPerSecond, Duration duration) {
+        return new ConstantArrivalRate(iterationsPerSecond, duration, ConstantArrivalRate.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * closed model: virtual users run iterations one after another, number of users changes linearly between stages
+     * @return profile without stages, use {@link RampingVirtualUsers#stage(Duration, int)} to add them
+     */
+    public static RampingVirtualUsers rampingVirtualUsers() {
+        return new RampingVirtualUsers(Collections.emptyList(), Duration.ZERO);
+    }
+
+    public abstract Duration getDuration();
+
+    public abstract Map<String, ?> toMap();
+
+    abstract void generate(LoadExecution execution) throws InterruptedException;
+}
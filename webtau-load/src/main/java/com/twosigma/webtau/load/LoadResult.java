@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import com.twosigma.webtau.reporter.TestStepPayload;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class LoadResult implements TestStepPayload {
+    private final String name;
+    private final LoadProfile profile;
+    private final long startTime;
+    private final long durationMillis;
+    private final long plannedIterations;
+    private final long startedIterations;
+    private final long completedIterations;
+    private final int maxBacklog;
+    private final boolean drainTimedOut;
+    private final List<LoadOperationResult> operations;
+
+    LoadResult(String name, LoadProfile profile, long startTime, long durationMillis,
+               long plannedIterations, long startedIterations, long completedIterations,
+               int maxBacklog, boolean drainTimedOut, List<LoadOperationResult> operations) {
+        this.name = name;
+        this.profile = profile;
+        this.startTime = startTime;
+        this.durationMillis = durationMillis;
+        this.plannedIterations = plannedIterations;
+        this.startedIterations = startedIterations;
+        this.completedIterations = completedIterations;
+        this.maxBacklog = maxBacklog;
+        this.drainTimedOut = drainTimedOut;
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return number of iterations the profile planned to start, -1 when it is not known upfront
+     */
+    public long getPlannedIterations() {
+        return plannedIterations;
+    }
+
+    public long getStartedIterations() {
+        return startedIterations;
+    }
+
+    public long getCompletedIterations() {
+        return completedIterations;
+    }
+
+    /**
+     * @return max number of iterations that waited for a free worker
+     */
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+
+    /**
+     * @return true if some iterations were still running when the drain timeout expired
+     */
+    public boolean isDrainTimedOut() {
+        return drainTimedOut;
+    }
+
+    public List<LoadOperationResult> getOperations() {
+        return operations;
+    }
+
+    public LoadOperationResult getOperation(String name) {
+        return operations.stream()
+                .filter(o -> o.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("no operation <" + name + "> in load <" +
+                        this.name + ">, available: " +
+                        operations.stream().map(LoadOperationResult::getName).collect(Collectors.toList())));
+    }
+
+    @Override
+    public Map<String, ?> toMap() {
+        Map<String, Object> iterations = new LinkedHashMap<>();
+        if (plannedIterations >= 0) {
+            iterations.put("planned", plannedIterations);
+        }
+        iterations.put("started", startedIterations);
+        iterations.put("completed", completedIterations);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("profile", profile.toMap());
+        result.put("startTime", startTime);
+        result.put("durationMillis", durationMillis);
+        result.put("iterations", iterations);
+        result.put("maxBacklog", maxBacklog);
+        result.put("drainTimedOut", drainTimedOut);
+        result.put("operations", operations.stream().map(LoadOperationResult::toMap).collect(Collectors.toList()));
+
+        return result;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import com.twosigma.webtau.statistics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * latency of a single operation: histograms for the whole run and per time window.
+ * Only the current and the previous windows are kept live, older ones are summarized.
+ */
+class OperationStats {
+    private static final int MAX_ERROR_SAMPLES = 5;
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 200;
+
+    private final String name;
+    private final long runStartNanos;
+    private final long resolutionNanos;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram serviceTime;
+    private final AtomicLong errors;
+    private final Set<String> errorSamples;
+    private final List<Map<String, ?>> timeline;
+
+    private volatile TimeWindow current;
+    private volatile TimeWindow previous;
+
+    OperationStats(String name, long runStartNanos, long resolutionNanos) {
+        this.name = name;
+        this.runStartNanos = runStartNanos;
+        this.resolutionNanos = resolutionNanos;
+        this.latency = new LatencyHistogram();
+        this.serviceTime = new LatencyHistogram();
+        this.errors = new AtomicLong();
+        this.errorSamples = new LinkedHashSet<>();
+        this.timeline = new ArrayList<>();
+        this.current = new TimeWindow(0);
+    }
+
+    void record(long latencyStartNanos, long actualStartNanos, long endNanos, Throwable error) {
+        long latencyNanos = endNanos - latencyStartNanos;
+        latency.recordNanos(latencyNanos);
+        serviceTime.recordNanos(endNanos - actualStartNanos);
+
+        recordInWindow((endNanos - runStartNanos) / resolutionNanos, latencyNanos, error != null);
+
+        if (error != null) {
+            errors.incrementAndGet();
+            recordErrorSample(error);
+        }
+    }
+
+    LoadOperationResult complete(long durationNanos) {
+        List<Map<String, ?>> windows;
+        synchronized (this) {
+            windows = new ArrayList<>(timeline);
+            if (previous != null) {
+                windows.add(previous.summary());
+            }
+            windows.add(current.summary());
+        }
+
+        List<String> samples;
+        synchronized (errorSamples) {
+            samples = new ArrayList<>(errorSamples);
+        }
+
+        return new LoadOperationResult(name, latency, serviceTime, errors.get(), durationNanos,
+                samples, fillGaps(windows));
+    }
+
+    /**
+     * a window that got retired between lookup and record doesn't accept the sample,
+     * it is looked up again and goes to one of the live windows
+     */
+    private void recordInWindow(long idx, long latencyNanos, boolean isError) {
+        while (true) {
+            TimeWindow window = window(idx);
+            if (window.record(latencyNanos, isError)) {
+                return;
+            }
+        }
+    }
+
+    private TimeWindow window(long idx) {
+        TimeWindow window = current;
+        if (idx == window.idx) {
+            return window;
+        }
+
+        if (idx < window.idx) {
+            TimeWindow previousWindow = previous;
+            // late records that don't fit the live windows go to the oldest live one
+            return previousWindow != null ? previousWindow : window;
+        }
+
+        synchronized (this) {
+            if (idx > current.idx) {
+                TimeWindow retired = previous;
+
+                previous = current;
+                current = new TimeWindow(idx);
+
+                // summary is taken after the swap, once samples that are being recorded into the window land
+                if (retired != null) {
+                    retired.retire();
+                    timeline.add(retired.summary());
+                }
+            }
+
+            return current;
+        }
+    }
+
+    private void recordErrorSample(Throwable error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        int newLineIdx = message.indexOf('\n');
+        if (newLineIdx != -1) {
+            message = message.substring(0, newLineIdx);
+        }
+
+        if (message.length() > MAX_ERROR_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_ERROR_MESSAGE_LENGTH) + "...";
+        }
+
+        synchronized (errorSamples) {
+            if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+                errorSamples.add(message);
+            }
+        }
+    }
+
+    private List<Map<String, ?>> fillGaps(List<Map<String, ?>> windows) {
+        windows.sort(Comparator.comparingLong(w -> (Long) w.get("idx")));
+
+        List<Map<String, ?>> result = new ArrayList<>();
+        long expectedIdx = 0;
+        for (Map<String, ?> window : windows) {
+            long idx = (Long) window.get("idx");
+            for (; expectedIdx < idx; expectedIdx++) {
+                result.add(new TimeWindow(expectedIdx).summary());
+            }
+
+            result.add(window);
+            expectedIdx = idx + 1;
+        }
+
+        return result;
+    }
+
+    private class TimeWindow {
+        private final long idx;
+        private final LatencyHistogram latency;
+        private final AtomicLong errors;
+        private final AtomicInteger recording;
+        private volatile boolean retired;
+
+        TimeWindow(long idx) {
+            this.idx = idx;
+            this.latency = new LatencyHistogram();
+            this.errors = new AtomicLong();
+            this.recording = new AtomicInteger();
+        }
+
+        /**
+         * @return false if window is retired and sample must go to a live window
+         */
+        boolean record(long latencyNanos, boolean isError) {
+            recording.incrementAndGet();
+            try {
+                if (retired) {
+                    return false;
+                }
+
+                latency.recordNanos(latencyNanos);
+                if (isError) {
+                    errors.incrementAndGet();
+                }
+
+                return true;
+            } finally {
+                recording.decrementAndGet();
+            }
+        }
+
+        /**
+         * stops accepting new samples and waits for the samples that are being recorded
+         */
+        void retire() {
+            retired = true;
+            while (recording.get() > 0) {
+                Thread.yield();
+            }
+        }
+
+        Map<String, ?> summary() {
+            double resolutionSeconds = resolutionNanos / 1_000_000_000.0;
+            long count = latency.getTotalCount();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("idx", idx);
+            result.put("startMillis", TimeUnit.NANOSECONDS.toMillis(idx * resolutionNanos));
+            result.put("count", count);
+            result.put("errors", errors.get());
+            result.put("throughput", count / resolutionSeconds);
+            result.put("percentiles", LoadOperationResult.percentilesMillis(latency));
+            result.put("maxMillis", LoadOperationResult.toMillis(latency.getMaxMicros()));
+
+            return result;
+        }
+    }
+}
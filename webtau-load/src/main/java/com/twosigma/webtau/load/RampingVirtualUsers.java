@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Virtual users run iterations one after another. Number of users changes linearly from the previous
+ * stage target to the next one. Without pacing an iteration starts when the previous one finishes,
+ * so only the service time is measured. With pacing each user follows a schedule and latency
+ * is measured from the scheduled start, including the time an iteration was late.
+ */
+public class RampingVirtualUsers extends LoadProfile {
+    private static final long CONTROL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<Stage> stages;
+    private final Duration pacing;
+
+    RampingVirtualUsers(List<Stage> stages, Duration pacing) {
+        this.stages = Collections.unmodifiableList(stages);
+        this.pacing = pacing;
+    }
+
+    /**
+     * @param duration duration of the stage
+     * @param targetUsers number of users to reach by the end of the stage
+     * @return new profile with the stage added
+     */
+    public RampingVirtualUsers stage(Duration duration, int targetUsers) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("stage duration must be positive: " + duration);
+        }
+
+        if (targetUsers < 0) {
+            throw new IllegalArgumentException("target users must not be negative: " + targetUsers);
+        }
+
+        List<Stage> newStages = new ArrayList<>(stages);
+        newStages.add(new Stage(duration, targetUsers));
+
+        return new RampingVirtualUsers(newStages, pacing);
+    }
+
+    /**
+     * @param pacing interval between iteration starts of a single user
+     * @return new profile with the pacing
+     */
+    public RampingVirtualUsers pacing(Duration pacing) {
+        if (pacing.isNegative()) {
+            throw new IllegalArgumentException("pacing must not be negative: " + pacing);
+        }
+
+        return new RampingVirtualUsers(stages, pacing);
+    }
+
+    @Override
+    public Duration getDuration() {
+        return stages.stream().map(s -> s.duration).reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * @param elapsedNanos time since start of the run
+     * @return number of users that should be active
+     */
+    public int usersAt(long elapsedNanos) {
+        long stageStart = 0;
+        int previousTarget = 0;
+        for (Stage stage : stages) {
+            long stageNanos = stage.duration.toNanos();
+            if (elapsedNanos < stageStart + stageNanos) {
+                double progress = (double) (elapsedNanos - stageStart) / stageNanos;
+                return (int) Math.round(previousTarget + (stage.targetUsers - previousTarget) * progress);
+            }
+
+            stageStart += stageNanos;
+            previousTarget = stage.targetUsers;
+        }
+
+        return previousTarget;
+    }
+
+    @Override
+    public Map<String, ?> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("type", "rampingVirtualUsers");
+        result.put("stages", stages.stream().map(Stage::toMap).collect(Collectors.toList()));
+        result.put("pacingMillis", pacing.toMillis());
+        result.put("durationMillis", getDuration().toMillis());
+
+        return result;
+    }
+
+    @Override
+    void generate(LoadExecution execution) throws InterruptedException {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("at least one stage is required");
+        }
+
+        long start = execution.getStartNanos();
+        long end = start + getDuration().toNanos();
+        AtomicInteger activeUsers = new AtomicInteger();
+        List<Thread> users = new ArrayList<>();
+
+        try {
+            long now = System.nanoTime();
+            while (now < end && !execution.isStopped()) {
+                activeUsers.set(usersAt(now - start));
+                for (int idx = 0; idx < activeUsers.get(); idx++) {
+                    if (idx == users.size()) {
+                        users.add(null);
+                    }
+
+                    Thread user = users.get(idx);
+                    if (user == null || !user.isAlive()) {
+                        user = execution.newThread(virtualUser(execution, idx, activeUsers, end));
+                        users.set(idx, user);
+                        user.start();
+                    }
+                }
+
+                LoadExecution.sleepUntil(Math.min(end, now + CONTROL_INTERVAL_NANOS));
+                now = System.nanoTime();
+            }
+        } finally {
+            activeUsers.set(0);
+        }
+
+        long drainDeadline = System.nanoTime() + LoadExecution.DRAIN_TIMEOUT.toNanos();
+        for (Thread user : users) {
+            if (user != null) {
+                user.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(drainDeadline - System.nanoTime())));
+            }
+        }
+
+        if (users.stream().anyMatch(user -> user != null && user.isAlive())) {
+            execution.stop();
+        }
+    }
+
+    private Runnable virtualUser(LoadExecution execution, int userIdx, AtomicInteger activeUsers, long end) {
+        long pacingNanos = pacing.toNanos();
+
+        return () -> {
+            long scheduledStart = System.nanoTime();
+            while (userIdx < activeUsers.get() && !execution.isStopped() && System.nanoTime() < end) {
+                execution.iterate(pacingNanos > 0 ? scheduledStart : System.nanoTime());
+
+                if (pacingNanos > 0) {
+                    scheduledStart += pacingNanos;
+                    try {
+                        LoadExecution.sleepUntil(Math.min(scheduledStart, end));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        };
+    }
+
+    private static class Stage {
+        private final Duration duration;
+        private final int targetUsers;
+
+        Stage(Duration duration, int targetUsers) {
+            this.duration = duration;
+            this.targetUsers = targetUsers;
+        }
+
+        Map<String, ?> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("durationMillis", duration.toMillis());
+            result.put("targetUsers", targetUsers);
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load.report;
+
+import com.twosigma.webtau.report.ReportCustomData;
+import com.twosigma.webtau.report.ReportDataProvider;
+import com.twosigma.webtau.report.ReportTestEntries;
+import com.twosigma.webtau.report.ReportTestEntry;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.twosigma.webtau.load.report.LoadRunsTestResultPayloadExtractor.LOAD_RUNS_PAYLOAD_NAME;
+
+/**
+ * collects load runs of all the tests, so the report can show them in one place
+ */
+public class LoadRunsReportDataProvider implements ReportDataProvider {
+    @Override
+    public Stream<ReportCustomData> provide(ReportTestEntries testEntries) {
+        List<Map<String, ?>> reportData = testEntries.stream()
+                .flatMap(LoadRunsReportDataProvider::runsFromTest)
+                .collect(Collectors.toList());
+
+        return Stream.of(new ReportCustomData(LOAD_RUNS_PAYLOAD_NAME, reportData));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Stream<Map<String, ?>> runsFromTest(ReportTestEntry test) {
+        return test.getPayloads().stream()
+                .filter(p -> p.getPayloadName().equals(LOAD_RUNS_PAYLOAD_NAME))
+                .flatMap(p -> ((List<Map<String, ?>>) p.getPayload()).stream())
+                .map(run -> withTest(test, run));
+    }
+
+    private static Map<String, ?> withTest(ReportTestEntry test, Map<String, ?> run) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("testId", test.getId());
+        result.putAll(run);
+
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load.report;
+
+import com.twosigma.webtau.load.LoadResult;
+import com.twosigma.webtau.reporter.TestResultPayload;
+import com.twosigma.webtau.reporter.TestResultPayloadExtractor;
+import com.twosigma.webtau.reporter.TestStep;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class LoadRunsTestResultPayloadExtractor implements TestResultPayloadExtractor {
+    static final String LOAD_RUNS_PAYLOAD_NAME = "loadRuns";
+
+    @Override
+    public Stream<TestResultPayload> extract(Stream<TestStep<?, ?>> testSteps) {
+        Stream<LoadResult> payloads = testSteps
+                .flatMap(s -> s.getCombinedPayloadsOfType(LoadResult.class));
+
+        return Stream.of(new TestResultPayload(LOAD_RUNS_PAYLOAD_NAME,
+                payloads.map(LoadResult::toMap).collect(Collectors.toList())));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.load
+
+import org.junit.Test
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.twosigma.webtau.load.Load.load
+
+class LoadTest {
+    @Test
+    void "constant arrival rate starts planned number of iterations"() {
+        def counter = new AtomicInteger()
+        def result = load.run('counter', LoadProfile.constantArrivalRate(200, Duration.ofMillis(500))) {
+            counter.incrementAndGet()
+        }
+
+        assert result.plannedIterations == 100
+        assert result.completedIterations == 100
+        assert counter.get() == 100
+
+        def operation = result.getOperation('counter')
+        assert operation.count == 100
+        assert operation.errors == 0
+    }
+
+    @Test
+    void "latency includes time iterations waited for a busy worker"() {
+        def result = load.run('slow', LoadProfile.constantArrivalRate(100, Duration.ofMillis(300)).maxConcurrency(1)) {
+            Thread.sleep(20)
+        }
+
+        def operation = result.getOperation('slow')
+        assert operation.count == 30
+        assert operation.serviceTimePercentile(99) < 100
+        // 30 iterations scheduled every 10ms and served every 20ms, the last one waits ~300ms
+        assert operation.latencyPercentile(99) > 250
+        assert result.maxBacklog > 10
+    }
+
+    @Test
+    void "iteration stops at the first failed operation"() {
+        def second = new AtomicInteger()
+        def result = load.run('steps', LoadProfile.constantArrivalRate(100, Duration.ofMillis(100)),
+                [first: { throw new AssertionError('expected failure\ndetails') } as Runnable,
+                 second: { second.incrementAndGet() } as Runnable])
+
+        assert result.getOperation('first').errors == 10
+        assert result.getOperation('first').errorRate == 1.0
+        assert result.getOperation('first').errorSamples == ['expected failure']
+        assert result.getOperation('second').count == 0
+        assert second.get() == 0
+    }
+
+    @Test
+    void "ramping virtual users interpolate number of users between stages"() {
+        def profile = LoadProfile.rampingVirtualUsers()
+                .stage(Duration.ofSeconds(10), 10)
+                .stage(Duration.ofSeconds(10), 10)
+                .stage(Duration.ofSeconds(10), 0)
+
+        assert profile.duration == Duration.ofSeconds(30)
+        assert profile.usersAt(0) == 0
+        assert profile.usersAt(Duration.ofSeconds(5).toNanos()) == 5
+        assert profile.usersAt(Duration.ofSeconds(15).toNanos()) == 10
+        assert profile.usersAt(Duration.ofSeconds(25).toNanos()) == 5
+    }
+
+    @Test
+    void "ramping virtual users run iterations with pacing"() {
+        def counter = new AtomicInteger()
+        def result = load.run('paced', LoadProfile.rampingVirtualUsers()
+                .stage(Duration.ofMillis(50), 2)
+                .stage(Duration.ofMillis(450), 2)
+                .pacing(Duration.ofMillis(50))) {
+            counter.incrementAndGet()
+        }
+
+        def operation = result.getOperation('paced')
+        assert operation.count == counter.get()
+        assert operation.count >= 10 && operation.count <= 25
+    }
+
+    @Test
+    void "result contains timeline without gaps"() {
+        def result = load.run('timeline', LoadProfile.constantArrivalRate(20, Duration.ofMillis(2100))) {
+        }
+
+        def timeline = result.getOperation('timeline').timeline
+        assert timeline*.idx == [0L, 1L, 2L]
+        assert timeline*.count.sum() == 42
+
+        def map = result.toMap()
+        assert map.profile.type == 'constantArrivalRate'
+        assert map.iterations == [planned: 42L, started: 42L, completed: 42L]
+        assert map.operations[0].percentiles.keySet() == ['50', '90', '99', '99.9'] as Set
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.load
+
+import org.junit.Test
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
+class OperationStatsTest {
+    @Test
+    void "samples recorded concurrently with window rotation are not lost"() {
+        def numberOfThreads = 8
+        def samplesPerThread = 20_000
+        def stats = new OperationStats('boundary', 0, 1000)
+
+        def executor = Executors.newFixedThreadPool(numberOfThreads)
+        def start = new CountDownLatch(1)
+        def futures = (0..<numberOfThreads).collect { threadIdx ->
+            executor.submit({
+                start.await()
+                for (int sampleIdx = 0; sampleIdx < samplesPerThread; sampleIdx++) {
+                    // threads move through windows at different pace, so records hit retiring windows
+                    long endNanos = sampleIdx * (10 + threadIdx)
+                    stats.record(endNanos - 5, endNanos - 5, endNanos, sampleIdx % 10 == 0 ? new RuntimeException('error') : null)
+                }
+            } as Callable)
+        }
+
+        start.countDown()
+        futures.each { it.get() }
+        executor.shutdown()
+
+        def result = stats.complete(1000)
+        assert result.count == numberOfThreads * samplesPerThread
+        assert result.timeline.sum { it.count } == numberOfThreads * samplesPerThread
+        assert result.timeline.sum { it.errors } == numberOfThreads * samplesPerThread / 10
+    }
+}
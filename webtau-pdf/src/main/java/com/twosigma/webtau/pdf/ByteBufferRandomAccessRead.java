@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.pdf;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * lets pdfbox read a document straight from a (possibly memory mapped) buffer
+ */
+class ByteBufferRandomAccessRead implements RandomAccessRead {
+    private ByteBuffer buffer;
+
+    ByteBufferRandomAccessRead(ByteBuffer content) {
+        this.buffer = content.slice();
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int length) throws IOException {
+        checkClosed();
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+
+        int toRead = Math.min(length, buffer.remaining());
+        buffer.get(b, offset, toRead);
+
+        return toRead;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        checkClosed();
+        return buffer.position();
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        checkClosed();
+        if (position < 0) {
+            throw new IOException("invalid position: " + position);
+        }
+
+        buffer.position((int) Math.min(position, buffer.limit()));
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkClosed();
+        return buffer.limit();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        checkClosed();
+        return buffer.hasRemaining() ? buffer.get(buffer.position()) & 0xFF : -1;
+    }
+
+    @Override
+    public void rewind(int bytes) throws IOException {
+        checkClosed();
+        buffer.position(buffer.position() - bytes);
+    }
+
+    @Override
+    public byte[] readFully(int length) throws IOException {
+        checkClosed();
+        if (buffer.remaining() < length) {
+            throw new EOFException("premature end of buffer");
+        }
+
+        byte[] result = new byte[length];
+        buffer.get(result);
+
+        return result;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        checkClosed();
+        return !buffer.hasRemaining();
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkClosed();
+        return buffer.remaining();
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    private void checkClosed() throws IOException {
+        if (buffer == null) {
+            throw new IOException("buffer is closed");
+        }
+    }
+}
@@ -18,10 +18,12 @@ package com.twosigma.webtau.pdf;
 
 import com.twosigma.webtau.data.traceable.CheckLevel;
 import com.twosigma.webtau.http.datanode.DataNode;
+import org.apache.pdfbox.pdfparser.PDFParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -38,13 +40,32 @@ public class Pdf {
         }
     }
 
+    /**
+     * parses pdf directly from a buffer (e.g. memory mapped response) without copying it to heap
+     * @param content pdf content
+     * @return parsed pdf
+     */
+    public static Pdf pdf(ByteBuffer content) {
+        try {
+            PDFParser parser = new PDFParser(new ByteBufferRandomAccessRead(content));
+            parser.parse();
+
+            return new Pdf(parser.getPDDocument());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static Pdf pdf(DataNode node) {
         if (!node.isBinary()) {
             throw new AssertionError("response is not binary content");
         }
 
         try {
-            Pdf pdf = Pdf.pdf((byte[]) node.get());
+            Object content = node.get();
+            Pdf pdf = content instanceof ByteBuffer ?
+                    Pdf.pdf((ByteBuffer) content) :
+                    Pdf.pdf((byte[]) content);
             node.getTraceableValue().updateCheckLevel(CheckLevel.FuzzyPassed);
 
             return pdf;
@@ -60,7 +81,11 @@ public class Pdf {
     }
 
     private Pdf(byte[] content) throws IOException {
-        document = PDDocument.load(content);
+        this(PDDocument.load(content));
+    }
+
+    private Pdf(PDDocument document) {
+        this.document = document;
         openedPdfs.add(this);
     }
 
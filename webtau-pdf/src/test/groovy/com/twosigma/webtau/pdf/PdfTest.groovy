@@ -23,6 +23,8 @@ import com.twosigma.webtau.http.datanode.StructuredDataNode
 import com.twosigma.webtau.utils.ResourceUtils
 import org.junit.Test
 
+import java.nio.ByteBuffer
+
 import static com.twosigma.webtau.Ddjt.code
 import static com.twosigma.webtau.Ddjt.contain
 import static com.twosigma.webtau.Ddjt.throwException
@@ -37,6 +39,12 @@ class PdfTest {
         pdf.pageText(0).should contain('Test text paragraph Test')
     }
 
+    @Test
+    void "should extract text from a pdf stored in a buffer"() {
+        def pdf = pdf(ByteBuffer.wrap(pdfContent).asReadOnlyBuffer())
+        pdf.pageText(0).should contain('Test text paragraph Test')
+    }
+
     @Test
     void "should mark binary node as fuzzy passed when pdf is successfully parsed"() {
         def node = new StructuredDataNode(new DataNodeId('body'), new TraceableValue(pdfContent))
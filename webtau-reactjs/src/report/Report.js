@@ -57,6 +57,7 @@ class Report {
         this.httpCallsCombinedWithSkipped = [...convertSkippedToHttpCalls(report.openApiSkippedOperations || []), ...this.httpCalls]
         this.testsSummary = buildTestsSummary(report.summary)
         this.httpCallsSummary = buildHttpCallsSummary(this.httpCallsCombinedWithSkipped)
+        this.loadRuns = report.loadRuns || []
     }
 
     findTestById(id) {
@@ -102,12 +103,24 @@ class Report {
         return this.numberOfHttpCalls() > 0
     }
 
+    hasLoadRuns() {
+        return this.loadRuns.length > 0
+    }
+
     overallHttpCallTime() {
         return this.httpCalls
             .map(c => c.elapsedTime)
             .reduce((prev, curr) => prev + curr, 0)
     }
 
+    hasHttpCallsServedByCache() {
+        return this.httpCalls.some(c => c.cache)
+    }
+
+    httpCallsCacheStatusCount(status) {
+        return this.httpCalls.filter(c => c.cache === status).length
+    }
+
     averageHttpCallTime() {
         const n = this.numberOfHttpCalls()
         if (!n) {
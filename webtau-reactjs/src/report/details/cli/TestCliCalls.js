@@ -77,7 +77,7 @@ export default class TestCliCalls extends React.Component {
                     <td className="exit-code" onClick={onClick}>{cliCall.exitCode}</td>
                     <td className="start" onClick={onClick}>{moment(startDateTime).local().format('HH:mm:ss.SSS')}</td>
                     <td className="cli-call-elapsed-time" onClick={onClick}>
-                        <ElapsedTime millis={cliCall.elapsedTime}/>
+                        <ElapsedTime millis={cliCall.elapsedTime} micros={cliCall.elapsedTimeMicros}/>
                     </td>
                 </tr>
 
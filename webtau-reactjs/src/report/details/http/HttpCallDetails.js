@@ -17,6 +17,7 @@
 import React from 'react'
 
 import HttpPayload from './HttpPayload'
+import RetainedHttpPayload from './RetainedHttpPayload'
 import TestName from '../TestName'
 
 import Card from '../../widgets/Card'
@@ -24,6 +25,7 @@ import CardLabelAndNumber from '../../widgets/CardLabelAndNumber'
 import CardWithTime from '../../widgets/CardWithTime'
 
 import HttpCallHeaders from './HttpCallHeaders'
+import HttpCallTimings from './HttpCallTimings'
 
 import './HttpCallDetails.css'
 
@@ -51,6 +53,8 @@ function HttpCallDetails({httpCall, reportNavigation}) {
             <Mismatches httpCall={httpCall}/>
             <ErrorMessage httpCall={httpCall}/>
 
+            <HttpCallTimings timings={httpCall.timings}/>
+
             <HttpCallHeaders useCards="true"
                              request={httpCall.requestHeader}
                              response={httpCall.responseHeader}/>
@@ -102,36 +106,48 @@ function ErrorMessage({httpCall}) {
 }
 
 function Request({httpCall, onHttpPayloadZoomIn}) {
-    if (! httpCall.requestBody) {
+    if (!httpCall.requestBody && !httpCall.requestBodyRetention) {
         return <div/>
     }
 
+    if (httpCall.requestBodyMetadata) {
+        return (
+            <Card className="http-call-details-request-details">
+                <HttpPayload caption="Request (streamed, content is not captured)"
+                             type="application/json"
+                             data={JSON.stringify(httpCall.requestBodyMetadata)}/>
+            </Card>
+        )
+    }
+
     return (
         <Card className="http-call-details-request-details">
-            <HttpPayload caption="Request"
-                         type={httpCall.requestType}
-                         data={httpCall.requestBody}
-                         httpCallId={httpCall.id}
-                         payloadType='request'
-                         onZoom={onHttpPayloadZoomIn}/>
+            <RetainedHttpPayload caption="Request"
+                                 type={httpCall.requestType}
+                                 data={httpCall.requestBody}
+                                 retention={httpCall.requestBodyRetention}
+                                 httpCallId={httpCall.id}
+                                 payloadType='request'
+                                 onZoom={!httpCall.requestBodyRetention && onHttpPayloadZoomIn}/>
         </Card>
     )
 }
 
 function Response({httpCall, onHttpPayloadZoomIn}) {
-    if (! httpCall.responseBody) {
+    if (!httpCall.responseBody && !httpCall.responseBodyRetention) {
         return <div/>
     }
 
     return (
         <Card className="http-call-details-response-details">
-            <HttpPayload caption="Response"
-                         type={httpCall.responseType}
-                         data={httpCall.responseBody}
-                         checks={httpCall.responseBodyChecks}
-                         httpCallId={httpCall.id}
-                         payloadType='response'
-                         onZoom={onHttpPayloadZoomIn}/>
+            <RetainedHttpPayload caption="Response"
+                                 type={httpCall.responseType}
+                                 data={httpCall.responseBody}
+                                 retention={httpCall.responseBodyRetention}
+                                 checks={httpCall.responseBodyChecks}
+                                 httpCallId={httpCall.id}
+                                 payloadType='response'
+                                 onZoom={!httpCall.responseBodyRetention && onHttpPayloadZoomIn}/>
         </Card>
     )
 }
@@ -152,6 +168,11 @@ function Url({httpCall}) {
             <div className="url">
                 <a href={httpCall.url} target="_blank">{httpCall.url}</a>
             </div>
+            {httpCall.transport && httpCall.transport.protocol &&
+            <div className="protocol">{httpCall.transport.protocol}</div>}
+            {httpCall.replayed && <div className="replayed">replayed</div>}
+            {httpCall.cache && <div className="cache">cache {httpCall.cache}</div>}
+            {httpCall.injectedFault && <div className="injected-fault">injected fault: {httpCall.injectedFault}</div>}
         </div>
     )
 }
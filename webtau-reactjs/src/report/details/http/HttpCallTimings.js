@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import React from 'react'
+
+import '../../widgets/Table.css'
+import './HttpCallTimings.css'
+
+const phaseLabels = {
+    permitWait: 'Rate Limit Wait',
+    dnsResolution: 'DNS Resolution',
+    tcpConnect: 'TCP Connect',
+    tlsHandshake: 'TLS Handshake',
+    requestWrite: 'Request Write',
+    timeToFirstByte: 'Time To First Byte',
+    bodyRead: 'Body Read',
+    jsonParse: 'Body Parse',
+    validation: 'Validation'
+}
+
+function HttpCallTimings({timings}) {
+    if (!timings) {
+        return null
+    }
+
+    const hops = timings.hops.length > 1 ?
+        timings.hops.map((hop, idx) => <HopTimings key={idx} hop={hop}/>) :
+        null
+
+    return (
+        <div className="http-call-timings">
+            <PhasesTable caption="Timings (ms)" phases={timings.phases}/>
+            {hops}
+        </div>
+    )
+}
+
+function HopTimings({hop}) {
+    const reused = hop.connectionReused ? ' (reused connection)' : ''
+    return <PhasesTable caption={hop.statusCode + ' ' + hop.url + reused} phases={hop.phases}/>
+}
+
+function PhasesTable({caption, phases}) {
+    const rows = Object.keys(phases).map(phase => (
+        <tr key={phase}>
+            <td>{phaseLabels[phase] || phase}</td>
+            <td className="http-call-timings-value">{nanosToMillis(phases[phase])}</td>
+        </tr>
+    ))
+
+    return (
+        <table className="table">
+            <thead>
+            <tr>
+                <th colSpan="2">{caption}</th>
+            </tr>
+            </thead>
+            <tbody>
+            {rows}
+            </tbody>
+        </table>
+    )
+}
+
+function nanosToMillis(nanos) {
+    return (nanos / 1000000).toFixed(3)
+}
+
+export default HttpCallTimings
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import React, {Component} from 'react'
+
+import HttpPayload from './HttpPayload'
+import {loadSidecarBody} from './sidecarBodies'
+
+import './RetainedHttpPayload.css'
+
+/**
+ * payload that was kept for the report according to body retention policy
+ */
+function RetainedHttpPayload({retention, caption, ...props}) {
+    if (!retention) {
+        return <HttpPayload caption={caption} {...props}/>
+    }
+
+    switch (retention.policy) {
+        case 'truncate':
+            return <HttpPayload caption={`${caption} (first ${retention.retainedSize} of ${retention.size} characters)`}
+                                type="text/plain"
+                                data={props.data}/>
+        case 'sidecar':
+            return <SidecarHttpPayload retention={retention} caption={caption} type={props.type} checks={props.checks}/>
+        default:
+            return <NotRetainedPayload caption={caption} text={`body of a passed call is not kept (${retention.size} characters)`}/>
+    }
+}
+
+class SidecarHttpPayload extends Component {
+    state = {}
+
+    componentDidMount() {
+        this.unmounted = false
+        loadSidecarBody(this.props.retention)
+            .then(data => !this.unmounted && this.setState({data}))
+            .catch(error => !this.unmounted && this.setState({error: error.message}))
+    }
+
+    componentWillUnmount() {
+        this.unmounted = true
+    }
+
+    render() {
+        const {caption, type, checks} = this.props
+        const {data, error} = this.state
+
+        if (error) {
+            return <NotRetainedPayload caption={caption} text={error}/>
+        }
+
+        if (data === undefined) {
+            return <NotRetainedPayload caption={caption} text="loading..."/>
+        }
+
+        return <HttpPayload caption={caption} type={type} data={data} checks={checks}/>
+    }
+}
+
+function NotRetainedPayload({caption, text}) {
+    return (
+        <div className="http-payload retained-http-payload">
+            <div className="caption-and-fullscreen">
+                <div className="caption">{caption}</div>
+            </div>
+            <div className="retained-http-payload-message">{text}</div>
+        </div>
+    )
+}
+
+export default RetainedHttpPayload
@@ -18,7 +18,7 @@ import React, {Component} from 'react'
 
 import TestErrorMessage from '../../widgets/TestErrorMessage'
 
-import HttpPayload from './HttpPayload'
+import RetainedHttpPayload from './RetainedHttpPayload'
 import ElapsedTime from '../../widgets/ElapsedTime'
 
 import moment from 'moment'
@@ -85,7 +85,7 @@ class TestHttpCalls extends Component {
                     <td className="status-code" onClick={onClick}>{httpCall.responseStatusCode}</td>
                     <td onClick={onClick}>{moment(startDateTime).local().format('HH:mm:ss.SSS')}</td>
                     <td className="http-call-elapsed-time" onClick={onClick}>
-                        <ElapsedTime millis={httpCall.elapsedTime}/>
+                        <ElapsedTime millis={httpCall.elapsedTime} micros={httpCall.elapsedTimeMicros}/>
                     </td>
                     <td className="url">{httpCall.url}</td>
                 </tr>
@@ -151,36 +151,38 @@ function ErrorMessage({httpCall}) {
 }
 
 function Request({httpCall, reportNavigation}) {
-    if (!httpCall.requestBody) {
+    if (!httpCall.requestBody && !httpCall.requestBodyRetention) {
         return <div/>
     }
 
     return (
         <div className="request">
-            <HttpPayload caption="Request"
-                         type={httpCall.requestType}
-                         data={httpCall.requestBody}
-                         httpCallId={httpCall.id}
-                         payloadType='request'
-                         onZoom={reportNavigation.zoomInHttpPayload}/>
+            <RetainedHttpPayload caption="Request"
+                                 type={httpCall.requestType}
+                                 data={httpCall.requestBody}
+                                 retention={httpCall.requestBodyRetention}
+                                 httpCallId={httpCall.id}
+                                 payloadType='request'
+                                 onZoom={!httpCall.requestBodyRetention && reportNavigation.zoomInHttpPayload}/>
         </div>
     )
 }
 
 function Response({httpCall, reportNavigation}) {
-    if (!httpCall.responseBody) {
+    if (!httpCall.responseBody && !httpCall.responseBodyRetention) {
         return null
     }
 
     return (
         <div className="response">
-            <HttpPayload caption="Response"
-                         type={httpCall.responseType}
-                         data={httpCall.responseBody}
-                         checks={httpCall.responseBodyChecks}
-                         httpCallId={httpCall.id}
-                         payloadType='response'
-                         onZoom={reportNavigation.zoomInHttpPayload}/>
+            <RetainedHttpPayload caption="Response"
+                                 type={httpCall.responseType}
+                                 data={httpCall.responseBody}
+                                 retention={httpCall.responseBodyRetention}
+                                 checks={httpCall.responseBodyChecks}
+                                 httpCallId={httpCall.id}
+                                 payloadType='response'
+                                 onZoom={!httpCall.responseBodyRetention && reportNavigation.zoomInHttpPayload}/>
         </div>
     )
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+const loadedBodies = {}
+const pendingLoads = {}
+
+window.webtauSidecarBodyLoaded = (hash, content) => {
+    loadedBodies[hash] = content
+
+    const pending = pendingLoads[hash] || []
+    delete pendingLoads[hash]
+    pending.forEach(({resolve}) => resolve(content))
+}
+
+/**
+ * loads body stored next to the report. Bodies are stored as scripts, so loading works when the report is opened
+ * from a file system.
+ * @param retention body retention info with hash and file
+ * @returns {Promise<string>} body content
+ */
+export function loadSidecarBody(retention) {
+    const {hash, file} = retention
+    if (loadedBodies.hasOwnProperty(hash)) {
+        return Promise.resolve(loadedBodies[hash])
+    }
+
+    return new Promise((resolve, reject) => {
+        const isLoading = pendingLoads.hasOwnProperty(hash)
+        pendingLoads[hash] = [...(pendingLoads[hash] || []), {resolve, reject}]
+
+        if (isLoading) {
+            return
+        }
+
+        const script = document.createElement('script')
+        script.src = file
+        script.onerror = () => {
+            const pending = pendingLoads[hash] || []
+            delete pendingLoads[hash]
+            pending.forEach(({reject}) => reject(new Error('can\'t load ' + file)))
+        }
+
+        document.body.appendChild(script)
+    })
+}
@@ -40,7 +40,7 @@ export class Step extends React.Component {
                 <div className="message-parts">
                     <StepMessage message={step.message}/>
                     {this.renderMoreToggle()}
-                    <StepTime millis={step.elapsedTime}/>
+                    <StepTime millis={step.elapsedTime} micros={step.elapsedTimeMicros}/>
                 </div>
 
                 {children && !collapsed && <div className="steps-children">{children}</div>}
@@ -20,10 +20,10 @@ import ElapsedTime from '../../widgets/ElapsedTime'
 
 import './StepTime.css'
 
-export function StepTime({millis}) {
+export function StepTime({millis, micros}) {
     return (
         <div className="step-time">
-            <ElapsedTime millis={millis}/>
+            <ElapsedTime millis={millis} micros={micros}/>
         </div>
     )
 }
\ No newline at end of file
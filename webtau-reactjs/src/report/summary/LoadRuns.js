@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import React from 'react'
+import {scaleLinear} from 'd3-scale'
+
+import Card from '../widgets/Card'
+import SortableTable from '../widgets/SortableTable'
+
+import './LoadRuns.css'
+
+const chartWidth = 800
+const chartHeight = 200
+const percentileKeys = ['50', '90', '99', '99.9']
+const percentileColors = {'50': '#5b8ff9', '90': '#61d9a5', '99': '#f6bd16', '99.9': '#e8684a'}
+
+export default function LoadRuns({report}) {
+    return (
+        <div className="load-runs">
+            {report.loadRuns.map((run, idx) => <LoadRun key={idx} run={run}/>)}
+        </div>
+    )
+}
+
+function LoadRun({run}) {
+    return (
+        <Card className="load-run">
+            <div className="load-run-title">{run.name}</div>
+            <div className="load-run-profile">
+                {profileDescription(run.profile)}, {run.iterations.completed} iterations
+                {run.maxBacklog > 0 ? `, max backlog ${run.maxBacklog}` : ''}
+                {run.drainTimedOut ? ', drain timed out' : ''}
+            </div>
+
+            <SortableTable className="load-run-operations" header={operationsHeader()} data={operationsData(run)}/>
+
+            {run.operations.map(operation => <LoadOperationTimeline key={operation.name} operation={operation}/>)}
+        </Card>
+    )
+}
+
+function LoadOperationTimeline({operation}) {
+    const timeline = operation.timeline
+    if (timeline.length === 0) {
+        return null
+    }
+
+    const maxLatency = Math.max(...timeline.map(w => w.percentiles['99.9']), 1)
+    const timeAxis = scaleLinear().domain([0, Math.max(timeline.length - 1, 1)]).range([0, chartWidth])
+    const latencyAxis = scaleLinear().domain([0, maxLatency]).range([chartHeight, 0])
+
+    return (
+        <div className="load-operation-timeline">
+            <div className="load-operation-name">{operation.name}</div>
+
+            <svg width={chartWidth} height={chartHeight}>
+                {percentileKeys.map(key => <polyline key={key}
+                                                     fill="none"
+                                                     stroke={percentileColors[key]}
+                                                     strokeWidth={2}
+                                                     points={timeline.map((w, idx) =>
+                                                         timeAxis(idx) + ',' + latencyAxis(w.percentiles[key])).join(' ')}/>)}
+            </svg>
+
+            <div className="load-operation-legend">
+                {percentileKeys.map(key => <span key={key} style={{color: percentileColors[key]}}>p{key} </span>)}
+                <span>max {round(maxLatency)}ms</span>
+            </div>
+
+            <SortableTable className="load-operation-windows" header={timelineHeader()} data={timelineData(timeline)}/>
+        </div>
+    )
+}
+
+function profileDescription(profile) {
+    if (profile.type === 'constantArrivalRate') {
+        return `${profile.iterationsPerSecond}/s for ${profile.durationMillis}ms`
+    }
+
+    return `ramping virtual users for ${profile.durationMillis}ms`
+}
+
+function operationsHeader() {
+    return [
+        'Operation',
+        'Count',
+        'Errors',
+        'Error Rate',
+        'Throughput',
+        'p50',
+        'p90',
+        'p99',
+        'p99.9',
+        'Max'
+    ]
+}
+
+function operationsData(run) {
+    return run.operations.map(o => [
+        o.name,
+        o.count,
+        o.errors,
+        percent(o.errorRate),
+        round(o.throughput),
+        ...percentileKeys.map(key => o.percentiles[key]),
+        o.maxMillis])
+}
+
+function timelineHeader() {
+    return [
+        'Start (ms)',
+        'Count',
+        'Errors',
+        'Throughput',
+        'p50',
+        'p90',
+        'p99',
+        'p99.9',
+        'Max'
+    ]
+}
+
+function timelineData(timeline) {
+    return timeline.map(w => [
+        w.startMillis,
+        w.count,
+        w.errors,
+        round(w.throughput),
+        ...percentileKeys.map(key => w.percentiles[key]),
+        w.maxMillis])
+}
+
+function percent(rate) {
+    return round(rate * 100) + '%'
+}
+
+function round(value) {
+    return Math.round(value * 100) / 100
+}
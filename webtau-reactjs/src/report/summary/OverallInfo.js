@@ -16,6 +16,7 @@
 
 import React from 'react'
 
+import HttpCallsCache from './overal-info/HttpCallsCache'
 import HttpCallsTiming from './overal-info/HttpCallsTiming'
 import HttpOperationCoverageSummary from './overal-info/HttpOperationCoverageSummary'
 import TestsOverallTiming from './overal-info/TestsOverallTiming'
@@ -30,6 +31,7 @@ export default function OverallInfo({report, onSwitchToHttpCalls, onSwitchToSkip
             <TestsOverallTiming report={report}/>
             <TestsSuccessRatio report={report}/>
             <HttpCallsTiming report={report} onSwitchToHttpCalls={onSwitchToHttpCalls}/>
+            <HttpCallsCache report={report}/>
             <HttpOperationCoverageSummary report={report} onSwitchToSkippedHttpCalls={onSwitchToSkippedHttpCalls}/>
         </div>
     )
@@ -23,6 +23,7 @@ import OverallInfo from './OverallInfo'
 import OverallPerformance from './OverallPerformance'
 
 import OperationsPerformanceTable from './OperationsPerformanceTable'
+import LoadRuns from './LoadRuns'
 
 import './OverallSummary.css'
 
@@ -30,6 +31,7 @@ const summaryTabName = 'Summary'
 const configurationTabName = 'Configuration'
 const overallHttpPerformanceTabName = 'Overall HTTP Performance'
 const httpOperationsPerformanceTabName = 'HTTP Operations Performance'
+const loadTabName = 'Load'
 
 export default class OverallSummary extends React.Component {
     constructor(props) {
@@ -70,6 +72,8 @@ export default class OverallSummary extends React.Component {
 
             case httpOperationsPerformanceTabName: return <OperationsPerformanceTable report={report}/>
 
+            case loadTabName: return <LoadRuns report={report}/>
+
             default:
                 return null
         }
@@ -83,6 +87,10 @@ function availableTabNames(report) {
         tabNames.push(httpOperationsPerformanceTabName)
     }
 
+    if (report.hasLoadRuns()) {
+        tabNames.push(loadTabName)
+    }
+
     return tabNames
 }
 
@@ -20,7 +20,11 @@ import ElapsedTimeFragment from './ElapsedTimeFragment'
 
 import './ElapsedTime.css'
 
-function ElapsedTime({millis}) {
+function ElapsedTime({millis, micros}) {
+    if (micros !== undefined && micros < 1000) {
+        return <ElapsedTimeFragment value={micros} label="µs"/>
+    }
+
     const seconds = (millis / 1000) | 0
     const remainingMs = millis % 1000
 
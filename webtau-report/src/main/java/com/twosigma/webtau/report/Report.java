@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 
 public class Report {
     private long startTime;
+    private long startNanos;
     private long stopTime;
     private ReportTestEntries testEntries;
 
@@ -38,10 +39,12 @@ public class Report {
 
     public void startTimer() {
         startTime = Time.currentTimeMillis();
+        startNanos = Time.nanoTime();
     }
 
+    // stop time is derived from the monotonic clock, so wall clock adjustments during a run don't affect duration
     public void stopTimer() {
-        stopTime = Time.currentTimeMillis();
+        stopTime = startTime + Time.microsSince(startNanos) / 1000;
     }
 
     public void addTestEntry(ReportTestEntry entry) {
@@ -16,6 +16,7 @@
 
 package com.twosigma.webtau.report;
 
+import com.twosigma.webtau.console.ConsoleOutputs;
 import com.twosigma.webtau.utils.ServiceLoaderUtils;
 
 import java.util.List;
@@ -25,6 +26,7 @@ public class ReportGenerators {
     private static final List<ReportGenerator> generators = ServiceLoaderUtils.load(ReportGenerator.class);
 
     public static void generate(Report report) {
+        ConsoleOutputs.flush();
         generators.forEach(g -> g.generate(report));
     }
 
@@ -27,6 +27,7 @@ import com.twosigma.webtau.utils.FileUtils;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,18 +59,19 @@ public class ReportTestEntry {
     private Path workingDir;
 
     private long startTime;
-    private long elapsedTime;
+    private long startNanos;
+    private long elapsedTimeMicros;
 
     public ReportTestEntry(Path workingDir) {
         this.workingDir = workingDir;
         payloads = new ArrayList<>();
-        steps = new ArrayList<>();
+        steps = Collections.synchronizedList(new ArrayList<>());
     }
 
     public void clear() {
         isRan = false;
         startTime = 0;
-        elapsedTime = 0;
+        elapsedTimeMicros = 0;
 
         exception = null;
 
@@ -147,15 +149,16 @@ public class ReportTestEntry {
     }
 
     public void setElapsedTime(long elapsedTime) {
-        this.elapsedTime = elapsedTime;
+        this.elapsedTimeMicros = elapsedTime * 1000;
     }
 
     public void startClock() {
         startTime = Time.currentTimeMillis();
+        startNanos = Time.nanoTime();
     }
 
     public void stopClock() {
-        elapsedTime = Time.currentTimeMillis() - startTime;
+        elapsedTimeMicros = Time.microsSince(startNanos);
     }
 
     public long getStartTime() {
@@ -163,7 +166,11 @@ public class ReportTestEntry {
     }
 
     public long getElapsedTime() {
-        return elapsedTime;
+        return elapsedTimeMicros / 1000;
+    }
+
+    public long getElapsedTimeMicros() {
+        return elapsedTimeMicros;
     }
 
     public String getAssertionMessage() {
@@ -225,7 +232,8 @@ public class ReportTestEntry {
         result.put("scenario", scenario);
         result.put("status", getTestStatus().toString());
         result.put("startTime", startTime);
-        result.put("elapsedTime", elapsedTime);
+        result.put("elapsedTime", getElapsedTime());
+        result.put("elapsedTimeMicros", elapsedTimeMicros);
 
         if (filePath !=null) {
             result.put("fileName", filePath.toString());
@@ -39,6 +39,7 @@ class StandaloneTestTest {
                                                         shortContainerId: 'test.groovy',
                                                         startTime: 12345678,
                                                         elapsedTime: 100,
+                                                        elapsedTimeMicros: 100000,
                                                         status: 'Skipped',
                                                         disabled: false,
                                                         screenshot: 'base64', steps: ['step1', 'step2']])
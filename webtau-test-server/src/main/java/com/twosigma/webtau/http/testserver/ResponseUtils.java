@@ -4,11 +4,28 @@ import org.apache.commons.io.IOUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class ResponseUtils {
+    static final String PATH_PARAMS_ATTRIBUTE = "webtau.pathParams";
+
+    /**
+     * @param request request matched by a route with a path template, e.g. <code>/customers/{id}</code>
+     * @return path parameter values by name
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, String> pathParams(HttpServletRequest request) {
+        Map<String, String> params = (Map<String, String>) request.getAttribute(PATH_PARAMS_ATTRIBUTE);
+        return params != null ? params : Collections.emptyMap();
+    }
+
+    public static String pathParam(HttpServletRequest request, String name) {
+        return pathParams(request).get(name);
+    }
+
     public static Map<String, String> echoHeaders(HttpServletRequest request) {
         Map<String, String> header = new LinkedHashMap<>();
 
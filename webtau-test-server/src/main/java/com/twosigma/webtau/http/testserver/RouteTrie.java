@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+import org.eclipse.jetty.util.URIUtil;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Path templates organized by segments. Supported segments:
+ * literal (<code>customers</code>), parameter (<code>{id}</code>), single segment wildcard (<code>*</code>)
+ * and the rest of the path (<code>**</code>, last segment only).
+ * When several templates match, literal segments win over parameters, parameters over wildcards.
+ * @param <V> value associated with a template
+ */
+class RouteTrie<V> {
+    private final Node<V> root = new Node<>();
+
+    synchronized void add(String pathTemplate, V value) {
+        String[] segments = split(pathTemplate);
+
+        Node<V> node = root;
+        for (int idx = 0; idx < segments.length; idx++) {
+            String segment = segments[idx];
+
+            if (segment.equals("**")) {
+                if (idx != segments.length - 1) {
+                    throw new IllegalArgumentException("** must be the last segment: " + pathTemplate);
+                }
+
+                node = node.rest != null ? node.rest : (node.rest = new Node<>());
+            } else if (segment.equals("*")) {
+                node = node.wildcard != null ? node.wildcard : (node.wildcard = new Node<>());
+            } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                String name = segment.substring(1, segment.length() - 1);
+                if (node.param != null && !node.paramName.equals(name)) {
+                    throw new IllegalArgumentException("conflicting path parameter names {" + node.paramName +
+                            "} and {" + name + "} in " + pathTemplate);
+                }
+
+                if (node.param == null) {
+                    node.paramName = name;
+                    node.param = new Node<>();
+                }
+
+                node = node.param;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+            }
+        }
+
+        node.value = value;
+        node.template = pathTemplate;
+    }
+
+    /**
+     * @param path request path without query, as received (percent-encoded)
+     * @return match or null if no template matches the path
+     */
+    RouteMatch<V> find(String path) {
+        String[] segments = decode(split(path));
+        Map<String, String> params = new LinkedHashMap<>();
+
+        Node<V> found = find(root, segments, 0, params);
+        if (found == null) {
+            return null;
+        }
+
+        return new RouteMatch<>(found.template, found.value,
+                params.isEmpty() ? Collections.emptyMap() : params);
+    }
+
+    private Node<V> find(Node<V> node, String[] segments, int idx, Map<String, String> params) {
+        if (idx == segments.length) {
+            if (node.value != null) {
+                return node;
+            }
+
+            return node.rest != null && node.rest.value != null ? node.rest : null;
+        }
+
+        String segment = segments[idx];
+
+        Node<V> literal = node.literals.get(segment);
+        if (literal != null) {
+            Node<V> found = find(literal, segments, idx + 1, params);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        if (node.param != null) {
+            params.put(node.paramName, segment);
+            Node<V> found = find(node.param, segments, idx + 1, params);
+            if (found != null) {
+                return found;
+            }
+
+            params.remove(node.paramName);
+        }
+
+        if (node.wildcard != null) {
+            Node<V> found = find(node.wildcard, segments, idx + 1, params);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        return node.rest != null && node.rest.value != null ? node.rest : null;
+    }
+
+    private static String[] split(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/", -1);
+    }
+
+    // segments are decoded after split, so an encoded slash (%2F) stays within its segment
+    private static String[] decode(String[] segments) {
+        for (int idx = 0; idx < segments.length; idx++) {
+            if (segments[idx].indexOf('%') != -1) {
+                segments[idx] = URIUtil.decodePath(segments[idx]);
+            }
+        }
+
+        return segments;
+    }
+
+    private static class Node<V> {
+        // routes can be registered while server is running
+        private final Map<String, Node<V>> literals = new ConcurrentHashMap<>();
+        private volatile Node<V> param;
+        private volatile String paramName;
+        private volatile Node<V> wildcard;
+        private volatile Node<V> rest;
+
+        private volatile V value;
+        private volatile String template;
+    }
+
+    static class RouteMatch<V> {
+        private final String template;
+        private final V value;
+        private final Map<String, String> pathParams;
+
+        RouteMatch(String template, V value, Map<String, String> pathParams) {
+            this.template = template;
+            this.value = value;
+            this.pathParams = pathParams;
+        }
+
+        String getTemplate() {
+            return template;
+        }
+
+        V getValue() {
+            return value;
+        }
+
+        Map<String, String> getPathParams() {
+            return pathParams;
+        }
+    }
+}
@@ -16,41 +16,87 @@
 
 package com.twosigma.webtau.http.testserver;
 
+import com.twosigma.webtau.http.testserver.journal.TestServerJournal;
+import com.twosigma.webtau.http.testserver.journal.TestServerJournalRequest;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.HttpOutput;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.handler.AbstractHandler;
 import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.util.log.Log;
+import org.eclipse.jetty.util.log.Logger;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.MultipartConfigElement;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URI;
-import java.util.Collections;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Local HTTP server to stand in for real services.
+ * Routes are registered per HTTP method either with an exact url that includes a query,
+ * or with a path template like <code>/customers/{id}/orders/*</code> (see {@link RouteTrie}).
+ * Path templates match only requests without a query, same as exact urls without a query did.
+ * Path parameters are available through {@link ResponseUtils#pathParams}.
+ * Every received request is recorded in a {@link TestServerJournal}.
+ */
 public class TestServer {
-    private Map<String, TestServerResponse> getResponses;
-    private Map<String, TestServerResponse> postResponses;
-    private Map<String, TestServerResponse> putResponses;
-    private Map<String, TestServerResponse> deleteResponses;
+    private static final int DELAY_THREADS = 4;
+    private static final Logger LOG = Log.getLogger(TestServer.class);
+
+    private final Map<String, Map<String, Route>> exactRoutes;
+    private final Map<String, RouteTrie<Route>> templateRoutes;
+    private final TestServerMetrics metrics;
+    private final TestServerJournal journal;
+    private ScheduledExecutorService delayScheduler;
     private Server server;
 
     public TestServer() {
-        getResponses = new HashMap<>();
-        postResponses = new HashMap<>();
-        putResponses = new HashMap<>();
-        deleteResponses = new HashMap<>();
+        this(TestServerJournal.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param journalCapacity max number of requests to keep in the journal
+     */
+    public TestServer(int journalCapacity) {
+        exactRoutes = new ConcurrentHashMap<>();
+        templateRoutes = new ConcurrentHashMap<>();
+        metrics = new TestServerMetrics();
+        journal = new TestServerJournal(journalCapacity);
     }
 
     public void startRandomPort() {
         start(0);
     }
 
+    /**
+     * starts server that accepts both HTTP/1.1 and cleartext HTTP/2 (h2c) connections on the same port.
+     * h2c is negotiated either with HTTP/1.1 upgrade or with HTTP/2 connection preface (prior knowledge)
+     * @param port port to listen to, 0 to pick a random one
+     */
     public void start(int port) {
-        server = new Server(port);
+        server = new Server();
+        delayScheduler = createDelayScheduler("webtau-test-server-delay");
+
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        ServerConnector connector = new ServerConnector(server,
+                new HttpConnectionFactory(httpConfig),
+                new HTTP2CServerConnectionFactory(httpConfig));
+        connector.setPort(port);
+        server.addConnector(connector);
 
         GzipHandler gzipHandler = new GzipHandler();
         gzipHandler.setHandler(new RequestHandler());
@@ -68,6 +114,8 @@ public class TestServer {
             server.stop();
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            delayScheduler.shutdownNow();
         }
     }
 
@@ -75,64 +123,186 @@ public class TestServer {
         return server.getURI();
     }
 
+    /**
+     * @param threadName name of scheduler threads
+     * @return scheduler to send delayed responses with, its threads don't keep JVM running
+     */
+    static ScheduledExecutorService createDelayScheduler(String threadName) {
+        return Executors.newScheduledThreadPool(DELAY_THREADS, r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    public TestServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public TestServerJournal getJournal() {
+        return journal;
+    }
+
     public void registerGet(String relativeUrl, TestServerResponse response) {
-        getResponses.put(relativeUrl, response);
+        register("GET", relativeUrl, response, TestServerLatency.NONE);
     }
 
     public void registerPost(String relativeUrl, TestServerResponse response) {
-        postResponses.put(relativeUrl, response);
+        register("POST", relativeUrl, response, TestServerLatency.NONE);
     }
 
     public void registerPut(String relativeUrl, TestServerResponse response) {
-        putResponses.put(relativeUrl, response);
+        register("PUT", relativeUrl, response, TestServerLatency.NONE);
     }
 
     public void registerDelete(String relativeUrl, TestServerResponse response) {
-        deleteResponses.put(relativeUrl, response);
+        register("DELETE", relativeUrl, response, TestServerLatency.NONE);
+    }
+
+    /**
+     * @param method HTTP method
+     * @param relativeUrl exact url with a query or a path template
+     * @param response response to send
+     * @param latency delay to add before the response is sent
+     */
+    public void register(String method, String relativeUrl, TestServerResponse response, TestServerLatency latency) {
+        Route route = new Route(response, latency, metrics.route(method, relativeUrl));
+
+        if (relativeUrl.contains("?")) {
+            exactRoutes.computeIfAbsent(method, m -> new ConcurrentHashMap<>()).put(relativeUrl, route);
+        } else {
+            templateRoutes.computeIfAbsent(method, m -> new RouteTrie<>()).add(relativeUrl, route);
+        }
+    }
+
+    private Route findRoute(HttpServletRequest request, String originalUri) {
+        Map<String, Route> exact = exactRoutes.get(request.getMethod());
+        Route route = exact != null ? exact.get(originalUri) : null;
+        if (route != null) {
+            return route;
+        }
+
+        // as before templates were introduced, routes without a query only match requests without a query
+        RouteTrie<Route> trie = templateRoutes.get(request.getMethod());
+        if (trie == null || request.getQueryString() != null) {
+            return null;
+        }
+
+        RouteTrie.RouteMatch<Route> match = trie.find(request.getRequestURI());
+        if (match == null) {
+            return null;
+        }
+
+        request.setAttribute(ResponseUtils.PATH_PARAMS_ATTRIBUTE, match.getPathParams());
+        return match.getValue();
     }
 
     private class RequestHandler extends AbstractHandler {
         @Override
-        public void handle(String url, Request baseRequest, HttpServletRequest request,
+        public void handle(String url, Request baseRequest, HttpServletRequest originalRequest,
                            HttpServletResponse response) throws IOException, ServletException {
-
-            Map<String, TestServerResponse> responses = findResponses(request);
+            long startTime = System.nanoTime();
 
             MultipartConfigElement multipartConfigElement = new MultipartConfigElement((String) null);
-            request.setAttribute(Request.__MULTIPART_CONFIG_ELEMENT, multipartConfigElement);
+            originalRequest.setAttribute(Request.__MULTIPART_CONFIG_ELEMENT, multipartConfigElement);
 
-            TestServerResponse testServerResponse = responses.get(baseRequest.getOriginalURI());
-            if (testServerResponse == null) {
+            TestServerJournalRequest request = new TestServerJournalRequest(originalRequest, journal);
+
+            Route route = findRoute(request, baseRequest.getOriginalURI());
+            if (route == null) {
                 response.setStatus(404);
+                metrics.recordUnmatched();
+                request.complete(404);
             } else {
-                testServerResponse.responseHeader(request).forEach(response::addHeader);
+                long delay = route.latency.nextDelayMillis();
+                if (delay <= 0) {
+                    respondAndRecord(route, request, response, startTime);
+                } else {
+                    respondWithDelay(route, request, delay, startTime);
+                }
+            }
+
+            baseRequest.setHandled(true);
+        }
+
+        // server thread is released while waiting, so slow routes don't limit throughput of the server
+        private void respondWithDelay(Route route, TestServerJournalRequest request, long delay, long startTime) {
+            AsyncContext async = request.startAsync();
+            async.setTimeout(0);
+
+            delayScheduler.schedule(() -> {
+                HttpServletResponse response = (HttpServletResponse) async.getResponse();
+                try {
+                    respondAndRecord(route, request, response, startTime);
+                } catch (Exception e) {
+                    // there is no server thread to propagate to, so report it the way Jetty reports handler failures
+                    LOG.warn("failed to respond to " + request.getMethod() + " " + request.getRequestURI(), e);
+                    if (!response.isCommitted()) {
+                        response.setStatus(500);
+                    }
+                } finally {
+                    async.complete();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        // metrics and journal entry are recorded even if a response fails, failure is recorded as 500
+        private void respondAndRecord(Route route, TestServerJournalRequest request, HttpServletResponse response,
+                                      long startTime) throws IOException, ServletException {
+            int status = 500;
+            try {
+                respond(route, request, response);
+                status = response.getStatus();
+            } finally {
+                route.metrics.record(status, System.nanoTime() - startTime);
+                request.complete(status);
+            }
+        }
+
+        private void respond(Route route, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException, ServletException {
+            TestServerResponse testServerResponse = route.response;
+            testServerResponse.responseHeader(request).forEach(response::addHeader);
 
-                byte[] responseBody = testServerResponse.responseBody(request);
+            if (testServerResponse instanceof TestServerFileResponse) {
                 response.setStatus(testServerResponse.responseStatusCode());
                 response.setContentType(testServerResponse.responseType(request));
+                sendBuffer(response, ((TestServerFileResponse) testServerResponse).responseBuffer());
 
-                if (responseBody != null) {
-                    response.getOutputStream().write(responseBody);
-                }
+                return;
             }
 
-            baseRequest.setHandled(true);
-        }
+            byte[] responseBody = testServerResponse.responseBody(request);
+            response.setStatus(testServerResponse.responseStatusCode());
+            response.setContentType(testServerResponse.responseType(request));
 
-        private Map<String, TestServerResponse> findResponses(HttpServletRequest request) {
-            switch (request.getMethod()) {
-                case "GET":
-                    return getResponses;
-                case "POST":
-                    return postResponses;
-                case "PUT":
-                    return putResponses;
-                case "DELETE":
-                    return deleteResponses;
-                default:
-                    return Collections.emptyMap();
+            if (responseBody != null) {
+                response.getOutputStream().write(responseBody);
+            }
+        }
 
+        private void sendBuffer(HttpServletResponse response, ByteBuffer buffer) throws IOException {
+            ServletOutputStream out = response.getOutputStream();
+            if (out instanceof HttpOutput) {
+                ((HttpOutput) out).sendContent(buffer);
+            } else {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                out.write(bytes);
             }
         }
     }
+
+    private static class Route {
+        private final TestServerResponse response;
+        private final TestServerLatency latency;
+        private final TestServerRouteMetrics metrics;
+
+        Route(TestServerResponse response, TestServerLatency latency, TestServerRouteMetrics metrics) {
+            this.response = response;
+            this.latency = latency;
+            this.metrics = metrics;
+        }
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+/**
+ * Fault {@link TestServerFaultProxy} can inject into a proxied call
+ */
+public class TestServerFault {
+    enum Type {
+        DELAY,
+        THROTTLE,
+        DROP_CONNECTION,
+        TRUNCATE_BODY,
+        ERROR_BURST
+    }
+
+    private final Type type;
+    private final TestServerLatency latency;
+    private final long amount;
+    private final int statusCode;
+
+    private TestServerFault(Type type, TestServerLatency latency, long amount, int statusCode) {
+        this.type = type;
+        this.latency = latency;
+        this.amount = amount;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @param latency delay before the call is forwarded upstream
+     * @return delay fault
+     */
+    public static TestServerFault delay(TestServerLatency latency) {
+        return new TestServerFault(Type.DELAY, latency, 0, 0);
+    }
+
+    /**
+     * @param bytesPerSecond max speed at which the response body is sent back
+     * @return bandwidth throttling fault
+     */
+    public static TestServerFault throttle(long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("bytesPerSecond must be positive: " + bytesPerSecond);
+        }
+
+        return new TestServerFault(Type.THROTTLE, TestServerLatency.NONE, bytesPerSecond, 0);
+    }
+
+    /**
+     * @return fault that closes connection without sending a response
+     */
+    public static TestServerFault dropConnection() {
+        return new TestServerFault(Type.DROP_CONNECTION, TestServerLatency.NONE, 0, 0);
+    }
+
+    /**
+     * response is sent with the original content length, and the connection is closed after <code>maxBytes</code>
+     * @param maxBytes number of body bytes to send
+     * @return truncated body fault
+     */
+    public static TestServerFault truncateBody(long maxBytes) {
+        return new TestServerFault(Type.TRUNCATE_BODY, TestServerLatency.NONE, maxBytes, 0);
+    }
+
+    /**
+     * once triggered, the next <code>length</code> matching calls (including this one)
+     * get <code>statusCode</code> without reaching upstream
+     * @param statusCode status to respond with, e.g. 503
+     * @param length number of calls in a burst
+     * @return error burst fault
+     */
+    public static TestServerFault errorBurst(int statusCode, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("burst length must be positive: " + length);
+        }
+
+        return new TestServerFault(Type.ERROR_BURST, TestServerLatency.NONE, length, statusCode);
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    TestServerLatency getLatency() {
+        return latency;
+    }
+
+    long getAmount() {
+        return amount;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case DELAY:
+                return "delay";
+            case THROTTLE:
+                return "throttle " + amount + "B/s";
+            case DROP_CONNECTION:
+                return "drop connection";
+            case TRUNCATE_BODY:
+                return "truncate body to " + amount + "B";
+            case ERROR_BURST:
+                return "error " + statusCode;
+            default:
+                return type.name();
+        }
+    }
+}
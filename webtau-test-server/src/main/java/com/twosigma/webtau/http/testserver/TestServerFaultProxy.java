@@ -0,0 +1,561 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.InputStreamContentProvider;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.Callback;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP proxy in front of a real service or a {@link TestServer} that injects faults into calls:
+ * delays, bandwidth throttling, dropped connections, truncated bodies and bursts of errors.
+ * Faults are registered per path template (see {@link RouteTrie}) with a probability.
+ * Injected faults are listed in the {@link #INJECTED_FAULT_HEADER} response header, unless the connection is dropped.
+ * Request and response bodies are streamed as they arrive, and neither server nor client threads are held
+ * during delays, between throttled chunks or while a slow client reads a response.
+ */
+public class TestServerFaultProxy {
+    public static final String INJECTED_FAULT_HEADER = "X-Webtau-Injected-Fault";
+
+    private static final int THROTTLE_CHUNKS_PER_SECOND = 10;
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = caseInsensitiveSet(
+            "Connection", "Keep-Alive", "Proxy-Connection", "Transfer-Encoding", "TE", "Trailer",
+            "Upgrade", "HTTP2-Settings", "Host", "Content-Length");
+
+    private final String upstreamUrl;
+    private final TestServer upstreamServer;
+    // guarded by this, so a rule can't be added to a trie that clearFaults has just replaced
+    private final Map<String, List<TestServerFaultRule>> rulesByTemplate;
+    private volatile RouteTrie<List<TestServerFaultRule>> rules;
+
+    private HttpClient httpClient;
+    private ScheduledExecutorService delayScheduler;
+    private Server server;
+
+    /**
+     * @param upstreamUrl base url of a service to forward calls to, e.g. <code>http://localhost:8080</code>
+     */
+    public TestServerFaultProxy(String upstreamUrl) {
+        this(upstreamUrl, null);
+    }
+
+    /**
+     * @param upstreamServer test server to forward calls to, it doesn't need to be started yet
+     */
+    public TestServerFaultProxy(TestServer upstreamServer) {
+        this(null, upstreamServer);
+    }
+
+    private TestServerFaultProxy(String upstreamUrl, TestServer upstreamServer) {
+        this.upstreamUrl = upstreamUrl;
+        this.upstreamServer = upstreamServer;
+        this.rulesByTemplate = new HashMap<>();
+        this.rules = new RouteTrie<>();
+    }
+
+    public void startRandomPort() {
+        start(0);
+    }
+
+    public void start(int port) {
+        httpClient = new HttpClient();
+        httpClient.setFollowRedirects(false);
+        // responses are passed through as is, including compressed ones
+        httpClient.getContentDecoderFactories().clear();
+
+        delayScheduler = TestServer.createDelayScheduler("webtau-fault-proxy-delay");
+
+        server = new Server();
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        ServerConnector connector = new ServerConnector(server,
+                new HttpConnectionFactory(httpConfig),
+                new HTTP2CServerConnectionFactory(httpConfig));
+        connector.setPort(port);
+        server.addConnector(connector);
+        server.setHandler(new ProxyHandler());
+
+        try {
+            httpClient.start();
+            server.start();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void stop() {
+        try {
+            server.stop();
+            httpClient.stop();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            delayScheduler.shutdownNow();
+        }
+    }
+
+    public URI getUri() {
+        return server.getURI();
+    }
+
+    /**
+     * @param pathTemplate path template, e.g. <code>/orders/**</code>
+     * @param fault fault to inject into every matching call
+     * @return registered rule
+     */
+    public TestServerFaultRule inject(String pathTemplate, TestServerFault fault) {
+        return inject(pathTemplate, fault, 1.0);
+    }
+
+    /**
+     * several faults can be registered for the same template, each is triggered independently
+     * @param pathTemplate path template, e.g. <code>/orders/**</code>
+     * @param fault fault to inject
+     * @param probability chance of a matching call to get the fault, from 0 to 1
+     * @return registered rule
+     */
+    public synchronized TestServerFaultRule inject(String pathTemplate, TestServerFault fault, double probability) {
+        TestServerFaultRule rule = new TestServerFaultRule(pathTemplate, fault, probability);
+        rulesByTemplate.computeIfAbsent(pathTemplate, template -> {
+            List<TestServerFaultRule> templateRules = new CopyOnWriteArrayList<>();
+            rules.add(template, templateRules);
+
+            return templateRules;
+        }).add(rule);
+
+        return rule;
+    }
+
+    /**
+     * removes all the registered faults, calls are forwarded as is afterwards
+     */
+    public synchronized void clearFaults() {
+        rules = new RouteTrie<>();
+        rulesByTemplate.clear();
+    }
+
+    private List<TestServerFault> triggerFaults(String path) {
+        RouteTrie.RouteMatch<List<TestServerFaultRule>> match = rules.find(path);
+        if (match == null) {
+            return Collections.emptyList();
+        }
+
+        List<TestServerFault> triggered = new ArrayList<>();
+        for (TestServerFaultRule rule : match.getValue()) {
+            if (rule.trigger()) {
+                triggered.add(rule.getFault());
+            }
+        }
+
+        return triggered;
+    }
+
+    private String upstreamBaseUrl() {
+        String base = upstreamServer != null ? upstreamServer.getUri().toString() : upstreamUrl;
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    private class ProxyHandler extends AbstractHandler {
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+            baseRequest.setHandled(true);
+
+            List<TestServerFault> faults = triggerFaults(request.getRequestURI());
+            List<String> descriptions = new ArrayList<>();
+
+            TestServerFault errorBurst = null;
+            boolean dropConnection = false;
+            long delay = 0;
+            long bytesPerSecond = 0;
+            long truncateTo = -1;
+
+            for (TestServerFault fault : faults) {
+                switch (fault.getType()) {
+                    case DELAY:
+                        long faultDelay = fault.getLatency().nextDelayMillis();
+                        delay += Math.max(0, faultDelay);
+                        descriptions.add("delay " + faultDelay + "ms");
+                        break;
+                    case THROTTLE:
+                        bytesPerSecond = bytesPerSecond == 0 ?
+                                fault.getAmount() :
+                                Math.min(bytesPerSecond, fault.getAmount());
+                        descriptions.add(fault.toString());
+                        break;
+                    case DROP_CONNECTION:
+                        dropConnection = true;
+                        break;
+                    case TRUNCATE_BODY:
+                        truncateTo = truncateTo == -1 ?
+                                fault.getAmount() :
+                                Math.min(truncateTo, fault.getAmount());
+                        descriptions.add(fault.toString());
+                        break;
+                    case ERROR_BURST:
+                        errorBurst = fault;
+                        descriptions.add(fault.toString());
+                        break;
+                }
+            }
+
+            if (dropConnection) {
+                baseRequest.getHttpChannel().abort(new IOException("connection dropped by fault injection"));
+                return;
+            }
+
+            if (errorBurst != null) {
+                response.setStatus(errorBurst.getStatusCode());
+                response.setHeader(INJECTED_FAULT_HEADER, String.join(", ", descriptions));
+                return;
+            }
+
+            org.eclipse.jetty.client.api.Request upstreamRequest = upstreamRequest(request);
+
+            // server thread is released while waiting, so delayed and throttled calls don't limit the proxy throughput
+            AsyncContext async = request.startAsync();
+            async.setTimeout(0);
+
+            UpstreamResponseListener listener = new UpstreamResponseListener(async, baseRequest,
+                    descriptions, bytesPerSecond, truncateTo);
+            if (delay > 0) {
+                delayScheduler.schedule(() -> upstreamRequest.send(listener), delay, TimeUnit.MILLISECONDS);
+            } else {
+                upstreamRequest.send(listener);
+            }
+        }
+
+        private org.eclipse.jetty.client.api.Request upstreamRequest(HttpServletRequest request) throws IOException {
+            String query = request.getQueryString();
+            URI uri = URI.create(upstreamBaseUrl() + request.getRequestURI() + (query != null ? "?" + query : ""));
+
+            org.eclipse.jetty.client.api.Request upstreamRequest = httpClient.newRequest(uri)
+                    .method(request.getMethod());
+
+            for (String name : Collections.list(request.getHeaderNames())) {
+                if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                    for (String value : Collections.list(request.getHeaders(name))) {
+                        upstreamRequest.header(name, value);
+                    }
+                }
+            }
+
+            // body is read by the client as it is sent upstream, original length is kept unless the body is chunked
+            long contentLength = request.getContentLengthLong();
+            if (contentLength > 0 || request.getHeader(HttpHeader.TRANSFER_ENCODING.asString()) != null) {
+                upstreamRequest.content(new InputStreamContentProvider(request.getInputStream()) {
+                    @Override
+                    public long getLength() {
+                        return contentLength;
+                    }
+                });
+            }
+
+            return upstreamRequest;
+        }
+    }
+
+    /**
+     * Copies upstream response to the proxy response as it arrives, using non-blocking servlet output.
+     * Upstream content is not requested until the previous chunk is written, so neither a throttled response
+     * nor a slow client makes the proxy buffer a response. State is guarded by this, writes are resumed
+     * either by the output becoming ready or by the scheduler once a throttle pause is over.
+     */
+    private class UpstreamResponseListener extends Response.Listener.Adapter implements WriteListener {
+        private final AsyncContext async;
+        private final Request baseRequest;
+        private final List<String> descriptions;
+        private final long bytesPerSecond;
+        private final long truncateTo;
+        private final long chunkSize;
+
+        private ByteBuffer content;
+        private Callback callback;
+        private long bytesSent;
+        private long lastChunkSize;
+        private boolean flushNeeded;
+        private boolean paused;
+        private boolean truncated;
+        private boolean upstreamCompleted;
+        private boolean finished;
+
+        UpstreamResponseListener(AsyncContext async, Request baseRequest, List<String> descriptions,
+                                 long bytesPerSecond, long truncateTo) {
+            this.async = async;
+            this.baseRequest = baseRequest;
+            this.descriptions = descriptions;
+            this.bytesPerSecond = bytesPerSecond;
+            this.truncateTo = truncateTo;
+            this.chunkSize = bytesPerSecond > 0 ?
+                    Math.max(1, bytesPerSecond / THROTTLE_CHUNKS_PER_SECOND) :
+                    Long.MAX_VALUE;
+        }
+
+        @Override
+        public void onHeaders(Response upstreamResponse) {
+            HttpServletResponse response = response();
+            response.setStatus(upstreamResponse.getStatus());
+            for (HttpField field : upstreamResponse.getHeaders()) {
+                if (!HOP_BY_HOP_HEADERS.contains(field.getName())) {
+                    response.addHeader(field.getName(), field.getValue());
+                }
+            }
+
+            // content length is always the original one, so a truncated body looks like a connection lost mid-response
+            long contentLength = upstreamResponse.getHeaders().getLongField(HttpHeader.CONTENT_LENGTH.asString());
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            }
+
+            if (!descriptions.isEmpty()) {
+                response.setHeader(INJECTED_FAULT_HEADER, String.join(", ", descriptions));
+            }
+
+            try {
+                response.getOutputStream().setWriteListener(this);
+            } catch (IOException e) {
+                upstreamResponse.abort(e);
+            }
+        }
+
+        @Override
+        public void onContent(Response upstreamResponse, ByteBuffer content, Callback callback) {
+            boolean rejected;
+            synchronized (this) {
+                rejected = finished;
+                if (!rejected) {
+                    this.content = content;
+                    this.callback = callback;
+                }
+            }
+
+            if (rejected) {
+                callback.failed(new IOException("proxy response is already finished"));
+            } else {
+                write();
+            }
+        }
+
+        @Override
+        public void onComplete(Result result) {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+
+                if (!result.isFailed()) {
+                    upstreamCompleted = true;
+                } else if (!truncated) {
+                    finished = true;
+
+                    HttpServletResponse response = response();
+                    if (response.isCommitted()) {
+                        baseRequest.getHttpChannel().abort(result.getFailure());
+                    } else {
+                        response.reset();
+                        response.setStatus(502);
+                    }
+
+                    completeAsync();
+                    return;
+                }
+            }
+
+            write();
+        }
+
+        @Override
+        public void onWritePossible() {
+            write();
+        }
+
+        // client is gone, failing the content callback aborts the upstream response too
+        @Override
+        public void onError(Throwable failure) {
+            Callback failed;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+
+                finished = true;
+                failed = takeCallback();
+                completeAsync();
+            }
+
+            if (failed != null) {
+                failed.failed(failure);
+            }
+        }
+
+        // writes content chunk by chunk while the output is ready, throttled chunks are paced by the scheduler
+        private void write() {
+            Callback succeeded = null;
+            Callback failed = null;
+            IOException failure = null;
+
+            synchronized (this) {
+                try {
+                    ServletOutputStream out = response().getOutputStream();
+                    while (!finished && !paused && out.isReady()) {
+                        if (flushNeeded) {
+                            flushNeeded = false;
+                            out.flush();
+
+                            if (!truncated) {
+                                pause();
+                                break;
+                            }
+
+                            continue;
+                        }
+
+                        if (truncated) {
+                            finished = true;
+                            failure = new IOException("response body truncated by fault injection");
+                            failed = takeCallback();
+                            baseRequest.getHttpChannel().abort(failure);
+                            completeAsync();
+                            break;
+                        }
+
+                        if (content == null) {
+                            if (upstreamCompleted) {
+                                finished = true;
+                                completeAsync();
+                            }
+
+                            break;
+                        }
+
+                        if (!content.hasRemaining()) {
+                            succeeded = takeCallback();
+                            break;
+                        }
+
+                        long length = Math.min(chunkSize, content.remaining());
+                        if (truncateTo >= 0) {
+                            length = Math.min(length, truncateTo - bytesSent);
+                        }
+
+                        // what is already written is flushed before the connection is dropped
+                        if (length <= 0) {
+                            truncated = true;
+                            flushNeeded = true;
+                            continue;
+                        }
+
+                        byte[] chunk = new byte[(int) length];
+                        content.get(chunk);
+                        out.write(chunk);
+                        bytesSent += length;
+                        lastChunkSize = length;
+
+                        if (bytesPerSecond > 0) {
+                            flushNeeded = true;
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    finished = true;
+                    failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                    failed = takeCallback();
+                    baseRequest.getHttpChannel().abort(failure);
+                    completeAsync();
+                }
+            }
+
+            // callbacks are invoked outside of the lock as upstream may deliver the next chunk right away
+            if (succeeded != null) {
+                succeeded.succeeded();
+            }
+
+            if (failed != null) {
+                failed.failed(failure);
+            }
+        }
+
+        private void pause() {
+            paused = true;
+            delayScheduler.schedule(() -> {
+                synchronized (this) {
+                    paused = false;
+                }
+
+                write();
+            }, lastChunkSize * 1000L / bytesPerSecond, TimeUnit.MILLISECONDS);
+        }
+
+        private Callback takeCallback() {
+            Callback taken = callback;
+            content = null;
+            callback = null;
+
+            return taken;
+        }
+
+        private void completeAsync() {
+            try {
+                async.complete();
+            } catch (IllegalStateException ignored) {
+                // connection is already aborted
+            }
+        }
+
+        private HttpServletResponse response() {
+            return (HttpServletResponse) async.getResponse();
+        }
+    }
+
+    private static Set<String> caseInsensitiveSet(String... values) {
+        Set<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        result.addAll(Arrays.asList(values));
+
+        return result;
+    }
+}
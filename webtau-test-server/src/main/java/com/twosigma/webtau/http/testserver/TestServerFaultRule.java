@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * fault registered for a path template, triggered with a given probability
+ */
+public class TestServerFaultRule {
+    private final String pathTemplate;
+    private final TestServerFault fault;
+    private final double probability;
+    private final AtomicInteger burstRemaining;
+    private final LongAdder timesInjected;
+
+    TestServerFaultRule(String pathTemplate, TestServerFault fault, double probability) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("probability must be between 0 and 1: " + probability);
+        }
+
+        this.pathTemplate = pathTemplate;
+        this.fault = fault;
+        this.probability = probability;
+        this.burstRemaining = new AtomicInteger();
+        this.timesInjected = new LongAdder();
+    }
+
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+
+    public TestServerFault getFault() {
+        return fault;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    /**
+     * @return number of calls the fault was injected into
+     */
+    public long getTimesInjected() {
+        return timesInjected.sum();
+    }
+
+    /**
+     * decides if the fault applies to the current call. Calls that are part of an ongoing error burst
+     * always get the fault
+     * @return true if the fault should be injected
+     */
+    boolean trigger() {
+        boolean triggered = isInBurst() || roll();
+        if (triggered) {
+            timesInjected.increment();
+        }
+
+        return triggered;
+    }
+
+    private boolean isInBurst() {
+        if (fault.getType() != TestServerFault.Type.ERROR_BURST) {
+            return false;
+        }
+
+        return burstRemaining.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0;
+    }
+
+    private boolean roll() {
+        if (ThreadLocalRandom.current().nextDouble() >= probability) {
+            return false;
+        }
+
+        if (fault.getType() == TestServerFault.Type.ERROR_BURST) {
+            burstRemaining.set((int) fault.getAmount() - 1);
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Static file response. File is memory mapped once and the mapped buffer is handed to the server as is,
+ * so content is not copied into the heap on every request.
+ */
+public class TestServerFileResponse implements TestServerResponse {
+    private final String contentType;
+    private final ByteBuffer content;
+
+    public TestServerFileResponse(Path file) {
+        this(file, probeContentType(file));
+    }
+
+    public TestServerFileResponse(Path file, String contentType) {
+        this.contentType = contentType;
+        this.content = map(file);
+    }
+
+    /**
+     * @return read only view of the file content, independent position and limit per call
+     */
+    ByteBuffer responseBuffer() {
+        return content.duplicate();
+    }
+
+    @Override
+    public byte[] responseBody(HttpServletRequest request) {
+        ByteBuffer buffer = responseBuffer();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+
+        return bytes;
+    }
+
+    @Override
+    public String responseType(HttpServletRequest request) {
+        return contentType;
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't read " + file, e);
+        }
+    }
+
+    private static String probeContentType(Path file) {
+        try {
+            String type = Files.probeContentType(file);
+            return type != null ? type : "application/octet-stream";
+        } catch (IOException e) {
+            return "application/octet-stream";
+        }
+    }
+}
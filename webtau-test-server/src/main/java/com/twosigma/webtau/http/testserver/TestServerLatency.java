@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delay added before a route response is sent. Delays are applied without blocking server threads.
+ */
+public interface TestServerLatency {
+    TestServerLatency NONE = () -> 0;
+
+    /**
+     * @return delay in milliseconds for the next response
+     */
+    long nextDelayMillis();
+
+    static TestServerLatency fixed(long millis) {
+        return () -> millis;
+    }
+
+    /**
+     * @param minMillis min delay, inclusive
+     * @param maxMillis max delay, inclusive
+     * @return uniformly distributed delay
+     */
+    static TestServerLatency uniform(long minMillis, long maxMillis) {
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    /**
+     * @param meanMillis mean delay
+     * @param stdDevMillis standard deviation
+     * @return normally distributed delay, negative values are clamped to zero
+     */
+    static TestServerLatency normal(long meanMillis, long stdDevMillis) {
+        return () -> Math.max(0, Math.round(meanMillis + ThreadLocalRandom.current().nextGaussian() * stdDevMillis));
+    }
+
+    /**
+     * long tail latency typical for real services: most responses are close to the median, few are much slower
+     * @param medianMillis median delay
+     * @param sigma shape of the tail, e.g. 0.5
+     * @return log-normally distributed delay
+     */
+    static TestServerLatency logNormal(long medianMillis, double sigma) {
+        return () -> Math.round(medianMillis * Math.exp(ThreadLocalRandom.current().nextGaussian() * sigma));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * requests handled by {@link TestServer} grouped by route, so tests can assert on what the server side observed
+ */
+public class TestServerMetrics {
+    private final Map<String, TestServerRouteMetrics> byRoute;
+    private final LongAdder unmatched;
+
+    TestServerMetrics() {
+        this.byRoute = new ConcurrentHashMap<>();
+        this.unmatched = new LongAdder();
+    }
+
+    /**
+     * @param method HTTP method
+     * @param pathTemplate path template or exact url the route was registered with
+     * @return metrics of the route, empty metrics if the route received no requests
+     */
+    public TestServerRouteMetrics route(String method, String pathTemplate) {
+        return byRoute.computeIfAbsent(key(method, pathTemplate), k -> new TestServerRouteMetrics(method, pathTemplate));
+    }
+
+    public List<TestServerRouteMetrics> getRoutes() {
+        return byRoute.values().stream()
+                .filter(r -> r.getRequests() > 0)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return number of requests that didn't match any route
+     */
+    public long getUnmatched() {
+        return unmatched.sum();
+    }
+
+    public long getTotalRequests() {
+        return byRoute.values().stream().mapToLong(TestServerRouteMetrics::getRequests).sum() + getUnmatched();
+    }
+
+    public void reset() {
+        byRoute.values().forEach(TestServerRouteMetrics::reset);
+        unmatched.reset();
+    }
+
+    void recordUnmatched() {
+        unmatched.increment();
+    }
+
+    private static String key(String method, String pathTemplate) {
+        return method + " " + pathTemplate;
+    }
+}
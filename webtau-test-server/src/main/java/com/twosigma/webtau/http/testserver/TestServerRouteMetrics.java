@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver;
+
+import com.twosigma.webtau.statistics.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * server side requests count and latency of a single route, latency includes injected delay
+ */
+public class TestServerRouteMetrics {
+    private final String method;
+    private final String pathTemplate;
+    private final LongAdder requests;
+    private final LongAdder errors;
+    private final LatencyHistogram latency;
+
+    TestServerRouteMetrics(String method, String pathTemplate) {
+        this.method = method;
+        this.pathTemplate = pathTemplate;
+        this.requests = new LongAdder();
+        this.errors = new LongAdder();
+        this.latency = new LatencyHistogram();
+    }
+
+    void record(int statusCode, long latencyNanos) {
+        requests.increment();
+        if (statusCode >= 500) {
+            errors.increment();
+        }
+
+        latency.recordNanos(latencyNanos);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return number of responses with 5xx status code
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getLatencyPercentileMillis(double percentile) {
+        return latency.valueAtPercentile(percentile) / 1000;
+    }
+
+    public long getMaxLatencyMillis() {
+        return latency.getMaxMicros() / 1000;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    void reset() {
+        requests.reset();
+        errors.reset();
+        latency.reset();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("method", method);
+        result.put("pathTemplate", pathTemplate);
+        result.put("requests", getRequests());
+        result.put("errors", getErrors());
+        result.put("p50", getLatencyPercentileMillis(50));
+        result.put("p99", getLatencyPercentileMillis(99));
+        result.put("max", getMaxLatencyMillis());
+
+        return result;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver.journal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Requests received by a test server, kept in a bounded ring buffer. Once the buffer is full the oldest
+ * requests are overwritten. Requests are recorded as they arrive, so sequence reflects arrival order
+ * even when responses are delayed. Recording and querying don't take locks, so queries (e.g. inside waitTo)
+ * don't slow down request handling threads.
+ */
+public class TestServerJournal {
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final AtomicReferenceArray<TestServerJournalEntry> entries;
+    private final AtomicLong nextSequence;
+    private final AtomicLong clearedBefore;
+
+    public TestServerJournal() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TestServerJournal(int capacity) {
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.nextSequence = new AtomicLong();
+        this.clearedBefore = new AtomicLong();
+    }
+
+    /**
+     * @param entry received request, its sequence is assigned by the journal
+     * @return recorded entry with the assigned sequence
+     */
+    public TestServerJournalEntry record(TestServerJournalEntry entry) {
+        long sequence = nextSequence.getAndIncrement();
+        TestServerJournalEntry recorded = new TestServerJournalEntry(sequence, entry);
+        store(recorded);
+
+        return recorded;
+    }
+
+    /**
+     * @return live query over all the recorded requests
+     */
+    public TestServerJournalQuery calls() {
+        return new TestServerJournalQuery(this, "all", entry -> true);
+    }
+
+    /**
+     * @param method HTTP method
+     * @param path exact path or path template, e.g. <code>/orders/{id}</code>
+     * @return live query over requests with given method and path
+     */
+    public TestServerJournalQuery calls(String method, String path) {
+        PathTemplate template = new PathTemplate(path);
+        return new TestServerJournalQuery(this, method + " " + path,
+                entry -> entry.getMethod().equals(method) && template.matches(entry.getPath()));
+    }
+
+    public TestServerJournalQuery calls(String description, Predicate<TestServerJournalEntry> predicate) {
+        return new TestServerJournalQuery(this, description, predicate);
+    }
+
+    /**
+     * @return number of requests that were overwritten because the journal is full
+     */
+    public long getNumberOfDropped() {
+        return Math.max(0, nextSequence.get() - entries.length() - clearedBefore.get());
+    }
+
+    public void clear() {
+        clearedBefore.set(nextSequence.get());
+    }
+
+    /**
+     * @param predicate entries filter
+     * @return matching entries in the order they were received
+     */
+    List<TestServerJournalEntry> snapshot(Predicate<TestServerJournalEntry> predicate) {
+        long end = nextSequence.get();
+        long start = Math.max(clearedBefore.get(), end - entries.length());
+
+        List<TestServerJournalEntry> result = new ArrayList<>();
+        for (long sequence = Math.max(0, start); sequence < end; sequence++) {
+            TestServerJournalEntry entry = entries.get(slot(sequence));
+
+            // slot is either not written yet or already overwritten by a newer request
+            if (entry != null && entry.getSequence() == sequence && predicate.test(entry)) {
+                result.add(entry);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * a slot is only replaced when it holds an older entry: a thread that was descheduled between taking
+     * a sequence and storing its entry must not overwrite a newer entry that wrapped around into the same slot
+     * @param recorded entry with an assigned sequence
+     */
+    void store(TestServerJournalEntry recorded) {
+        int slot = slot(recorded.getSequence());
+        while (true) {
+            TestServerJournalEntry existing = entries.get(slot);
+            if (existing != null && existing.getSequence() > recorded.getSequence()) {
+                return;
+            }
+
+            if (entries.compareAndSet(slot, existing, recorded)) {
+                return;
+            }
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % entries.length());
+    }
+
+    private static class PathTemplate {
+        private final String[] segments;
+
+        PathTemplate(String template) {
+            this.segments = template.split("/", -1);
+        }
+
+        boolean matches(String path) {
+            String[] pathSegments = path.split("/", -1);
+            if (pathSegments.length != segments.length) {
+                return false;
+            }
+
+            for (int idx = 0; idx < segments.length; idx++) {
+                String segment = segments[idx];
+                boolean isParam = segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"));
+                if (!isParam && !segment.equals(pathSegments[idx])) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
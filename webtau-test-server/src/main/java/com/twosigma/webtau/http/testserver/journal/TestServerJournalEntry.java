@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver.journal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * request received by a test server. Entry is recorded when a request arrives,
+ * body digest, body size and status code are filled in once the response is sent.
+ */
+public class TestServerJournalEntry {
+    private final long sequence;
+    private final long timestamp;
+    private final String method;
+    private final String path;
+    private final String query;
+    private final Map<String, String> headers;
+    private final String threadName;
+
+    private volatile String bodyDigest;
+    private volatile long bodySize;
+    private volatile int statusCode;
+    private volatile boolean completed;
+
+    TestServerJournalEntry(long sequence, TestServerJournalEntry entry) {
+        this(sequence, entry.timestamp, entry.method, entry.path, entry.query, entry.headers,
+                entry.bodyDigest, entry.bodySize, entry.threadName);
+    }
+
+    public TestServerJournalEntry(long sequence, long timestamp, String method, String path, String query,
+                                  Map<String, String> headers, String bodyDigest, long bodySize, String threadName) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.headers = headers;
+        this.bodyDigest = bodyDigest;
+        this.bodySize = bodySize;
+        this.threadName = threadName;
+        this.statusCode = -1;
+    }
+
+    /**
+     * @param bodyDigest SHA-256 of the request body in hex
+     * @param bodySize number of body bytes received
+     * @param statusCode status code of the sent response
+     */
+    void complete(String bodyDigest, long bodySize, int statusCode) {
+        this.bodyDigest = bodyDigest;
+        this.bodySize = bodySize;
+        this.statusCode = statusCode;
+        this.completed = true;
+    }
+
+    /**
+     * @return order in which requests were received, starts with 0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return SHA-256 of the request body in hex, null for multipart requests that are parsed by the server itself
+     * and for requests that are still in progress
+     */
+    public String getBodyDigest() {
+        return bodyDigest;
+    }
+
+    public long getBodySize() {
+        return bodySize;
+    }
+
+    /**
+     * @return status code of the sent response, -1 while request is in progress
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return true once response is sent, or failed to be sent
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return name of the server thread that handled the request
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sequence", sequence);
+        result.put("timestamp", timestamp);
+        result.put("method", method);
+        result.put("path", path);
+        result.put("query", query);
+        result.put("headers", headers);
+        result.put("bodyDigest", bodyDigest);
+        result.put("bodySize", bodySize);
+        result.put("threadName", threadName);
+        result.put("statusCode", statusCode);
+        result.put("completed", completed);
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + (query != null ? "?" + query : "") + " #" + sequence;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver.journal;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Requests that match a filter. The query is live: every call looks at the journal at that moment,
+ * so <code>calls("POST", "/orders").size().waitTo(equal(2))</code> picks up requests as they arrive.
+ */
+public class TestServerJournalQuery {
+    private final TestServerJournal journal;
+    private final String description;
+    private final Predicate<TestServerJournalEntry> predicate;
+
+    TestServerJournalQuery(TestServerJournal journal, String description, Predicate<TestServerJournalEntry> predicate) {
+        this.journal = journal;
+        this.description = description;
+        this.predicate = predicate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return live number of matching requests to be used with should and waitTo
+     */
+    public TestServerJournalValue<Integer> size() {
+        return new TestServerJournalValue<>(this, "size", () -> list().size());
+    }
+
+    /**
+     * @return snapshot of matching requests
+     */
+    public List<TestServerJournalEntry> list() {
+        return journal.snapshot(predicate);
+    }
+
+    public TestServerJournalEntry first() {
+        List<TestServerJournalEntry> entries = list();
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    public TestServerJournalEntry last() {
+        List<TestServerJournalEntry> entries = list();
+        return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "calls " + description;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver.journal;
+
+import com.twosigma.webtau.utils.HashUtils;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wraps a request to compute a digest of its body while a response reads it, so the body is read only once
+ * and is never kept in memory. Multipart requests are parsed by the server from the original stream,
+ * and have no digest. Request is recorded in a journal as soon as it is wrapped, and the entry is completed
+ * with {@link #complete(int)} once the response is sent.
+ */
+public class TestServerJournalRequest extends HttpServletRequestWrapper {
+    private final boolean isMultipart;
+    private final MessageDigest digest;
+    private final TestServerJournalEntry entry;
+
+    private DigestingInputStream inputStream;
+    private BufferedReader reader;
+    private long bodySize;
+
+    /**
+     * @param request received request
+     * @param journal journal to record the request in right away
+     */
+    public TestServerJournalRequest(HttpServletRequest request, TestServerJournal journal) {
+        super(request);
+
+        String contentType = request.getContentType();
+        this.isMultipart = contentType != null && contentType.toLowerCase().startsWith("multipart/");
+        this.digest = HashUtils.sha256Digest();
+        this.entry = journal.record(new TestServerJournalEntry(-1, System.currentTimeMillis(),
+                request.getMethod(), request.getRequestURI(), request.getQueryString(), headers(request),
+                null, 0, Thread.currentThread().getName()));
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (isMultipart) {
+            return super.getInputStream();
+        }
+
+        if (inputStream == null) {
+            inputStream = new DigestingInputStream(super.getInputStream());
+        }
+
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (isMultipart) {
+            return super.getReader();
+        }
+
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        return reader;
+    }
+
+    /**
+     * reads what is left of the body so the digest covers all of it, even if a response didn't read the body,
+     * and fills in the response details of the journal entry
+     * @param statusCode status code of the sent response
+     */
+    public void complete(int statusCode) {
+        String bodyDigest = null;
+        if (!isMultipart) {
+            drain();
+            bodyDigest = HashUtils.toHex(digest.digest());
+        }
+
+        entry.complete(bodyDigest, bodySize, statusCode);
+    }
+
+    /**
+     * @return journal entry recorded for this request
+     */
+    public TestServerJournalEntry getEntry() {
+        return entry;
+    }
+
+    private void drain() {
+        try {
+            ServletInputStream in = getInputStream();
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // digest is updated by the stream itself
+            }
+        } catch (IOException | IllegalStateException ignored) {
+            // connection is gone, digest covers what was received
+        }
+    }
+
+    private static Map<String, String> headers(HttpServletRequest request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            headers.put(name, String.join(", ", Collections.list(request.getHeaders(name))));
+        }
+
+        return headers;
+    }
+
+    private class DigestingInputStream extends ServletInputStream {
+        private final ServletInputStream original;
+
+        DigestingInputStream(ServletInputStream original) {
+            this.original = original;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = original.read();
+            if (b != -1) {
+                digest.update((byte) b);
+                bodySize++;
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = original.read(b, off, len);
+            if (read > 0) {
+                digest.update(b, off, read);
+                bodySize += read;
+            }
+
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return original.available();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return original.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return original.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            original.setReadListener(readListener);
+        }
+    }
+}
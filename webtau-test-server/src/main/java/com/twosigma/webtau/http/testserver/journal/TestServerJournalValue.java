@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver.journal;
+
+import com.twosigma.webtau.expectation.ActualValueExpectations;
+import com.twosigma.webtau.expectation.ValueMatcher;
+import com.twosigma.webtau.expectation.timer.ExpectationTimer;
+import com.twosigma.webtau.reporter.StepReportOptions;
+import com.twosigma.webtau.reporter.TokenizedMessage;
+import com.twosigma.webtau.reporter.ValueMatcherExpectationSteps;
+
+import java.util.function.Supplier;
+
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.OF;
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.classifier;
+import static com.twosigma.webtau.reporter.IntegrationTestsMessageBuilder.urlValue;
+import static com.twosigma.webtau.reporter.TokenizedMessage.tokenizedMessage;
+
+/**
+ * value derived from the journal that is re-evaluated on every comparison
+ * @param <E> type of the value
+ */
+public class TestServerJournalValue<E> implements ActualValueExpectations {
+    private final TestServerJournalQuery query;
+    private final String name;
+    private final Supplier<E> valueFetcher;
+    private final TokenizedMessage description;
+
+    TestServerJournalValue(TestServerJournalQuery query, String name, Supplier<E> valueFetcher) {
+        this.query = query;
+        this.name = name;
+        this.valueFetcher = valueFetcher;
+        this.description = tokenizedMessage(classifier(name)).add(OF)
+                .add(classifier("calls")).add(urlValue(query.getDescription()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public E get() {
+        return valueFetcher.get();
+    }
+
+    public TokenizedMessage describe() {
+        return description;
+    }
+
+    @Override
+    public void should(ValueMatcher valueMatcher) {
+        ValueMatcherExpectationSteps.shouldStep(query, this, StepReportOptions.REPORT_ALL,
+                describe(), valueMatcher);
+    }
+
+    @Override
+    public void shouldNot(ValueMatcher valueMatcher) {
+        ValueMatcherExpectationSteps.shouldNotStep(query, this, StepReportOptions.REPORT_ALL,
+                describe(), valueMatcher);
+    }
+
+    @Override
+    public void waitTo(ValueMatcher valueMatcher, ExpectationTimer expectationTimer, long tickMillis, long timeOutMillis) {
+        ValueMatcherExpectationSteps.waitStep(query, this, StepReportOptions.REPORT_ALL,
+                describe(), valueMatcher,
+                expectationTimer, tickMillis, timeOutMillis);
+    }
+
+    @Override
+    public void waitToNot(ValueMatcher valueMatcher, ExpectationTimer expectationTimer, long tickMillis, long timeOutMillis) {
+        ValueMatcherExpectationSteps.waitNotStep(query, this, StepReportOptions.REPORT_ALL,
+                describe(), valueMatcher,
+                expectationTimer, tickMillis, timeOutMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(get());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver
+
+import org.junit.Test
+
+class RouteTrieTest {
+    @Test
+    void "should match literal paths"() {
+        def trie = new RouteTrie<String>()
+        trie.add('/end-point', 'exact')
+        trie.add('/end-point/nested', 'nested')
+
+        assert trie.find('/end-point').value == 'exact'
+        assert trie.find('/end-point/nested').value == 'nested'
+        assert trie.find('/end-point/other') == null
+        assert trie.find('/') == null
+    }
+
+    @Test
+    void "should extract path parameters"() {
+        def trie = new RouteTrie<String>()
+        trie.add('/customers/{id}/orders/{orderId}', 'order')
+
+        def match = trie.find('/customers/42/orders/7')
+        assert match.value == 'order'
+        assert match.template == '/customers/{id}/orders/{orderId}'
+        assert match.pathParams == [id: '42', orderId: '7']
+    }
+
+    @Test
+    void "should decode path segments before matching"() {
+        def trie = new RouteTrie<String>()
+        trie.add('/files/{name}', 'file')
+        trie.add('/caf\u00e9/menu', 'menu')
+
+        assert trie.find('/files/my%20report%2Fv1').pathParams == [name: 'my report/v1']
+        assert trie.find('/caf%C3%A9/menu').value == 'menu'
+    }
+
+    @Test
+    void "should prefer literals over parameters and parameters over wildcards"() {
+        def trie = new RouteTrie<String>()
+        trie.add('/customers/**', 'rest')
+        trie.add('/customers/*/orders', 'wildcard')
+        trie.add('/customers/{id}', 'param')
+        trie.add('/customers/me', 'literal')
+
+        assert trie.find('/customers/me').value == 'literal'
+        assert trie.find('/customers/42').value == 'param'
+        assert trie.find('/customers/42/orders').value == 'wildcard'
+        assert trie.find('/customers/42/orders/7/items').value == 'rest'
+        assert trie.find('/customers').value == 'rest'
+    }
+
+    @Test
+    void "should backtrack when parameter branch does not match"() {
+        def trie = new RouteTrie<String>()
+        trie.add('/customers/{id}/profile', 'profile')
+        trie.add('/customers/*/orders', 'orders')
+
+        def match = trie.find('/customers/42/orders')
+        assert match.value == 'orders'
+        assert match.pathParams == [:]
+    }
+
+    @Test
+    void "should reject conflicting parameter names"() {
+        def trie = new RouteTrie<String>()
+        trie.add('/customers/{id}', 'a')
+
+        try {
+            trie.add('/customers/{customerId}/orders', 'b')
+            assert false
+        } catch (IllegalArgumentException e) {
+            assert e.message.contains('conflicting path parameter names')
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import static java.nio.charset.StandardCharsets.UTF_8
+
+class TestServerFaultProxyTest {
+    private static final String BODY = 'abcdefghij' * 200
+
+    TestServer upstream
+    TestServerFaultProxy proxy
+
+    @Before
+    void start() {
+        upstream = new TestServer()
+        upstream.registerGet('/orders', new TestServerTextResponse(BODY))
+        upstream.startRandomPort()
+
+        proxy = new TestServerFaultProxy(upstream)
+        proxy.startRandomPort()
+    }
+
+    @After
+    void stop() {
+        proxy.stop()
+        upstream.stop()
+    }
+
+    @Test
+    void "forwards calls without faults as is"() {
+        def connection = open('/orders')
+
+        assert connection.responseCode == 200
+        assert connection.getHeaderField(TestServerFaultProxy.INJECTED_FAULT_HEADER) == null
+        assert connection.inputStream.getText(UTF_8.name()) == BODY
+    }
+
+    @Test
+    void "forwards request body"() {
+        upstream.registerPost('/orders', new TestServerResponseEcho(201))
+
+        def connection = open('/orders')
+        connection.requestMethod = 'POST'
+        connection.doOutput = true
+        connection.setRequestProperty('Content-Type', 'application/json')
+        connection.outputStream.withStream { it.write(BODY.getBytes(UTF_8)) }
+
+        assert connection.responseCode == 201
+        assert connection.inputStream.getText(UTF_8.name()) == BODY
+        assert upstream.journal.calls('POST', '/orders').last().headers['Content-Length'] == BODY.length().toString()
+    }
+
+    @Test
+    void "delays calls"() {
+        proxy.inject('/orders', TestServerFault.delay(TestServerLatency.fixed(300)))
+
+        long start = System.nanoTime()
+        def connection = open('/orders')
+        def body = connection.inputStream.getText(UTF_8.name())
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000
+
+        assert body == BODY
+        assert connection.getHeaderField(TestServerFaultProxy.INJECTED_FAULT_HEADER) == 'delay 300ms'
+        assert elapsedMillis >= 300
+    }
+
+    @Test
+    void "throttles response body"() {
+        // 400 bytes every 100ms
+        proxy.inject('/orders', TestServerFault.throttle(4000))
+
+        long start = System.nanoTime()
+        def connection = open('/orders')
+        def body = connection.inputStream.getText(UTF_8.name())
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000
+
+        assert body == BODY
+        assert connection.getHeaderField(TestServerFaultProxy.INJECTED_FAULT_HEADER) == 'throttle 4000B/s'
+        assert elapsedMillis >= 400
+    }
+
+    @Test
+    void "drops connection"() {
+        def rule = proxy.inject('/orders', TestServerFault.dropConnection())
+
+        try {
+            open('/orders').responseCode
+            assert false
+        } catch (IOException ignored) {
+        }
+
+        assert rule.timesInjected > 0
+        assert upstream.journal.calls().list().isEmpty()
+    }
+
+    @Test
+    void "truncates response body"() {
+        proxy.inject('/orders', TestServerFault.truncateBody(10))
+
+        def connection = open('/orders')
+        assert connection.responseCode == 200
+        assert connection.getHeaderField(TestServerFaultProxy.INJECTED_FAULT_HEADER) == 'truncate body to 10B'
+        assert readAvailable(connection) == BODY.substring(0, 10)
+    }
+
+    @Test
+    void "responds with error burst without reaching upstream"() {
+        def rule = proxy.inject('/orders', TestServerFault.errorBurst(503, 2))
+
+        2.times {
+            def connection = open('/orders')
+            assert connection.responseCode == 503
+            assert connection.getHeaderField(TestServerFaultProxy.INJECTED_FAULT_HEADER) == 'error 503'
+        }
+
+        assert rule.timesInjected == 2
+        assert upstream.journal.calls().list().isEmpty()
+    }
+
+    @Test
+    void "forwards calls as is after faults are cleared"() {
+        proxy.inject('/orders', TestServerFault.dropConnection())
+        proxy.clearFaults()
+
+        def connection = open('/orders')
+        assert connection.responseCode == 200
+        assert connection.inputStream.getText(UTF_8.name()) == BODY
+    }
+
+    @Test
+    void "responds with bad gateway when upstream is unreachable"() {
+        def unreachableProxy = new TestServerFaultProxy('http://localhost:1')
+        unreachableProxy.startRandomPort()
+
+        try {
+            def url = new URL(unreachableProxy.uri.resolve('/orders').toString())
+            assert ((HttpURLConnection) url.openConnection()).responseCode == 502
+        } finally {
+            unreachableProxy.stop()
+        }
+    }
+
+    private HttpURLConnection open(String path) {
+        return (HttpURLConnection) new URL(proxy.uri.resolve(path).toString()).openConnection()
+    }
+
+    // truncated body ends either with an early end of stream or with an error, depending on the transfer encoding
+    private static String readAvailable(HttpURLConnection connection) {
+        def received = new ByteArrayOutputStream()
+        def buffer = new byte[1024]
+        try {
+            def stream = connection.inputStream
+            int read
+            while ((read = stream.read(buffer)) != -1) {
+                received.write(buffer, 0, read)
+            }
+        } catch (IOException ignored) {
+        }
+
+        return new String(received.toByteArray(), UTF_8)
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver
+
+import org.junit.Test
+
+class TestServerFaultRuleTest {
+    @Test
+    void "should always or never trigger on edge probabilities"() {
+        def always = new TestServerFaultRule('/orders', TestServerFault.dropConnection(), 1.0)
+        def never = new TestServerFaultRule('/orders', TestServerFault.dropConnection(), 0.0)
+
+        100.times {
+            assert always.trigger()
+            assert !never.trigger()
+        }
+
+        assert always.timesInjected == 100
+        assert never.timesInjected == 0
+    }
+
+    @Test
+    void "error burst should cover following calls once triggered"() {
+        def rule = new TestServerFaultRule('/orders', TestServerFault.errorBurst(503, 3), 1.0)
+        assert rule.trigger()
+        assert rule.trigger()
+        assert rule.trigger()
+        assert rule.timesInjected == 3
+    }
+
+    @Test
+    void "error burst should end after its length"() {
+        def rule = new TestServerFaultRule('/orders', TestServerFault.errorBurst(503, 2), 0.0)
+        assert !rule.trigger()
+
+        rule.burstRemaining.set(2)
+        assert rule.trigger()
+        assert rule.trigger()
+        assert !rule.trigger()
+    }
+
+    @Test
+    void "should validate probability"() {
+        try {
+            new TestServerFaultRule('/orders', TestServerFault.delay(TestServerLatency.fixed(10)), 1.5)
+            assert false
+        } catch (IllegalArgumentException e) {
+            assert e.message == 'probability must be between 0 and 1: 1.5'
+        }
+    }
+
+    @Test
+    void "should describe faults"() {
+        assert TestServerFault.throttle(1024).toString() == 'throttle 1024B/s'
+        assert TestServerFault.truncateBody(100).toString() == 'truncate body to 100B'
+        assert TestServerFault.errorBurst(503, 5).toString() == 'error 503'
+        assert TestServerFault.dropConnection().toString() == 'drop connection'
+    }
+}
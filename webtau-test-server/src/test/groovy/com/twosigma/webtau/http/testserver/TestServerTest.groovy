@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.http.testserver
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import javax.servlet.http.HttpServletRequest
+import java.nio.file.Files
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+import static java.nio.charset.StandardCharsets.UTF_8
+
+class TestServerTest {
+    TestServer testServer
+
+    @Before
+    void startServer() {
+        testServer = new TestServer()
+    }
+
+    @After
+    void stopServer() {
+        testServer.stop()
+    }
+
+    @Test
+    void "routes without a query only match requests without a query"() {
+        testServer.registerGet('/customers/{id}', new TestServerTextResponse('customer'))
+        testServer.registerGet('/customers/1?details=true', new TestServerTextResponse('details'))
+        testServer.startRandomPort()
+
+        assert get('/customers/1') == [statusCode: 200, body: 'customer']
+        assert get('/customers/1?details=true') == [statusCode: 200, body: 'details']
+        assert get('/customers/2?details=true') == [statusCode: 404, body: '']
+        assert get('/customers/1?other=true') == [statusCode: 404, body: '']
+    }
+
+    @Test
+    void "delays responses of routes with latency"() {
+        testServer.register('GET', '/slow', new TestServerTextResponse('slow'), TestServerLatency.fixed(300))
+        testServer.startRandomPort()
+
+        def executor = Executors.newFixedThreadPool(10)
+        try {
+            long start = System.nanoTime()
+            def futures = (1..10).collect { executor.submit({ get('/slow') } as Callable) }
+            def responses = futures.collect { it.get() }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000
+
+            assert responses.every { it == [statusCode: 200, body: 'slow'] }
+            assert elapsedMillis >= 300
+            assert elapsedMillis < 3000
+        } finally {
+            executor.shutdown()
+        }
+
+        def metrics = testServer.metrics.route('GET', '/slow')
+        assert metrics.requests == 10
+        assert metrics.getLatencyPercentileMillis(50) >= 300
+    }
+
+    @Test
+    void "collects metrics per route"() {
+        testServer.registerGet('/orders/{id}', new TestServerTextResponse('order'))
+        testServer.registerPost('/orders', new TestServerResponseEcho(500))
+        testServer.startRandomPort()
+
+        get('/orders/1')
+        get('/orders/2')
+        post('/orders', 'order')
+        get('/unknown')
+
+        def metrics = testServer.metrics
+        assert metrics.route('GET', '/orders/{id}').requests == 2
+        assert metrics.route('GET', '/orders/{id}').errors == 0
+        assert metrics.route('POST', '/orders').requests == 1
+        assert metrics.route('POST', '/orders').errors == 1
+        assert metrics.unmatched == 1
+        assert metrics.totalRequests == 4
+        assert metrics.routes*.pathTemplate.sort() == ['/orders', '/orders/{id}']
+
+        metrics.reset()
+        assert metrics.totalRequests == 0
+        assert metrics.routes == []
+    }
+
+    @Test
+    void "journals requests in the order they arrive"() {
+        testServer.register('GET', '/slow', new TestServerTextResponse('slow'), TestServerLatency.fixed(500))
+        testServer.registerGet('/fast', new TestServerTextResponse('fast'))
+        testServer.startRandomPort()
+
+        def journal = testServer.journal
+        def slow = Thread.start { get('/slow') }
+        while (journal.calls().list().isEmpty()) {
+            Thread.sleep(10)
+        }
+
+        def inProgress = journal.calls().first()
+        assert !inProgress.completed
+        assert inProgress.statusCode == -1
+
+        get('/fast')
+        slow.join()
+
+        def calls = journal.calls().list()
+        assert calls*.path == ['/slow', '/fast']
+        assert calls*.sequence == [0L, 1L]
+        assert calls.every { it.completed && it.statusCode == 200 }
+    }
+
+    @Test
+    void "journals and measures requests that failed to respond"() {
+        testServer.registerGet('/broken', new TestServerResponse() {
+            @Override
+            byte[] responseBody(HttpServletRequest request) {
+                throw new IllegalStateException('broken response')
+            }
+
+            @Override
+            String responseType(HttpServletRequest request) {
+                return 'text/plain'
+            }
+        })
+        testServer.startRandomPort()
+
+        assert get('/broken').statusCode == 500
+
+        def entry = testServer.journal.calls('GET', '/broken').first()
+        assert entry.completed
+        assert entry.statusCode == 500
+        assert entry.bodySize == 0
+
+        def metrics = testServer.metrics.route('GET', '/broken')
+        assert metrics.requests == 1
+        assert metrics.errors == 1
+    }
+
+    @Test
+    void "serves static file content"() {
+        def file = Files.createTempFile('webtau-test-server', '.json')
+        file.toFile().deleteOnExit()
+        file.text = '{"id": 1}'
+
+        testServer.registerGet('/static', new TestServerFileResponse(file, 'application/json'))
+        testServer.startRandomPort()
+
+        2.times {
+            def connection = open('/static')
+            assert connection.responseCode == 200
+            assert connection.contentType.startsWith('application/json')
+            assert connection.inputStream.getText(UTF_8.name()) == '{"id": 1}'
+        }
+    }
+
+    private Map get(String path) {
+        return response(open(path))
+    }
+
+    private Map post(String path, String body) {
+        def connection = open(path)
+        connection.requestMethod = 'POST'
+        connection.doOutput = true
+        connection.outputStream.withStream { it.write(body.getBytes(UTF_8)) }
+
+        return response(connection)
+    }
+
+    private HttpURLConnection open(String path) {
+        return (HttpURLConnection) new URL(testServer.uri.resolve(path).toString()).openConnection()
+    }
+
+    private static Map response(HttpURLConnection connection) {
+        int statusCode = connection.responseCode
+        def stream = statusCode < 400 ? connection.inputStream : connection.errorStream
+        def body = stream != null ? stream.getText(UTF_8.name()) : ''
+
+        return [statusCode: statusCode, body: body]
+    }
+}
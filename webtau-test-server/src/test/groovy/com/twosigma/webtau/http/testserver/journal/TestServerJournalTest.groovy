@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.twosigma.webtau.http.testserver.journal
+
+import org.junit.Test
+
+import static com.twosigma.webtau.Ddjt.equal
+import static com.twosigma.webtau.Ddjt.greaterThan
+
+class TestServerJournalTest {
+    @Test
+    void "should query calls by method and path template"() {
+        def journal = new TestServerJournal()
+        journal.record(entry('POST', '/orders'))
+        journal.record(entry('GET', '/orders/1'))
+        journal.record(entry('POST', '/orders'))
+        journal.record(entry('GET', '/orders/2'))
+
+        assert journal.calls('POST', '/orders').list()*.sequence == [0L, 2L]
+        assert journal.calls('GET', '/orders/{id}').list()*.path == ['/orders/1', '/orders/2']
+        assert journal.calls('GET', '/orders/*').last().path == '/orders/2'
+        assert journal.calls('DELETE', '/orders/{id}').first() == null
+        assert journal.calls().list().size() == 4
+    }
+
+    @Test
+    void "should overwrite oldest calls when full"() {
+        def journal = new TestServerJournal(3)
+        5.times { journal.record(entry('GET', "/item/$it")) }
+
+        assert journal.calls().list()*.path == ['/item/2', '/item/3', '/item/4']
+        assert journal.numberOfDropped == 2
+    }
+
+    @Test
+    void "should not overwrite newer call with a late stored older call"() {
+        def journal = new TestServerJournal(3)
+        5.times { journal.record(entry('GET', "/item/$it")) }
+
+        // sequence 1 shares a slot with sequence 4, as if its thread was descheduled before storing it
+        journal.store(new TestServerJournalEntry(1, entry('GET', '/late')))
+
+        assert journal.calls().list()*.path == ['/item/2', '/item/3', '/item/4']
+        assert journal.calls().list()*.sequence == [2L, 3L, 4L]
+    }
+
+    @Test
+    void "should only return calls after clear"() {
+        def journal = new TestServerJournal(3)
+        2.times { journal.record(entry('GET', "/before/$it")) }
+        journal.clear()
+        journal.record(entry('GET', '/after'))
+
+        assert journal.calls().list()*.path == ['/after']
+        assert journal.numberOfDropped == 0
+    }
+
+    @Test
+    void "size should reflect calls recorded after query is created"() {
+        def journal = new TestServerJournal()
+        def size = journal.calls('POST', '/orders').size()
+
+        size.should(equal(0))
+
+        journal.record(entry('POST', '/orders'))
+        journal.record(entry('POST', '/orders'))
+
+        size.should(equal(2))
+        size.should(greaterThan(1))
+    }
+
+    @Test
+    void "should return recorded entry with assigned sequence"() {
+        def journal = new TestServerJournal()
+        journal.record(entry('GET', '/first'))
+        def recorded = journal.record(entry('GET', '/second'))
+
+        assert recorded.sequence == 1L
+        assert !recorded.completed
+        assert journal.calls().last().is(recorded)
+    }
+
+    @Test
+    void "should record calls from multiple threads"() {
+        def journal = new TestServerJournal(100_000)
+        def threads = (1..8).collect { threadIdx ->
+            Thread.start {
+                1000.times { journal.record(entry('GET', "/thread/$threadIdx")) }
+            }
+        }
+        threads*.join()
+
+        def calls = journal.calls().list()
+        assert calls.size() == 8000
+        assert calls*.sequence == (0L..<8000L).toList()
+        assert journal.calls('GET', '/thread/{idx}').size().get() == 8000
+    }
+
+    private static TestServerJournalEntry entry(String method, String path) {
+        return new TestServerJournalEntry(-1, System.currentTimeMillis(), method, path, null,
+                [:], null, 0, Thread.currentThread().name)
+    }
+}
@@ -17,8 +17,13 @@
 package com.twosigma.webtau.utils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -54,6 +59,40 @@ public class FileUtils {
         }
     }
 
+    /**
+     * writes buffer content through a file channel, buffer position is not changed
+     * @param path path to write to
+     * @param content content to write
+     */
+    public static void writeBinaryContent(Path path, ByteBuffer content) {
+        createDirs(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer toWrite = content.duplicate();
+            while (toWrite.hasRemaining()) {
+                channel.write(toWrite);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * copies stream content to a file and closes the stream
+     * @param path path to write to
+     * @param content content to write
+     */
+    public static void writeBinaryContent(Path path, InputStream content) {
+        createDirs(path);
+
+        try (InputStream in = content) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static String fileTextContent(Path path) {
         if (!Files.exists(path)) {
             throw new RuntimeException(path.toAbsolutePath() + " doesn't exist");
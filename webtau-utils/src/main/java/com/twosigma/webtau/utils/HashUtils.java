@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class HashUtils {
+    private HashUtils() {
+    }
+
+    /**
+     * @return new SHA-256 digest, to hash content that is streamed
+     */
+    public static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static byte[] sha256(byte[] content) {
+        return sha256Digest().digest(content);
+    }
+
+    /**
+     * @param content text to hash, encoded as UTF-8
+     * @return SHA-256 of the content in lowercase hex
+     */
+    public static String sha256Hex(String content) {
+        return toHex(sha256(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @param bytes bytes to convert
+     * @return lowercase hex, two characters per byte
+     */
+    public static String toHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16));
+            result.append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return result.toString();
+    }
+}
@@ -16,16 +16,22 @@
 
 package com.twosigma.webtau.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
 public class JsonUtils {
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectReader mapReader = mapper.readerFor(Map.class);
+    private static final ObjectReader listReader = mapper.readerFor(List.class);
+    private static final ObjectReader objectReader = mapper.readerFor(Object.class);
 
     private JsonUtils() {
     }
@@ -60,9 +66,8 @@ public class JsonUtils {
             return null;
         }
 
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.readValue(json, Map.class);
+            return mapReader.readValue(json);
         } catch (IOException e) {
             throw new JsonParseException(e.getMessage());
         }
@@ -78,9 +83,8 @@ public class JsonUtils {
             return null;
         }
 
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.readValue(json, List.class);
+            return listReader.readValue(json);
         } catch (IOException e) {
             throw new JsonParseException(e.getMessage());
         }
@@ -95,9 +99,20 @@ public class JsonUtils {
             return null;
         }
 
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.readValue(json, Object.class);
+            return objectReader.readValue(json);
+        } catch (IOException e) {
+            throw new JsonParseException(e.getMessage());
+        }
+    }
+
+    /**
+     * @param json stream to read json from
+     * @return streaming parser that shares configuration with the rest of json utils
+     */
+    public static JsonParser createParser(InputStream json) {
+        try {
+            return mapper.getFactory().createParser(json);
         } catch (IOException e) {
             throw new JsonParseException(e.getMessage());
         }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019 TWO SIGMA OPEN SOURCE, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twosigma.webtau.utils
+
+import org.junit.Test
+
+class HashUtilsTest {
+    @Test
+    void "should hash text as UTF-8 and convert hash to lowercase hex"() {
+        assert HashUtils.sha256Hex('abc') == 'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad'
+    }
+
+    @Test
+    void "should convert every byte to two hex characters"() {
+        assert HashUtils.toHex([0, 1, 15, 16, -1] as byte[]) == '00010f10ff'
+    }
+}
@@ -25,13 +25,20 @@ import com.twosigma.webtau.browser.page.PageElement;
 import com.twosigma.webtau.cache.Cache;
 import com.twosigma.webtau.cfg.WebTauConfig;
 import com.twosigma.webtau.cli.Cli;
+import com.twosigma.webtau.concurrency.ParallelBlocks;
 import com.twosigma.webtau.data.Data;
 import com.twosigma.webtau.expectation.ValueMatcher;
 import com.twosigma.webtau.http.Http;
 import com.twosigma.webtau.http.datanode.DataNode;
+import com.twosigma.webtau.http.performance.HttpPerformance;
+import com.twosigma.webtau.load.Load;
 import com.twosigma.webtau.pdf.Pdf;
 import com.twosigma.webtau.schema.expectation.SchemaMatcher;
 
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
 /*
 Convenient class for static * import
  */
@@ -40,13 +47,29 @@ public class WebTauDsl extends Ddjt {
     public static final Cache cache = Cache.cache;
 
     public static final Http http = Http.http;
+    public static final HttpPerformance performance = HttpPerformance.performance;
     public static final Browser browser = Browser.browser;
     public static final Cli cli = Cli.cli;
+    public static final Load load = Load.load;
 
     public static WebTauConfig getCfg() {
         return WebTauConfig.getCfg();
     }
 
+    /**
+     * executes blocks simultaneously and waits for all of them to finish.
+     * Steps and validations inside blocks are reported under the current step.
+     * @param blocks blocks of code to execute
+     */
+    public static void parallel(Runnable... blocks) {
+        ParallelBlocks.execute(Arrays.stream(blocks)
+                .map(block -> (Supplier<Object>) () -> {
+                    block.run();
+                    return null;
+                })
+                .collect(Collectors.toList()), getCfg().getParallelMaxThreads());
+    }
+
     public static Pdf pdf(DataNode node) {
         return Pdf.pdf(node);
     }